@@ -2,6 +2,9 @@ package highlowcardgame.client;
 
 import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.Moshi;
+import highlowcardgame.communication.FrameCompressor;
+import highlowcardgame.communication.GameStateDeltaDecoder;
+import highlowcardgame.communication.RoundFrames;
 import highlowcardgame.communication.messages.*;
 import highlowcardgame.game.HighLowCardGame;
 import org.json.JSONObject;
@@ -14,7 +17,19 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 
 import static java.lang.System.out;
@@ -28,9 +43,42 @@ public final class Client {
   private static final int DEFAULT_PORT = 4441;
   private static final String DEFAULT_ADDRESS = "localhost";
   private static final String DEFAULT_USERNAME = System.getProperty("user.name");
+  private static final long HEARTBEAT_INTERVAL_SECONDS = 15;
+  private static final String HEARTBEAT = "{\"messageType\":\"HeartbeatRequest\"}";
+  // tells the input thread that the server has closed the connection
+  private static final GameStateNotification DISCONNECTED =
+      new GameStateNotification(null, 0, null, 0);
+  private static final long FIRST_RETRY_DELAY_MILLIS = 100;
+  private static final long MAX_RETRY_DELAY_MILLIS = 5_000;
  // private BufferedReader userInputReader = new BufferedReader(new InputStreamReader(System.in));
   private Scanner userInputReader = new Scanner(System.in);
   private HighLowCardGame.Guess guess;
+  private boolean deltaStates = false;
+  private boolean compressFrames = false;
+  private boolean roundFrames = false;
+  private String roomName = null;
+  private final FrameCompressor compressor = new FrameCompressor();
+  private final Map<String, GameStateDeltaDecoder> deltaDecoders = new HashMap<>();
+  private final RoundFrames.Decoder roundDecoder = new RoundFrames.Decoder();
+  // the input thread and its prompts outlive a connection that is resumed
+  private final BlockingQueue<GameStateNotification> prompts = new LinkedBlockingQueue<>();
+  private Thread input;
+  private volatile Link link;
+  private volatile boolean reconnecting = false;
+  private volatile boolean playing = false;
+  private volatile String resumeToken;
+  private volatile long gracePeriodMillis;
+
+  /** The writer of one connection to the server. */
+  private static final class Link {
+    private final ExecutorService writer;
+    private final OutputStreamWriter out;
+
+    Link(ExecutorService writer, OutputStreamWriter out) {
+      this.writer = writer;
+      this.out = out;
+    }
+  }
 
 
   /**
@@ -50,6 +98,10 @@ public final class Client {
     String username = DEFAULT_USERNAME;
     String serverAddress = DEFAULT_ADDRESS;
     int port = DEFAULT_PORT;
+    boolean deltaStates = false;
+    boolean compressFrames = false;
+    boolean roundFrames = false;
+    String roomName = null;
     for (int i = 0; i < args.length; ++i) {
       switch (args[i]) {
         case "--username": {
@@ -84,6 +136,27 @@ public final class Client {
           }
           break;
         }
+        case "--room": {
+          if (isLastArgument(i, args)) {
+            printErrorMessage("Please specify the room.");
+            return;
+          }
+          ++i;
+          roomName = args[i];
+          break;
+        }
+        case "--delta": {
+          deltaStates = true;
+          break;
+        }
+        case "--compress": {
+          compressFrames = true;
+          break;
+        }
+        case "--round-frames": {
+          roundFrames = true;
+          break;
+        }
         case "--help":
         default: {
           printHelpMessage();
@@ -116,8 +189,12 @@ public final class Client {
     InetSocketAddress address = new InetSocketAddress(inetAddress, port);
 
     Client client = new Client();
-    try (Socket socket = new Socket(address.getAddress(), address.getPort())) {
-      client.start(username, socket);
+    client.setDeltaStates(deltaStates);
+    client.setCompressFrames(compressFrames);
+    client.setRoundFrames(roundFrames);
+    client.setRoomName(roomName);
+    try {
+      client.connect(username, address);
     } catch (IOException e) {
       out.println("Connection lost. Shutting down: " + e.getMessage());
     }
@@ -139,15 +216,114 @@ public final class Client {
    */
   public static void printHelpMessage() {
     out.println(
-            "java Client [--username <String>] [--address <String>] [--port <int>] [--help]");
+            "java Client [--username <String>] [--address <String>] [--port <int>]"
+                + " [--room <String>] [--delta] [--compress] [--round-frames] [--help]");
   }
 
   private static void printErrorMessage(String str) {
     out.println("Error! " + str);
   }
 
+  /**
+   * Asks the server to send delta-encoded game states relative to the last acknowledged state.
+   *
+   * @param deltaStates whether to negotiate delta-encoded game states when joining
+   */
+  public void setDeltaStates(boolean deltaStates) {
+    this.deltaStates = deltaStates;
+  }
+
+  /**
+   * Offers DEFLATE compression of large frames to the server when joining.
+   *
+   * @param compressFrames whether to negotiate frame compression when joining
+   */
+  public void setCompressFrames(boolean compressFrames) {
+    this.compressFrames = compressFrames;
+  }
+
+  /**
+   * Asks the server to send the round and the player's own score instead of the states of all
+   * players of the table, which keeps the traffic of large tables linear in their size.
+   *
+   * @param roundFrames whether to negotiate round frames when joining
+   */
+  public void setRoundFrames(boolean roundFrames) {
+    this.roundFrames = roundFrames;
+  }
+
+  /**
+   * Selects the room to join. Players in different rooms play separate games.
+   *
+   * @param roomName the name of the room, or {@code null} for the default room
+   */
+  public void setRoomName(String roomName) {
+    this.roomName = roomName;
+  }
+
+  /**
+   * Plays on the server at the given address, resuming the session after the connection drops.
+   *
+   * <p>Once the server has handed out a resume token, a lost connection is reestablished at once
+   * and then with exponential backoff and jitter, until the server's grace period for the session
+   * has passed. The resumed connection continues with the player's seat and score; the user's
+   * input is not interrupted.
+   *
+   * @param username the username of player
+   * @param address the address of the server
+   * @throws IOException if the first connection fails
+   */
+  public void connect(String username, InetSocketAddress address) throws IOException {
+    reconnecting = true;
+    try {
+      long delay = 0;
+      long deadline = 0;
+      while (true) {
+        playing = false;
+        try (Socket socket = new Socket(address.getAddress(), address.getPort())) {
+          start(username, socket);
+        } catch (IOException e) {
+          if (resumeToken == null) {
+            throw e;
+          }
+        }
+        if (resumeToken == null) {
+          return;
+        }
+        if (playing) {
+          // the connection worked; a new outage gets the full grace period
+          delay = 0;
+          deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(gracePeriodMillis);
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          out.println("Connection lost. The session could not be resumed in time.");
+          return;
+        }
+        out.println("Connection lost. Reconnecting...");
+        if (delay > 0) {
+          long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+          Thread.sleep(Math.min(jittered, TimeUnit.NANOSECONDS.toMillis(remaining)));
+        }
+        delay = delay == 0 ? FIRST_RETRY_DELAY_MILLIS : Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      reconnecting = false;
+      // lets the input thread stop the writer of the last connection
+      prompts.add(DISCONNECTED);
+    }
+  }
+
   /**
    * A method that starts the client.
+   *
+   * <p>The calling thread reads the network until the server closes the connection, so
+   * notifications never pile up in the socket buffers while the user is thinking. The user's
+   * guesses are read on a separate input thread, and everything the client sends is written by a
+   * single writer thread.
+   *
    * @param username the username of player
    * @param socket the socket connection
    * @throws IOException throw an Exception in the case of input and output problem.
@@ -159,7 +335,13 @@ public final class Client {
 
 
     // Create a JoinGameRequest object
-    JoinGameRequest joinGameRequest = new JoinGameRequest(username);
+    JoinGameRequest joinGameRequest =
+        new JoinGameRequest(username)
+            .withDeltaStates(deltaStates)
+            .withCompression(compressFrames ? FrameCompressor.DEFLATE : null)
+            .withRoomName(roomName)
+            .withResumeToken(resumeToken)
+            .withRoundFrames(roundFrames);
 
     // Set up Moshi for serialization
     Moshi moshi = new Moshi.Builder().build();
@@ -173,24 +355,66 @@ public final class Client {
     jsonObject.put("messageType", "JoinGameRequest");
 
     // send message to server
-    out.write(jsonObject.toString() + System.lineSeparator());
-    out.flush();
+    send(out, jsonObject.toString());
 
     Shell shell = new Shell(userInputReader, System.out);
-    // waiting for the response from server
 
+    // all frames are written by one thread, so reading the network never waits for a write
+    ScheduledExecutorService writer =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "client-writer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    // keep the connection alive while the user is thinking about a guess
+    ScheduledFuture<?> heartbeats =
+        writer.scheduleAtFixedRate(
+            () -> {
+              try {
+                send(out, HEARTBEAT);
+              } catch (IOException e) {
+                writer.shutdown();
+              }
+            },
+            HEARTBEAT_INTERVAL_SECONDS,
+            HEARTBEAT_INTERVAL_SECONDS,
+            TimeUnit.SECONDS);
+
+    Link previous = link;
+    link = new Link(writer, out);
+    if (previous != null) {
+      previous.writer.shutdown();
+    }
+    if (input == null || !input.isAlive()) {
+      input = new Thread(() -> readGuesses(moshi, username), "user-input");
+      input.setDaemon(true);
+      input.start();
+    }
 
-    String line = in.readLine();
-    while (line != null) {
-      processMessage(line, moshi, out, username,shell);
-      line = in.readLine();
+    try {
+      String line = in.readLine();
+      while (line != null) {
+        processMessage(compressor.decode(line), moshi, writer, out, shell);
+        line = in.readLine();
+      }
+    } finally {
+      heartbeats.cancel(false);
+      // a guess the user is typing is still sent, then the input thread stops the writer
+      prompts.add(DISCONNECTED);
     }
 
     socket.close();
   }
 
 
-    private void processMessage (String line, Moshi moshi, OutputStreamWriter out, String username,Shell shell) throws IOException {
+    private void processMessage(
+        String line,
+        Moshi moshi,
+        ExecutorService writer,
+        OutputStreamWriter out,
+        Shell shell)
+        throws IOException {
       JSONObject jsonObject = new JSONObject(line);
       String messageType = jsonObject.getString("messageType");
 
@@ -205,8 +429,41 @@ public final class Client {
           JsonAdapter<GameStateNotification> gameStateAdapter = moshi.adapter(GameStateNotification.class);
           GameStateNotification gameStateNotification = gameStateAdapter.fromJson(line);
           shell.showServerMessage(gameStateNotification);
+          playing = true;
+          prompts.add(gameStateNotification);
+          break;
+
+        case "GameStateDeltaNotification":
+          JsonAdapter<GameStateDeltaNotification> deltaAdapter =
+              moshi.adapter(GameStateDeltaNotification.class);
+          GameStateDeltaNotification delta = deltaAdapter.fromJson(line);
+          GameStateNotification state =
+              deltaDecoders
+                  .computeIfAbsent(delta.getPlayerName(), name -> new GameStateDeltaDecoder())
+                  .decode(delta);
+          if (state == null) {
+            // the base state is unknown; ask for a keyframe
+            sendStateAck(delta.getPlayerName(), -1, moshi, writer, out);
+            break;
+          }
+          sendStateAck(delta.getPlayerName(), delta.getVersion(), moshi, writer, out);
+          shell.showServerMessage(state);
+          playing = true;
+          prompts.add(state);
+          break;
 
-          handleGuess(gameStateNotification, out, moshi, username);
+        case "RoundNotification":
+          roundDecoder.onRound(moshi.adapter(RoundNotification.class).fromJson(line));
+          break;
+
+        case "ScoreNotification":
+          GameStateNotification scored =
+              roundDecoder.onScore(moshi.adapter(ScoreNotification.class).fromJson(line));
+          if (scored != null) {
+            shell.showServerMessage(scored);
+            playing = true;
+            prompts.add(scored);
+          }
           break;
 
         // Handle other message types...
@@ -216,6 +473,18 @@ public final class Client {
           shell.showServerMessage(playerGuessedNotification);
           break;
 
+        case "SessionNotification":
+          JsonAdapter<SessionNotification> sessionAdapter =
+              moshi.adapter(SessionNotification.class);
+          SessionNotification session = sessionAdapter.fromJson(line);
+          gracePeriodMillis = session.getGracePeriodMillis();
+          resumeToken = session.getResumeToken();
+          break;
+
+        case "HeartbeatNotification":
+          // only keeps the connection alive
+          break;
+
         case "PlayerLeftNotification":
           JsonAdapter<PlayerLeftNotification> playerLeftAdapter = moshi.adapter(PlayerLeftNotification.class);
           PlayerLeftNotification playerLeftNotification = playerLeftAdapter.fromJson(line);
@@ -228,7 +497,72 @@ public final class Client {
       }
     }
 
-  private void handleGuess(GameStateNotification notification, OutputStreamWriter out, Moshi moshi, String username) throws IOException {
+  /** Writes a frame; the writer is shared by the reading thread and the heartbeat thread. */
+  private static void send(OutputStreamWriter out, String frame) throws IOException {
+    synchronized (out) {
+      out.write(frame + System.lineSeparator());
+      out.flush();
+    }
+  }
+
+  /** Queues a frame for the writer thread; frames queued after the writer stopped are dropped. */
+  private static void sendLater(ExecutorService writer, OutputStreamWriter out, String frame) {
+    try {
+      writer.execute(
+          () -> {
+            try {
+              send(out, frame);
+            } catch (IOException e) {
+              writer.shutdown();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      // the connection is closed
+    }
+  }
+
+  private void sendStateAck(
+      String playerName,
+      long version,
+      Moshi moshi,
+      ExecutorService writer,
+      OutputStreamWriter out) {
+    JsonAdapter<StateAckRequest> ackAdapter = moshi.adapter(StateAckRequest.class);
+    sendLater(writer, out, ackAdapter.toJson(new StateAckRequest(playerName, version)));
+  }
+
+  /**
+   * Runs on the input thread: answers each game state with the user's guess until the connection
+   * is closed for good or the input ends. A guess goes to the connection current when it is sent.
+   */
+  private void readGuesses(Moshi moshi, String username) {
+    try {
+      while (true) {
+        if (prompts.take() == DISCONNECTED) {
+          if (reconnecting) {
+            continue;
+          }
+          return;
+        }
+        HighLowCardGame.Guess guess = readGuess();
+        // the guess counts for the current round, so it answers the states that arrived meanwhile
+        boolean disconnected = prompts.contains(DISCONNECTED);
+        prompts.clear();
+        sendGuess(guess, link, moshi, username);
+        if (disconnected && !reconnecting) {
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (NoSuchElementException e) {
+      // no more user input
+    } finally {
+      link.writer.shutdown();
+    }
+  }
+
+  private HighLowCardGame.Guess readGuess() {
     String guessInput = userInputReader.nextLine().trim().toUpperCase();
 
     while (!(guessInput.equals("H") || guessInput.equals("L") || guessInput.equals("E"))) {
@@ -242,16 +576,19 @@ public final class Client {
     } else if (guessInput.equals("E")) {
       guess = HighLowCardGame.Guess.EQUAL;
     }
+    return guess;
+  }
 
+  private void sendGuess(
+      HighLowCardGame.Guess guess, Link link, Moshi moshi, String username) {
     GuessRequest guessRequest = new GuessRequest(guess, username);
     JsonAdapter<GuessRequest> guessRequestJsonAdapter = moshi.adapter(GuessRequest.class);
     String guessJson = guessRequestJsonAdapter.toJson(guessRequest);
     JSONObject guessJsonObject = new JSONObject(guessJson);
     guessJsonObject.put("messageType", "GuessRequest");
 
-    out.write(guessJsonObject.toString() + System.lineSeparator());
-    out.flush();
+    sendLater(link.writer, link.out, guessJsonObject.toString());
 
     System.out.println("Sent guess to server: " + guessJsonObject.toString());
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,226 @@
+package highlowcardgame.client;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.adapters.PolymorphicJsonAdapterFactory;
+import highlowcardgame.communication.FrameCompressor;
+import highlowcardgame.communication.messages.GameStateDeltaNotification;
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.communication.messages.Message;
+import highlowcardgame.communication.messages.PlayerGuessedNotification;
+import highlowcardgame.communication.messages.PlayerJoinedNotification;
+import highlowcardgame.communication.messages.PlayerLeftNotification;
+import highlowcardgame.communication.messages.RoundNotification;
+import highlowcardgame.communication.messages.ScoreNotification;
+import highlowcardgame.communication.messages.SessionNotification;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small pool of I/O threads shared by many {@link GameConnection}s, so that one process can run
+ * thousands of bots.
+ *
+ * <p>Each thread runs a {@link Selector} over the connections assigned to it round-robin. Frames
+ * are decoded with the same Moshi adapters and {@link FrameCompressor} as on the server.
+ */
+public final class ConnectionGroup implements Closeable {
+
+  private static final long TICK_MILLIS = 1_000;
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+  private final List<IoLoop> loops = new ArrayList<>();
+  private final AtomicInteger nextLoop = new AtomicInteger();
+  private final Moshi moshi = new Moshi.Builder().build();
+  private final JsonAdapter<Message> notifications =
+      new Moshi.Builder()
+          .add(
+              PolymorphicJsonAdapterFactory.of(Message.class, "messageType")
+                  .withSubtype(GameStateNotification.class, "GameStateNotification")
+                  .withSubtype(GameStateDeltaNotification.class, "GameStateDeltaNotification")
+                  .withSubtype(PlayerJoinedNotification.class, "PlayerJoinedNotification")
+                  .withSubtype(PlayerGuessedNotification.class, "PlayerGuessedNotification")
+                  .withSubtype(PlayerLeftNotification.class, "PlayerLeftNotification")
+                  .withSubtype(SessionNotification.class, "SessionNotification")
+                  .withSubtype(RoundNotification.class, "RoundNotification")
+                  .withSubtype(ScoreNotification.class, "ScoreNotification")
+                  // heartbeats and leaderboards are not passed on
+                  .withDefaultValue(null))
+          .build()
+          .adapter(Message.class);
+  private final FrameCompressor compressor = new FrameCompressor();
+
+  /** Creates a group with one I/O thread per available processor. */
+  public ConnectionGroup() throws IOException {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a group.
+   *
+   * @param threads the number of I/O threads
+   * @throws IOException if a selector cannot be opened
+   */
+  public ConnectionGroup(int threads) throws IOException {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("A connection group needs at least one thread");
+    }
+    try {
+      for (int i = 0; i < threads; i++) {
+        IoLoop loop = new IoLoop(Selector.open(), "game-io-" + i);
+        loops.add(loop);
+        loop.thread.start();
+      }
+    } catch (IOException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens a connection to a server.
+   *
+   * @param address the address of the server
+   * @param listener receives the notifications of the connection
+   * @return completes with the connection once it is established
+   */
+  public CompletableFuture<GameConnection> connect(
+      InetSocketAddress address, GameListener listener) {
+    return connect(address, null, listener);
+  }
+
+  /**
+   * Opens a connection to a server from the given local address. Spreading many connections over
+   * several local addresses avoids running out of ephemeral ports.
+   *
+   * @param address the address of the server
+   * @param localAddress the local address to bind to, or {@code null} for any
+   * @param listener receives the notifications of the connection
+   * @return completes with the connection once it is established
+   */
+  public CompletableFuture<GameConnection> connect(
+      InetSocketAddress address, InetSocketAddress localAddress, GameListener listener) {
+    IoLoop loop = loops.get(Math.floorMod(nextLoop.getAndIncrement(), loops.size()));
+    GameConnection connection;
+    try {
+      connection = new GameConnection(this, loop, SocketChannel.open(), listener);
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    loop.execute(() -> connection.register(address, localAddress));
+    return connection.whenConnected();
+  }
+
+  /** Closes all connections of this group and stops its threads. */
+  @Override
+  public void close() {
+    for (IoLoop loop : loops) {
+      loop.running = false;
+      loop.selector.wakeup();
+    }
+    for (IoLoop loop : loops) {
+      try {
+        loop.thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  Moshi getMoshi() {
+    return moshi;
+  }
+
+  JsonAdapter<Message> getNotificationAdapter() {
+    return notifications;
+  }
+
+  FrameCompressor getCompressor() {
+    return compressor;
+  }
+
+  /** One I/O thread and the connections assigned to it. */
+  static final class IoLoop implements Runnable {
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // shared by all connections of the thread, as only one of them reads at a time
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private volatile boolean running = true;
+
+    IoLoop(Selector selector, String name) {
+      this.selector = selector;
+      this.thread = new Thread(this, name);
+      thread.setDaemon(true);
+    }
+
+    /** Runs a task on this thread. */
+    void execute(Runnable task) {
+      tasks.add(task);
+      selector.wakeup();
+    }
+
+    Selector getSelector() {
+      return selector;
+    }
+
+    ByteBuffer getReadBuffer() {
+      return readBuffer;
+    }
+
+    @Override
+    public void run() {
+      long tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+      long nextTick = System.nanoTime() + tickNanos;
+      try {
+        while (running) {
+          selector.select(TICK_MILLIS);
+          for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+            task.run();
+          }
+          Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+          while (selected.hasNext()) {
+            SelectionKey key = selected.next();
+            selected.remove();
+            ((GameConnection) key.attachment()).handle(key);
+          }
+          long now = System.nanoTime();
+          if (now - nextTick >= 0) {
+            nextTick = now + tickNanos;
+            for (SelectionKey key : selector.keys()) {
+              ((GameConnection) key.attachment()).tick(now);
+            }
+          }
+        }
+      } catch (IOException e) {
+        System.err.println("The I/O thread failed: " + e.getMessage());
+      } finally {
+        // connections still waiting to be registered are closed as well
+        for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+          task.run();
+        }
+        for (SelectionKey key : selector.keys()) {
+          ((GameConnection) key.attachment()).shutdown(null);
+        }
+        try {
+          selector.close();
+        } catch (IOException e) {
+          // nothing left to clean up
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,384 @@
+package highlowcardgame.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import highlowcardgame.communication.GameStateDeltaDecoder;
+import highlowcardgame.communication.RoundFrames;
+import highlowcardgame.communication.messages.GameStateDeltaNotification;
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.communication.messages.GuessRequest;
+import highlowcardgame.communication.messages.JoinGameRequest;
+import highlowcardgame.communication.messages.Message;
+import highlowcardgame.communication.messages.PlayerGuessedNotification;
+import highlowcardgame.communication.messages.PlayerJoinedNotification;
+import highlowcardgame.communication.messages.PlayerLeftNotification;
+import highlowcardgame.communication.messages.RoundNotification;
+import highlowcardgame.communication.messages.ScoreNotification;
+import highlowcardgame.communication.messages.SessionNotification;
+import highlowcardgame.communication.messages.StateAckRequest;
+import highlowcardgame.game.HighLowCardGame;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A non-blocking connection to a game server, for bots and other programs that play without a
+ * terminal.
+ *
+ * <p>Connections are opened with {@link ConnectionGroup#connect} and share the I/O threads of their
+ * group. Requests may be sent from any thread; they return futures that complete on the I/O thread
+ * with the next game state of the player, so dependent stages should not block. Notifications are
+ * passed to the {@link GameListener} of the connection. Heartbeats are sent automatically.
+ *
+ * <pre>
+ * group.connect(address, listener)
+ *     .thenCompose(connection -&gt; connection.join("bot-1"))
+ *     .thenCompose(state -&gt; ...);
+ * </pre>
+ */
+public final class GameConnection implements Closeable {
+
+  private static final long HEARTBEAT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(15);
+  private static final String HEARTBEAT = "{\"messageType\":\"HeartbeatRequest\"}";
+  private static final int MAX_GATHERED_FRAMES = 64;
+
+  private final ConnectionGroup group;
+  private final ConnectionGroup.IoLoop loop;
+  private final SocketChannel channel;
+  private final GameListener listener;
+  private final CompletableFuture<GameConnection> connected = new CompletableFuture<>();
+  private final Queue<ByteBuffer> outbox = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private final Queue<CompletableFuture<GameStateNotification>> awaitingState =
+      new ConcurrentLinkedQueue<>();
+  private volatile String playerName;
+  private volatile boolean closed = false;
+
+  // only used on the I/O thread
+  private final Map<String, GameStateDeltaDecoder> deltaDecoders = new HashMap<>();
+  private final RoundFrames.Decoder roundDecoder = new RoundFrames.Decoder();
+  private SelectionKey key;
+  private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHERED_FRAMES];
+  private byte[] line = new byte[256];
+  private int lineLength = 0;
+  private long lastWrite = System.nanoTime();
+
+  GameConnection(
+      ConnectionGroup group,
+      ConnectionGroup.IoLoop loop,
+      SocketChannel channel,
+      GameListener listener) {
+    this.group = group;
+    this.loop = loop;
+    this.channel = channel;
+    this.listener = listener;
+  }
+
+  /**
+   * Joins the game as a new player in the default room.
+   *
+   * @param playerName the name of the player
+   * @return completes with the first game state of the player
+   */
+  public CompletableFuture<GameStateNotification> join(String playerName) {
+    return join(new JoinGameRequest(playerName));
+  }
+
+  /**
+   * Joins the game with the options of the given request, for example a room or delta-encoded
+   * states.
+   *
+   * @param request the join request
+   * @return completes with the first game state of the player
+   */
+  public CompletableFuture<GameStateNotification> join(JoinGameRequest request) {
+    synchronized (this) {
+      if (playerName != null) {
+        return CompletableFuture.failedFuture(
+            new IllegalStateException("Already joined as " + playerName));
+      }
+      playerName = request.getPlayerName();
+    }
+    JSONObject json =
+        new JSONObject(group.getMoshi().adapter(JoinGameRequest.class).toJson(request));
+    json.put("messageType", "JoinGameRequest");
+    return sendAndAwaitState(json.toString());
+  }
+
+  /**
+   * Guesses the next card.
+   *
+   * @param guess the guess
+   * @return completes with the next game state of the player, which is sent once every player of
+   *     the table has guessed
+   */
+  public CompletableFuture<GameStateNotification> guess(HighLowCardGame.Guess guess) {
+    String name = playerName;
+    if (name == null) {
+      return CompletableFuture.failedFuture(new IllegalStateException("Not joined yet"));
+    }
+    return sendAndAwaitState(
+        group.getMoshi().adapter(GuessRequest.class).toJson(new GuessRequest(guess, name)));
+  }
+
+  /** Returns the name the player joined with, or {@code null} before joining. */
+  public String getPlayerName() {
+    return playerName;
+  }
+
+  public boolean isOpen() {
+    return !closed;
+  }
+
+  /** Closes the connection; the listener is told with a {@code null} cause. */
+  @Override
+  public void close() {
+    loop.execute(() -> shutdown(null));
+  }
+
+  CompletableFuture<GameConnection> whenConnected() {
+    return connected;
+  }
+
+  private CompletableFuture<GameStateNotification> sendAndAwaitState(String frame) {
+    CompletableFuture<GameStateNotification> state = new CompletableFuture<>();
+    awaitingState.add(state);
+    if (closed) {
+      // the connection closed meanwhile and may have missed this future
+      state.completeExceptionally(new IOException("The connection is closed"));
+      return state;
+    }
+    send(frame);
+    return state;
+  }
+
+  /** Queues a frame and makes sure the I/O thread writes it. */
+  private void send(String frame) {
+    outbox.add(ByteBuffer.wrap((frame + "\n").getBytes(UTF_8)));
+    // one wake-up writes all frames queued until the I/O thread gets to it
+    if (flushScheduled.compareAndSet(false, true)) {
+      loop.execute(
+          () -> {
+            flushScheduled.set(false);
+            if (key != null && key.isValid() && channel.isConnected()) {
+              try {
+                flush();
+              } catch (IOException e) {
+                shutdown(e);
+              }
+            }
+          });
+    }
+  }
+
+  /** Runs on the I/O thread. */
+  void register(InetSocketAddress address, InetSocketAddress localAddress) {
+    try {
+      channel.configureBlocking(false);
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      if (localAddress != null) {
+        channel.bind(localAddress);
+      }
+      key = channel.register(loop.getSelector(), 0, this);
+      if (channel.connect(address)) {
+        onConnected();
+      } else {
+        key.interestOps(SelectionKey.OP_CONNECT);
+      }
+    } catch (IOException e) {
+      shutdown(e);
+    }
+  }
+
+  /** Runs on the I/O thread when the key of this connection was selected. */
+  void handle(SelectionKey selected) {
+    try {
+      if (selected.isConnectable()) {
+        channel.finishConnect();
+        onConnected();
+      }
+      if (selected.isValid() && selected.isReadable()) {
+        read();
+      }
+      if (selected.isValid() && selected.isWritable()) {
+        flush();
+      }
+    } catch (IOException e) {
+      shutdown(e);
+    }
+  }
+
+  /** Runs on the I/O thread about once a second. */
+  void tick(long now) {
+    if (!closed && channel.isConnected() && now - lastWrite >= HEARTBEAT_INTERVAL_NANOS) {
+      send(HEARTBEAT);
+    }
+  }
+
+  /** Runs on the I/O thread. */
+  void shutdown(IOException cause) {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (key != null) {
+      key.cancel();
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // already broken
+    }
+    IOException failure = cause != null ? cause : new IOException("The connection is closed");
+    connected.completeExceptionally(failure);
+    for (CompletableFuture<GameStateNotification> state = awaitingState.poll();
+        state != null;
+        state = awaitingState.poll()) {
+      state.completeExceptionally(failure);
+    }
+    listener.onClosed(cause);
+  }
+
+  private void onConnected() throws IOException {
+    key.interestOps(SelectionKey.OP_READ);
+    connected.complete(this);
+    flush();
+  }
+
+  private void flush() throws IOException {
+    while (!outbox.isEmpty()) {
+      // one gathering write for all queued frames
+      int count = 0;
+      for (ByteBuffer frame : outbox) {
+        if (count == gather.length) {
+          break;
+        }
+        gather[count++] = frame;
+      }
+      channel.write(gather, 0, count);
+      lastWrite = System.nanoTime();
+      boolean written = true;
+      for (int i = 0; i < count && written; i++) {
+        written = !gather[i].hasRemaining();
+        if (written) {
+          outbox.poll();
+        }
+      }
+      Arrays.fill(gather, 0, count, null);
+      if (!written) {
+        // the socket buffer is full; continue when it drained
+        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        return;
+      }
+    }
+    key.interestOps(SelectionKey.OP_READ);
+  }
+
+  private void read() throws IOException {
+    ByteBuffer buffer = loop.getReadBuffer();
+    buffer.clear();
+    int read = channel.read(buffer);
+    if (read < 0) {
+      shutdown(new EOFException("The server closed the connection"));
+      return;
+    }
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      byte b = buffer.get();
+      if (b == '\n') {
+        String frame = new String(line, 0, lineLength, UTF_8).strip();
+        lineLength = 0;
+        if (!frame.isEmpty()) {
+          receive(frame);
+        }
+        if (closed) {
+          return;
+        }
+      } else {
+        if (lineLength == line.length) {
+          line = Arrays.copyOf(line, line.length * 2);
+        }
+        line[lineLength++] = b;
+      }
+    }
+  }
+
+  private void receive(String frame) {
+    Message message;
+    try {
+      message = group.getNotificationAdapter().fromJson(group.getCompressor().decode(frame));
+    } catch (IOException | JSONException e) {
+      System.err.println("Dropping a malformed frame: " + frame);
+      return;
+    }
+    try {
+      dispatch(message);
+    } catch (RuntimeException e) {
+      shutdown(new IOException("The listener failed", e));
+    }
+  }
+
+  private void dispatch(Message message) {
+    if (message instanceof GameStateNotification) {
+      onGameState((GameStateNotification) message);
+    } else if (message instanceof GameStateDeltaNotification) {
+      GameStateDeltaNotification delta = (GameStateDeltaNotification) message;
+      GameStateNotification state =
+          deltaDecoders
+              .computeIfAbsent(delta.getPlayerName(), name -> new GameStateDeltaDecoder())
+              .decode(delta);
+      // a negative version asks for a keyframe, as the base state is unknown
+      long version = state == null ? -1 : delta.getVersion();
+      send(
+          group
+              .getMoshi()
+              .adapter(StateAckRequest.class)
+              .toJson(new StateAckRequest(delta.getPlayerName(), version)));
+      if (state != null) {
+        onGameState(state);
+      }
+    } else if (message instanceof RoundNotification) {
+      roundDecoder.onRound((RoundNotification) message);
+    } else if (message instanceof ScoreNotification) {
+      GameStateNotification state = roundDecoder.onScore((ScoreNotification) message);
+      if (state != null) {
+        onGameState(state);
+      }
+    } else if (message instanceof PlayerJoinedNotification) {
+      listener.onPlayerJoined((PlayerJoinedNotification) message);
+    } else if (message instanceof PlayerGuessedNotification) {
+      listener.onPlayerGuessed((PlayerGuessedNotification) message);
+    } else if (message instanceof PlayerLeftNotification) {
+      listener.onPlayerLeft((PlayerLeftNotification) message);
+    } else if (message instanceof SessionNotification) {
+      listener.onSession((SessionNotification) message);
+    }
+  }
+
+  private void onGameState(GameStateNotification state) {
+    listener.onGameState(state);
+    if (!state.getPlayerName().equals(playerName)) {
+      return;
+    }
+    for (CompletableFuture<GameStateNotification> waiting = awaitingState.poll();
+        waiting != null;
+        waiting = awaitingState.poll()) {
+      waiting.complete(state);
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package highlowcardgame.client;
+
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.communication.messages.PlayerGuessedNotification;
+import highlowcardgame.communication.messages.PlayerJoinedNotification;
+import highlowcardgame.communication.messages.PlayerLeftNotification;
+import highlowcardgame.communication.messages.SessionNotification;
+import java.io.IOException;
+
+/**
+ * Receives the notifications of a {@link GameConnection}.
+ *
+ * <p>All methods are called on the I/O thread of the connection, which is shared with many other
+ * connections, so they must return quickly and never block. Every method does nothing by default.
+ */
+public interface GameListener {
+
+  /** Called for every game state, including the states of other players sent on joining. */
+  default void onGameState(GameStateNotification state) {}
+
+  default void onPlayerJoined(PlayerJoinedNotification notification) {}
+
+  default void onPlayerGuessed(PlayerGuessedNotification notification) {}
+
+  default void onPlayerLeft(PlayerLeftNotification notification) {}
+
+  default void onSession(SessionNotification notification) {}
+
+  /**
+   * Called once when the connection is closed.
+   *
+   * @param cause why the connection was lost, or {@code null} if it was closed with {@link
+   *     GameConnection#close()}
+   */
+  default void onClosed(IOException cause) {}
+}
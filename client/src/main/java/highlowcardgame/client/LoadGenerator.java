@@ -0,0 +1,532 @@
+package highlowcardgame.client;
+
+import highlowcardgame.communication.LatencyHistogram;
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.communication.messages.JoinGameRequest;
+import highlowcardgame.game.HighLowCardGame;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import org.json.JSONObject;
+
+/**
+ * Headless load generator: simulates many players on a server and reports latencies, throughput
+ * and errors as JSON.
+ *
+ * <p>A run has two phases. First all players connect, paced by the connect rate, and join their
+ * room; players are spread round-robin over the rooms. Then every player plays the given number of
+ * rounds, waiting a random think time before each guess, and leaves. A room plays one deck, so at
+ * most 51 rounds can be played.
+ *
+ * <p>All players share a {@link ConnectionGroup}, so a single process can simulate 100k players.
+ * At that scale the ephemeral ports of one source address run out at roughly 28k connections to
+ * the same server port; bind to several loopback addresses with {@code --bind
+ * 127.0.0.1,127.0.0.2,...}, and raise the open file limit of both processes.
+ */
+public final class LoadGenerator {
+
+  /** How a simulated player guesses. */
+  public enum Strategy {
+    HIGH,
+    LOW,
+    RANDOM,
+    /** Guesses towards the middle of the card values, as a reasonable player would. */
+    SMART;
+
+    HighLowCardGame.Guess guess(GameStateNotification state) {
+      switch (this) {
+        case HIGH:
+          return HighLowCardGame.Guess.HIGH;
+        case LOW:
+          return HighLowCardGame.Guess.LOW;
+        case RANDOM:
+          HighLowCardGame.Guess[] guesses = HighLowCardGame.Guess.values();
+          return guesses[ThreadLocalRandom.current().nextInt(guesses.length)];
+        default:
+          int value = state.getCurrentCard().getValue();
+          return value <= MIDDLE_VALUE ? HighLowCardGame.Guess.HIGH : HighLowCardGame.Guess.LOW;
+      }
+    }
+  }
+
+  private static final int DEFAULT_PORT = 4441;
+  private static final String DEFAULT_ADDRESS = "localhost";
+  private static final int MIDDLE_VALUE = 7;
+
+  private int connections = 100;
+  private int rooms = 10;
+  private int rounds = 20;
+  private long thinkTimeMillis = 0;
+  private Strategy strategy = Strategy.RANDOM;
+  private double connectRate = 2_000;
+  private long timeoutMillis = 30_000;
+  private int ioThreads = Runtime.getRuntime().availableProcessors();
+  private List<InetAddress> bindAddresses = List.of();
+
+  private final LatencyHistogram connectLatency = new LatencyHistogram();
+  private final LatencyHistogram joinLatency = new LatencyHistogram();
+  private final LatencyHistogram guessLatency = new LatencyHistogram();
+  private final LongAdder connectErrors = new LongAdder();
+  private final LongAdder joinErrors = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder disconnects = new LongAdder();
+
+  /**
+   * Entry to <code>LoadGenerator</code>.
+   *
+   * @param args command-line arguments
+   */
+  public static void main(String[] args) {
+    String serverAddress = DEFAULT_ADDRESS;
+    int port = DEFAULT_PORT;
+    String reportFile = null;
+    LoadGenerator generator = new LoadGenerator();
+    try {
+      for (int i = 0; i < args.length; ++i) {
+        switch (args[i]) {
+          case "--address": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the server address.");
+              return;
+            }
+            ++i;
+            serverAddress = args[i];
+            break;
+          }
+          case "--port": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the port number.");
+              return;
+            }
+            ++i;
+            port = Integer.parseInt(args[i]);
+            break;
+          }
+          case "--connections": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the number of connections.");
+              return;
+            }
+            ++i;
+            generator.setConnections(Integer.parseInt(args[i]));
+            break;
+          }
+          case "--rooms": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the number of rooms.");
+              return;
+            }
+            ++i;
+            generator.setRooms(Integer.parseInt(args[i]));
+            break;
+          }
+          case "--rounds": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the number of rounds.");
+              return;
+            }
+            ++i;
+            generator.setRounds(Integer.parseInt(args[i]));
+            break;
+          }
+          case "--think-time": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the mean think time in milliseconds.");
+              return;
+            }
+            ++i;
+            generator.setThinkTime(Long.parseLong(args[i]), TimeUnit.MILLISECONDS);
+            break;
+          }
+          case "--strategy": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the guess strategy.");
+              return;
+            }
+            ++i;
+            generator.setStrategy(Strategy.valueOf(args[i].toUpperCase(Locale.ROOT)));
+            break;
+          }
+          case "--connect-rate": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the connections per second.");
+              return;
+            }
+            ++i;
+            generator.setConnectRate(Double.parseDouble(args[i]));
+            break;
+          }
+          case "--timeout": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the timeout in seconds.");
+              return;
+            }
+            ++i;
+            generator.setTimeout(Long.parseLong(args[i]), TimeUnit.SECONDS);
+            break;
+          }
+          case "--io-threads": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the number of I/O threads.");
+              return;
+            }
+            ++i;
+            generator.setIoThreads(Integer.parseInt(args[i]));
+            break;
+          }
+          case "--bind": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the local addresses.");
+              return;
+            }
+            ++i;
+            List<InetAddress> addresses = new ArrayList<>();
+            for (String address : args[i].split(",")) {
+              addresses.add(InetAddress.getByName(address.trim()));
+            }
+            generator.setBindAddresses(addresses);
+            break;
+          }
+          case "--report": {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the report file.");
+              return;
+            }
+            ++i;
+            reportFile = args[i];
+            break;
+          }
+          case "--help":
+          default: {
+            printHelpMessage();
+            return;
+          }
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      // also covers malformed numbers
+      printErrorMessage(e.getMessage());
+      return;
+    } catch (UnknownHostException e) {
+      printErrorMessage("Invalid local address: " + e.getMessage());
+      return;
+    }
+
+    try {
+      InetSocketAddress address =
+          new InetSocketAddress(InetAddress.getByName(serverAddress), port);
+      String report = generator.run(address).toString(2);
+      if (reportFile == null) {
+        System.out.println(report);
+      } else {
+        try (Writer out =
+            new OutputStreamWriter(
+                Files.newOutputStream(Paths.get(reportFile)), StandardCharsets.UTF_8)) {
+          out.write(report + System.lineSeparator());
+        }
+      }
+    } catch (UnknownHostException e) {
+      printErrorMessage("Invalid server address: " + serverAddress);
+    } catch (IOException e) {
+      printErrorMessage("The load run failed: " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static boolean isLastArgument(int i, final String[] args) {
+    return i == args.length - 1;
+  }
+
+  /** Prints the help message for the load generator. */
+  public static void printHelpMessage() {
+    System.out.println(
+        "java LoadGenerator [--address <String>] [--port <int>] [--connections <int>]"
+            + " [--rooms <int>] [--rounds <int>] [--think-time <millis>]"
+            + " [--strategy <high|low|random|smart>] [--connect-rate <per second>]"
+            + " [--timeout <seconds>] [--io-threads <int>] [--bind <ip>[,<ip>...]]"
+            + " [--report <file>] [--help]");
+  }
+
+  private static void printErrorMessage(String str) {
+    System.out.println("Error! " + str);
+  }
+
+  public void setConnections(int connections) {
+    if (connections <= 0) {
+      throw new IllegalArgumentException("The number of connections must be positive");
+    }
+    this.connections = connections;
+  }
+
+  public void setRooms(int rooms) {
+    if (rooms <= 0) {
+      throw new IllegalArgumentException("The number of rooms must be positive");
+    }
+    this.rooms = rooms;
+  }
+
+  public void setRounds(int rounds) {
+    if (rounds <= 0) {
+      throw new IllegalArgumentException("The number of rounds must be positive");
+    }
+    this.rounds = rounds;
+  }
+
+  /**
+   * Sets the mean time a player waits before guessing. The actual think times are uniformly
+   * distributed between zero and twice the mean.
+   *
+   * @param thinkTime the mean think time, or zero to guess at once
+   * @param unit the unit of {@code thinkTime}
+   */
+  public void setThinkTime(long thinkTime, TimeUnit unit) {
+    if (thinkTime < 0) {
+      throw new IllegalArgumentException("The think time must not be negative");
+    }
+    thinkTimeMillis = unit.toMillis(thinkTime);
+  }
+
+  public void setStrategy(Strategy strategy) {
+    this.strategy = strategy;
+  }
+
+  /**
+   * Limits how fast connections are opened, so the accept backlog of the server is not overrun.
+   *
+   * @param connectRate connections per second, or zero for no limit
+   */
+  public void setConnectRate(double connectRate) {
+    if (connectRate < 0) {
+      throw new IllegalArgumentException("The connect rate must not be negative");
+    }
+    this.connectRate = connectRate;
+  }
+
+  /** Sets how long a join or guess may wait for its game state before it counts as timed out. */
+  public void setTimeout(long timeout, TimeUnit unit) {
+    if (timeout <= 0) {
+      throw new IllegalArgumentException("The timeout must be positive");
+    }
+    timeoutMillis = unit.toMillis(timeout);
+  }
+
+  public void setIoThreads(int ioThreads) {
+    if (ioThreads <= 0) {
+      throw new IllegalArgumentException("The number of I/O threads must be positive");
+    }
+    this.ioThreads = ioThreads;
+  }
+
+  /**
+   * Spreads the connections round-robin over the given local addresses.
+   *
+   * @param bindAddresses the local addresses, or an empty list to let the system choose
+   */
+  public void setBindAddresses(List<InetAddress> bindAddresses) {
+    this.bindAddresses = List.copyOf(bindAddresses);
+  }
+
+  /**
+   * Runs the load against a server.
+   *
+   * @param address the address of the server
+   * @return the report of the run
+   * @throws IOException if the I/O threads cannot be started
+   * @throws InterruptedException if interrupted while waiting for the players
+   */
+  public JSONObject run(InetSocketAddress address) throws IOException, InterruptedException {
+    try (ConnectionGroup group = new ConnectionGroup(ioThreads)) {
+      long start = System.nanoTime();
+      List<CompletableFuture<Player>> joining = new ArrayList<>();
+      for (int i = 0; i < connections; i++) {
+        pace(start, i);
+        joining.add(join(group, address, i));
+      }
+      List<Player> players = new ArrayList<>();
+      for (CompletableFuture<Player> joined : joining) {
+        Player player = joined.handle((p, e) -> p).join();
+        if (player != null) {
+          players.add(player);
+        }
+      }
+      long connectNanos = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      List<CompletableFuture<Void>> playing = new ArrayList<>();
+      for (Player player : players) {
+        playing.add(player.play());
+      }
+      CompletableFuture.allOf(playing.toArray(new CompletableFuture<?>[0])).join();
+      long playNanos = System.nanoTime() - start;
+      return report(players.size(), connectNanos, playNanos);
+    }
+  }
+
+  /** Waits until the connection with the given index may be opened. */
+  private void pace(long start, int index) throws InterruptedException {
+    if (connectRate <= 0) {
+      return;
+    }
+    long due = start + (long) (index / connectRate * 1e9);
+    long wait = due - System.nanoTime();
+    if (wait > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+
+  private CompletableFuture<Player> join(
+      ConnectionGroup group, InetSocketAddress address, int index) {
+    InetSocketAddress local =
+        bindAddresses.isEmpty()
+            ? null
+            : new InetSocketAddress(bindAddresses.get(index % bindAddresses.size()), 0);
+    JoinGameRequest request =
+        new JoinGameRequest("load" + index).withRoomName("load-" + index % rooms);
+    long connectStart = System.nanoTime();
+    return group
+        .connect(address, local, new DisconnectCounter())
+        .whenComplete(
+            (connection, e) -> {
+              if (e == null) {
+                connectLatency.record(System.nanoTime() - connectStart);
+              } else {
+                connectErrors.increment();
+              }
+            })
+        .thenCompose(
+            connection -> {
+              long joinStart = System.nanoTime();
+              return connection
+                  .join(request)
+                  .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                  .handle(
+                      (state, e) -> {
+                        if (e != null) {
+                          joinErrors.increment();
+                          connection.close();
+                          return null;
+                        }
+                        joinLatency.record(System.nanoTime() - joinStart);
+                        return new Player(connection, state);
+                      });
+            });
+  }
+
+  private JSONObject report(int joined, long connectNanos, long playNanos) {
+    long guesses = guessLatency.getCount();
+    return new JSONObject()
+        .put(
+            "config",
+            new JSONObject()
+                .put("connections", connections)
+                .put("rooms", rooms)
+                .put("rounds", rounds)
+                .put("thinkTimeMillis", thinkTimeMillis)
+                .put("strategy", strategy.name().toLowerCase(Locale.ROOT))
+                .put("ioThreads", ioThreads))
+        .put("joinedPlayers", joined)
+        .put("connectPhaseSeconds", connectNanos / 1e9)
+        .put("playPhaseSeconds", playNanos / 1e9)
+        .put("guesses", guesses)
+        .put("guessesPerSecond", playNanos == 0 ? 0 : guesses / (playNanos / 1e9))
+        .put("connectLatency", toJson(connectLatency))
+        .put("joinLatency", toJson(joinLatency))
+        .put("guessToStateLatency", toJson(guessLatency))
+        .put(
+            "errors",
+            new JSONObject()
+                .put("connect", connectErrors.sum())
+                .put("join", joinErrors.sum())
+                .put("timeouts", timeouts.sum())
+                .put("disconnects", disconnects.sum()));
+  }
+
+  private static JSONObject toJson(LatencyHistogram histogram) {
+    return new JSONObject()
+        .put("count", histogram.getCount())
+        .put("meanMillis", histogram.getMeanNanos() / 1e6)
+        .put("p50Millis", histogram.getPercentileNanos(50) / 1e6)
+        .put("p90Millis", histogram.getPercentileNanos(90) / 1e6)
+        .put("p99Millis", histogram.getPercentileNanos(99) / 1e6)
+        .put("p999Millis", histogram.getPercentileNanos(99.9) / 1e6);
+  }
+
+  /** Counts connections the server closed while the player was still playing. */
+  private final class DisconnectCounter implements GameListener {
+    @Override
+    public void onClosed(IOException cause) {
+      if (cause != null) {
+        disconnects.increment();
+      }
+    }
+  }
+
+  /** A simulated player; guesses chain on the I/O threads without blocking. */
+  private final class Player {
+    private final GameConnection connection;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private GameStateNotification state;
+    private int played = 0;
+
+    Player(GameConnection connection, GameStateNotification state) {
+      this.connection = connection;
+      this.state = state;
+    }
+
+    CompletableFuture<Void> play() {
+      next();
+      return done;
+    }
+
+    private void next() {
+      if (played == rounds) {
+        connection.close();
+        done.complete(null);
+        return;
+      }
+      if (thinkTimeMillis == 0) {
+        guess();
+      } else {
+        long think = ThreadLocalRandom.current().nextLong(2 * thinkTimeMillis + 1);
+        CompletableFuture.delayedExecutor(think, TimeUnit.MILLISECONDS).execute(this::guess);
+      }
+    }
+
+    private void guess() {
+      long start = System.nanoTime();
+      connection
+          .guess(strategy.guess(state))
+          .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+          .whenComplete(
+              (next, e) -> {
+                if (e != null) {
+                  if (e instanceof TimeoutException) {
+                    timeouts.increment();
+                  }
+                  // the player gives up; its table continues without it
+                  played = rounds;
+                } else {
+                  guessLatency.record(System.nanoTime() - start);
+                  state = next;
+                  played++;
+                }
+                next();
+              });
+    }
+  }
+}
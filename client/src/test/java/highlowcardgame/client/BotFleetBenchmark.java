@@ -0,0 +1,105 @@
+package highlowcardgame.client;
+
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.communication.messages.JoinGameRequest;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.server.Server;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// bots per process on a few shared I/O threads; run with `gradle benchmark`
+@Tag("benchmark")
+public class BotFleetBenchmark {
+
+  private static final int IO_THREADS = 4;
+  private static final int PLAYERS_PER_ROOM = 10;
+  // a room plays with one standard deck
+  private static final int ROUNDS = 20;
+
+  /**
+   * Every bot joins, then guesses as soon as its previous guess was answered. Bots sit at tables of
+   * {@value #PLAYERS_PER_ROOM}, so a round ends when the slowest bot of a table has guessed.
+   */
+  @Test
+  public void guessThroughputByFleetSize() throws Exception {
+    PrintStream stdout = System.out;
+    for (int bots : new int[] {1_000, 2_000, 4_000}) {
+      long joinNanos;
+      long playNanos;
+      // the server logs every connection and guess
+      System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+      try (ServerSocket socket = new ServerSocket(0, bots, InetAddress.getLoopbackAddress());
+          ConnectionGroup group = new ConnectionGroup(IO_THREADS)) {
+        startServer(socket);
+        InetSocketAddress address =
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort());
+
+        long start = System.nanoTime();
+        List<CompletableFuture<GameConnection>> joined = new ArrayList<>();
+        for (int i = 0; i < bots; i++) {
+          JoinGameRequest request =
+              new JoinGameRequest("bot" + i).withRoomName("table" + i / PLAYERS_PER_ROOM);
+          joined.add(
+              group
+                  .connect(address, new GameListener() {})
+                  .thenCompose(
+                      connection -> connection.join(request).thenApply(state -> connection)));
+        }
+        List<GameConnection> connections = new ArrayList<>();
+        for (CompletableFuture<GameConnection> connection : joined) {
+          connections.add(connection.get(60, TimeUnit.SECONDS));
+        }
+        joinNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<CompletableFuture<GameStateNotification>> played = new ArrayList<>();
+        for (GameConnection connection : connections) {
+          played.add(play(connection, ROUNDS));
+        }
+        for (CompletableFuture<GameStateNotification> bot : played) {
+          bot.get(120, TimeUnit.SECONDS);
+        }
+        playNanos = System.nanoTime() - start;
+      } finally {
+        System.setOut(stdout);
+      }
+      System.out.printf(
+          "%,6d bots on %d I/O threads: %,8.0f joins/s, %,8.0f guesses/s%n",
+          bots,
+          IO_THREADS,
+          bots / (joinNanos / 1e9),
+          (double) bots * ROUNDS / (playNanos / 1e9));
+    }
+  }
+
+  private static CompletableFuture<GameStateNotification> play(
+      GameConnection connection, int rounds) {
+    CompletableFuture<GameStateNotification> guessed =
+        connection.guess(HighLowCardGame.Guess.HIGH);
+    return rounds == 1 ? guessed : guessed.thenCompose(state -> play(connection, rounds - 1));
+  }
+
+  private static void startServer(ServerSocket socket) {
+    Thread accept =
+        new Thread(
+            () -> {
+              try {
+                new Server().start(socket);
+              } catch (IOException e) {
+                // closed after the measurement
+              }
+            });
+    accept.setDaemon(true);
+    accept.start();
+  }
+}
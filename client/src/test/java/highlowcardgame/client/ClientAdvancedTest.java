@@ -7,6 +7,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PipedInputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.AfterEach;
@@ -185,4 +186,37 @@ public class ClientAdvancedTest {
                 + "<<< There are currently 1 active players."
                 + System.lineSeparator());
   }
+
+  @Test
+  public void testReceiveNotifications_whileUserIsThinking_prints()
+      throws IOException, InterruptedException {
+    // the user never types anything
+    System.setIn(new PipedInputStream());
+    Client client = new Client();
+    String stateUpdate =
+        "{\"messageType\":\"GameStateNotification\",\"currentCard\":{\"suit\":\"DIAMONDS\","
+            + " \"value\":1},\"numRounds\":1,\"playerName\":\""
+            + USERNAME
+            + "\",\"score\":0}";
+    String playerGuess =
+        "{\"messageType\":\"PlayerGuessedNotification\",\"numNotGuessedPlayers\":1,"
+            + "\"numRounds\":1,\"playerGuessed\":\""
+            + OTHER_USER
+            + "\"}";
+    InputStream networkIn = getNetworkIn(stateUpdate + System.lineSeparator() + playerGuess);
+    MockSocket mockSocket = new MockSocket(networkIn, getNetworkOut());
+
+    client.start(USERNAME, mockSocket);
+
+    assertThat(getOutput())
+        .endsWith(
+            "<<<<<<<<< PlayerGuessedNotification <<<<<<<<<"
+                + System.lineSeparator()
+                + "<<< Player "
+                + OTHER_USER
+                + " just made his/her guess."
+                + System.lineSeparator()
+                + "<<< Waiting for the remaining 1 players to make their guesses."
+                + System.lineSeparator());
+  }
 }
@@ -0,0 +1,120 @@
+package highlowcardgame.client;
+
+import highlowcardgame.communication.LatencyHistogram;
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.communication.messages.JoinGameRequest;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.server.Server;
+import highlowcardgame.server.ServerMetrics;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// server flushes per round and guess latency by flush delay; run with `gradle benchmark`
+@Tag("benchmark")
+public class FlushCoalescingBenchmark {
+
+  private static final int BOTS = 1_000;
+  private static final int PLAYERS_PER_ROOM = 10;
+  private static final int ROUNDS = 20;
+
+  /**
+   * Every bot guesses as soon as its previous guess was answered; the latency of a guess is the
+   * time until the state of the next round arrives.
+   */
+  @Test
+  public void flushesPerRoundByFlushDelay() throws Exception {
+    PrintStream stdout = System.out;
+    List<String> results = new ArrayList<>();
+    for (long delayMicros : new long[] {0, 1_000, 5_000}) {
+      Server server = new Server();
+      server.setMaxFlushDelay(delayMicros, TimeUnit.MICROSECONDS);
+      LatencyHistogram latencies = new LatencyHistogram();
+      long flushes;
+      long frames;
+      // the server logs every connection and guess
+      System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+      try (ServerSocket socket = new ServerSocket(0, BOTS, InetAddress.getLoopbackAddress());
+          ConnectionGroup group = new ConnectionGroup(4)) {
+        startServer(server, socket);
+        InetSocketAddress address =
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort());
+        List<CompletableFuture<GameConnection>> joined = new ArrayList<>();
+        for (int i = 0; i < BOTS; i++) {
+          JoinGameRequest request =
+              new JoinGameRequest("bot" + i).withRoomName("table" + i / PLAYERS_PER_ROOM);
+          joined.add(
+              group
+                  .connect(address, new GameListener() {})
+                  .thenCompose(
+                      connection -> connection.join(request).thenApply(state -> connection)));
+        }
+        List<GameConnection> connections = new ArrayList<>();
+        for (CompletableFuture<GameConnection> connection : joined) {
+          connections.add(connection.get(60, TimeUnit.SECONDS));
+        }
+
+        ServerMetrics metrics = server.getMetrics();
+        long flushesBefore = metrics.getFlushes();
+        long framesBefore = metrics.getFramesWritten();
+        List<CompletableFuture<GameStateNotification>> played = new ArrayList<>();
+        for (GameConnection connection : connections) {
+          played.add(play(connection, ROUNDS, latencies));
+        }
+        for (CompletableFuture<GameStateNotification> bot : played) {
+          bot.get(120, TimeUnit.SECONDS);
+        }
+        flushes = metrics.getFlushes() - flushesBefore;
+        frames = metrics.getFramesWritten() - framesBefore;
+      } finally {
+        System.setOut(stdout);
+      }
+      long tableRounds = (long) BOTS / PLAYERS_PER_ROOM * ROUNDS;
+      results.add(
+          String.format(
+              "flush delay %,5d us: %,7.1f frames and %,7.1f flushes per table round,"
+                  + " guess latency p50 %,6d us, p99 %,6d us",
+              delayMicros,
+              (double) frames / tableRounds,
+              (double) flushes / tableRounds,
+              TimeUnit.NANOSECONDS.toMicros(latencies.getPercentileNanos(50)),
+              TimeUnit.NANOSECONDS.toMicros(latencies.getPercentileNanos(99))));
+    }
+    results.forEach(System.out::println);
+  }
+
+  private static CompletableFuture<GameStateNotification> play(
+      GameConnection connection, int rounds, LatencyHistogram latencies) {
+    long start = System.nanoTime();
+    CompletableFuture<GameStateNotification> guessed =
+        connection
+            .guess(HighLowCardGame.Guess.HIGH)
+            .whenComplete((state, e) -> latencies.record(System.nanoTime() - start));
+    return rounds == 1
+        ? guessed
+        : guessed.thenCompose(state -> play(connection, rounds - 1, latencies));
+  }
+
+  private static void startServer(Server server, ServerSocket socket) {
+    Thread accept =
+        new Thread(
+            () -> {
+              try {
+                server.start(socket);
+              } catch (IOException e) {
+                // closed after the measurement
+              }
+            });
+    accept.setDaemon(true);
+    accept.start();
+  }
+}
@@ -0,0 +1,104 @@
+package highlowcardgame.client;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.communication.messages.PlayerJoinedNotification;
+import highlowcardgame.game.HighLowCardGame;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(value = 5)
+public class GameConnectionTest {
+
+  private static final String USERNAME = "DummyBot";
+  private static final String OTHER_USER = "Villain 1";
+
+  @Test
+  public void testJoinAndGuess_completeWithOwnStates() throws Exception {
+    List<PlayerJoinedNotification> joined = new CopyOnWriteArrayList<>();
+    CompletableFuture<IOException> closed = new CompletableFuture<>();
+    GameListener listener =
+        new GameListener() {
+          @Override
+          public void onPlayerJoined(PlayerJoinedNotification notification) {
+            joined.add(notification);
+          }
+
+          @Override
+          public void onClosed(IOException cause) {
+            closed.complete(cause);
+          }
+        };
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        ConnectionGroup group = new ConnectionGroup(1)) {
+      GameConnection connection =
+          group
+              .connect(
+                  new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort()),
+                  listener)
+              .get(2, TimeUnit.SECONDS);
+      CompletableFuture<GameStateNotification> first = connection.join(USERNAME);
+
+      try (Socket client = server.accept()) {
+        BufferedReader in =
+            new BufferedReader(new InputStreamReader(client.getInputStream(), UTF_8));
+        Writer out = new OutputStreamWriter(client.getOutputStream(), UTF_8);
+        JSONObject join = new JSONObject(in.readLine());
+        assertThat(join.getString("messageType")).isEqualTo("JoinGameRequest");
+        assertThat(join.getString("playerName")).isEqualTo(USERNAME);
+
+        out.write(
+            "{\"messageType\":\"PlayerJoinedNotification\",\"newPlayerName\":\""
+                + USERNAME
+                + "\",\"numPlayers\":2}\n");
+        // the state of another player does not answer the request
+        out.write(state(OTHER_USER, 1, 0));
+        out.write(state(USERNAME, 1, 0));
+        out.flush();
+        assertThat(first.get(2, TimeUnit.SECONDS).getNumRounds()).isEqualTo(1);
+        assertThat(joined).hasSize(1);
+
+        CompletableFuture<GameStateNotification> next =
+            connection.guess(HighLowCardGame.Guess.HIGH);
+        JSONObject guess = new JSONObject(in.readLine());
+        assertThat(guess.getString("messageType")).isEqualTo("GuessRequest");
+        assertThat(guess.getString("guess")).isEqualTo("HIGH");
+        assertThat(next.isDone()).isFalse();
+        out.write(state(USERNAME, 2, 1));
+        out.flush();
+        assertThat(next.get(2, TimeUnit.SECONDS).getScore()).isEqualTo(1);
+      }
+
+      // the server closed the connection
+      assertThat(closed.get(2, TimeUnit.SECONDS)).isNotNull();
+      assertThat(connection.isOpen()).isFalse();
+    }
+  }
+
+  private static String state(String playerName, int round, int score) {
+    return "{\"messageType\":\"GameStateNotification\",\"currentCard\":"
+        + "{\"suit\":\"DIAMONDS\",\"value\":1},\"numRounds\":"
+        + round
+        + ",\"playerName\":\""
+        + playerName
+        + "\",\"score\":"
+        + score
+        + "}\n";
+  }
+}
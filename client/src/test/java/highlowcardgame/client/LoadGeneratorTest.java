@@ -0,0 +1,52 @@
+package highlowcardgame.client;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import highlowcardgame.server.Server;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(value = 20)
+public class LoadGeneratorTest {
+
+  @Test
+  public void testRun_reportsEveryGuess() throws Exception {
+    try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+      Thread accept =
+          new Thread(
+              () -> {
+                try {
+                  new Server().start(socket);
+                } catch (IOException e) {
+                  // closed at the end of the test
+                }
+              });
+      accept.setDaemon(true);
+      accept.start();
+      LoadGenerator generator = new LoadGenerator();
+      generator.setConnections(20);
+      generator.setRooms(4);
+      generator.setRounds(5);
+      generator.setStrategy(LoadGenerator.Strategy.SMART);
+      generator.setIoThreads(2);
+
+      JSONObject report =
+          generator.run(
+              new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort()));
+
+      assertThat(report.getInt("joinedPlayers")).isEqualTo(20);
+      assertThat(report.getLong("guesses")).isEqualTo(100);
+      assertThat(report.getJSONObject("connectLatency").getLong("count")).isEqualTo(20);
+      assertThat(report.getJSONObject("guessToStateLatency").getDouble("p99Millis"))
+          .isGreaterThan(0.0);
+      JSONObject errors = report.getJSONObject("errors");
+      assertThat(errors.getLong("connect")).isEqualTo(0);
+      assertThat(errors.getLong("timeouts")).isEqualTo(0);
+    }
+  }
+}
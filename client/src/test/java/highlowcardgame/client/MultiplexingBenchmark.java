@@ -0,0 +1,232 @@
+package highlowcardgame.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import highlowcardgame.communication.ChannelFrames;
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.communication.messages.JoinGameRequest;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.server.Server;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// server cost of a socket per player vs. one multiplexed socket; run with `gradle benchmark`
+@Tag("benchmark")
+public class MultiplexingBenchmark {
+
+  private static final int PLAYERS = 2_000;
+  private static final int PLAYERS_PER_ROOM = 10;
+  private static final int ROUNDS = 10;
+
+  /**
+   * Plays the same tables once with a connection per player and once with all players on one
+   * multiplexed connection, and reports the threads, heap and time the process needs per player
+   * while the tables are seated.
+   */
+  @Test
+  public void serverCostPerPlayer() throws Exception {
+    PrintStream stdout = System.out;
+    List<String> results = new ArrayList<>();
+    // the server logs every connection and guess
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    try {
+      results.add(measure("socket per player", MultiplexingBenchmark::playOnSockets));
+      results.add(measure("multiplexed", MultiplexingBenchmark::playMultiplexed));
+    } finally {
+      System.setOut(stdout);
+    }
+    results.forEach(System.out::println);
+  }
+
+  private interface Fleet {
+    /** Seats all players, runs {@code seated} and plays all rounds. */
+    void play(InetSocketAddress address, Runnable seated) throws Exception;
+  }
+
+  private static String measure(String name, Fleet fleet) throws Exception {
+    long[] seated = new long[2];
+    long threadsBefore = Thread.activeCount();
+    long heapBefore = usedHeap();
+    long cpuBefore = cpuNanos();
+    long start = System.nanoTime();
+    try (ServerSocket socket = new ServerSocket(0, PLAYERS, InetAddress.getLoopbackAddress())) {
+      startServer(socket);
+      fleet.play(
+          new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort()),
+          () -> {
+            seated[0] = Thread.activeCount() - threadsBefore;
+            seated[1] = usedHeap() - heapBefore;
+          });
+    }
+    long nanos = System.nanoTime() - start;
+    long cpu = cpuNanos() - cpuBefore;
+    return String.format(
+        "%-18s %,6d players: %6.2f threads, %,7d heap bytes, %,7.0f CPU ns per guess, %,6d ms",
+        name,
+        PLAYERS,
+        (double) seated[0] / PLAYERS,
+        seated[1] / PLAYERS,
+        (double) cpu / ((long) PLAYERS * ROUNDS),
+        TimeUnit.NANOSECONDS.toMillis(nanos));
+  }
+
+  private static void playOnSockets(InetSocketAddress address, Runnable seated) throws Exception {
+    try (ConnectionGroup group = new ConnectionGroup(4)) {
+      List<CompletableFuture<GameConnection>> joined = new ArrayList<>();
+      for (int i = 0; i < PLAYERS; i++) {
+        JoinGameRequest request = new JoinGameRequest(name(i)).withRoomName(room(i));
+        joined.add(
+            group
+                .connect(address, new GameListener() {})
+                .thenCompose(
+                    connection -> connection.join(request).thenApply(state -> connection)));
+      }
+      List<GameConnection> connections = new ArrayList<>();
+      for (CompletableFuture<GameConnection> connection : joined) {
+        connections.add(connection.get(60, TimeUnit.SECONDS));
+      }
+      seated.run();
+      List<CompletableFuture<GameStateNotification>> played = new ArrayList<>();
+      for (GameConnection connection : connections) {
+        played.add(play(connection, ROUNDS));
+      }
+      for (CompletableFuture<GameStateNotification> player : played) {
+        player.get(120, TimeUnit.SECONDS);
+      }
+    }
+  }
+
+  private static CompletableFuture<GameStateNotification> play(
+      GameConnection connection, int rounds) {
+    CompletableFuture<GameStateNotification> guessed =
+        connection.guess(HighLowCardGame.Guess.HIGH);
+    return rounds == 1 ? guessed : guessed.thenCompose(state -> play(connection, rounds - 1));
+  }
+
+  private static void playMultiplexed(InetSocketAddress address, Runnable seated)
+      throws Exception {
+    try (Socket socket = new Socket(address.getAddress(), address.getPort())) {
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+      BlockingQueue<String> outbox = new LinkedBlockingQueue<>();
+      // the server may block writing to us, so we never block writing to it while reading
+      Thread writer = new Thread(() -> write(socket, outbox));
+      writer.setDaemon(true);
+      writer.start();
+
+      for (int i = 0; i < PLAYERS; i++) {
+        outbox.add(
+            ChannelFrames.encode(
+                i,
+                "{\"messageType\":\"JoinGameRequest\",\"playerName\":\""
+                    + name(i)
+                    + "\",\"roomName\":\""
+                    + room(i)
+                    + "\"}"));
+      }
+      int[] rounds = new int[PLAYERS];
+      int seating = PLAYERS;
+      int playing = PLAYERS;
+      for (String line = in.readLine(); playing > 0; line = in.readLine()) {
+        if (line == null) {
+          throw new IOException("The server closed the connection");
+        }
+        if (!ChannelFrames.isChannelFrame(line) || ChannelFrames.payloadOf(line) == null) {
+          continue;
+        }
+        int channel = ChannelFrames.channelOf(line);
+        JSONObject message = new JSONObject(ChannelFrames.payloadOf(line));
+        if (!"GameStateNotification".equals(message.getString("messageType"))
+            || !name(channel).equals(message.getString("playerName"))) {
+          continue;
+        }
+        if (rounds[channel]++ == 0 && --seating == 0) {
+          seated.run();
+          for (int i = 0; i < PLAYERS; i++) {
+            outbox.add(guess(i));
+          }
+        } else if (rounds[channel] <= ROUNDS) {
+          outbox.add(guess(channel));
+        } else {
+          playing--;
+        }
+      }
+      writer.interrupt();
+    }
+  }
+
+  private static void write(Socket socket, BlockingQueue<String> outbox) {
+    try {
+      Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), UTF_8));
+      while (true) {
+        out.write(outbox.take());
+        out.write('\n');
+        if (outbox.isEmpty()) {
+          out.flush();
+        }
+      }
+    } catch (IOException | InterruptedException e) {
+      // the measurement is over
+    }
+  }
+
+  private static String guess(int channel) {
+    return ChannelFrames.encode(
+        channel,
+        "{\"messageType\":\"GuessRequest\",\"guess\":\"HIGH\",\"playerName\":\""
+            + name(channel)
+            + "\"}");
+  }
+
+  private static String name(int player) {
+    return "p" + player;
+  }
+
+  private static String room(int player) {
+    return "table" + player / PLAYERS_PER_ROOM;
+  }
+
+  private static long usedHeap() {
+    System.gc();
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static long cpuNanos() {
+    return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+        .getProcessCpuTime();
+  }
+
+  private static void startServer(ServerSocket socket) {
+    Thread accept =
+        new Thread(
+            () -> {
+              try {
+                new Server().start(socket);
+              } catch (IOException e) {
+                // closed after the measurement
+              }
+            });
+    accept.setDaemon(true);
+    accept.start();
+  }
+}
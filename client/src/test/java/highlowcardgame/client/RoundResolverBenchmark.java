@@ -0,0 +1,122 @@
+package highlowcardgame.client;
+
+import highlowcardgame.communication.LatencyHistogram;
+import highlowcardgame.communication.messages.JoinGameRequest;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.server.RoundResolver;
+import highlowcardgame.server.Server;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// guess ack latency and rounds per second with and without resolvers; run with `gradle benchmark`
+@Tag("benchmark")
+public class RoundResolverBenchmark {
+
+  private static final int BOTS = 2_000;
+  private static final int PLAYERS_PER_ROOM = 10;
+  private static final int GUESSES = 20;
+
+  @Test
+  public void ackLatencyByResolverThreads() throws Exception {
+    PrintStream stdout = System.out;
+    List<String> results = new ArrayList<>();
+    int cores = Runtime.getRuntime().availableProcessors();
+    for (int resolvers : new int[] {0, 1, cores}) {
+      Server server = new Server();
+      server.setResolverThreads(resolvers);
+      LatencyHistogram acks = new LatencyHistogram();
+      long playNanos;
+      long rounds;
+      // the server logs every connection and guess
+      System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+      try (ServerSocket socket = new ServerSocket(0, BOTS, InetAddress.getLoopbackAddress());
+          ConnectionGroup group = new ConnectionGroup(4)) {
+        startServer(server, socket);
+        InetSocketAddress address =
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort());
+        List<CompletableFuture<GameConnection>> joined = new ArrayList<>();
+        for (int i = 0; i < BOTS; i++) {
+          JoinGameRequest request =
+              new JoinGameRequest("bot" + i).withRoomName("table" + i / PLAYERS_PER_ROOM);
+          joined.add(
+              group
+                  .connect(address, new GameListener() {})
+                  .thenCompose(
+                      connection -> connection.join(request).thenApply(state -> connection)));
+        }
+        List<GameConnection> connections = new ArrayList<>();
+        for (CompletableFuture<GameConnection> connection : joined) {
+          connections.add(connection.get(60, TimeUnit.SECONDS));
+        }
+
+        long roundsBefore = server.getMetrics().getRoundDurations().getCount();
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> played = new ArrayList<>();
+        for (GameConnection connection : connections) {
+          played.add(play(connection, GUESSES, acks));
+        }
+        for (CompletableFuture<Void> bot : played) {
+          bot.get(120, TimeUnit.SECONDS);
+        }
+        playNanos = System.nanoTime() - start;
+        // rounds ended by a resolver after the last ack still count
+        RoundResolver resolver = server.getRoundResolver();
+        while (resolver != null && resolver.getPending() > 0) {
+          Thread.sleep(1);
+        }
+        rounds = server.getMetrics().getRoundDurations().getCount() - roundsBefore;
+      } finally {
+        System.setOut(stdout);
+      }
+      results.add(
+          String.format(
+              "%s: ack p50 %,7d us  p99 %,7d us  %,8.0f rounds/s",
+              resolvers == 0 ? "last guesser" : resolvers + " resolvers",
+              TimeUnit.NANOSECONDS.toMicros(acks.getPercentileNanos(50)),
+              TimeUnit.NANOSECONDS.toMicros(acks.getPercentileNanos(99)),
+              rounds / (playNanos / 1e9)));
+      RoundResolver resolver = server.getRoundResolver();
+      if (resolver != null) {
+        results.add("  " + resolver);
+        resolver.close();
+      }
+    }
+    results.forEach(System.out::println);
+  }
+
+  private static CompletableFuture<Void> play(
+      GameConnection connection, int guesses, LatencyHistogram acks) {
+    long start = System.nanoTime();
+    CompletableFuture<Void> guessed =
+        connection
+            .guess(HighLowCardGame.Guess.HIGH)
+            .thenAccept(state -> acks.record(System.nanoTime() - start));
+    return guesses == 1
+        ? guessed
+        : guessed.thenCompose(ack -> play(connection, guesses - 1, acks));
+  }
+
+  private static void startServer(Server server, ServerSocket socket) {
+    Thread accept =
+        new Thread(
+            () -> {
+              try {
+                server.start(socket);
+              } catch (IOException e) {
+                // closed after the measurement
+              }
+            });
+    accept.setDaemon(true);
+    accept.start();
+  }
+}
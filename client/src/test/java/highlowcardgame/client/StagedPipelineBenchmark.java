@@ -0,0 +1,109 @@
+package highlowcardgame.client;
+
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.communication.messages.JoinGameRequest;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.server.Server;
+import highlowcardgame.server.Stage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// guess throughput inline and through the staged pipeline, per stage; run with `gradle benchmark`
+@Tag("benchmark")
+public class StagedPipelineBenchmark {
+
+  private static final int BOTS = 2_000;
+  private static final int PLAYERS_PER_ROOM = 10;
+  private static final int ROUNDS = 20;
+
+  /** Prints the queue and service times of every stage, which show the stage that saturates. */
+  @Test
+  public void throughputByStageThreads() throws Exception {
+    PrintStream stdout = System.out;
+    List<String> results = new ArrayList<>();
+    int cores = Runtime.getRuntime().availableProcessors();
+    for (int[] stages : new int[][] {null, {1, 1, 1, 1}, {1, cores, cores, cores}}) {
+      Server server = new Server();
+      if (stages != null) {
+        server.setStages(stages[0], stages[1], stages[2], stages[3]);
+      }
+      long playNanos;
+      // the server logs every connection and guess
+      System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+      try (ServerSocket socket = new ServerSocket(0, BOTS, InetAddress.getLoopbackAddress());
+          ConnectionGroup group = new ConnectionGroup(4)) {
+        startServer(server, socket);
+        InetSocketAddress address =
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort());
+        List<CompletableFuture<GameConnection>> joined = new ArrayList<>();
+        for (int i = 0; i < BOTS; i++) {
+          JoinGameRequest request =
+              new JoinGameRequest("bot" + i).withRoomName("table" + i / PLAYERS_PER_ROOM);
+          joined.add(
+              group
+                  .connect(address, new GameListener() {})
+                  .thenCompose(
+                      connection -> connection.join(request).thenApply(state -> connection)));
+        }
+        List<GameConnection> connections = new ArrayList<>();
+        for (CompletableFuture<GameConnection> connection : joined) {
+          connections.add(connection.get(60, TimeUnit.SECONDS));
+        }
+
+        long start = System.nanoTime();
+        List<CompletableFuture<GameStateNotification>> played = new ArrayList<>();
+        for (GameConnection connection : connections) {
+          played.add(play(connection, ROUNDS));
+        }
+        for (CompletableFuture<GameStateNotification> bot : played) {
+          bot.get(120, TimeUnit.SECONDS);
+        }
+        playNanos = System.nanoTime() - start;
+      } finally {
+        System.setOut(stdout);
+      }
+      results.add(
+          String.format(
+              "%s: %,8.0f guesses/s",
+              stages == null ? "inline" : "stages " + Arrays.toString(stages),
+              (double) BOTS * ROUNDS / (playNanos / 1e9)));
+      for (Stage stage : server.getStages()) {
+        results.add("  " + stage);
+        stage.close();
+      }
+    }
+    results.forEach(System.out::println);
+  }
+
+  private static CompletableFuture<GameStateNotification> play(
+      GameConnection connection, int rounds) {
+    CompletableFuture<GameStateNotification> guessed =
+        connection.guess(HighLowCardGame.Guess.HIGH);
+    return rounds == 1 ? guessed : guessed.thenCompose(state -> play(connection, rounds - 1));
+  }
+
+  private static void startServer(Server server, ServerSocket socket) {
+    Thread accept =
+        new Thread(
+            () -> {
+              try {
+                server.start(socket);
+              } catch (IOException e) {
+                // closed after the measurement
+              }
+            });
+    accept.setDaemon(true);
+    accept.start();
+  }
+}
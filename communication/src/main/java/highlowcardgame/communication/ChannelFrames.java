@@ -0,0 +1,59 @@
+package highlowcardgame.communication;
+
+/**
+ * Framing of multiplexed connections, which carry many players over one socket.
+ *
+ * <p>Every frame of a logical player is prefixed with {@value #PREFIX}, its channel id and a space,
+ * e.g. <code>@17 {"messageType":"GuessRequest",...}</code>. The payload is a frame of the usual
+ * protocol, possibly compressed by {@link FrameCompressor}. A frame consisting of the prefix and
+ * the channel id only closes the channel, in either direction. A connection is multiplexed if its
+ * first frame is a channel frame; frames without a prefix, such as heartbeats, then belong to the
+ * connection itself.
+ */
+public final class ChannelFrames {
+
+  /** The prefix of channel frames. */
+  public static final String PREFIX = "@";
+
+  private ChannelFrames() {}
+
+  /**
+   * Encodes a frame of a channel.
+   *
+   * @param channel the channel id, not negative
+   * @param frame the frame, without the line separator
+   * @return the frame to write to the connection
+   */
+  public static String encode(int channel, String frame) {
+    return PREFIX + channel + " " + frame;
+  }
+
+  /** Returns the frame that closes a channel. */
+  public static String close(int channel) {
+    return PREFIX + channel;
+  }
+
+  public static boolean isChannelFrame(String line) {
+    return line != null && line.startsWith(PREFIX);
+  }
+
+  /**
+   * Returns the channel id of a channel frame.
+   *
+   * @throws IllegalArgumentException if the id is missing or malformed
+   */
+  public static int channelOf(String line) {
+    int end = line.indexOf(' ');
+    int channel = Integer.parseInt(line.substring(PREFIX.length(), end < 0 ? line.length() : end));
+    if (channel < 0) {
+      throw new IllegalArgumentException("Negative channel id: " + channel);
+    }
+    return channel;
+  }
+
+  /** Returns the payload of a channel frame, or {@code null} if the frame closes the channel. */
+  public static String payloadOf(String line) {
+    int end = line.indexOf(' ');
+    return end < 0 ? null : line.substring(end + 1);
+  }
+}
@@ -0,0 +1,191 @@
+package highlowcardgame.communication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Optional per-frame compression of the line-based protocol.
+ *
+ * <p>Frames shorter than the threshold are sent unchanged. Longer frames are compressed with raw
+ * DEFLATE primed with a preset dictionary, which contains the keys and values our messages
+ * repeat, and sent as {@value #COMPRESSED_PREFIX} followed by the Base64 encoded data. JSON frames
+ * always start with <code>{</code>, so both kinds of frames can be told apart on the same
+ * connection.
+ *
+ * <p>A compressed frame never inflates beyond {@link #DEFAULT_MAX_FRAME_LENGTH} bytes, or the limit
+ * given at construction, so a small malicious frame cannot make the receiver allocate without
+ * bound.
+ *
+ * <p>{@link Deflater} and {@link Inflater} instances hold native buffers, so a bounded number of
+ * them is pooled and shared by all connections using this compressor.
+ */
+public final class FrameCompressor {
+
+  /** The value of the {@code compression} field in a join request that enables compression. */
+  public static final String DEFLATE = "deflate";
+
+  /** The prefix marking a compressed frame. */
+  public static final String COMPRESSED_PREFIX = "~";
+
+  /** The default minimum frame length in bytes for compression. */
+  public static final int DEFAULT_THRESHOLD = 256;
+
+  /** The default maximum length in bytes of a decompressed frame. */
+  public static final int DEFAULT_MAX_FRAME_LENGTH = 1 << 20;
+
+  private static final byte[] PRESET_DICTIONARY =
+      ("\"suit\":\"CLUBS\",\"suit\":\"DIAMONDS\",\"suit\":\"HEARTS\",\"suit\":\"SPADES\","
+          + "{\"messageType\":\"PlayerJoinedNotification\",\"newPlayerName\":\"\","
+          + "\"numPlayers\":"
+          + "{\"messageType\":\"PlayerLeftNotification\",\"playerName\":\"\",\"numPlayers\":"
+          + "{\"messageType\":\"PlayerGuessedNotification\",\"numNotGuessedPlayers\":"
+          + "{\"messageType\":\"GameStateDeltaNotification\",\"v\":,\"b\":,\"p\":\"\",\"r\":,"
+          + "\"c\":{\"value\":,\"s\":}"
+          + "{\"messageType\":\"LeaderboardNotification\",\"numPlayers\":,\"topPlayers\":["
+          + "{\"playerName\":\"\",\"score\":,\"rank\":},"
+          + "{\"playerName\":\"\",\"score\":,\"rank\":}"
+          + "{\"messageType\":\"GameStateNotification\",\"playerName\":\"\",\"numRounds\":,"
+          + "\"currentCard\":{\"value\":,\"suit\":\"\"},\"score\":}")
+          .getBytes(StandardCharsets.UTF_8);
+
+  private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+  private static final int BUFFER_SIZE = 4096;
+
+  private final int threshold;
+  private final int maxFrameLength;
+  private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+  private final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+
+  /** Creates a compressor with the {@link #DEFAULT_THRESHOLD}. */
+  public FrameCompressor() {
+    this(DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Creates a compressor with the {@link #DEFAULT_MAX_FRAME_LENGTH}.
+   *
+   * @param threshold the minimum frame length in bytes for a frame to be compressed
+   */
+  public FrameCompressor(int threshold) {
+    this(threshold, DEFAULT_MAX_FRAME_LENGTH);
+  }
+
+  /**
+   * Creates a compressor.
+   *
+   * @param threshold the minimum frame length in bytes for a frame to be compressed
+   * @param maxFrameLength the maximum length in bytes a received frame may decompress to
+   */
+  public FrameCompressor(int threshold, int maxFrameLength) {
+    if (maxFrameLength < 1) {
+      throw new IllegalArgumentException("The maximum frame length must be positive");
+    }
+    this.threshold = threshold;
+    this.maxFrameLength = maxFrameLength;
+  }
+
+  /**
+   * Encodes a frame for sending, compressing it if it is long enough and compression pays off.
+   *
+   * @param frame the frame, without the line separator
+   * @return the frame to write to the connection
+   */
+  public String encode(String frame) {
+    byte[] raw = frame.getBytes(StandardCharsets.UTF_8);
+    if (raw.length < threshold) {
+      return frame;
+    }
+    byte[] compressed = deflate(raw);
+    String encoded = COMPRESSED_PREFIX + Base64.getEncoder().encodeToString(compressed);
+    return encoded.length() < raw.length ? encoded : frame;
+  }
+
+  /**
+   * Decodes a received frame, decompressing it if necessary.
+   *
+   * @param line the received line, without the line separator
+   * @return the original frame
+   * @throws IOException if the frame is marked as compressed but cannot be decompressed, or
+   *     decompresses to more than the maximum frame length
+   */
+  public String decode(String line) throws IOException {
+    if (!isCompressed(line)) {
+      return line;
+    }
+    byte[] compressed;
+    try {
+      compressed = Base64.getDecoder().decode(line.substring(COMPRESSED_PREFIX.length()));
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Invalid compressed frame", e);
+    }
+    return new String(inflate(compressed), StandardCharsets.UTF_8);
+  }
+
+  /** Returns whether the given line is a compressed frame. */
+  public static boolean isCompressed(String line) {
+    return line != null && line.startsWith(COMPRESSED_PREFIX);
+  }
+
+  private byte[] deflate(byte[] raw) {
+    Deflater deflater = deflaters.poll();
+    if (deflater == null) {
+      deflater = new Deflater(Deflater.BEST_SPEED, true);
+    }
+    try {
+      deflater.setDictionary(PRESET_DICTIONARY);
+      deflater.setInput(raw);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (!deflater.finished()) {
+        int n = deflater.deflate(buffer);
+        out.write(buffer, 0, n);
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.reset();
+      if (!deflaters.offer(deflater)) {
+        deflater.end();
+      }
+    }
+  }
+
+  private byte[] inflate(byte[] compressed) throws IOException {
+    Inflater inflater = inflaters.poll();
+    if (inflater == null) {
+      inflater = new Inflater(true);
+    }
+    try {
+      inflater.setDictionary(PRESET_DICTIONARY);
+      inflater.setInput(compressed);
+      ByteArrayOutputStream out =
+          new ByteArrayOutputStream((int) Math.min(compressed.length * 4L, maxFrameLength));
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (!inflater.finished()) {
+        int n = inflater.inflate(buffer);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IOException("Truncated compressed frame");
+        }
+        if (out.size() + n > maxFrameLength) {
+          throw new IOException("Compressed frame exceeds " + maxFrameLength + " bytes");
+        }
+        out.write(buffer, 0, n);
+      }
+      return out.toByteArray();
+    } catch (DataFormatException e) {
+      throw new IOException("Invalid compressed frame", e);
+    } finally {
+      inflater.reset();
+      if (!inflaters.offer(inflater)) {
+        inflater.end();
+      }
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package highlowcardgame.communication;
+
+import highlowcardgame.communication.messages.GameStateDeltaNotification;
+import highlowcardgame.communication.messages.GameStateNotification;
+import java.util.TreeMap;
+
+/**
+ * Client side of the delta encoding: reconstructs full {@link GameStateNotification}s from the
+ * deltas produced by {@link GameStateDeltaEncoder}.
+ */
+public final class GameStateDeltaDecoder {
+
+  private static final int MAX_HISTORY = 64;
+
+  private final TreeMap<Long, GameStateNotification> history = new TreeMap<>();
+
+  /**
+   * Reconstructs the full state of a delta.
+   *
+   * @param delta the received delta or keyframe
+   * @return the reconstructed state, or {@code null} if the delta refers to a state this decoder
+   *     does not know, in which case a keyframe should be requested
+   */
+  public synchronized GameStateNotification decode(GameStateDeltaNotification delta) {
+    GameStateNotification state;
+    if (delta.isKeyframe()) {
+      state =
+          new GameStateNotification(
+              delta.getPlayerName(),
+              orZero(delta.getNumRounds()),
+              delta.getCurrentCard(),
+              orZero(delta.getScore()));
+    } else {
+      GameStateNotification base = history.get(delta.getBaseVersion());
+      if (base == null) {
+        return null;
+      }
+      // The server only encodes against acknowledged versions, so older ones are no longer needed.
+      history.headMap(delta.getBaseVersion(), false).clear();
+      state =
+          new GameStateNotification(
+              delta.getPlayerName() != null ? delta.getPlayerName() : base.getPlayerName(),
+              delta.getNumRounds() != null ? delta.getNumRounds() : base.getNumRounds(),
+              delta.getCurrentCard() != null ? delta.getCurrentCard() : base.getCurrentCard(),
+              delta.getScore() != null ? delta.getScore() : base.getScore());
+    }
+    history.put(delta.getVersion(), state);
+    while (history.size() > MAX_HISTORY) {
+      history.pollFirstEntry();
+    }
+    return state;
+  }
+
+  private static int orZero(Integer value) {
+    return value == null ? 0 : value;
+  }
+}
@@ -0,0 +1,111 @@
+package highlowcardgame.communication;
+
+import highlowcardgame.communication.messages.GameStateDeltaNotification;
+import highlowcardgame.communication.messages.GameStateNotification;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Server side of the delta encoding of one player's {@link GameStateNotification} stream.
+ *
+ * <p>Every encoded state gets a new version. States are encoded relative to the latest version the
+ * client acknowledged. The player name identifies the stream and is therefore always included.
+ * Until the first acknowledgement, every {@code keyframeInterval} versions, and whenever the client
+ * asks for it, a keyframe carrying all fields is sent instead.
+ */
+public final class GameStateDeltaEncoder {
+
+  /** The default number of versions between two keyframes. */
+  public static final int DEFAULT_KEYFRAME_INTERVAL = 32;
+
+  private static final int MAX_UNACKNOWLEDGED = 64;
+
+  private final int keyframeInterval;
+  private final TreeMap<Long, GameStateNotification> unacknowledged = new TreeMap<>();
+  private GameStateNotification acknowledged;
+  private long acknowledgedVersion = -1;
+  private long lastKeyframeVersion = 0;
+  private long version = 0;
+  private boolean keyframeRequested = false;
+
+  /** Creates an encoder that sends a keyframe every {@link #DEFAULT_KEYFRAME_INTERVAL} versions. */
+  public GameStateDeltaEncoder() {
+    this(DEFAULT_KEYFRAME_INTERVAL);
+  }
+
+  /**
+   * Creates an encoder.
+   *
+   * @param keyframeInterval the maximum number of versions between two keyframes
+   */
+  public GameStateDeltaEncoder(int keyframeInterval) {
+    if (keyframeInterval < 1) {
+      throw new IllegalArgumentException("The keyframe interval must be positive");
+    }
+    this.keyframeInterval = keyframeInterval;
+  }
+
+  /**
+   * Encodes the next state of the stream.
+   *
+   * @param state the full state to send
+   * @return the delta or keyframe to send instead
+   */
+  public synchronized GameStateDeltaNotification encode(GameStateNotification state) {
+    version++;
+    unacknowledged.put(version, state);
+    while (unacknowledged.size() > MAX_UNACKNOWLEDGED) {
+      unacknowledged.pollFirstEntry();
+    }
+
+    if (acknowledged == null
+        || keyframeRequested
+        || version - lastKeyframeVersion >= keyframeInterval) {
+      keyframeRequested = false;
+      lastKeyframeVersion = version;
+      return new GameStateDeltaNotification(
+          version,
+          null,
+          state.getPlayerName(),
+          state.getNumRounds(),
+          state.getCurrentCard(),
+          state.getScore());
+    }
+
+    GameStateNotification base = acknowledged;
+    return new GameStateDeltaNotification(
+        version,
+        acknowledgedVersion,
+        state.getPlayerName(),
+        base.getNumRounds() == state.getNumRounds() ? null : state.getNumRounds(),
+        Objects.equals(base.getCurrentCard(), state.getCurrentCard())
+            ? null
+            : state.getCurrentCard(),
+        base.getScore() == state.getScore() ? null : state.getScore());
+  }
+
+  /**
+   * Records that the client reconstructed the given version. Acknowledging an unknown or outdated
+   * version has no effect; a negative version requests a keyframe.
+   *
+   * @param ackedVersion the acknowledged version
+   */
+  public synchronized void acknowledge(long ackedVersion) {
+    if (ackedVersion < 0) {
+      keyframeRequested = true;
+      return;
+    }
+    GameStateNotification state = unacknowledged.get(ackedVersion);
+    if (state == null || ackedVersion <= acknowledgedVersion) {
+      return;
+    }
+    acknowledged = state;
+    acknowledgedVersion = ackedVersion;
+    unacknowledged.headMap(ackedVersion, true).clear();
+  }
+
+  /** Makes the next encoded state a keyframe. */
+  public synchronized void requestKeyframe() {
+    keyframeRequested = true;
+  }
+}
@@ -0,0 +1,118 @@
+package highlowcardgame.communication;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations with logarithmic buckets.
+ *
+ * <p>Every power of two is split into eight linear sub-buckets, so recorded values are reported
+ * with a relative error of at most 12.5% while the histogram has a fixed size of a few kilobytes.
+ * Recording is a single atomic increment and may happen from any number of threads.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder total = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+
+  /**
+   * Records a duration.
+   *
+   * @param nanos the duration in nanoseconds; negative values are recorded as zero
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    counts.incrementAndGet(indexOf(value));
+    total.increment();
+    sum.add(value);
+  }
+
+  /**
+   * Records a duration.
+   *
+   * @param duration the duration
+   * @param unit the unit of {@code duration}
+   */
+  public void record(long duration, TimeUnit unit) {
+    record(unit.toNanos(duration));
+  }
+
+  /** Returns the number of recorded durations. */
+  public long getCount() {
+    return total.sum();
+  }
+
+  /** Returns the mean of the recorded durations in nanoseconds, or 0 if there are none. */
+  public double getMeanNanos() {
+    long count = getCount();
+    return count == 0 ? 0 : (double) sum.sum() / count;
+  }
+
+  /**
+   * Returns an upper bound of the given percentile of the recorded durations.
+   *
+   * @param percentile the percentile between 0 and 100
+   * @return the percentile in nanoseconds, or 0 if nothing was recorded
+   */
+  public long getPercentileNanos(double percentile) {
+    long count = getCount();
+    if (count == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(percentile / 100.0 * count);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= Math.max(1, rank)) {
+        return upperBoundOf(i);
+      }
+    }
+    return upperBoundOf(BUCKETS - 1);
+  }
+
+  /** Discards all recorded durations. */
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts.set(i, 0);
+    }
+    total.reset();
+    sum.reset();
+  }
+
+  /** Returns a summary of the histogram in milliseconds. */
+  @Override
+  public String toString() {
+    return String.format(
+        "count=%d mean=%.3fms p50=%.3fms p99=%.3fms p999=%.3fms",
+        getCount(),
+        getMeanNanos() / 1e6,
+        getPercentileNanos(50) / 1e6,
+        getPercentileNanos(99) / 1e6,
+        getPercentileNanos(99.9) / 1e6);
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long upperBoundOf(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long subBucket = index % SUB_BUCKETS;
+    long lower = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+  }
+}
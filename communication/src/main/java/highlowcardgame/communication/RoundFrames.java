@@ -0,0 +1,88 @@
+package highlowcardgame.communication;
+
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.communication.messages.RoundNotification;
+import highlowcardgame.communication.messages.ScoreNotification;
+import highlowcardgame.game.Card;
+import org.json.JSONObject;
+
+/**
+ * Encoding of game states as one {@link RoundNotification} shared by a table plus one {@link
+ * ScoreNotification} per player, for clients that join with round frames.
+ *
+ * <p>A full {@link GameStateNotification} per player and recipient makes a round of a table with N
+ * players cost N * N frames. With round frames every player receives the shared frame, encoded once
+ * per round, and its own score frame, so a round costs N copies of one frame plus N small ones.
+ */
+public final class RoundFrames {
+
+  private RoundFrames() {}
+
+  /**
+   * Encodes the frame shared by all players of a round.
+   *
+   * @param numRounds the round
+   * @param currentCard the current card of the round
+   * @return the frame, without the line separator
+   */
+  public static String encodeRound(int numRounds, Card currentCard) {
+    return new RoundNotification(numRounds, currentCard).toJSON().toString();
+  }
+
+  /**
+   * Encodes the score frames of many players in one pass, reusing one buffer for all of them.
+   *
+   * @param playerNames the names of the players
+   * @param scores the score of every player, in the order of {@code playerNames}
+   * @return the frame of every player, in the order of {@code playerNames}
+   */
+  public static String[] encodeScores(String[] playerNames, int[] scores) {
+    if (playerNames.length != scores.length) {
+      throw new IllegalArgumentException("Every player needs a score");
+    }
+    String[] frames = new String[playerNames.length];
+    StringBuilder frame = new StringBuilder(64);
+    for (int i = 0; i < frames.length; i++) {
+      frame.setLength(0);
+      frame
+          .append("{\"messageType\":\"ScoreNotification\",\"playerName\":")
+          .append(JSONObject.quote(playerNames[i]))
+          .append(",\"score\":")
+          .append(scores[i])
+          .append('}');
+      frames[i] = frame.toString();
+    }
+    return frames;
+  }
+
+  /** Encodes the score frame of a single player. */
+  public static String encodeScore(String playerName, int score) {
+    return encodeScores(new String[] {playerName}, new int[] {score})[0];
+  }
+
+  /**
+   * Client side of round frames: combines the last round frame with the score frames that follow
+   * into full game states. Not thread-safe.
+   */
+  public static final class Decoder {
+    private RoundNotification round;
+
+    public void onRound(RoundNotification round) {
+      this.round = round;
+    }
+
+    /**
+     * Returns the state of the player of a score frame.
+     *
+     * @param score the received score frame
+     * @return the state, or {@code null} if no round frame was received yet
+     */
+    public GameStateNotification onScore(ScoreNotification score) {
+      if (round == null) {
+        return null;
+      }
+      return new GameStateNotification(
+          score.getPlayerName(), round.getNumRounds(), round.getCurrentCard(), score.getScore());
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package highlowcardgame.communication.messages;
+
+import com.squareup.moshi.Json;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import highlowcardgame.game.Card;
+import org.json.JSONObject;
+
+/**
+ * A {@link GameStateNotification} encoded relative to a state the client already acknowledged.
+ *
+ * <p>Fields that did not change since {@link #getBaseVersion()} are {@code null} and therefore
+ * omitted from the JSON frame. The player name identifies the state stream and is always present. A
+ * keyframe has no base version and carries every field. The state fields use one-letter keys, as
+ * they are repeated in every frame.
+ */
+public final class GameStateDeltaNotification implements Message {
+
+  private final String messageType = "GameStateDeltaNotification";
+
+  @Json(name = "v")
+  private final long version;
+
+  @Json(name = "b")
+  private final Long baseVersion;
+
+  @Json(name = "p")
+  private final String playerName;
+
+  @Json(name = "r")
+  private final Integer numRounds;
+
+  @Json(name = "c")
+  private final Card currentCard;
+
+  @Json(name = "s")
+  private final Integer score;
+
+  /**
+   * Creates a new delta notification.
+   *
+   * @param version the version of the encoded state
+   * @param baseVersion the acknowledged version the delta refers to, or {@code null} for a keyframe
+   * @param playerName the player whose state is encoded
+   * @param numRounds the round number, or {@code null} if unchanged
+   * @param currentCard the current card, or {@code null} if unchanged
+   * @param score the score, or {@code null} if unchanged
+   */
+  public GameStateDeltaNotification(
+      long version,
+      Long baseVersion,
+      String playerName,
+      Integer numRounds,
+      Card currentCard,
+      Integer score) {
+    this.version = version;
+    this.baseVersion = baseVersion;
+    this.playerName = playerName;
+    this.numRounds = numRounds;
+    this.currentCard = currentCard;
+    this.score = score;
+  }
+
+  public String getMessageType() {
+    return messageType;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public Long getBaseVersion() {
+    return baseVersion;
+  }
+
+  public boolean isKeyframe() {
+    return baseVersion == null;
+  }
+
+  public String getPlayerName() {
+    return playerName;
+  }
+
+  public Integer getNumRounds() {
+    return numRounds;
+  }
+
+  public Card getCurrentCard() {
+    return currentCard;
+  }
+
+  public Integer getScore() {
+    return score;
+  }
+
+  public JSONObject toJSON() {
+    Moshi moshi = new Moshi.Builder().build();
+    JsonAdapter<GameStateDeltaNotification> jsonAdapter =
+        moshi.adapter(GameStateDeltaNotification.class);
+    try {
+      String jsonString = jsonAdapter.toJson(this);
+      return new JSONObject(jsonString);
+    } catch (Exception e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package highlowcardgame.communication.messages;
+
+/** Sent by the server to a client it has not written to for a while. */
+public final class HeartbeatNotification implements Message {
+
+  private final String messageType = "HeartbeatNotification";
+
+  public String getMessageType() {
+    return messageType;
+  }
+}
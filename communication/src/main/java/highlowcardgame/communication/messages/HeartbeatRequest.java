@@ -0,0 +1,11 @@
+package highlowcardgame.communication.messages;
+
+/** Sent by a client that has nothing else to send, to show the server that it is still alive. */
+public final class HeartbeatRequest implements Message {
+
+  private final String messageType = "HeartbeatRequest";
+
+  public String getMessageType() {
+    return messageType;
+  }
+}
@@ -1,15 +1,112 @@
 package highlowcardgame.communication.messages;
 
-import com.squareup.moshi.Json;
-
 public final class JoinGameRequest implements Message {
+  /** The room players join when their request names none. */
+  public static final String DEFAULT_ROOM = "default";
+
   private final String playerName;
+  private final Boolean deltaStates;
+  private final String compression;
+  private final String roomName;
+  private final String resumeToken;
+  private final Boolean roundFrames;
 
   public JoinGameRequest(String playerName) {
+    this(playerName, null, null, null, null, null);
+  }
+
+  /**
+   * Creates a join request. Requests with only some of the options are easier to read built from
+   * {@link #JoinGameRequest(String)} with the {@code with} methods.
+   *
+   * @param playerName the name of the joining player
+   * @param deltaStates {@code true} to receive delta-encoded game states, or {@code null} to leave
+   *     the field out of the request
+   * @param compression the frame compression the client supports, or {@code null} for none
+   * @param roomName the room to join, or {@code null} for the {@link #DEFAULT_ROOM}
+   * @param resumeToken the token of a {@link SessionNotification} to resume a dropped session
+   *     with, or {@code null} to join as a new player
+   * @param roundFrames {@code true} to receive game states as a {@link RoundNotification} and the
+   *     player's own {@link ScoreNotification} instead of the states of all players, or {@code
+   *     null} to leave the field out of the request
+   */
+  public JoinGameRequest(
+      String playerName,
+      Boolean deltaStates,
+      String compression,
+      String roomName,
+      String resumeToken,
+      Boolean roundFrames) {
     this.playerName = playerName;
+    this.deltaStates = deltaStates;
+    this.compression = compression;
+    this.roomName = roomName;
+    this.resumeToken = resumeToken;
+    this.roundFrames = roundFrames;
+  }
+
+  /** Returns a copy of this request that asks for delta-encoded game states, or does not. */
+  public JoinGameRequest withDeltaStates(boolean deltaStates) {
+    return new JoinGameRequest(
+        playerName, flag(deltaStates), compression, roomName, resumeToken, roundFrames);
+  }
+
+  /** Returns a copy of this request with the given frame compression, or none for {@code null}. */
+  public JoinGameRequest withCompression(String compression) {
+    return new JoinGameRequest(
+        playerName, deltaStates, compression, roomName, resumeToken, roundFrames);
+  }
+
+  /** Returns a copy of this request for the given room, or the default room for {@code null}. */
+  public JoinGameRequest withRoomName(String roomName) {
+    return new JoinGameRequest(
+        playerName, deltaStates, compression, roomName, resumeToken, roundFrames);
+  }
+
+  /**
+   * Returns a copy of this request that resumes the session of the given token, or joins as a new
+   * player for {@code null}.
+   */
+  public JoinGameRequest withResumeToken(String resumeToken) {
+    return new JoinGameRequest(
+        playerName, deltaStates, compression, roomName, resumeToken, roundFrames);
+  }
+
+  /** Returns a copy of this request that asks for round frames, or does not. */
+  public JoinGameRequest withRoundFrames(boolean roundFrames) {
+    return new JoinGameRequest(
+        playerName, deltaStates, compression, roomName, resumeToken, flag(roundFrames));
+  }
+
+  /** Leaves options that are off out of the request, as older servers do not know them. */
+  private static Boolean flag(boolean value) {
+    return value ? Boolean.TRUE : null;
   }
 
   public String getPlayerName() {
     return playerName;
   }
+
+  public boolean isDeltaStates() {
+    return Boolean.TRUE.equals(deltaStates);
+  }
+
+  public String getCompression() {
+    return compression;
+  }
+
+  /** Returns the room to join, which is the {@link #DEFAULT_ROOM} if the request names none. */
+  public String getRoomName() {
+    return roomName == null || roomName.isBlank() ? DEFAULT_ROOM : roomName;
+  }
+
+  /** Returns the token of the session to resume, or {@code null} to join as a new player. */
+  public String getResumeToken() {
+    return resumeToken;
+  }
+
+  /** Returns whether the client wants round frames, which take precedence over delta states. */
+  public boolean isRoundFrames() {
+    return Boolean.TRUE.equals(roundFrames);
+  }
 }
@@ -0,0 +1,89 @@
+package highlowcardgame.communication.messages;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import java.util.List;
+import org.json.JSONObject;
+
+/** The top players across all tables, optionally with the rank of the requesting player. */
+public final class LeaderboardNotification implements Message {
+
+  /** A single row of the leaderboard. */
+  public static final class Entry {
+    private final String playerName;
+    private final int score;
+    private final int rank;
+
+    /**
+     * Creates a new leaderboard row.
+     *
+     * @param playerName the name of the player
+     * @param score the score of the player
+     * @param rank the rank of the player, starting at 1; players with equal scores share a rank
+     */
+    public Entry(String playerName, int score, int rank) {
+      this.playerName = playerName;
+      this.score = score;
+      this.rank = rank;
+    }
+
+    public String getPlayerName() {
+      return playerName;
+    }
+
+    public int getScore() {
+      return score;
+    }
+
+    public int getRank() {
+      return rank;
+    }
+  }
+
+  private final String messageType = "LeaderboardNotification";
+  private final List<Entry> topPlayers;
+  private final int numPlayers;
+  private final Entry player;
+
+  /**
+   * Creates a new leaderboard notification.
+   *
+   * @param topPlayers the best players, ordered by rank
+   * @param numPlayers the number of ranked players
+   * @param player the row of the requesting player, or {@code null} if not requested
+   */
+  public LeaderboardNotification(List<Entry> topPlayers, int numPlayers, Entry player) {
+    this.topPlayers = List.copyOf(topPlayers);
+    this.numPlayers = numPlayers;
+    this.player = player;
+  }
+
+  public String getMessageType() {
+    return messageType;
+  }
+
+  public List<Entry> getTopPlayers() {
+    return topPlayers;
+  }
+
+  public int getNumPlayers() {
+    return numPlayers;
+  }
+
+  public Entry getPlayer() {
+    return player;
+  }
+
+  public JSONObject toJSON() {
+    Moshi moshi = new Moshi.Builder().build();
+    JsonAdapter<LeaderboardNotification> jsonAdapter =
+        moshi.adapter(LeaderboardNotification.class);
+    try {
+      String jsonString = jsonAdapter.toJson(this);
+      return new JSONObject(jsonString);
+    } catch (Exception e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package highlowcardgame.communication.messages;
+
+/** Asks the server for the current top players across all tables. */
+public final class LeaderboardRequest implements Message {
+
+  private final String messageType = "LeaderboardRequest";
+  private final int limit;
+  private final String playerName;
+
+  /**
+   * Creates a new leaderboard request.
+   *
+   * @param limit the number of top players to return
+   * @param playerName the player whose rank should be included, or {@code null} for the top
+   *     players only
+   */
+  public LeaderboardRequest(int limit, String playerName) {
+    this.limit = limit;
+    this.playerName = playerName;
+  }
+
+  public String getMessageType() {
+    return messageType;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public String getPlayerName() {
+    return playerName;
+  }
+}
@@ -0,0 +1,41 @@
+package highlowcardgame.communication.messages;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import highlowcardgame.game.Card;
+import org.json.JSONObject;
+
+/**
+ * The part of a game state shared by every player of a table: the round and its current card. The
+ * frame is the same for all players, so the server encodes it once per round. The score of each
+ * player follows in a {@link ScoreNotification} of its own.
+ */
+public final class RoundNotification implements Message {
+
+  private final String messageType = "RoundNotification";
+  private final int numRounds;
+  private final Card currentCard;
+
+  public RoundNotification(int numRounds, Card currentCard) {
+    this.numRounds = numRounds;
+    this.currentCard = currentCard;
+  }
+
+  public String getMessageType() {
+    return messageType;
+  }
+
+  public int getNumRounds() {
+    return numRounds;
+  }
+
+  public Card getCurrentCard() {
+    return currentCard;
+  }
+
+  public JSONObject toJSON() {
+    Moshi moshi = new Moshi.Builder().build();
+    JsonAdapter<RoundNotification> jsonAdapter = moshi.adapter(RoundNotification.class);
+    return new JSONObject(jsonAdapter.toJson(this));
+  }
+}
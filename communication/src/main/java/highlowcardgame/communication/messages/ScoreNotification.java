@@ -0,0 +1,39 @@
+package highlowcardgame.communication.messages;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import org.json.JSONObject;
+
+/**
+ * The score of one player, sent only to that player after the {@link RoundNotification} it
+ * belongs to.
+ */
+public final class ScoreNotification implements Message {
+
+  private final String messageType = "ScoreNotification";
+  private final String playerName;
+  private final int score;
+
+  public ScoreNotification(String playerName, int score) {
+    this.playerName = playerName;
+    this.score = score;
+  }
+
+  public String getMessageType() {
+    return messageType;
+  }
+
+  public String getPlayerName() {
+    return playerName;
+  }
+
+  public int getScore() {
+    return score;
+  }
+
+  public JSONObject toJSON() {
+    Moshi moshi = new Moshi.Builder().build();
+    JsonAdapter<ScoreNotification> jsonAdapter = moshi.adapter(ScoreNotification.class);
+    return new JSONObject(jsonAdapter.toJson(this));
+  }
+}
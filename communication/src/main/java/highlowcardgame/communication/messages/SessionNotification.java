@@ -0,0 +1,53 @@
+package highlowcardgame.communication.messages;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import org.json.JSONObject;
+
+/**
+ * Hands a joined player the token to resume their session with. If the connection drops, the
+ * server keeps the player's seat and score for the grace period; a {@link JoinGameRequest} with the
+ * token within that time continues the session instead of joining a new player.
+ */
+public final class SessionNotification implements Message {
+
+  private final String messageType = "SessionNotification";
+  private final String playerName;
+  private final String resumeToken;
+  private final long gracePeriodMillis;
+
+  /**
+   * Creates a new session notification.
+   *
+   * @param playerName the player the session belongs to
+   * @param resumeToken the secret token that resumes the session
+   * @param gracePeriodMillis how long the server keeps the session after the connection drops
+   */
+  public SessionNotification(String playerName, String resumeToken, long gracePeriodMillis) {
+    this.playerName = playerName;
+    this.resumeToken = resumeToken;
+    this.gracePeriodMillis = gracePeriodMillis;
+  }
+
+  public String getMessageType() {
+    return messageType;
+  }
+
+  public String getPlayerName() {
+    return playerName;
+  }
+
+  public String getResumeToken() {
+    return resumeToken;
+  }
+
+  public long getGracePeriodMillis() {
+    return gracePeriodMillis;
+  }
+
+  public JSONObject toJSON() {
+    Moshi moshi = new Moshi.Builder().build();
+    JsonAdapter<SessionNotification> jsonAdapter = moshi.adapter(SessionNotification.class);
+    return new JSONObject(jsonAdapter.toJson(this));
+  }
+}
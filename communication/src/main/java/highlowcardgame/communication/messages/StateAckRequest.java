@@ -0,0 +1,35 @@
+package highlowcardgame.communication.messages;
+
+/**
+ * Acknowledges that the client reconstructed a delta-encoded state, so the server may encode
+ * further states relative to it. A negative version asks the server for a keyframe.
+ */
+public final class StateAckRequest implements Message {
+
+  private final String messageType = "StateAckRequest";
+  private final String playerName;
+  private final long version;
+
+  /**
+   * Creates a new acknowledgement.
+   *
+   * @param playerName the player whose state stream is acknowledged
+   * @param version the reconstructed version, or a negative value to request a keyframe
+   */
+  public StateAckRequest(String playerName, long version) {
+    this.playerName = playerName;
+    this.version = version;
+  }
+
+  public String getMessageType() {
+    return messageType;
+  }
+
+  public String getPlayerName() {
+    return playerName;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+}
@@ -0,0 +1,44 @@
+package highlowcardgame.communication;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ChannelFramesTest {
+
+  private static final String FRAME = "{\"messageType\":\"HeartbeatRequest\"}";
+
+  @Test
+  public void testEncode_roundTrips() {
+    String line = ChannelFrames.encode(17, FRAME);
+
+    assertThat(line).isEqualTo("@17 " + FRAME);
+    assertThat(ChannelFrames.isChannelFrame(line)).isTrue();
+    assertThat(ChannelFrames.channelOf(line)).isEqualTo(17);
+    assertThat(ChannelFrames.payloadOf(line)).isEqualTo(FRAME);
+  }
+
+  @Test
+  public void testClose_hasNoPayload() {
+    String line = ChannelFrames.close(3);
+
+    assertThat(ChannelFrames.channelOf(line)).isEqualTo(3);
+    assertThat(ChannelFrames.payloadOf(line)).isNull();
+  }
+
+  @Test
+  public void testPlainFrames_areNotChannelFrames() {
+    assertThat(ChannelFrames.isChannelFrame(FRAME)).isFalse();
+    assertThat(ChannelFrames.isChannelFrame(FrameCompressor.COMPRESSED_PREFIX + "eJw=")).isFalse();
+    assertThat(ChannelFrames.isChannelFrame(null)).isFalse();
+  }
+
+  @Test
+  public void testChannelOf_rejectsMalformedIds() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> ChannelFrames.channelOf("@x " + FRAME));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> ChannelFrames.channelOf("@-1 " + FRAME));
+  }
+}
@@ -0,0 +1,50 @@
+package highlowcardgame.communication;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// CPU time spent per byte saved by frame compression; run with `gradle benchmark`
+@Tag("benchmark")
+public class FrameCompressorBenchmark {
+
+  private static final int WARMUP = 2_000;
+  private static final int ITERATIONS = 20_000;
+
+  @Test
+  public void cpuPerByteSaved() throws Exception {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    FrameCompressor compressor = new FrameCompressor(0);
+    for (int rows : new int[] {1, 10, 100}) {
+      String frame = FrameCompressorTest.leaderboardFrame(rows);
+      int rawBytes = frame.getBytes(StandardCharsets.UTF_8).length;
+      for (int i = 0; i < WARMUP; i++) {
+        compressor.decode(compressor.encode(frame));
+      }
+
+      long start = threads.getCurrentThreadCpuTime();
+      String encoded = null;
+      for (int i = 0; i < ITERATIONS; i++) {
+        encoded = compressor.encode(frame);
+      }
+      long encodeNanos = threads.getCurrentThreadCpuTime() - start;
+      start = threads.getCurrentThreadCpuTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        compressor.decode(encoded);
+      }
+      long decodeNanos = threads.getCurrentThreadCpuTime() - start;
+
+      int saved = rawBytes - encoded.length();
+      System.out.printf(
+          "%3d rows: %5d -> %5d bytes, encode %.2f us, decode %.2f us, %.1f ns CPU/byte saved%n",
+          rows,
+          rawBytes,
+          encoded.length(),
+          encodeNanos / 1e3 / ITERATIONS,
+          decodeNanos / 1e3 / ITERATIONS,
+          saved > 0 ? (double) (encodeNanos + decodeNanos) / ITERATIONS / saved : Double.NaN);
+    }
+  }
+}
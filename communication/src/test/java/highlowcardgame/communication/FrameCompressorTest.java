@@ -0,0 +1,73 @@
+package highlowcardgame.communication;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FrameCompressorTest {
+
+  private static final String SMALL_FRAME =
+      "{\"messageType\":\"PlayerJoinedNotification\",\"newPlayerName\":\"User_1\","
+          + "\"numPlayers\":1}";
+
+  static String leaderboardFrame(int rows) {
+    StringBuilder frame =
+        new StringBuilder("{\"messageType\":\"LeaderboardNotification\",\"numPlayers\":")
+            .append(rows)
+            .append(",\"topPlayers\":[");
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        frame.append(',');
+      }
+      frame
+          .append("{\"playerName\":\"Player_")
+          .append(i)
+          .append("\",\"score\":")
+          .append(rows - i)
+          .append(",\"rank\":")
+          .append(i + 1)
+          .append('}');
+    }
+    return frame.append("]}").toString();
+  }
+
+  @Test
+  public void testFrameBelowThreshold_isSentRaw() throws IOException {
+    FrameCompressor compressor = new FrameCompressor();
+
+    String encoded = compressor.encode(SMALL_FRAME);
+
+    assertThat(encoded).isEqualTo(SMALL_FRAME);
+    assertThat(compressor.decode(encoded)).isEqualTo(SMALL_FRAME);
+  }
+
+  @Test
+  public void testLargeFrame_isCompressedAndRestored() throws IOException {
+    FrameCompressor compressor = new FrameCompressor();
+    String frame = leaderboardFrame(100);
+
+    String encoded = compressor.encode(frame);
+
+    assertThat(encoded).startsWith(FrameCompressor.COMPRESSED_PREFIX);
+    assertThat(encoded.length()).isLessThan(frame.length() / 2);
+    assertThat(compressor.decode(encoded)).isEqualTo(frame);
+  }
+
+  @Test
+  public void testCorruptFrame_throwsIoException() {
+    FrameCompressor compressor = new FrameCompressor();
+
+    Assertions.assertThrows(IOException.class, () -> compressor.decode("~not base64!"));
+  }
+
+  @Test
+  public void testFrameInflatingBeyondTheLimit_throwsIoException() {
+    FrameCompressor compressor = new FrameCompressor();
+    String bomb = compressor.encode(" ".repeat(FrameCompressor.DEFAULT_MAX_FRAME_LENGTH + 1));
+
+    assertThat(bomb.length()).isLessThan(FrameCompressor.DEFAULT_MAX_FRAME_LENGTH / 100);
+    Assertions.assertThrows(IOException.class, () -> compressor.decode(bomb));
+  }
+}
@@ -0,0 +1,60 @@
+package highlowcardgame.communication;
+
+import highlowcardgame.communication.messages.GameStateDeltaNotification;
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.game.Card;
+import highlowcardgame.game.InfiniteShuffledDeck;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// bytes per round of full vs. delta-encoded game states; run with `gradle benchmark`
+@Tag("benchmark")
+public class GameStateDeltaBenchmark {
+
+  private static final int PLAYERS = 1_000;
+  private static final int ROUNDS = 50;
+
+  @Test
+  public void bytesPerRound_fullVersusDelta() {
+    InfiniteShuffledDeck deck = new InfiniteShuffledDeck(Card.getAllValidCards(), 42);
+    Random random = new Random(42);
+    int[] scores = new int[PLAYERS];
+    List<GameStateDeltaEncoder> encoders = new ArrayList<>();
+    for (int i = 0; i < PLAYERS; i++) {
+      encoders.add(new GameStateDeltaEncoder());
+    }
+
+    long fullBytes = 0;
+    long deltaBytes = 0;
+    for (int round = 1; round <= ROUNDS; round++) {
+      Card card = deck.getNextCard();
+      for (int i = 0; i < PLAYERS; i++) {
+        if (round > 1 && random.nextBoolean()) {
+          scores[i]++;
+        }
+        GameStateNotification full =
+            new GameStateNotification("Player_" + i, round, card, scores[i]);
+        GameStateDeltaNotification delta = encoders.get(i).encode(full);
+        // clients acknowledge every reconstructed state before the next round
+        encoders.get(i).acknowledge(delta.getVersion());
+        fullBytes += size(full.toJSON().toString());
+        deltaBytes += size(delta.toJSON().toString());
+      }
+    }
+
+    System.out.printf(
+        "%d players: full %d bytes/round, delta %d bytes/round (%.1f%%)%n",
+        PLAYERS,
+        fullBytes / ROUNDS,
+        deltaBytes / ROUNDS,
+        100.0 * deltaBytes / fullBytes);
+  }
+
+  private static int size(String frame) {
+    return (frame + System.lineSeparator()).getBytes(StandardCharsets.UTF_8).length;
+  }
+}
@@ -0,0 +1,81 @@
+package highlowcardgame.communication;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import highlowcardgame.communication.messages.GameStateDeltaNotification;
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.game.Card;
+import highlowcardgame.game.Card.Suit;
+import org.junit.jupiter.api.Test;
+
+public class GameStateDeltaTest {
+
+  private static final String PLAYER = "User_1";
+
+  private static GameStateNotification state(int round, Card card, int score) {
+    return new GameStateNotification(PLAYER, round, card, score);
+  }
+
+  @Test
+  public void testFirstState_isKeyframe() {
+    GameStateDeltaEncoder encoder = new GameStateDeltaEncoder();
+
+    GameStateDeltaNotification delta = encoder.encode(state(1, new Card(Suit.CLUBS, 3), 0));
+
+    assertThat(delta.isKeyframe()).isTrue();
+    assertThat(delta.getNumRounds()).isEqualTo(1);
+    assertThat(delta.getScore()).isEqualTo(0);
+  }
+
+  @Test
+  public void testAcknowledgedState_onlyChangedFieldsAreSent() {
+    GameStateDeltaEncoder encoder = new GameStateDeltaEncoder();
+    GameStateDeltaDecoder decoder = new GameStateDeltaDecoder();
+    Card card = new Card(Suit.HEARTS, 7);
+    GameStateDeltaNotification keyframe = encoder.encode(state(1, card, 0));
+    decoder.decode(keyframe);
+    encoder.acknowledge(keyframe.getVersion());
+
+    GameStateDeltaNotification delta = encoder.encode(state(2, card, 0));
+
+    assertThat(delta.isKeyframe()).isFalse();
+    assertThat(delta.getBaseVersion()).isEqualTo(keyframe.getVersion());
+    assertThat(delta.getPlayerName()).isEqualTo(PLAYER);
+    assertThat(delta.getNumRounds()).isEqualTo(2);
+    assertThat(delta.getCurrentCard()).isNull();
+    assertThat(delta.getScore()).isNull();
+
+    GameStateNotification decoded = decoder.decode(delta);
+    assertThat(decoded.getNumRounds()).isEqualTo(2);
+    assertThat(decoded.getCurrentCard()).isEqualTo(card);
+    assertThat(decoded.getScore()).isEqualTo(0);
+  }
+
+  @Test
+  public void testUnknownBase_decoderAsksForKeyframe() {
+    GameStateDeltaEncoder encoder = new GameStateDeltaEncoder();
+    encoder.acknowledge(encoder.encode(state(1, new Card(Suit.CLUBS, 1), 0)).getVersion());
+    GameStateDeltaNotification delta = encoder.encode(state(2, new Card(Suit.CLUBS, 2), 1));
+
+    assertThat(new GameStateDeltaDecoder().decode(delta)).isNull();
+
+    encoder.acknowledge(-1);
+    assertThat(encoder.encode(state(3, new Card(Suit.CLUBS, 3), 1)).isKeyframe()).isTrue();
+  }
+
+  @Test
+  public void testKeyframeInterval_forcesPeriodicKeyframes() {
+    GameStateDeltaEncoder encoder = new GameStateDeltaEncoder(4);
+    Card card = new Card(Suit.SPADES, 13);
+    int keyframes = 0;
+    for (int round = 1; round <= 12; round++) {
+      GameStateDeltaNotification delta = encoder.encode(state(round, card, 0));
+      encoder.acknowledge(delta.getVersion());
+      if (delta.isKeyframe()) {
+        keyframes++;
+      }
+    }
+
+    assertThat(keyframes).isEqualTo(3);
+  }
+}
@@ -0,0 +1,43 @@
+package highlowcardgame.communication;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.communication.messages.RoundNotification;
+import highlowcardgame.communication.messages.ScoreNotification;
+import highlowcardgame.game.Card;
+import highlowcardgame.game.Card.Suit;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+public class RoundFramesTest {
+
+  @Test
+  public void testEncodeScores_oneFramePerPlayer() {
+    String[] frames = RoundFrames.encodeScores(new String[] {"alice", "b\"ob"}, new int[] {3, 25});
+
+    assertThat(frames.length).isEqualTo(2);
+    JSONObject alice = new JSONObject(frames[0]);
+    assertThat(alice.getString("messageType")).isEqualTo("ScoreNotification");
+    assertThat(alice.getString("playerName")).isEqualTo("alice");
+    assertThat(alice.getInt("score")).isEqualTo(3);
+    JSONObject bob = new JSONObject(frames[1]);
+    assertThat(bob.getString("playerName")).isEqualTo("b\"ob");
+    assertThat(bob.getInt("score")).isEqualTo(25);
+  }
+
+  @Test
+  public void testDecoder_combinesTheLastRoundWithScores() {
+    RoundFrames.Decoder decoder = new RoundFrames.Decoder();
+    assertThat(decoder.onScore(new ScoreNotification("alice", 1))).isNull();
+
+    Card card = new Card(Suit.SPADES, 12);
+    decoder.onRound(new RoundNotification(4, card));
+    GameStateNotification state = decoder.onScore(new ScoreNotification("alice", 2));
+
+    assertThat(state.getPlayerName()).isEqualTo("alice");
+    assertThat(state.getNumRounds()).isEqualTo(4);
+    assertThat(state.getCurrentCard()).isEqualTo(card);
+    assertThat(state.getScore()).isEqualTo(2);
+  }
+}
@@ -30,6 +30,10 @@ public final class Card implements Comparable<Card> {
   private static final int CARD_VALUE_MIN = 1;
   private static final int CARD_VALUE_MAX = 13;
 
+  /** The number of distinct cards, see {@link #getIndex()}. */
+  public static final int NUMBER_OF_CARDS =
+      (CARD_VALUE_MAX - CARD_VALUE_MIN + 1) * Suit.values().length;
+
   private final Suit suit;
   private final int value;
 
@@ -70,6 +74,14 @@ public final class Card implements Comparable<Card> {
     return value;
   }
 
+  /**
+   * Returns the position of the card among all distinct cards, from 0 to {@link #NUMBER_OF_CARDS} -
+   * 1, in the order of {@link #compareTo}.
+   */
+  public int getIndex() {
+    return (value - CARD_VALUE_MIN) * 4 + suit.ordinal();
+  }
+
   private int getAbsoluteValue() {
     return value * 4 + suit.ordinal();
   }
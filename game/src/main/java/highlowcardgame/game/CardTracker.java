@@ -0,0 +1,165 @@
+package highlowcardgame.game;
+
+import highlowcardgame.game.HighLowCardGame.Guess;
+import highlowcardgame.game.observable.GameEvent;
+import highlowcardgame.game.observable.GameEventListener;
+import java.util.Arrays;
+
+/**
+ * Keeps track of the cards left in a shoe of standard decks dealt without replacement, and of the
+ * chances of every guess on the next card.
+ *
+ * <p>A single deck is kept as a 52-bit mask, so the number of lower cards is one bit count. A shoe
+ * of several decks keeps a count per card and the number of lower cards per card, which dealing a
+ * card updates in at most 51 steps. Either way a probability or expected score costs a few
+ * arithmetic operations and never scans the deck.
+ *
+ * <p>Added as a listener to a {@link HighLowCardGame}, the tracker deals the current card of every
+ * new round. A card that is no longer in the shoe can only come from a fresh deck, so the tracker
+ * then starts over with a full shoe. The tracker is thread-safe.
+ */
+public final class CardTracker implements GameEventListener {
+
+  private static final long FULL_DECK = (1L << Card.NUMBER_OF_CARDS) - 1;
+
+  private final int decks;
+  // a single deck: bit i is set if the card with index i is left
+  private long mask;
+  // a shoe: the copies left of every card, and the cards left below every card
+  private final int[] counts;
+  private final int[] lower;
+  private int remaining;
+
+  /** Creates a tracker of a single full deck. */
+  public CardTracker() {
+    this(1);
+  }
+
+  /**
+   * Creates a tracker of a full shoe.
+   *
+   * @param decks the number of standard decks in the shoe
+   * @throws IllegalArgumentException if there is not at least one deck
+   */
+  public CardTracker(int decks) {
+    if (decks < 1) {
+      throw new IllegalArgumentException("A shoe needs at least one deck, not " + decks);
+    }
+    this.decks = decks;
+    counts = decks == 1 ? null : new int[Card.NUMBER_OF_CARDS];
+    lower = decks == 1 ? null : new int[Card.NUMBER_OF_CARDS];
+    reset();
+  }
+
+  /** Fills the shoe with all its cards again. */
+  public synchronized void reset() {
+    remaining = decks * Card.NUMBER_OF_CARDS;
+    if (counts == null) {
+      mask = FULL_DECK;
+      return;
+    }
+    Arrays.fill(counts, decks);
+    for (int i = 0; i < lower.length; i++) {
+      lower[i] = i * decks;
+    }
+  }
+
+  /**
+   * Takes a dealt card out of the shoe. If no copy of the card is left, the shoe is refilled first.
+   *
+   * @param card the dealt card
+   */
+  public synchronized void deal(Card card) {
+    int index = card.getIndex();
+    if (countOf(index) == 0) {
+      reset();
+    }
+    remaining--;
+    if (counts == null) {
+      mask &= ~(1L << index);
+      return;
+    }
+    counts[index]--;
+    for (int i = index + 1; i < lower.length; i++) {
+      lower[i]--;
+    }
+  }
+
+  /** Returns the number of cards left in the shoe. */
+  public synchronized int getRemaining() {
+    return remaining;
+  }
+
+  /** Returns the number of copies of a card left in the shoe. */
+  public synchronized int getRemaining(Card card) {
+    return countOf(card.getIndex());
+  }
+
+  /**
+   * Returns the probability that a guess on the current card is right, if the next card is drawn
+   * from the cards left.
+   *
+   * @param currentCard the current card, already dealt
+   * @param guess the guess
+   * @return the probability, or 0 if the shoe is empty
+   */
+  public synchronized double getProbability(Card currentCard, Guess guess) {
+    if (remaining == 0) {
+      return 0;
+    }
+    int index = currentCard.getIndex();
+    int below = lowerOf(index);
+    switch (guess) {
+      case LOW:
+        return (double) below / remaining;
+      case EQUAL:
+        return (double) countOf(index) / remaining;
+      case HIGH:
+      default:
+        return (double) (remaining - below - countOf(index)) / remaining;
+    }
+  }
+
+  /**
+   * Returns the expected score of a guess on the current card, by the scores of {@link
+   * HighLowCardGame}.
+   *
+   * @param currentCard the current card, already dealt
+   * @param guess the guess
+   * @return the expected points of the guess
+   */
+  public synchronized double getExpectedScore(Card currentCard, Guess guess) {
+    return getProbability(currentCard, guess) * HighLowCardGame.GUESS_SCORE.get(guess);
+  }
+
+  /**
+   * Returns the guess with the highest expected score on the current card; ties go to {@code
+   * HIGH}, then {@code LOW}.
+   *
+   * @param currentCard the current card, already dealt
+   * @return the best guess
+   */
+  public synchronized Guess getBestGuess(Card currentCard) {
+    Guess best = Guess.HIGH;
+    if (getExpectedScore(currentCard, Guess.LOW) > getExpectedScore(currentCard, best)) {
+      best = Guess.LOW;
+    }
+    if (getExpectedScore(currentCard, Guess.EQUAL) > getExpectedScore(currentCard, best)) {
+      best = Guess.EQUAL;
+    }
+    return best;
+  }
+
+  @Override
+  public void onRoundAdvanced(GameEvent.RoundAdvanced event) {
+    deal(event.getCard());
+  }
+
+  private int countOf(int index) {
+    return counts == null ? (int) (mask >>> index) & 1 : counts[index];
+  }
+
+  private int lowerOf(int index) {
+    return counts == null ? Long.bitCount(mask & ((1L << index) - 1)) : lower[index];
+  }
+}
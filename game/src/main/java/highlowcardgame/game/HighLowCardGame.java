@@ -1,11 +1,15 @@
 package highlowcardgame.game;
 
 import highlowcardgame.game.Deck.NoNextCardException;
+import highlowcardgame.game.observable.GameEvent;
+import highlowcardgame.game.observable.GameEventListener;
+import highlowcardgame.game.observable.GameEventPublisher;
 import highlowcardgame.game.observable.Observable;
 import highlowcardgame.game.observable.Observer;
 import highlowcardgame.game.observable.ObserverSupport;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /** The high-low card game logic */
 public class HighLowCardGame implements Observable {
@@ -29,6 +33,8 @@ public class HighLowCardGame implements Observable {
   }
 
   private volatile GameState state;
+  // guarded by this game
+  private final ScoreColumns columns = new ScoreColumns();
 
   /** Creates a new HighLowCardGame */
   public HighLowCardGame(Deck deck) {
@@ -36,8 +42,11 @@ public class HighLowCardGame implements Observable {
   }
 
   public void start() throws NoNextCardException {
-    state = state.nextRound(state.getDeck().getNextCard());
-    notifyAboutState(state);
+    synchronized (this) {
+      state = state.nextRound(state.getDeck().getNextCard());
+      columns.clearGuesses();
+    }
+    publish(new GameEvent.RoundAdvanced(state.getRound(), state.getCurrentCard(), state));
   }
 
   public void addPlayer(Player player) {
@@ -48,8 +57,9 @@ public class HighLowCardGame implements Observable {
     }
     synchronized (this) {
       state = state.addPlayer(player);
+      columns.add(player, state.getScores().get(player));
       observerSupport.subscribe(player);
-      notifyAboutNewPlayer(player.getName(), state);
+      publish(new GameEvent.PlayerJoined(player.getName(), state));
     }
   }
 
@@ -68,18 +78,90 @@ public class HighLowCardGame implements Observable {
   public void removePlayer(Player player) {
     synchronized (this) {
       state = state.removePlayer(player);
+      columns.remove(player);
       observerSupport.unsubscribe(player);
-      notifyAboutRemovedPlayer(player.getName(), state);
+      publish(new GameEvent.PlayerLeft(player.getName(), state));
     }
   }
 
   public void guess(Player player, Guess guess) throws NoNextCardException {
     synchronized (this) {
       state = state.addGuess(player, guess);
+      columns.guess(player, guess);
+      publish(new GameEvent.GuessPlaced(player.getName(), guess, state));
       if (hasEveryoneGuessed()) {
         nextRound();
       }
-      notifyAboutState(state);
+    }
+  }
+
+  /**
+   * Records a guess like {@link #guess}, but leaves ending a completed round to the caller, who can
+   * end it later with {@link #resolveRound}, for example on another thread. The guessing thread
+   * then neither draws the next card nor notifies about the scores of the round.
+   *
+   * @param player the guessing player
+   * @param guess the guess
+   * @return the round the guess completed, or 0 if some players still have to guess
+   */
+  public int recordGuess(Player player, Guess guess) {
+    synchronized (this) {
+      state = state.addGuess(player, guess);
+      columns.guess(player, guess);
+      publish(new GameEvent.GuessPlaced(player.getName(), guess, state));
+      return hasEveryoneGuessed() ? state.getRound() : 0;
+    }
+  }
+
+  /**
+   * Ends a round completed by {@link #recordGuess}. Unlike {@link #expireRound}, the round ends
+   * even if its players have left since.
+   *
+   * @param round the round to end
+   * @return {@code true} if the round was ended by this call, {@code false} if the game is already
+   *     past the given round
+   * @throws NoNextCardException if the deck has no next card
+   */
+  public boolean resolveRound(int round) throws NoNextCardException {
+    synchronized (this) {
+      if (round == 0 || state.getRound() != round) {
+        return false;
+      }
+      nextRound();
+      return true;
+    }
+  }
+
+  /**
+   * Ends the given round even if not every player has guessed yet. Players without a guess abstain
+   * and score nothing this round.
+   *
+   * @param round the round to end
+   * @return {@code true} if the round was ended by this call, {@code false} if the game has not
+   *     started, has no players, or is already past the given round
+   * @throws NoNextCardException if the deck has no next card
+   */
+  public boolean expireRound(int round) throws NoNextCardException {
+    synchronized (this) {
+      if (round == 0 || state.getRound() != round || state.getPlayers().isEmpty()) {
+        return false;
+      }
+      nextRound();
+      return true;
+    }
+  }
+
+  /**
+   * Adds points to the score of a player outside of the end of a round, for example a bonus, and
+   * notifies about the new score like a round does.
+   *
+   * @param player the player, who must be in the game
+   * @param points the points to add
+   */
+  public void awardPoints(Player player, int points) {
+    synchronized (this) {
+      int score = columns.award(player, points);
+      publish(new GameEvent.ScoreChanged(player.getName(), points, score, state));
     }
   }
 
@@ -96,7 +178,19 @@ public class HighLowCardGame implements Observable {
     return guess == getCorrectGuess(firstCard, secondCard);
   }
 
-  private Guess getCorrectGuess(Card firstCard, Card secondCard) {
+  /**
+   * Returns the points a guess scores.
+   *
+   * @param guess the guess
+   * @param firstCard the card the guess was made on
+   * @param secondCard the card drawn next
+   * @return the points of the guess, or 0 if it is wrong
+   */
+  public static int getScore(Guess guess, Card firstCard, Card secondCard) {
+    return guess == getCorrectGuess(firstCard, secondCard) ? GUESS_SCORE.get(guess) : 0;
+  }
+
+  static Guess getCorrectGuess(Card firstCard, Card secondCard) {
     int comparison = firstCard.compareTo(secondCard);
     if (comparison == 0) { // current == next
       return Guess.EQUAL;
@@ -117,20 +211,22 @@ public class HighLowCardGame implements Observable {
     Card nextCard = state.getDeck().getNextCard();
     distributeScores(currentCard, nextCard);
     state = state.nextRound(nextCard);
-    notifyAboutState(state);
+    publish(new GameEvent.RoundAdvanced(state.getRound(), nextCard, state));
   }
 
+  /**
+   * Scores the guesses of the round with the {@link ScoreColumns}, which a {@link RoundScorer}
+   * scores in parallel for large tables, then notifies about the new scores.
+   */
   private void distributeScores(Card firstCard, Card secondCard) {
-    assert hasEveryoneGuessed();
-
-    final Map<Player, Guess> guesses = state.getGuesses();
-    for (var e : guesses.entrySet()) {
-      final Player player = e.getKey();
-      final Guess guess = e.getValue();
-      if (isGuessCorrect(guess, firstCard, secondCard)) {
-        state = state.incrementScore(player, GUESS_SCORE.get(guess));
-      }
-    }
+    // players without a guess abstain, see expireRound
+    final Guess correct = getCorrectGuess(firstCard, secondCard);
+    final int points = GUESS_SCORE.get(correct);
+    columns.endRound(
+        correct,
+        points,
+        (player, score) ->
+            publish(new GameEvent.ScoreChanged(player.getName(), points, score, state)));
   }
 
   @Override
@@ -144,18 +240,35 @@ public class HighLowCardGame implements Observable {
   }
 
   @Override
-  public void notifyAboutState(GameState newState) {
-    observerSupport.notifyAboutState(newState);
+  public void addListener(GameEventListener listener) {
+    observerSupport.addListener(listener);
   }
 
   @Override
-  public void notifyAboutNewPlayer(String playerName, GameState newState) {
-    observerSupport.notifyAboutNewPlayer(playerName, newState);
+  public void removeListener(GameEventListener listener) {
+    observerSupport.removeListener(listener);
+  }
+
+  /**
+   * Creates a publisher of the events of this game for subscribers that must not slow down the
+   * game, such as journals or spectators. The publisher receives events until it is removed with
+   * {@link #removeListener}.
+   *
+   * @param executor the executor delivering the events
+   * @param capacity the number of events buffered per subscriber
+   * @param overflow what a subscriber with a full buffer misses
+   * @return the publisher
+   */
+  public GameEventPublisher newEventPublisher(
+      Executor executor, int capacity, GameEventPublisher.Overflow overflow) {
+    GameEventPublisher publisher = new GameEventPublisher(executor, capacity, overflow);
+    addListener(publisher);
+    return publisher;
   }
 
   @Override
-  public void notifyAboutRemovedPlayer(String playerName, GameState newState) {
-    observerSupport.notifyAboutRemovedPlayer(playerName, newState);
+  public void publish(GameEvent event) {
+    observerSupport.publish(event);
   }
 
   public GameState getState() {
@@ -0,0 +1,89 @@
+package highlowcardgame.game;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores the guesses of a round in bulk, for tables too large to score one map entry at a time.
+ *
+ * <p>The guesses are a column of guess ordinals and the scores a column of plain ints, so deciding
+ * whether a player scored is a comparison of two bytes against the outcome computed once for the
+ * round, and scoring is an addition without a lock. Above a threshold the columns are split into
+ * ranges that the common fork/join pool scores in parallel. Every score belongs to one range only,
+ * so the ranges never contend, and joining the ranges publishes their scores to the caller.
+ */
+final class RoundScorer {
+
+  /** The number of guesses below which a range is scored on the calling thread. */
+  static final int PARALLEL_THRESHOLD = 1 << 13;
+
+  private RoundScorer() {}
+
+  /**
+   * Adds points to the scores of the players who made the correct guess.
+   *
+   * @param guesses the ordinal of the guess of every player, or a value matching no guess for a
+   *     player who did not guess
+   * @param scores the score of every player, in the order of {@code guesses}
+   * @param count the number of players, at the start of both columns
+   * @param correct the ordinal of the correct guess
+   * @param points the points of the correct guess
+   * @param threshold the number of guesses below which a range is not split further
+   */
+  static void score(
+      byte[] guesses, int[] scores, int count, int correct, int points, int threshold) {
+    if (count > guesses.length || count > scores.length) {
+      throw new IllegalArgumentException("Every guess needs a score");
+    }
+    if (count < threshold) {
+      scoreRange(guesses, scores, correct, points, 0, count);
+      return;
+    }
+    ForkJoinPool.commonPool()
+        .invoke(new ScoreTask(guesses, scores, correct, points, threshold, 0, count));
+  }
+
+  private static void scoreRange(
+      byte[] guesses, int[] scores, int correct, int points, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (guesses[i] == correct) {
+        scores[i] += points;
+      }
+    }
+  }
+
+  private static final class ScoreTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] guesses;
+    private final int[] scores;
+    private final int correct;
+    private final int points;
+    private final int threshold;
+    private final int from;
+    private final int to;
+
+    ScoreTask(
+        byte[] guesses, int[] scores, int correct, int points, int threshold, int from, int to) {
+      this.guesses = guesses;
+      this.scores = scores;
+      this.correct = correct;
+      this.points = points;
+      this.threshold = threshold;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= threshold) {
+        scoreRange(guesses, scores, correct, points, from, to);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new ScoreTask(guesses, scores, correct, points, threshold, from, middle),
+          new ScoreTask(guesses, scores, correct, points, threshold, middle, to));
+    }
+  }
+}
@@ -7,6 +7,11 @@ public class Score {
     score += inc;
   }
 
+  /** Sets the score, for a single writer such as a game changing it under its lock. */
+  void set(int value) {
+    score = value;
+  }
+
   public int get() {
     return score;
   }
@@ -0,0 +1,152 @@
+package highlowcardgame.game;
+
+import highlowcardgame.game.HighLowCardGame.Guess;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * The guesses and scores of the players of a {@link HighLowCardGame} as primitive columns, one slot
+ * per player, which a {@link RoundScorer} scores in bulk at the end of a round.
+ *
+ * <p>A player gets a slot on joining, and a guess is written to the slot as it is placed, so ending
+ * a round never collects the guesses from the state first. A player who leaves keeps the slot until
+ * the end of the round, as a guess placed before leaving still scores; the slot is reused after.
+ * The {@link Score} of a player is updated from the column whenever the column changes.
+ *
+ * <p>Not thread-safe; the game changes the columns under its lock only.
+ */
+final class ScoreColumns {
+
+  /** The guess of a slot without a guess this round, which never matches a correct guess. */
+  static final byte NO_GUESS = -1;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final Map<Player, Integer> slots = new HashMap<>();
+  private final List<Integer> leaving = new ArrayList<>();
+  private final ArrayDeque<Integer> free = new ArrayDeque<>();
+  private Player[] players = new Player[INITIAL_CAPACITY];
+  private Score[] views = new Score[INITIAL_CAPACITY];
+  private byte[] guesses = newGuesses(INITIAL_CAPACITY);
+  private int[] scores = new int[INITIAL_CAPACITY];
+  // the slots below are in use or free, the ones above were never used
+  private int size = 0;
+
+  /**
+   * Gives a joining player a slot, or back the slot the player is leaving in this round.
+   *
+   * @param player the player
+   * @param score the score of the player, kept up to date with the column
+   */
+  void add(Player player, Score score) {
+    Integer slot = slots.get(player);
+    if (slot != null) {
+      leaving.remove(slot);
+    } else {
+      slot = free.isEmpty() ? nextSlot() : free.pop();
+      slots.put(player, slot);
+      players[slot] = player;
+    }
+    views[slot] = score;
+    scores[slot] = score.get();
+  }
+
+  /** Frees the slot of a leaving player once a guess of this round, if any, has scored. */
+  void remove(Player player) {
+    Integer slot = slots.get(player);
+    if (slot == null || leaving.contains(slot)) {
+      return;
+    }
+    if (guesses[slot] == NO_GUESS) {
+      release(slot);
+    } else {
+      leaving.add(slot);
+    }
+  }
+
+  /** Records the guess of a player for this round; ignored for players without a slot. */
+  void guess(Player player, Guess guess) {
+    Integer slot = slots.get(player);
+    if (slot != null) {
+      guesses[slot] = (byte) guess.ordinal();
+    }
+  }
+
+  /**
+   * Adds points to the score of a player.
+   *
+   * @return the new score
+   * @throws IllegalArgumentException if the player is not in the game
+   */
+  int award(Player player, int points) {
+    Integer slot = slots.get(player);
+    if (slot == null) {
+      throw new IllegalArgumentException("Player " + player.getName() + " is not in the game");
+    }
+    scores[slot] += points;
+    views[slot].set(scores[slot]);
+    return scores[slot];
+  }
+
+  /**
+   * Scores the guesses of the round, tells the caller about every player who scored, in the order
+   * of their slots, and clears the guesses for the next round.
+   *
+   * @param correct the correct guess
+   * @param points the points of the correct guess
+   * @param scored called with every player who scored and the new score of the player
+   */
+  void endRound(Guess correct, int points, ObjIntConsumer<Player> scored) {
+    byte hit = (byte) correct.ordinal();
+    RoundScorer.score(guesses, scores, size, hit, points, RoundScorer.PARALLEL_THRESHOLD);
+    for (int slot = 0; slot < size; slot++) {
+      if (guesses[slot] == hit) {
+        views[slot].set(scores[slot]);
+        scored.accept(players[slot], scores[slot]);
+      }
+    }
+    clearGuesses();
+  }
+
+  /** Clears the guesses, and frees the slots of the players who left, without scoring. */
+  void clearGuesses() {
+    Arrays.fill(guesses, 0, size, NO_GUESS);
+    for (int slot : leaving) {
+      release(slot);
+    }
+    leaving.clear();
+  }
+
+  private void release(int slot) {
+    slots.remove(players[slot]);
+    players[slot] = null;
+    views[slot] = null;
+    scores[slot] = 0;
+    guesses[slot] = NO_GUESS;
+    free.push(slot);
+  }
+
+  private int nextSlot() {
+    if (size == players.length) {
+      int capacity = 2 * size;
+      players = Arrays.copyOf(players, capacity);
+      views = Arrays.copyOf(views, capacity);
+      scores = Arrays.copyOf(scores, capacity);
+      byte[] grown = newGuesses(capacity);
+      System.arraycopy(guesses, 0, grown, 0, size);
+      guesses = grown;
+    }
+    return size++;
+  }
+
+  private static byte[] newGuesses(int capacity) {
+    byte[] column = new byte[capacity];
+    Arrays.fill(column, NO_GUESS);
+    return column;
+  }
+}
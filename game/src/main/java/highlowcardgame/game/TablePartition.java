@@ -0,0 +1,184 @@
+package highlowcardgame.game;
+
+import highlowcardgame.game.HighLowCardGame.Guess;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The players of one partition of a table too large for a single {@link HighLowCardGame}.
+ *
+ * <p>A {@link HighLowCardGame} copies its whole state on every guess, which does not scale to
+ * tables with a hundred thousand players. A partition only knows its own players, and a guess only
+ * touches the entry of the guessing player. A coordinator sums the {@link Counts} of all partitions
+ * to find the end of a round and announces the next card to every partition with {@link
+ * #startRound}, which scores the guesses of the previous round locally.
+ *
+ * <p>Guesses and joins run concurrently with each other; starting a round excludes them briefly.
+ */
+public final class TablePartition {
+
+  private final ConcurrentHashMap<String, Entry> players = new ConcurrentHashMap<>();
+  private final AtomicInteger guessed = new AtomicInteger();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private volatile int round = 0;
+  private volatile Card currentCard;
+
+  /** Round, player and guess counts of a partition, taken at one point in time. */
+  public static final class Counts {
+    private final int round;
+    private final int players;
+    private final int guessed;
+
+    public Counts(int round, int players, int guessed) {
+      this.round = round;
+      this.players = players;
+      this.guessed = guessed;
+    }
+
+    public int getRound() {
+      return round;
+    }
+
+    public int getPlayers() {
+      return players;
+    }
+
+    /** Returns how many players have guessed in the round, including players who left since. */
+    public int getGuessed() {
+      return guessed;
+    }
+  }
+
+  private static final class Entry {
+    private final Score score = new Score();
+    private Guess guess;
+    private int guessRound = 0;
+  }
+
+  /**
+   * Adds a player to this partition.
+   *
+   * @param playerName the name of the player
+   * @return {@code false} if the name is blank or already taken in this partition
+   */
+  public boolean addPlayer(String playerName) {
+    if (playerName == null || playerName.isBlank()) {
+      return false;
+    }
+    lock.readLock().lock();
+    try {
+      return players.putIfAbsent(playerName, new Entry()) == null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public void removePlayer(String playerName) {
+    lock.readLock().lock();
+    try {
+      players.remove(playerName);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Records the guess of a player for the current round.
+   *
+   * @return {@code true} if the guess counts, {@code false} if the player is unknown, the table has
+   *     not started or the player has already guessed this round
+   */
+  public boolean guess(String playerName, Guess guess) {
+    lock.readLock().lock();
+    try {
+      Entry entry = players.get(playerName);
+      if (entry == null || round == 0) {
+        return false;
+      }
+      synchronized (entry) {
+        if (entry.guessRound == round) {
+          return false;
+        }
+        entry.guess = guess;
+        entry.guessRound = round;
+      }
+      guessed.incrementAndGet();
+      return true;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Scores the guesses of the current round against the next card and starts the next round.
+   * Announcements of rounds that are not newer than the current one are ignored.
+   *
+   * @param newRound the round announced by the coordinator
+   * @param nextCard the card of that round
+   * @return {@code true} if the round was started
+   */
+  public boolean startRound(int newRound, Card nextCard) {
+    lock.writeLock().lock();
+    try {
+      if (newRound <= round) {
+        return false;
+      }
+      Card previousCard = currentCard;
+      if (previousCard != null && newRound == round + 1) {
+        Guess correct = HighLowCardGame.getCorrectGuess(previousCard, nextCard);
+        int points = HighLowCardGame.GUESS_SCORE.get(correct);
+        int scoredRound = round;
+        // the map splits the entries over the common fork/join pool for large partitions
+        players.forEachValue(
+            RoundScorer.PARALLEL_THRESHOLD,
+            entry -> {
+              if (entry.guessRound == scoredRound && entry.guess == correct) {
+                entry.score.increment(points);
+              }
+            });
+      }
+      round = newRound;
+      currentCard = nextCard;
+      guessed.set(0);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the counts for the report to the coordinator. The guesses counted always belong to the
+   * round reported, as rounds only start under the write lock; guesses and joins are not held up,
+   * and the report after them counts them.
+   */
+  public Counts getCounts() {
+    lock.readLock().lock();
+    try {
+      return new Counts(round, players.size(), guessed.get());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int getRound() {
+    return round;
+  }
+
+  public Card getCurrentCard() {
+    return currentCard;
+  }
+
+  /** Returns the score of a player, or {@code null} if the player is not in this partition. */
+  public Score getScore(String playerName) {
+    Entry entry = players.get(playerName);
+    return entry == null ? null : entry.score;
+  }
+
+  public Set<String> getPlayerNames() {
+    return Collections.unmodifiableSet(players.keySet());
+  }
+}
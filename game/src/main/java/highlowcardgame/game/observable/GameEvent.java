@@ -0,0 +1,167 @@
+package highlowcardgame.game.observable;
+
+import highlowcardgame.game.Card;
+import highlowcardgame.game.GameState;
+import highlowcardgame.game.HighLowCardGame.Guess;
+
+/**
+ * A single change of a game, so listeners can apply what changed without comparing whole states.
+ *
+ * <p>Every event also carries the state right after the change, for listeners that need more than
+ * the change itself.
+ */
+public abstract class GameEvent {
+
+  private final GameState state;
+
+  private GameEvent(GameState state) {
+    this.state = state;
+  }
+
+  /** Returns the state of the game right after the event. */
+  public GameState getState() {
+    return state;
+  }
+
+  /** Calls the method of the listener that handles this type of event. */
+  abstract void dispatchTo(GameEventListener listener);
+
+  /** A player guessed on the current card. */
+  public static final class GuessPlaced extends GameEvent {
+    private final String playerName;
+    private final Guess guess;
+
+    public GuessPlaced(String playerName, Guess guess, GameState state) {
+      super(state);
+      this.playerName = playerName;
+      this.guess = guess;
+    }
+
+    public String getPlayerName() {
+      return playerName;
+    }
+
+    public Guess getGuess() {
+      return guess;
+    }
+
+    @Override
+    void dispatchTo(GameEventListener listener) {
+      listener.onGuessPlaced(this);
+    }
+  }
+
+  /** A new round started with a new current card, including the first round. */
+  public static final class RoundAdvanced extends GameEvent {
+    private final int round;
+    private final Card card;
+
+    public RoundAdvanced(int round, Card card, GameState state) {
+      super(state);
+      this.round = round;
+      this.card = card;
+    }
+
+    public int getRound() {
+      return round;
+    }
+
+    /** Returns the current card of the new round. */
+    public Card getCard() {
+      return card;
+    }
+
+    @Override
+    void dispatchTo(GameEventListener listener) {
+      listener.onRoundAdvanced(this);
+    }
+  }
+
+  /**
+   * The score of a player changed: at the end of a round, or in the middle of one when the game
+   * {@link highlowcardgame.game.HighLowCardGame#awardPoints awards points} such as a bonus.
+   */
+  public static final class ScoreChanged extends GameEvent {
+    private final String playerName;
+    private final int delta;
+    private final int newScore;
+
+    public ScoreChanged(String playerName, int delta, int newScore, GameState state) {
+      super(state);
+      this.playerName = playerName;
+      this.delta = delta;
+      this.newScore = newScore;
+    }
+
+    public String getPlayerName() {
+      return playerName;
+    }
+
+    /** Returns the points the player scored. */
+    public int getDelta() {
+      return delta;
+    }
+
+    public int getNewScore() {
+      return newScore;
+    }
+
+    @Override
+    void dispatchTo(GameEventListener listener) {
+      listener.onScoreChanged(this);
+    }
+  }
+
+  /** A player joined the game. */
+  public static final class PlayerJoined extends GameEvent {
+    private final String playerName;
+
+    public PlayerJoined(String playerName, GameState state) {
+      super(state);
+      this.playerName = playerName;
+    }
+
+    public String getPlayerName() {
+      return playerName;
+    }
+
+    @Override
+    void dispatchTo(GameEventListener listener) {
+      listener.onPlayerJoined(this);
+    }
+  }
+
+  /** A player left the game. */
+  public static final class PlayerLeft extends GameEvent {
+    private final String playerName;
+
+    public PlayerLeft(String playerName, GameState state) {
+      super(state);
+      this.playerName = playerName;
+    }
+
+    public String getPlayerName() {
+      return playerName;
+    }
+
+    @Override
+    void dispatchTo(GameEventListener listener) {
+      listener.onPlayerLeft(this);
+    }
+  }
+
+  /**
+   * The state changed without a more specific event, as announced through the deprecated {@link
+   * Observable#notifyAboutState}.
+   */
+  public static final class StateChanged extends GameEvent {
+    public StateChanged(GameState state) {
+      super(state);
+    }
+
+    @Override
+    void dispatchTo(GameEventListener listener) {
+      listener.onStateChanged(this);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package highlowcardgame.game.observable;
+
+/**
+ * Receives the {@link GameEvent events} of a game, one method per type of event. Every method does
+ * nothing by default, so a listener only implements the events it cares about.
+ */
+public interface GameEventListener {
+
+  default void onGuessPlaced(GameEvent.GuessPlaced event) {}
+
+  default void onRoundAdvanced(GameEvent.RoundAdvanced event) {}
+
+  default void onScoreChanged(GameEvent.ScoreChanged event) {}
+
+  default void onPlayerJoined(GameEvent.PlayerJoined event) {}
+
+  default void onPlayerLeft(GameEvent.PlayerLeft event) {}
+
+  default void onStateChanged(GameEvent.StateChanged event) {}
+}
@@ -0,0 +1,318 @@
+package highlowcardgame.game.observable;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offers the events of a game to {@link Flow.Subscriber}s, each at its own pace.
+ *
+ * <p>Added as a listener to a game, the publisher never blocks the game: every subscriber has a
+ * bounded buffer of its own, and events are delivered on the given executor as the subscriber
+ * requests them. When a subscriber falls behind by more than the buffer, the {@link Overflow}
+ * strategy decides what it misses. Each {@link EventSubscription} reports how far its subscriber
+ * lags behind, in events and in time, and how many events it missed.
+ */
+public final class GameEventPublisher
+    implements Flow.Publisher<GameEvent>, GameEventListener, AutoCloseable {
+
+  /** What a subscriber whose buffer is full misses. */
+  public enum Overflow {
+    /** Drop the oldest buffered event to make room for the new one. */
+    DROP_OLDEST,
+    /**
+     * Replace all buffered events with the new one, whose state is the latest state of the game.
+     */
+    CONFLATE,
+    /** Cancel the subscription and signal an error to the subscriber. */
+    FAIL
+  }
+
+  private final Executor executor;
+  private final int capacity;
+  private final Overflow overflow;
+  private final List<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+  private volatile boolean closed = false;
+
+  /**
+   * Creates a publisher.
+   *
+   * @param executor the executor delivering the events, which must not run tasks on the calling
+   *     thread, or a slow subscriber slows down the game again
+   * @param capacity the number of events buffered per subscriber
+   * @param overflow what a subscriber with a full buffer misses
+   */
+  public GameEventPublisher(Executor executor, int capacity, Overflow overflow) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The buffer must hold at least one event");
+    }
+    this.executor = Objects.requireNonNull(executor);
+    this.capacity = capacity;
+    this.overflow = Objects.requireNonNull(overflow);
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+    EventSubscription subscription = new EventSubscription(Objects.requireNonNull(subscriber));
+    subscriptions.add(subscription);
+    if (closed) {
+      subscription.complete();
+    }
+    subscription.drain();
+  }
+
+  /** Buffers an event for every subscriber. Never blocks. */
+  public void offer(GameEvent event) {
+    for (EventSubscription subscription : subscriptions) {
+      subscription.offer(event);
+    }
+  }
+
+  /** Returns the active subscriptions, with their lag. */
+  public List<EventSubscription> getSubscriptions() {
+    return List.copyOf(subscriptions);
+  }
+
+  /** Completes every subscriber once it has received the events buffered for it. */
+  @Override
+  public void close() {
+    closed = true;
+    for (EventSubscription subscription : subscriptions) {
+      subscription.complete();
+    }
+  }
+
+  @Override
+  public void onGuessPlaced(GameEvent.GuessPlaced event) {
+    offer(event);
+  }
+
+  @Override
+  public void onRoundAdvanced(GameEvent.RoundAdvanced event) {
+    offer(event);
+  }
+
+  @Override
+  public void onScoreChanged(GameEvent.ScoreChanged event) {
+    offer(event);
+  }
+
+  @Override
+  public void onPlayerJoined(GameEvent.PlayerJoined event) {
+    offer(event);
+  }
+
+  @Override
+  public void onPlayerLeft(GameEvent.PlayerLeft event) {
+    offer(event);
+  }
+
+  @Override
+  public void onStateChanged(GameEvent.StateChanged event) {
+    offer(event);
+  }
+
+  /**
+   * The subscription of one subscriber. All signals to the subscriber are sent by one drain task
+   * at a time on the executor, so they never overlap.
+   */
+  public final class EventSubscription implements Flow.Subscription {
+    private final Flow.Subscriber<? super GameEvent> subscriber;
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+    // guarded by this subscription
+    private final ArrayDeque<Buffered> buffer = new ArrayDeque<>();
+    private long demand = 0;
+    private long delivered = 0;
+    private long dropped = 0;
+    private boolean completed = false;
+    private boolean cancelled = false;
+    private Throwable error;
+    // only used by the drain task
+    private boolean subscribed = false;
+
+    private EventSubscription(Flow.Subscriber<? super GameEvent> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      synchronized (this) {
+        if (cancelled) {
+          return;
+        }
+        if (n <= 0) {
+          fail(new IllegalArgumentException("Requested " + n + " events, must be positive"));
+        } else {
+          demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        }
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      synchronized (this) {
+        cancelled = true;
+        buffer.clear();
+      }
+      subscriptions.remove(this);
+    }
+
+    /** Returns the number of events buffered for the subscriber. */
+    public synchronized int getLag() {
+      return buffer.size();
+    }
+
+    /** Returns how long the oldest buffered event has been waiting, or 0 if none is. */
+    public synchronized long getLagNanos() {
+      Buffered oldest = buffer.peek();
+      return oldest == null ? 0 : System.nanoTime() - oldest.offeredNanos;
+    }
+
+    /** Returns the number of events delivered to the subscriber. */
+    public synchronized long getDelivered() {
+      return delivered;
+    }
+
+    /** Returns the number of events the subscriber missed because its buffer was full. */
+    public synchronized long getDropped() {
+      return dropped;
+    }
+
+    private void offer(GameEvent event) {
+      synchronized (this) {
+        if (cancelled || completed || error != null) {
+          return;
+        }
+        if (buffer.size() == capacity) {
+          switch (overflow) {
+            case DROP_OLDEST:
+              buffer.poll();
+              dropped++;
+              break;
+            case CONFLATE:
+              dropped += buffer.size();
+              buffer.clear();
+              break;
+            case FAIL:
+            default:
+              fail(
+                  new IllegalStateException(
+                      "The subscriber fell behind by more than " + capacity + " events"));
+              break;
+          }
+        }
+        if (error == null) {
+          buffer.add(new Buffered(event));
+        }
+      }
+      drain();
+    }
+
+    private void complete() {
+      synchronized (this) {
+        completed = true;
+      }
+      drain();
+    }
+
+    /** Must hold the lock of this subscription. */
+    private void fail(Throwable cause) {
+      error = cause;
+      dropped += buffer.size();
+      buffer.clear();
+    }
+
+    private void drain() {
+      if (pendingDrains.getAndIncrement() == 0) {
+        executor.execute(this::deliver);
+      }
+    }
+
+    private void deliver() {
+      int missed = 1;
+      while (true) {
+        if (!subscribed) {
+          subscribed = true;
+          subscriber.onSubscribe(this);
+        }
+        while (deliverNext()) {
+          // keep delivering while there is demand
+        }
+        missed = pendingDrains.addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    /** Sends the next signal to the subscriber, if there is one it may receive. */
+    private boolean deliverNext() {
+      GameEvent next = null;
+      Throwable failure = null;
+      boolean done = false;
+      synchronized (this) {
+        if (cancelled) {
+          return false;
+        }
+        if (error != null) {
+          failure = error;
+          cancelled = true;
+        } else if (demand > 0 && !buffer.isEmpty()) {
+          next = buffer.poll().event;
+          if (demand != Long.MAX_VALUE) {
+            demand--;
+          }
+          delivered++;
+        } else if (completed && buffer.isEmpty()) {
+          done = true;
+          cancelled = true;
+        } else {
+          return false;
+        }
+      }
+      if (failure != null || done) {
+        subscriptions.remove(this);
+      }
+      try {
+        if (failure != null) {
+          subscriber.onError(failure);
+        } else if (done) {
+          subscriber.onComplete();
+        } else {
+          subscriber.onNext(next);
+        }
+      } catch (RuntimeException e) {
+        // a subscriber must not throw; it is treated as cancelled and told why, once
+        cancel();
+        if (failure == null && !done) {
+          signalError(e);
+        } else {
+          System.err.println("Dropping a subscriber that failed to terminate: " + e);
+        }
+      }
+      return true;
+    }
+
+    private void signalError(RuntimeException cause) {
+      try {
+        subscriber.onError(cause);
+      } catch (RuntimeException e) {
+        System.err.println("Dropping a subscriber that failed in onError: " + e);
+      }
+    }
+  }
+
+  private static final class Buffered {
+    final GameEvent event;
+    final long offeredNanos = System.nanoTime();
+
+    Buffered(GameEvent event) {
+      this.event = event;
+    }
+  }
+}
@@ -2,15 +2,50 @@ package highlowcardgame.game.observable;
 
 import highlowcardgame.game.GameState;
 
+/**
+ * A source of {@link GameEvent game events}. Listeners receive every event; observers receive them
+ * through an {@link ObserverAdapter}.
+ */
 public interface Observable {
 
   void subscribe(Observer obsv);
 
   void unsubscribe(Observer obsv);
 
-  void notifyAboutState(GameState newState);
+  void addListener(GameEventListener listener);
 
-  void notifyAboutNewPlayer(String playerName, GameState newState);
+  void removeListener(GameEventListener listener);
 
-  void notifyAboutRemovedPlayer(String playerName, GameState newState);
+  /** Delivers an event to all listeners and observers, in the order they subscribed. */
+  void publish(GameEvent event);
+
+  /**
+   * Notifies about a new state.
+   *
+   * @deprecated publish the {@link GameEvent} describing the change instead
+   */
+  @Deprecated
+  default void notifyAboutState(GameState newState) {
+    publish(new GameEvent.StateChanged(newState));
+  }
+
+  /**
+   * Notifies about a player who joined.
+   *
+   * @deprecated publish a {@link GameEvent.PlayerJoined} instead
+   */
+  @Deprecated
+  default void notifyAboutNewPlayer(String playerName, GameState newState) {
+    publish(new GameEvent.PlayerJoined(playerName, newState));
+  }
+
+  /**
+   * Notifies about a player who left.
+   *
+   * @deprecated publish a {@link GameEvent.PlayerLeft} instead
+   */
+  @Deprecated
+  default void notifyAboutRemovedPlayer(String playerName, GameState newState) {
+    publish(new GameEvent.PlayerLeft(playerName, newState));
+  }
 }
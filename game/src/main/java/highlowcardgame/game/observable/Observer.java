@@ -10,4 +10,10 @@ public interface Observer {
   void updateNewPlayer(String playerName, GameState state);
 
   void updateRemovedPlayer(String playerName, GameState state);
+
+  /**
+   * Notify this observer that the score of a player changed at the end of a round. The default
+   * implementation ignores the change, as most observers only care about whole states.
+   */
+  default void updateScore(String playerName, int newScore, GameState state) {}
 }
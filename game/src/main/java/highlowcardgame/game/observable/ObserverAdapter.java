@@ -0,0 +1,66 @@
+package highlowcardgame.game.observable;
+
+/**
+ * Delivers the events of a game to an {@link Observer}: guesses and new rounds as state updates,
+ * joins, departures and scores as their own callbacks.
+ *
+ * <p>Two adapters are equal if they adapt the same observer, so an observer can be unsubscribed
+ * with a new adapter.
+ */
+public final class ObserverAdapter implements GameEventListener {
+
+  private final Observer observer;
+
+  public ObserverAdapter(Observer observer) {
+    this.observer = observer;
+  }
+
+  public Observer getObserver() {
+    return observer;
+  }
+
+  @Override
+  public void onGuessPlaced(GameEvent.GuessPlaced event) {
+    observer.updateState(event.getState());
+  }
+
+  @Override
+  public void onRoundAdvanced(GameEvent.RoundAdvanced event) {
+    observer.updateState(event.getState());
+  }
+
+  @Override
+  public void onStateChanged(GameEvent.StateChanged event) {
+    observer.updateState(event.getState());
+  }
+
+  @Override
+  public void onScoreChanged(GameEvent.ScoreChanged event) {
+    observer.updateScore(event.getPlayerName(), event.getNewScore(), event.getState());
+  }
+
+  @Override
+  public void onPlayerJoined(GameEvent.PlayerJoined event) {
+    observer.updateNewPlayer(event.getPlayerName(), event.getState());
+  }
+
+  @Override
+  public void onPlayerLeft(GameEvent.PlayerLeft event) {
+    observer.updateRemovedPlayer(event.getPlayerName(), event.getState());
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof ObserverAdapter && ((ObserverAdapter) o).observer.equals(observer);
+  }
+
+  @Override
+  public int hashCode() {
+    return observer.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "ObserverAdapter[" + observer + "]";
+  }
+}
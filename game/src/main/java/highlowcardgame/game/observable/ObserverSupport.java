@@ -1,47 +1,41 @@
 package highlowcardgame.game.observable;
 
-import highlowcardgame.game.GameState;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.function.Consumer;
 
 public final class ObserverSupport implements Observable {
 
-  private ConcurrentLinkedQueue<Observer> observers = new ConcurrentLinkedQueue<>();
+  private ConcurrentLinkedQueue<GameEventListener> listeners = new ConcurrentLinkedQueue<>();
 
   @Override
   public void subscribe(Observer obsv) {
-    if (observers.contains(obsv)) {
-      throw new AssertionError("Observer " + obsv + " already part of observers");
-    }
-    observers.add(obsv);
+    addListener(new ObserverAdapter(obsv));
   }
 
   @Override
   public void unsubscribe(Observer obsv) {
-    observers.remove(obsv);
-    if (observers.contains(obsv)) {
-      throw new AssertionError("Observer " + obsv + " still part of observers");
-    }
+    removeListener(new ObserverAdapter(obsv));
   }
 
   @Override
-  public void notifyAboutState(GameState state) {
-    updateAll(o -> o.updateState(state));
+  public void addListener(GameEventListener listener) {
+    if (listeners.contains(listener)) {
+      throw new AssertionError("Listener " + listener + " already part of listeners");
+    }
+    listeners.add(listener);
   }
 
   @Override
-  public void notifyAboutNewPlayer(String playerName, GameState newState) {
-    updateAll(o -> o.updateNewPlayer(playerName, newState));
+  public void removeListener(GameEventListener listener) {
+    listeners.remove(listener);
+    if (listeners.contains(listener)) {
+      throw new AssertionError("Listener " + listener + " still part of listeners");
+    }
   }
 
   @Override
-  public void notifyAboutRemovedPlayer(String playerName, GameState newState) {
-    updateAll(o -> o.updateRemovedPlayer(playerName, newState));
-  }
-
-  private void updateAll(Consumer<Observer> toCall) {
-    for (Observer o : observers) {
-      toCall.accept(o);
+  public void publish(GameEvent event) {
+    for (GameEventListener listener : listeners) {
+      event.dispatchTo(listener);
     }
   }
 }
@@ -0,0 +1,115 @@
+package highlowcardgame.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import highlowcardgame.game.Card.Suit;
+import highlowcardgame.game.HighLowCardGame.Guess;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CardTrackerTest {
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testSingleDeck_probabilitiesOfTheCardsLeft() {
+    CardTracker tracker = new CardTracker();
+    Card current = new Card(Suit.CLUBS, 7);
+    tracker.deal(current);
+    assertEquals(51, tracker.getRemaining());
+    assertEquals(27.0 / 51, tracker.getProbability(current, Guess.HIGH), DELTA);
+    assertEquals(24.0 / 51, tracker.getProbability(current, Guess.LOW), DELTA);
+    assertEquals(0, tracker.getProbability(current, Guess.EQUAL), DELTA);
+
+    // all higher cards are gone after these
+    for (int value = 8; value <= 13; value++) {
+      for (Suit suit : Suit.values()) {
+        tracker.deal(new Card(suit, value));
+      }
+    }
+    tracker.deal(new Card(Suit.DIAMONDS, 7));
+    tracker.deal(new Card(Suit.HEARTS, 7));
+    tracker.deal(new Card(Suit.SPADES, 7));
+    assertEquals(0, tracker.getProbability(current, Guess.HIGH), DELTA);
+    assertEquals(1, tracker.getProbability(current, Guess.LOW), DELTA);
+    assertEquals(Guess.LOW, tracker.getBestGuess(current));
+  }
+
+  @Test
+  public void testShoe_prefersEqualOnceFewOtherCardsAreLeft() {
+    CardTracker tracker = new CardTracker(8);
+    Card current = new Card(Suit.HEARTS, 7);
+    tracker.deal(current);
+    assertEquals(7, tracker.getRemaining(current));
+    assertEquals(7.0 / 415, tracker.getProbability(current, Guess.EQUAL), DELTA);
+    assertEquals(25 * 7.0 / 415, tracker.getExpectedScore(current, Guess.EQUAL), DELTA);
+    assertEquals(
+        1,
+        tracker.getProbability(current, Guess.HIGH)
+            + tracker.getProbability(current, Guess.LOW)
+            + tracker.getProbability(current, Guess.EQUAL),
+        DELTA);
+    assertEquals(Guess.LOW, tracker.getBestGuess(current));
+
+    for (int i = 0; i < 8; i++) {
+      for (int value : new int[] {1, 2, 3, 4, 10, 11, 12, 13}) {
+        for (Suit suit : Suit.values()) {
+          tracker.deal(new Card(suit, value));
+        }
+      }
+    }
+    assertEquals(159, tracker.getRemaining());
+    assertEquals(72.0 / 159, tracker.getProbability(current, Guess.HIGH), DELTA);
+    assertEquals(80.0 / 159, tracker.getProbability(current, Guess.LOW), DELTA);
+    // 80 lower cards at 1 point lose against 7 equal ones at 25 points
+    assertEquals(Guess.EQUAL, tracker.getBestGuess(current));
+  }
+
+  @Test
+  public void testDeal_refillsTheShoeWhenACardRepeats() {
+    CardTracker tracker = new CardTracker();
+    Card card = new Card(Suit.SPADES, 1);
+    tracker.deal(card);
+    tracker.deal(card);
+    assertEquals(51, tracker.getRemaining());
+    assertEquals(0, tracker.getRemaining(card));
+  }
+
+  @Test
+  public void testSubscribed_dealsTheCardOfEveryRound() throws Exception {
+    Card first = new Card(Suit.CLUBS, 2);
+    Card second = new Card(Suit.DIAMONDS, 3);
+    HighLowCardGame game = new HighLowCardGame(new FixedDeck(List.of(first, second)));
+    CardTracker tracker = new CardTracker();
+    game.addListener(tracker);
+    Player player = new TestPlayer("p");
+    game.addPlayer(player);
+    game.start();
+    assertEquals(51, tracker.getRemaining());
+    game.guess(player, Guess.HIGH);
+    assertEquals(50, tracker.getRemaining());
+    assertEquals(0, tracker.getRemaining(first));
+    assertEquals(0, tracker.getRemaining(second));
+  }
+
+  private static final class TestPlayer implements Player {
+    private final String name;
+
+    TestPlayer(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public void updateState(GameState state) {}
+
+    @Override
+    public void updateNewPlayer(String playerName, GameState state) {}
+
+    @Override
+    public void updateRemovedPlayer(String playerName, GameState state) {}
+  }
+}
@@ -1,12 +1,18 @@
 package highlowcardgame.game;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import highlowcardgame.game.Card.Suit;
 import highlowcardgame.game.Deck.NoNextCardException;
 import highlowcardgame.game.HighLowCardGame.Guess;
+import highlowcardgame.game.observable.GameEvent;
+import highlowcardgame.game.observable.GameEventListener;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 
 // test guess correctness
@@ -74,4 +80,272 @@ public class HighLowCardGameTest {
 
     assertIsEqual(game, cardList.get(0), cardList.get(1));
   }
+
+  @Test
+  public void testExpireRound_missingGuessesAbstain() throws NoNextCardException {
+    Card low = new Card(Suit.CLUBS, 3);
+    Card high = new Card(Suit.CLUBS, 9);
+    HighLowCardGame game = new HighLowCardGame(new FixedDeck(List.of(low, high, low)));
+    Player alice = new TestPlayer("alice");
+    Player bob = new TestPlayer("bob");
+    game.addPlayer(alice);
+    game.addPlayer(bob);
+    game.start();
+
+    game.guess(alice, Guess.HIGH);
+    assertEquals(1, game.getState().getRound());
+
+    assertTrue(game.expireRound(1));
+    assertEquals(2, game.getState().getRound());
+    assertEquals(1, game.getState().getScores().get(alice).get());
+    assertEquals(0, game.getState().getScores().get(bob).get());
+    assertFalse(game.expireRound(1));
+    assertEquals(2, game.getState().getRound());
+  }
+
+  @Test
+  public void testRecordGuess_roundEndsOnlyWhenResolved() throws NoNextCardException {
+    Card low = new Card(Suit.CLUBS, 3);
+    Card high = new Card(Suit.CLUBS, 9);
+    HighLowCardGame game = new HighLowCardGame(new FixedDeck(List.of(low, high, low)));
+    Player alice = new TestPlayer("alice");
+    Player bob = new TestPlayer("bob");
+    game.addPlayer(alice);
+    game.addPlayer(bob);
+    game.start();
+
+    assertEquals(0, game.recordGuess(alice, Guess.HIGH));
+    assertEquals(1, game.recordGuess(bob, Guess.LOW));
+    assertEquals(1, game.getState().getRound());
+    assertEquals(0, game.getState().getScores().get(alice).get());
+
+    game.removePlayer(bob);
+    assertTrue(game.resolveRound(1));
+    assertEquals(2, game.getState().getRound());
+    assertEquals(1, game.getState().getScores().get(alice).get());
+    assertFalse(game.resolveRound(1));
+    assertFalse(game.expireRound(1));
+  }
+
+  @Test
+  public void testEvents_describeEachChange() throws NoNextCardException {
+    Card low = new Card(Suit.CLUBS, 3);
+    Card high = new Card(Suit.CLUBS, 9);
+    HighLowCardGame game = new HighLowCardGame(new FixedDeck(List.of(low, high)));
+    List<String> events = new ArrayList<>();
+    game.addListener(
+        new GameEventListener() {
+          @Override
+          public void onGuessPlaced(GameEvent.GuessPlaced event) {
+            events.add("guess " + event.getPlayerName() + " " + event.getGuess());
+          }
+
+          @Override
+          public void onRoundAdvanced(GameEvent.RoundAdvanced event) {
+            events.add("round " + event.getRound() + " " + event.getCard().getValue());
+          }
+
+          @Override
+          public void onScoreChanged(GameEvent.ScoreChanged event) {
+            String name = event.getPlayerName();
+            events.add("score " + name + " +" + event.getDelta() + "=" + event.getNewScore());
+          }
+
+          @Override
+          public void onPlayerJoined(GameEvent.PlayerJoined event) {
+            events.add("joined " + event.getPlayerName());
+          }
+
+          @Override
+          public void onPlayerLeft(GameEvent.PlayerLeft event) {
+            events.add("left " + event.getPlayerName());
+          }
+        });
+    Player alice = new TestPlayer("alice");
+    game.addPlayer(alice);
+    game.start();
+    game.guess(alice, Guess.HIGH);
+    game.removePlayer(alice);
+
+    assertEquals(
+        List.of(
+            "joined alice",
+            "round 1 3",
+            "guess alice HIGH",
+            "score alice +1=1",
+            "round 2 9",
+            "left alice"),
+        events);
+  }
+
+  @Test
+  public void testAwardPoints_publishesTheNewScore() throws NoNextCardException {
+    HighLowCardGame game = new HighLowCardGame(new FixedDeck(List.of(new Card(Suit.CLUBS, 3))));
+    List<Integer> scores = new ArrayList<>();
+    game.addListener(
+        new GameEventListener() {
+          @Override
+          public void onScoreChanged(GameEvent.ScoreChanged event) {
+            scores.add(event.getNewScore());
+          }
+        });
+    Player alice = new TestPlayer("alice");
+    game.addPlayer(alice);
+    game.start();
+    game.awardPoints(alice, 2);
+    game.awardPoints(alice, 1);
+
+    assertEquals(List.of(2, 3), scores);
+    assertEquals(3, game.getState().getScores().get(alice).get());
+  }
+
+  @Test
+  public void testLargeTable_scoresInBulkAndPublishesEveryScore() throws NoNextCardException {
+    Card low = new Card(Suit.CLUBS, 3);
+    Card high = new Card(Suit.CLUBS, 9);
+    HighLowCardGame game = new HighLowCardGame(new FixedDeck(List.of(low, high, low)));
+    Map<String, Integer> published = new HashMap<>();
+    game.addListener(
+        new GameEventListener() {
+          @Override
+          public void onScoreChanged(GameEvent.ScoreChanged event) {
+            assertEquals(1, event.getDelta());
+            published.merge(event.getPlayerName(), event.getNewScore(), (a, b) -> -1);
+          }
+        });
+    List<Player> players = new ArrayList<>();
+    for (int i = 0; i < RoundScorer.PARALLEL_THRESHOLD; i++) {
+      Player player = new TestPlayer("player" + i);
+      game.addPlayer(player);
+      // the listener above is enough, and every observer would see every event
+      game.unsubscribe(player);
+      players.add(player);
+    }
+    game.start();
+
+    for (int i = 0; i < players.size(); i++) {
+      game.recordGuess(players.get(i), i % 2 == 0 ? Guess.HIGH : Guess.LOW);
+    }
+    assertTrue(game.resolveRound(1));
+    // nobody guesses in round 2: no guess of round 1 may score again
+    assertTrue(game.expireRound(2));
+
+    assertEquals(RoundScorer.PARALLEL_THRESHOLD / 2, published.size());
+    Map<Player, Score> scores = game.getState().getScores();
+    for (int i = 0; i < players.size(); i++) {
+      Player player = players.get(i);
+      assertEquals(i % 2 == 0 ? 1 : 0, scores.get(player).get());
+      assertEquals(i % 2 == 0 ? Integer.valueOf(1) : null, published.get(player.getName()));
+    }
+  }
+
+  @Test
+  public void testLeavingPlayer_guessStillScoresAndTheSlotIsReused()
+      throws NoNextCardException {
+    Card low = new Card(Suit.CLUBS, 3);
+    Card high = new Card(Suit.CLUBS, 9);
+    HighLowCardGame game = new HighLowCardGame(new FixedDeck(List.of(low, high, low)));
+    List<String> scored = new ArrayList<>();
+    game.addListener(
+        new GameEventListener() {
+          @Override
+          public void onScoreChanged(GameEvent.ScoreChanged event) {
+            scored.add(event.getPlayerName() + "=" + event.getNewScore());
+          }
+        });
+    Player alice = new TestPlayer("alice");
+    Player bob = new TestPlayer("bob");
+    Player carol = new TestPlayer("carol");
+    game.addPlayer(alice);
+    game.addPlayer(bob);
+    game.start();
+
+    game.recordGuess(alice, Guess.HIGH);
+    game.removePlayer(alice);
+    game.guess(bob, Guess.HIGH);
+    game.addPlayer(carol);
+    // carol takes over the slot of alice, but not her score
+    game.guess(carol, Guess.HIGH);
+    game.guess(bob, Guess.LOW);
+
+    assertEquals(List.of("alice=1", "bob=1", "bob=2"), scored);
+    assertEquals(0, game.getState().getScores().get(carol).get());
+  }
+
+  @Test
+  public void testObservers_receiveEventsThroughTheAdapter() throws NoNextCardException {
+    HighLowCardGame game =
+        new HighLowCardGame(
+            new FixedDeck(List.of(new Card(Suit.CLUBS, 3), new Card(Suit.CLUBS, 9))));
+    List<String> calls = new ArrayList<>();
+    Player alice =
+        new TestPlayer("alice") {
+          @Override
+          public void updateState(GameState state) {
+            calls.add("state " + state.getRound());
+          }
+
+          @Override
+          public void updateScore(String playerName, int newScore, GameState state) {
+            calls.add("score " + playerName + " " + newScore);
+          }
+        };
+    game.addPlayer(alice);
+    game.start();
+    game.guess(alice, Guess.HIGH);
+
+    assertEquals(List.of("state 1", "state 1", "score alice 1", "state 2"), calls);
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testDeprecatedNotifications_reachObservers() throws NoNextCardException {
+    HighLowCardGame game = new HighLowCardGame(new FixedDeck(List.of(new Card(Suit.CLUBS, 3))));
+    List<String> calls = new ArrayList<>();
+    game.subscribe(
+        new TestPlayer("observer") {
+          @Override
+          public void updateState(GameState state) {
+            calls.add("state " + state.getRound());
+          }
+
+          @Override
+          public void updateNewPlayer(String playerName, GameState state) {
+            calls.add("joined " + playerName);
+          }
+
+          @Override
+          public void updateRemovedPlayer(String playerName, GameState state) {
+            calls.add("left " + playerName);
+          }
+        });
+
+    game.notifyAboutState(game.getState());
+    game.notifyAboutNewPlayer("bob", game.getState());
+    game.notifyAboutRemovedPlayer("bob", game.getState());
+
+    assertEquals(List.of("state 0", "joined bob", "left bob"), calls);
+  }
+
+  private static class TestPlayer implements Player {
+    private final String name;
+
+    TestPlayer(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public void updateState(GameState state) {}
+
+    @Override
+    public void updateNewPlayer(String playerName, GameState state) {}
+
+    @Override
+    public void updateRemovedPlayer(String playerName, GameState state) {}
+  }
 }
@@ -0,0 +1,43 @@
+package highlowcardgame.game;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import highlowcardgame.game.HighLowCardGame.Guess;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RoundScorerTest {
+
+  @Test
+  public void testScore_parallelMatchesSequential() {
+    int players = 100_000;
+    SplittableRandom random = new SplittableRandom(42);
+    byte[] guesses = new byte[players];
+    for (int i = 0; i < players; i++) {
+      // some players abstain
+      guesses[i] = (byte) (random.nextInt(Guess.values().length + 1) - 1);
+    }
+    int[] sequential = new int[players];
+    int[] parallel = new int[players];
+
+    RoundScorer.score(guesses, sequential, players, Guess.LOW.ordinal(), 1, Integer.MAX_VALUE);
+    RoundScorer.score(guesses, parallel, players, Guess.LOW.ordinal(), 1, 1024);
+
+    int scored = 0;
+    for (int i = 0; i < players; i++) {
+      int expected = guesses[i] == Guess.LOW.ordinal() ? 1 : 0;
+      assertThat(sequential[i]).isEqualTo(expected);
+      assertThat(parallel[i]).isEqualTo(expected);
+      scored += expected;
+    }
+    assertThat(scored).isGreaterThan(0);
+  }
+
+  @Test
+  public void testScore_rejectsColumnsShorterThanTheCount() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> RoundScorer.score(new byte[2], new int[1], 2, 0, 1, 1));
+  }
+}
@@ -0,0 +1,158 @@
+package highlowcardgame.game;
+
+import highlowcardgame.game.Deck.NoNextCardException;
+import highlowcardgame.game.HighLowCardGame.Guess;
+import highlowcardgame.game.observable.GameEvent;
+import highlowcardgame.game.observable.GameEventListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// scoring time of a round by table size, sequential, fork/join and in a game with its events;
+// run with `gradle benchmark`
+@Tag("benchmark")
+public class ScoringBenchmark {
+
+  private static final int REPETITIONS = 50;
+  // every round of a game copies its state once per guess, so fewer rounds are measured
+  private static final int GAME_REPETITIONS = 5;
+
+  @Test
+  public void scoringTimeByTableSize() {
+    SplittableRandom random = new SplittableRandom(1);
+    for (int players = 1_000; players <= 1_000_000; players *= 10) {
+      byte[] guesses = new byte[players];
+      int[] scores = new int[players];
+      for (int i = 0; i < players; i++) {
+        guesses[i] = (byte) random.nextInt(Guess.values().length);
+      }
+      long sequential = measure(guesses, scores, Integer.MAX_VALUE);
+      long parallel = measure(guesses, scores, RoundScorer.PARALLEL_THRESHOLD);
+      long partition = measurePartition(players);
+      System.out.printf(
+          "%,9d players: sequential %,10d ns, fork/join %,10d ns, partition %,10d ns%n",
+          players, sequential, parallel, partition);
+    }
+  }
+
+  @Test
+  public void roundEndTimeOfAGameByTableSize() throws NoNextCardException {
+    // below and above RoundScorer.PARALLEL_THRESHOLD
+    for (int players : new int[] {1_000, 10_000}) {
+      System.out.printf(
+          "%,9d players: scoring and notifying a round %,12d ns%n",
+          players, measureGame(players));
+    }
+  }
+
+  /** Returns the fastest time of scoring the columns, after warming up. */
+  private static long measure(byte[] guesses, int[] scores, int threshold) {
+    long best = Long.MAX_VALUE;
+    for (int r = 0; r < 2 * REPETITIONS; r++) {
+      long start = System.nanoTime();
+      RoundScorer.score(guesses, scores, guesses.length, Guess.HIGH.ordinal(), 1, threshold);
+      long elapsed = System.nanoTime() - start;
+      if (r >= REPETITIONS) {
+        best = Math.min(best, elapsed);
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Returns the fastest time of ending a round of a game in which everyone guessed, from scoring
+   * to the last event, with every player observing the game like on a server.
+   */
+  private static long measureGame(int players) throws NoNextCardException {
+    Card low = new Card(Card.Suit.CLUBS, 2);
+    Card high = new Card(Card.Suit.CLUBS, 9);
+    List<Card> cards = new ArrayList<>();
+    for (int r = 0; r <= 2 * GAME_REPETITIONS; r++) {
+      cards.add(r % 2 == 0 ? low : high);
+    }
+    HighLowCardGame game = new HighLowCardGame(new FixedDeck(cards));
+    int[] notified = new int[1];
+    game.addListener(
+        new GameEventListener() {
+          @Override
+          public void onScoreChanged(GameEvent.ScoreChanged event) {
+            notified[0]++;
+          }
+        });
+    List<Player> table = new ArrayList<>();
+    for (int i = 0; i < players; i++) {
+      Player player = new IdlePlayer("player" + i);
+      game.addPlayer(player);
+      table.add(player);
+    }
+    game.start();
+
+    long best = Long.MAX_VALUE;
+    for (int r = 0; r < 2 * GAME_REPETITIONS; r++) {
+      int round = 0;
+      for (int i = 0; i < players; i++) {
+        round = game.recordGuess(table.get(i), i % 2 == 0 ? Guess.HIGH : Guess.LOW);
+      }
+      long start = System.nanoTime();
+      game.resolveRound(round);
+      long elapsed = System.nanoTime() - start;
+      if (r >= GAME_REPETITIONS) {
+        best = Math.min(best, elapsed);
+      }
+    }
+    if (notified[0] != GAME_REPETITIONS * players) {
+      throw new AssertionError("Missed score notifications: " + notified[0]);
+    }
+    return best;
+  }
+
+  /** Returns the fastest time of starting a round of a partition in which everyone guessed. */
+  private static long measurePartition(int players) {
+    TablePartition partition = new TablePartition();
+    for (int i = 0; i < players; i++) {
+      partition.addPlayer("player" + i);
+    }
+    Card low = new Card(Card.Suit.CLUBS, 2);
+    Card high = new Card(Card.Suit.CLUBS, 9);
+    long best = Long.MAX_VALUE;
+    int round = 1;
+    partition.startRound(round, low);
+    for (int r = 0; r < 2 * REPETITIONS; r++) {
+      for (int i = 0; i < players; i++) {
+        partition.guess("player" + i, i % 2 == 0 ? Guess.HIGH : Guess.LOW);
+      }
+      long start = System.nanoTime();
+      partition.startRound(++round, r % 2 == 0 ? high : low);
+      long elapsed = System.nanoTime() - start;
+      if (r >= REPETITIONS) {
+        best = Math.min(best, elapsed);
+      }
+    }
+    return best;
+  }
+
+  /** A player observing the game without doing anything with the notifications. */
+  private static final class IdlePlayer implements Player {
+    private final String name;
+
+    IdlePlayer(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public void updateState(GameState state) {}
+
+    @Override
+    public void updateNewPlayer(String playerName, GameState state) {}
+
+    @Override
+    public void updateRemovedPlayer(String playerName, GameState state) {}
+  }
+}
@@ -0,0 +1,49 @@
+package highlowcardgame.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import highlowcardgame.game.Card.Suit;
+import highlowcardgame.game.HighLowCardGame.Guess;
+import org.junit.jupiter.api.Test;
+
+public class TablePartitionTest {
+
+  @Test
+  public void testStartRound_scoresGuessesOfPreviousRound() {
+    TablePartition partition = new TablePartition();
+    assertTrue(partition.addPlayer("alice"));
+    assertTrue(partition.addPlayer("bob"));
+    assertFalse(partition.addPlayer("alice"));
+    assertFalse(partition.guess("alice", Guess.HIGH));
+
+    partition.startRound(1, new Card(Suit.CLUBS, 5));
+    assertTrue(partition.guess("alice", Guess.HIGH));
+    assertFalse(partition.guess("alice", Guess.LOW));
+    assertTrue(partition.guess("bob", Guess.LOW));
+    TablePartition.Counts counts = partition.getCounts();
+    assertEquals(1, counts.getRound());
+    assertEquals(2, counts.getPlayers());
+    assertEquals(2, counts.getGuessed());
+
+    assertTrue(partition.startRound(2, new Card(Suit.CLUBS, 9)));
+    assertEquals(1, partition.getScore("alice").get());
+    assertEquals(0, partition.getScore("bob").get());
+    assertEquals(0, partition.getCounts().getGuessed());
+    assertFalse(partition.startRound(2, new Card(Suit.CLUBS, 2)));
+  }
+
+  @Test
+  public void testStartRound_skippedRoundsAreNotScored() {
+    TablePartition partition = new TablePartition();
+    partition.addPlayer("alice");
+    partition.startRound(1, new Card(Suit.CLUBS, 5));
+    partition.guess("alice", Guess.HIGH);
+
+    partition.startRound(3, new Card(Suit.CLUBS, 9));
+
+    assertEquals(0, partition.getScore("alice").get());
+    assertEquals(3, partition.getRound());
+  }
+}
@@ -0,0 +1,268 @@
+package highlowcardgame.game.observable;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import highlowcardgame.game.Card;
+import highlowcardgame.game.Deck.NoNextCardException;
+import highlowcardgame.game.GameState;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.game.InfiniteShuffledDeck;
+import highlowcardgame.game.Player;
+import highlowcardgame.game.observable.GameEventPublisher.Overflow;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(5)
+public class GameEventPublisherTest {
+
+  private static final int CAPACITY = 4;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @AfterEach
+  public void shutDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testDropOldest_slowSubscriberGetsTheNewestEvents() throws Exception {
+    GameEventPublisher publisher = new GameEventPublisher(executor, CAPACITY, Overflow.DROP_OLDEST);
+    SlowSubscriber subscriber = new SlowSubscriber();
+    publisher.subscribe(subscriber);
+
+    publisher.offer(joined(1));
+    subscriber.blocked.await();
+    for (int i = 2; i <= 100; i++) {
+      publisher.offer(joined(i));
+    }
+    GameEventPublisher.EventSubscription subscription = publisher.getSubscriptions().get(0);
+    assertThat(subscription.getLag()).isEqualTo(CAPACITY);
+    assertThat(subscription.getLagNanos()).isGreaterThan(0L);
+    assertThat(subscription.getDropped()).isEqualTo(95);
+
+    subscriber.release.countDown();
+    publisher.close();
+    subscriber.completed.await();
+    assertThat(subscriber.players).containsExactly("p1", "p97", "p98", "p99", "p100").inOrder();
+    assertThat(subscription.getDelivered()).isEqualTo(5);
+  }
+
+  @Test
+  public void testConflate_slowSubscriberGetsTheLatestEvent() throws Exception {
+    GameEventPublisher publisher = new GameEventPublisher(executor, CAPACITY, Overflow.CONFLATE);
+    SlowSubscriber subscriber = new SlowSubscriber();
+    publisher.subscribe(subscriber);
+
+    publisher.offer(joined(1));
+    subscriber.blocked.await();
+    for (int i = 2; i <= 100; i++) {
+      publisher.offer(joined(i));
+    }
+
+    subscriber.release.countDown();
+    publisher.close();
+    subscriber.completed.await();
+    assertThat(subscriber.players.get(0)).isEqualTo("p1");
+    assertThat(subscriber.players.get(subscriber.players.size() - 1)).isEqualTo("p100");
+    assertThat(subscriber.players.size()).isAtMost(1 + CAPACITY);
+  }
+
+  @Test
+  public void testFail_slowSubscriberGetsAnErrorAndOthersContinue() throws Exception {
+    GameEventPublisher publisher = new GameEventPublisher(executor, CAPACITY, Overflow.FAIL);
+    SlowSubscriber slow = new SlowSubscriber();
+    SlowSubscriber fast = new SlowSubscriber();
+    fast.release.countDown();
+    publisher.subscribe(slow);
+    publisher.subscribe(fast);
+
+    publisher.offer(joined(1));
+    slow.blocked.await();
+    for (int i = 2; i <= 2 + CAPACITY; i++) {
+      publisher.offer(joined(i));
+      // the fast subscriber keeps up
+      while (fast.players.size() < i) {
+        Thread.sleep(1);
+      }
+    }
+    slow.release.countDown();
+    slow.failed.await();
+    assertThat(slow.error).isInstanceOf(IllegalStateException.class);
+    assertThat(slow.players).containsExactly("p1");
+    assertThat(publisher.getSubscriptions()).hasSize(1);
+
+    publisher.close();
+    fast.completed.await();
+    assertThat(fast.players).hasSize(2 + CAPACITY);
+  }
+
+  @Test
+  public void testDemand_onlyRequestedEventsAreDelivered() throws Exception {
+    GameEventPublisher publisher = new GameEventPublisher(executor, CAPACITY, Overflow.FAIL);
+    List<GameEvent> received = new CopyOnWriteArrayList<>();
+    CountDownLatch twoReceived = new CountDownLatch(2);
+    Flow.Subscription[] subscription = new Flow.Subscription[1];
+    publisher.subscribe(
+        new Flow.Subscriber<GameEvent>() {
+          @Override
+          public void onSubscribe(Flow.Subscription s) {
+            subscription[0] = s;
+            s.request(2);
+          }
+
+          @Override
+          public void onNext(GameEvent event) {
+            received.add(event);
+            twoReceived.countDown();
+          }
+
+          @Override
+          public void onError(Throwable throwable) {}
+
+          @Override
+          public void onComplete() {}
+        });
+    for (int i = 1; i <= 3; i++) {
+      publisher.offer(joined(i));
+    }
+
+    twoReceived.await();
+    Thread.sleep(50);
+    assertThat(received).hasSize(2);
+    assertThat(publisher.getSubscriptions().get(0).getLag()).isEqualTo(1);
+    subscription[0].request(1);
+    while (received.size() < 3) {
+      Thread.sleep(1);
+    }
+  }
+
+  @Test
+  public void testThrowingSubscriber_isCancelledAndGetsTheError() throws Exception {
+    GameEventPublisher publisher = new GameEventPublisher(executor, CAPACITY, Overflow.FAIL);
+    CountDownLatch failed = new CountDownLatch(1);
+    Throwable[] error = new Throwable[1];
+    publisher.subscribe(
+        new Flow.Subscriber<GameEvent>() {
+          @Override
+          public void onSubscribe(Flow.Subscription s) {
+            s.request(Long.MAX_VALUE);
+          }
+
+          @Override
+          public void onNext(GameEvent event) {
+            throw new IllegalStateException("broken subscriber");
+          }
+
+          @Override
+          public void onError(Throwable throwable) {
+            error[0] = throwable;
+            failed.countDown();
+          }
+
+          @Override
+          public void onComplete() {}
+        });
+
+    publisher.offer(joined(1));
+
+    failed.await();
+    assertThat(error[0].getMessage()).isEqualTo("broken subscriber");
+    assertThat(publisher.getSubscriptions()).isEmpty();
+  }
+
+  @Test
+  public void testGame_isNotSlowedDownByABlockedSubscriber() throws NoNextCardException {
+    HighLowCardGame game = new HighLowCardGame(new InfiniteShuffledDeck(Card.getAllValidCards()));
+    GameEventPublisher publisher = game.newEventPublisher(executor, CAPACITY, Overflow.CONFLATE);
+    SlowSubscriber subscriber = new SlowSubscriber();
+    publisher.subscribe(subscriber);
+    Player alice = new TestPlayer("alice");
+    game.addPlayer(alice);
+    game.start();
+
+    // the subscriber blocks on the first event for the whole game
+    for (int round = 0; round < 1_000; round++) {
+      game.guess(alice, HighLowCardGame.Guess.HIGH);
+    }
+
+    assertThat(game.getState().getRound()).isEqualTo(1_001);
+    assertThat(publisher.getSubscriptions().get(0).getLag()).isAtMost(CAPACITY);
+    subscriber.release.countDown();
+  }
+
+  private static GameEvent joined(int player) {
+    return new GameEvent.PlayerJoined("p" + player, null);
+  }
+
+  /** Requests one event at a time and blocks in the first one until released. */
+  private static final class SlowSubscriber implements Flow.Subscriber<GameEvent> {
+    final List<String> players = new CopyOnWriteArrayList<>();
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch completed = new CountDownLatch(1);
+    final CountDownLatch failed = new CountDownLatch(1);
+    volatile Throwable error;
+    private Flow.Subscription subscription;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(1);
+    }
+
+    @Override
+    public void onNext(GameEvent event) {
+      if (event instanceof GameEvent.PlayerJoined) {
+        players.add(((GameEvent.PlayerJoined) event).getPlayerName());
+      }
+      blocked.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+      failed.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      completed.countDown();
+    }
+  }
+
+  private static final class TestPlayer implements Player {
+    private final String name;
+
+    TestPlayer(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public void updateState(GameState state) {}
+
+    @Override
+    public void updateNewPlayer(String playerName, GameState state) {}
+
+    @Override
+    public void updateRemovedPlayer(String playerName, GameState state) {}
+  }
+}
@@ -0,0 +1,121 @@
+package highlowcardgame.gateway;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Assigns keys to nodes by consistent hashing.
+ *
+ * <p>Every node is placed on a ring of 64-bit hashes at a number of virtual positions, and a key
+ * belongs to the first node clockwise from its own hash. Adding a node therefore only moves the
+ * keys that now fall in front of one of its positions, about 1/N of all keys, and the virtual
+ * positions spread the keys evenly.
+ *
+ * <p>Rings are immutable; {@link #withNode} and {@link #withoutNode} return changed copies, so a
+ * ring can be shared between threads and replaced atomically.
+ *
+ * @param <N> the type of the nodes, whose {@link Object#toString()} identifies them on the ring
+ */
+public final class ConsistentHashRing<N> {
+
+  /** The default number of virtual positions per node. */
+  public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+  private final int virtualNodes;
+  private final TreeMap<Long, N> ring;
+  private final List<N> nodes;
+
+  /**
+   * Creates an empty ring.
+   *
+   * @param virtualNodes the number of positions per node
+   */
+  public ConsistentHashRing(int virtualNodes) {
+    this(virtualNodes, new TreeMap<>(), List.of());
+  }
+
+  private ConsistentHashRing(int virtualNodes, TreeMap<Long, N> ring, List<N> nodes) {
+    if (virtualNodes <= 0) {
+      throw new IllegalArgumentException("The number of virtual nodes must be positive");
+    }
+    this.virtualNodes = virtualNodes;
+    this.ring = ring;
+    this.nodes = nodes;
+  }
+
+  /**
+   * Returns a ring that also contains the given node.
+   *
+   * @param node the node to add
+   * @return the new ring, or this ring if it already contains the node
+   */
+  public ConsistentHashRing<N> withNode(N node) {
+    if (nodes.contains(node)) {
+      return this;
+    }
+    TreeMap<Long, N> grown = new TreeMap<>(ring);
+    for (int i = 0; i < virtualNodes; i++) {
+      // on a collision the node that sorts first keeps the position, independent of the order
+      // the nodes were added in
+      grown.merge(
+          hash(node + "#" + i), node, (a, b) -> a.toString().compareTo(b.toString()) <= 0 ? a : b);
+    }
+    List<N> newNodes = new ArrayList<>(nodes);
+    newNodes.add(node);
+    return new ConsistentHashRing<>(virtualNodes, grown, Collections.unmodifiableList(newNodes));
+  }
+
+  /**
+   * Returns a ring without the given node.
+   *
+   * @param node the node to remove
+   * @return the new ring
+   */
+  public ConsistentHashRing<N> withoutNode(N node) {
+    ConsistentHashRing<N> shrunk = new ConsistentHashRing<>(virtualNodes);
+    for (N other : nodes) {
+      if (!other.equals(node)) {
+        shrunk = shrunk.withNode(other);
+      }
+    }
+    return shrunk;
+  }
+
+  /**
+   * Returns the node a key belongs to.
+   *
+   * @param key the key
+   * @return the node, or {@code null} if the ring is empty
+   */
+  public N nodeFor(String key) {
+    if (ring.isEmpty()) {
+      return null;
+    }
+    Map.Entry<Long, N> entry = ring.ceilingEntry(hash(key));
+    return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+  }
+
+  /** Returns the nodes on the ring in the order they were added. */
+  public List<N> getNodes() {
+    return nodes;
+  }
+
+  /** 64-bit FNV-1a followed by the MurmurHash3 finalizer, which spreads similar keys apart. */
+  static long hash(String key) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b & 0xff;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
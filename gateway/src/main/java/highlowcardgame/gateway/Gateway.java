@@ -0,0 +1,355 @@
+package highlowcardgame.gateway;
+
+import highlowcardgame.communication.messages.JoinGameRequest;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Front end of a cluster of game servers.
+ *
+ * <p>The gateway accepts client connections and assigns every room to one backend server by
+ * {@link ConsistentHashRing consistent hashing}, so all players of a room meet on the same server
+ * and each server only hosts a share of the rooms. Only the first frame of a connection, the join
+ * request naming the room, is parsed; afterwards the bytes are piped between client and backend
+ * unchanged.
+ *
+ * <p>When a backend is added, the rooms that now belong to it are moved by closing their
+ * connections; the clients reconnect through the gateway and land on the new backend.
+ */
+public final class Gateway {
+  private static final int DEFAULT_PORT = 4440;
+  private static final int BUFFER_SIZE = 8192;
+  private static final int MAX_JOIN_FRAME_LENGTH = 64 * 1024;
+
+  private volatile ConsistentHashRing<InetSocketAddress> ring;
+  private final Map<String, Set<Route>> routes = new ConcurrentHashMap<>();
+  private final LongAdder routedConnections = new LongAdder();
+  private final LongAdder movedConnections = new LongAdder();
+
+  /**
+   * Main method for the gateway.
+   *
+   * @param args Commandline arguments
+   */
+  public static void main(final String[] args) {
+    int port = DEFAULT_PORT;
+    int virtualNodes = ConsistentHashRing.DEFAULT_VIRTUAL_NODES;
+    List<InetSocketAddress> backends = new ArrayList<>();
+    for (int i = 0; i < args.length; ++i) {
+      switch (args[i]) {
+        case "--port":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the port number.");
+              return;
+            }
+            try {
+              i++;
+              port = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid port number: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--backend":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the backend as <host>:<port>.");
+              return;
+            }
+            i++;
+            InetSocketAddress backend = parseBackend(args[i]);
+            if (backend == null) {
+              printErrorMessage("Invalid backend: " + args[i]);
+              return;
+            }
+            backends.add(backend);
+            break;
+          }
+        case "--virtual-nodes":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the number of virtual nodes.");
+              return;
+            }
+            try {
+              i++;
+              virtualNodes = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid number of virtual nodes: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--help":
+        default:
+          {
+            printHelpMessage();
+            return;
+          }
+      }
+    }
+    if (backends.isEmpty()) {
+      printErrorMessage("Please specify at least one backend.");
+      return;
+    }
+
+    Gateway gateway = new Gateway(virtualNodes);
+    for (InetSocketAddress backend : backends) {
+      gateway.addBackend(backend);
+    }
+    try (ServerSocket socket = new ServerSocket(port)) {
+      gateway.start(socket);
+    } catch (IOException e) {
+      System.out.println("Connection lost. Shutting down: " + e.getMessage());
+    }
+  }
+
+  private static boolean isLastArgument(int i, final String[] args) {
+    return i == args.length - 1;
+  }
+
+  private static InetSocketAddress parseBackend(String backend) {
+    int colon = backend.lastIndexOf(':');
+    if (colon <= 0) {
+      return null;
+    }
+    try {
+      return new InetSocketAddress(
+          backend.substring(0, colon), Integer.parseInt(backend.substring(colon + 1)));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static void printHelpMessage() {
+    System.out.println(
+        "java Gateway [--port <int>] --backend <host>:<port> [--backend <host>:<port> ...]"
+            + " [--virtual-nodes <int>] [--help]");
+  }
+
+  private static void printErrorMessage(String str) {
+    System.out.println("Error! " + str);
+  }
+
+  /**
+   * Creates a gateway without backends.
+   *
+   * @param virtualNodes the number of positions of each backend on the hash ring
+   */
+  public Gateway(int virtualNodes) {
+    ring = new ConsistentHashRing<>(virtualNodes);
+  }
+
+  /**
+   * Adds a backend server. Open connections of rooms that move to the new backend are closed.
+   *
+   * @param backend the address of the server
+   */
+  public synchronized void addBackend(InetSocketAddress backend) {
+    ring = ring.withNode(backend);
+    rebalance();
+  }
+
+  /**
+   * Removes a backend server. Open connections of its rooms are closed.
+   *
+   * @param backend the address of the server
+   */
+  public synchronized void removeBackend(InetSocketAddress backend) {
+    ring = ring.withoutNode(backend);
+    rebalance();
+  }
+
+  /**
+   * Returns the backend hosting a room.
+   *
+   * @param roomName the name of the room
+   * @return the address of the backend, or {@code null} if there are no backends
+   */
+  public InetSocketAddress getBackend(String roomName) {
+    return ring.nodeFor(roomName);
+  }
+
+  /** Returns the number of connections routed to a backend. */
+  public long getRoutedConnections() {
+    return routedConnections.sum();
+  }
+
+  /** Returns the number of connections closed because their room moved to another backend. */
+  public long getMovedConnections() {
+    return movedConnections.sum();
+  }
+
+  /**
+   * Accepts and routes client connections until the socket is closed.
+   *
+   * @param socket the socket clients connect to
+   * @throws IOException if accepting fails
+   */
+  public void start(ServerSocket socket) throws IOException {
+    try {
+      while (true) {
+        Socket client = socket.accept();
+        Thread thread = new Thread(new Route(client), "gateway-route");
+        thread.start();
+      }
+    } finally {
+      socket.close();
+    }
+  }
+
+  private void rebalance() {
+    for (Map.Entry<String, Set<Route>> room : routes.entrySet()) {
+      InetSocketAddress owner = ring.nodeFor(room.getKey());
+      for (Route route : room.getValue()) {
+        if (!route.backend.equals(owner)) {
+          movedConnections.increment();
+          route.close();
+        }
+      }
+    }
+  }
+
+  /** A client connection and its connection to the backend hosting the client's room. */
+  private final class Route implements Runnable {
+    private final Socket client;
+    private volatile Socket backendSocket;
+    private volatile InetSocketAddress backend;
+    private String roomName;
+
+    Route(Socket client) {
+      this.client = client;
+    }
+
+    @Override
+    public void run() {
+      try {
+        InputStream fromClient = new BufferedInputStream(client.getInputStream(), BUFFER_SIZE);
+        byte[] join = readFirstFrame(fromClient);
+        if (join == null) {
+          return;
+        }
+        roomName = roomOf(new String(join, StandardCharsets.UTF_8));
+        register();
+        backendSocket = new Socket(backend.getAddress(), backend.getPort());
+        backendSocket.setTcpNoDelay(true);
+        client.setTcpNoDelay(true);
+        OutputStream toBackend = backendSocket.getOutputStream();
+        toBackend.write(join);
+        routedConnections.increment();
+
+        Thread downstream =
+            new Thread(
+                () -> pipe(backendSocket, client), "gateway-downstream-" + backend.getPort());
+        downstream.setDaemon(true);
+        downstream.start();
+        pipe(fromClient, toBackend);
+      } catch (IOException e) {
+        // the client, the backend or a rebalance closed the connection
+      } finally {
+        close();
+        if (roomName != null) {
+          unregister();
+        }
+      }
+    }
+
+    private void unregister() {
+      synchronized (Gateway.this) {
+        Set<Route> members = routes.get(roomName);
+        if (members != null && members.remove(this) && members.isEmpty()) {
+          routes.remove(roomName);
+        }
+      }
+    }
+
+    /** Chooses the backend and makes the route visible to rebalancing in one step. */
+    private void register() throws IOException {
+      synchronized (Gateway.this) {
+        backend = ring.nodeFor(roomName);
+        if (backend == null) {
+          throw new IOException("No backend available");
+        }
+        routes.computeIfAbsent(roomName, name -> ConcurrentHashMap.newKeySet()).add(this);
+      }
+    }
+
+    private void pipe(Socket from, Socket to) {
+      try {
+        pipe(from.getInputStream(), to.getOutputStream());
+      } catch (IOException e) {
+        // the other direction or a rebalance closed the connection
+      } finally {
+        close();
+      }
+    }
+
+    private void pipe(InputStream from, OutputStream to) throws IOException {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int n;
+      while ((n = from.read(buffer)) != -1) {
+        to.write(buffer, 0, n);
+      }
+    }
+
+    void close() {
+      closeQuietly(client);
+      Socket socket = backendSocket;
+      if (socket != null) {
+        closeQuietly(socket);
+      }
+    }
+  }
+
+  /** Reads the first line including its terminator, or returns null if the client disconnects. */
+  private static byte[] readFirstFrame(InputStream in) throws IOException {
+    ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+    int b;
+    while ((b = in.read()) != -1) {
+      frame.write(b);
+      if (b == '\n') {
+        return frame.toByteArray();
+      }
+      if (frame.size() > MAX_JOIN_FRAME_LENGTH) {
+        throw new IOException("The first frame is too long");
+      }
+    }
+    return null;
+  }
+
+  private static String roomOf(String frame) {
+    try {
+      JSONObject json = new JSONObject(frame.trim());
+      String roomName = json.optString("roomName", JoinGameRequest.DEFAULT_ROOM);
+      return roomName.isBlank() ? JoinGameRequest.DEFAULT_ROOM : roomName;
+    } catch (JSONException e) {
+      // the backend rejects the frame; any backend will do
+      return JoinGameRequest.DEFAULT_ROOM;
+    }
+  }
+
+  private static void closeQuietly(Socket socket) {
+    try {
+      socket.close();
+    } catch (IOException e) {
+      // already closed
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package highlowcardgame.gateway;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class ConsistentHashRingTest {
+
+  private static final int KEYS = 10_000;
+
+  @Test
+  public void testNodeFor_spreadsKeysEvenly() {
+    ConsistentHashRing<String> ring =
+        new ConsistentHashRing<String>(ConsistentHashRing.DEFAULT_VIRTUAL_NODES)
+            .withNode("a")
+            .withNode("b")
+            .withNode("c")
+            .withNode("d");
+
+    Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i < KEYS; i++) {
+      counts.merge(ring.nodeFor("room" + i), 1, Integer::sum);
+    }
+
+    assertThat(counts).hasSize(4);
+    for (int count : counts.values()) {
+      assertThat(count).isAtLeast(KEYS / 4 * 3 / 4);
+      assertThat(count).isAtMost(KEYS / 4 * 5 / 4);
+    }
+  }
+
+  @Test
+  public void testWithNode_onlyMovesKeysToTheNewNode() {
+    ConsistentHashRing<String> three =
+        new ConsistentHashRing<String>(ConsistentHashRing.DEFAULT_VIRTUAL_NODES)
+            .withNode("a")
+            .withNode("b")
+            .withNode("c");
+    ConsistentHashRing<String> four = three.withNode("d");
+
+    int moved = 0;
+    for (int i = 0; i < KEYS; i++) {
+      String before = three.nodeFor("room" + i);
+      String after = four.nodeFor("room" + i);
+      if (!before.equals(after)) {
+        assertThat(after).isEqualTo("d");
+        moved++;
+      }
+    }
+
+    // about a quarter of the keys belong to the new node
+    assertThat(moved).isGreaterThan(KEYS / 8);
+    assertThat(moved).isLessThan(KEYS * 3 / 8);
+    assertThat(four.withoutNode("d").nodeFor("room42")).isEqualTo(three.nodeFor("room42"));
+  }
+
+  @Test
+  public void testNodeFor_emptyRing() {
+    assertThat(new ConsistentHashRing<String>(16).nodeFor("room")).isNull();
+  }
+}
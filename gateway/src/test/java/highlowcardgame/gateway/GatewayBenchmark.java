@@ -0,0 +1,174 @@
+package highlowcardgame.gateway;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// guess throughput through the gateway with 1, 2 and 4 server processes; `gradle benchmark`
+@Tag("benchmark")
+public class GatewayBenchmark {
+
+  private static final int ROOMS = 64;
+  private static final long WARMUP_MILLIS = 2_000;
+  private static final long MEASURE_MILLIS = 5_000;
+
+  @Test
+  public void guessThroughputByBackendCount() throws Exception {
+    for (int backends : new int[] {1, 2, 4}) {
+      List<Process> servers = new ArrayList<>();
+      ServerSocket gatewaySocket = new ServerSocket(0, 512, InetAddress.getLoopbackAddress());
+      try {
+        Gateway gateway = new Gateway(ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+        for (int i = 0; i < backends; i++) {
+          int port = freePort();
+          servers.add(startServer(port));
+          gateway.addBackend(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        }
+        Thread accept =
+            new Thread(
+                () -> {
+                  try {
+                    gateway.start(gatewaySocket);
+                  } catch (IOException e) {
+                    // closed after the measurement
+                  }
+                });
+        accept.setDaemon(true);
+        accept.start();
+
+        double perSecond = measure(gatewaySocket.getLocalPort());
+        System.out.printf(
+            "%d backend(s), %d rooms: %.0f guesses/s through the gateway%n",
+            backends, ROOMS, perSecond);
+      } finally {
+        gatewaySocket.close();
+        for (Process server : servers) {
+          server.destroy();
+          server.waitFor(5, TimeUnit.SECONDS);
+        }
+      }
+    }
+  }
+
+  /**
+   * Every room has a guessing player and a silent one. The silent player keeps the round open, so
+   * the finite deck of the server never runs out while the other player guesses as fast as the
+   * server answers.
+   */
+  private static double measure(int gatewayPort) throws Exception {
+    LongAdder guesses = new LongAdder();
+    List<Socket> sockets = new ArrayList<>();
+    List<Thread> players = new ArrayList<>();
+    long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WARMUP_MILLIS + MEASURE_MILLIS);
+    for (int room = 0; room < ROOMS; room++) {
+      Socket silent = join(gatewayPort, "room" + room, "silent" + room);
+      Socket guesser = join(gatewayPort, "room" + room, "guesser" + room);
+      sockets.add(silent);
+      sockets.add(guesser);
+      String name = "guesser" + room;
+      Thread player = new Thread(() -> guessUntil(guesser, name, end, guesses));
+      player.setDaemon(true);
+      players.add(player);
+    }
+    for (Thread player : players) {
+      player.start();
+    }
+    Thread.sleep(WARMUP_MILLIS);
+    long before = guesses.sum();
+    long start = System.nanoTime();
+    Thread.sleep(MEASURE_MILLIS);
+    double perSecond = (guesses.sum() - before) / ((System.nanoTime() - start) / 1e9);
+    for (Thread player : players) {
+      player.join();
+    }
+    for (Socket socket : sockets) {
+      socket.close();
+    }
+    return perSecond;
+  }
+
+  private static void guessUntil(Socket socket, String name, long end, LongAdder guesses) {
+    String guess =
+        "{\"messageType\":\"GuessRequest\",\"guess\":\"HIGH\",\"playerName\":\"" + name + "\"}\n";
+    String ownState = "\"playerName\":\"" + name + "\"";
+    try {
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+      Writer out = new OutputStreamWriter(socket.getOutputStream(), UTF_8);
+      while (System.nanoTime() < end) {
+        out.write(guess);
+        out.flush();
+        String line = in.readLine();
+        while (line != null
+            && !(line.contains("GameStateNotification") && line.contains(ownState))) {
+          line = in.readLine();
+        }
+        if (line == null) {
+          return;
+        }
+        guesses.increment();
+      }
+    } catch (IOException e) {
+      System.err.println(name + ": " + e.getMessage());
+    }
+  }
+
+  private static Socket join(int gatewayPort, String room, String name) throws IOException {
+    Socket socket = new Socket(InetAddress.getLoopbackAddress(), gatewayPort);
+    socket.setTcpNoDelay(true);
+    Writer out = new OutputStreamWriter(socket.getOutputStream(), UTF_8);
+    out.write(
+        "{\"messageType\":\"JoinGameRequest\",\"playerName\":\""
+            + name
+            + "\",\"roomName\":\""
+            + room
+            + "\"}\n");
+    out.flush();
+    return socket;
+  }
+
+  private static Process startServer(int port) throws IOException, InterruptedException {
+    String java = String.join(File.separator, System.getProperty("java.home"), "bin", "java");
+    Process process =
+        new ProcessBuilder(
+                java,
+                "-cp",
+                System.getProperty("java.class.path"),
+                "highlowcardgame.server.Server",
+                "--port",
+                Integer.toString(port))
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (System.nanoTime() < deadline) {
+      try (Socket probe = new Socket(InetAddress.getLoopbackAddress(), port)) {
+        return process;
+      } catch (IOException e) {
+        Thread.sleep(50);
+      }
+    }
+    process.destroy();
+    throw new IOException("The server on port " + port + " did not start");
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      return socket.getLocalPort();
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package highlowcardgame.gateway;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(10)
+public class GatewayTest {
+
+  private static final String HEARTBEAT = "{\"messageType\":\"HeartbeatRequest\"}";
+
+  private final List<ServerSocket> sockets = new ArrayList<>();
+  private final List<Socket> clients = new ArrayList<>();
+
+  @AfterEach
+  public void closeSockets() throws IOException {
+    for (Socket client : clients) {
+      client.close();
+    }
+    for (ServerSocket socket : sockets) {
+      socket.close();
+    }
+  }
+
+  @Test
+  public void testGateway_routesRoomsToTheirBackend() throws IOException {
+    Gateway gateway = new Gateway(ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+    gateway.addBackend(startEchoBackend());
+    gateway.addBackend(startEchoBackend());
+    InetSocketAddress address = startGateway(gateway);
+
+    for (int i = 0; i < 10; i++) {
+      String room = "room" + i;
+      Socket client = connect(address, room);
+      BufferedReader in = reader(client);
+
+      assertThat(in.readLine()).isEqualTo(gateway.getBackend(room).getPort() + " " + join(room));
+      send(client, HEARTBEAT);
+      assertThat(in.readLine()).isEqualTo(gateway.getBackend(room).getPort() + " " + HEARTBEAT);
+    }
+    assertThat(gateway.getRoutedConnections()).isEqualTo(10);
+  }
+
+  @Test
+  public void testAddBackend_closesOnlyConnectionsOfMovedRooms() throws IOException {
+    Gateway gateway = new Gateway(ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+    gateway.addBackend(startEchoBackend());
+    InetSocketAddress address = startGateway(gateway);
+    List<BufferedReader> readers = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      BufferedReader in = reader(connect(address, "room" + i));
+      assertThat(in.readLine()).isNotNull();
+      readers.add(in);
+    }
+
+    InetSocketAddress added = startEchoBackend();
+    gateway.addBackend(added);
+
+    int moved = 0;
+    for (int i = 0; i < 20; i++) {
+      boolean isMoved = gateway.getBackend("room" + i).equals(added);
+      send(clients.get(i), HEARTBEAT);
+      String reply = readOrNull(readers.get(i));
+      if (isMoved) {
+        moved++;
+        assertThat(reply).isNull();
+      } else {
+        assertThat(reply).isNotNull();
+      }
+    }
+    assertThat(moved).isGreaterThan(0);
+    assertThat(gateway.getMovedConnections()).isEqualTo(moved);
+  }
+
+  private InetSocketAddress startGateway(Gateway gateway) throws IOException {
+    ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    sockets.add(socket);
+    startDaemon(
+        () -> {
+          try {
+            gateway.start(socket);
+          } catch (IOException e) {
+            // closed after the test
+          }
+        });
+    return new InetSocketAddress(socket.getInetAddress(), socket.getLocalPort());
+  }
+
+  /** Starts a backend that answers every line with its port followed by the line. */
+  private InetSocketAddress startEchoBackend() throws IOException {
+    ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    sockets.add(socket);
+    startDaemon(
+        () -> {
+          try {
+            while (true) {
+              Socket connection = socket.accept();
+              startDaemon(() -> echo(connection, socket.getLocalPort()));
+            }
+          } catch (IOException e) {
+            // closed after the test
+          }
+        });
+    return new InetSocketAddress(socket.getInetAddress(), socket.getLocalPort());
+  }
+
+  private static void echo(Socket connection, int port) {
+    try (connection) {
+      BufferedReader in = reader(connection);
+      for (String line = in.readLine(); line != null; line = in.readLine()) {
+        send(connection, port + " " + line);
+      }
+    } catch (IOException e) {
+      // the gateway closed the connection
+    }
+  }
+
+  private Socket connect(InetSocketAddress address, String room) throws IOException {
+    Socket client = new Socket(address.getAddress(), address.getPort());
+    clients.add(client);
+    send(client, join(room));
+    return client;
+  }
+
+  private static String join(String room) {
+    return "{\"messageType\":\"JoinGameRequest\",\"playerName\":\"p\",\"roomName\":\"" + room
+        + "\"}";
+  }
+
+  private static BufferedReader reader(Socket socket) throws IOException {
+    return new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+  }
+
+  private static void send(Socket socket, String line) {
+    try {
+      Writer out = new OutputStreamWriter(socket.getOutputStream(), UTF_8);
+      out.write(line + "\n");
+      out.flush();
+    } catch (IOException e) {
+      // a closed connection shows up when reading
+    }
+  }
+
+  private static String readOrNull(BufferedReader in) {
+    try {
+      return in.readLine();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static void startDaemon(Runnable task) {
+    Thread thread = new Thread(task);
+    thread.setDaemon(true);
+    thread.start();
+  }
+}
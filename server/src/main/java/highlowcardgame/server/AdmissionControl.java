@@ -0,0 +1,61 @@
+package highlowcardgame.server;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Limits on the load a {@link Server} accepts new connections under.
+ *
+ * <p>Each connection costs a thread and memory for its state, so the server stops accepting while
+ * the number of connections, the number of live threads or the heap usage is above its limit. A
+ * limit of zero is not enforced.
+ */
+final class AdmissionControl {
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private volatile int maxConnections = 0;
+  private volatile int maxThreads = 0;
+  private volatile double maxHeapUsage = 0;
+
+  /**
+   * Sets the limits.
+   *
+   * @param maxConnections the maximum number of open connections
+   * @param maxThreads the maximum number of live threads in this JVM
+   * @param maxHeapUsage the maximum fraction of the maximum heap size in use, between 0 and 1
+   */
+  void setLimits(int maxConnections, int maxThreads, double maxHeapUsage) {
+    if (maxConnections < 0 || maxThreads < 0 || maxHeapUsage < 0 || maxHeapUsage > 1) {
+      throw new IllegalArgumentException("Invalid admission limits");
+    }
+    this.maxConnections = maxConnections;
+    this.maxThreads = maxThreads;
+    this.maxHeapUsage = maxHeapUsage;
+  }
+
+  /**
+   * Checks whether another connection may be admitted.
+   *
+   * @param connections the number of open connections
+   * @return {@code null} if the connection may be admitted, otherwise the exceeded limit
+   */
+  String check(int connections) {
+    int connectionLimit = maxConnections;
+    if (connectionLimit > 0 && connections >= connectionLimit) {
+      return "connections";
+    }
+    int threadLimit = maxThreads;
+    if (threadLimit > 0 && threads.getThreadCount() >= threadLimit) {
+      return "threads";
+    }
+    double heapLimit = maxHeapUsage;
+    if (heapLimit > 0) {
+      Runtime runtime = Runtime.getRuntime();
+      long used = runtime.totalMemory() - runtime.freeMemory();
+      if (used >= heapLimit * runtime.maxMemory()) {
+        return "memory";
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,76 @@
+package highlowcardgame.server;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of byte buffers that connections borrow only while they have data in flight, so idle
+ * connections hold none.
+ *
+ * <p>All buffers of the pool have the same size. Up to a limit, returned buffers are kept for the
+ * next borrower; beyond it they are left to the garbage collector. The pool counts the bytes lent
+ * out and the bytes it keeps, so the memory of all connections can be watched in one place.
+ */
+public final class BufferPool {
+
+  private final int bufferSize;
+  private final int maxPooled;
+  private final ConcurrentLinkedQueue<byte[]> pooled = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pooledCount = new AtomicInteger();
+  private final LongAdder bytesInUse = new LongAdder();
+
+  /**
+   * Creates an empty pool.
+   *
+   * @param bufferSize the size of every buffer in bytes
+   * @param maxPooled the maximum number of returned buffers kept for reuse
+   */
+  public BufferPool(int bufferSize, int maxPooled) {
+    if (bufferSize <= 0 || maxPooled < 0) {
+      throw new IllegalArgumentException("Invalid buffer size or pool limit");
+    }
+    this.bufferSize = bufferSize;
+    this.maxPooled = maxPooled;
+  }
+
+  /** Borrows a buffer, which must be returned with {@link #release}. */
+  public byte[] acquire() {
+    byte[] buffer = pooled.poll();
+    if (buffer == null) {
+      buffer = new byte[bufferSize];
+    } else {
+      pooledCount.decrementAndGet();
+    }
+    bytesInUse.add(buffer.length);
+    return buffer;
+  }
+
+  /**
+   * Returns a borrowed buffer.
+   *
+   * @param buffer a buffer of this pool, not used by the caller afterwards
+   */
+  public void release(byte[] buffer) {
+    bytesInUse.add(-buffer.length);
+    if (pooledCount.incrementAndGet() <= maxPooled) {
+      pooled.add(buffer);
+    } else {
+      pooledCount.decrementAndGet();
+    }
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  /** Returns the bytes of all buffers currently borrowed. */
+  public long getBytesInUse() {
+    return bytesInUse.sum();
+  }
+
+  /** Returns the bytes of all buffers kept for reuse. */
+  public long getBytesPooled() {
+    return (long) pooledCount.get() * bufferSize;
+  }
+}
@@ -0,0 +1,118 @@
+package highlowcardgame.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reads the frames of a connection, one per line, with a buffer borrowed from a {@link BufferPool}
+ * only while bytes are in flight.
+ *
+ * <p>A {@link java.io.BufferedReader} keeps an 8K char buffer and a decoder for the whole life of a
+ * connection. This reader waits for the first byte of a frame without any buffer, borrows one when
+ * the byte arrives, and returns it as soon as every byte read has been passed on as a frame, so a
+ * connection between frames holds no buffer at all. Frames are UTF-8 and end with {@code \n} or
+ * {@code \r\n}; a frame longer than a pooled buffer is read into a larger buffer of its own.
+ */
+final class FrameReader {
+
+  private final InputStream in;
+  private final BufferPool pool;
+  private byte[] buffer;
+  private int start;
+  private int end;
+  // the bytes from start to here contain no line end
+  private int scanned;
+  // read by other threads for accounting
+  private volatile int heldBytes = 0;
+
+  FrameReader(InputStream in, BufferPool pool) {
+    this.in = in;
+    this.pool = pool;
+  }
+
+  /**
+   * Reads the next frame, blocking until it is complete.
+   *
+   * @return the frame without its line end, or {@code null} at the end of the stream
+   * @throws IOException if reading fails
+   */
+  String readLine() throws IOException {
+    while (true) {
+      if (buffer != null) {
+        for (int i = scanned; i < end; i++) {
+          if (buffer[i] == '\n') {
+            int length = i > start && buffer[i - 1] == '\r' ? i - 1 - start : i - start;
+            String line = new String(buffer, start, length, UTF_8);
+            start = i + 1;
+            scanned = start;
+            if (start == end) {
+              release();
+            }
+            return line;
+          }
+        }
+        scanned = end;
+      }
+      if (buffer == null) {
+        // between frames: wait without holding a buffer
+        int first = in.read();
+        if (first < 0) {
+          return null;
+        }
+        buffer = pool.acquire();
+        heldBytes = buffer.length;
+        buffer[0] = (byte) first;
+        start = 0;
+        end = 1;
+        scanned = 0;
+        continue;
+      }
+      makeRoom();
+      int read = in.read(buffer, end, buffer.length - end);
+      if (read < 0) {
+        // like BufferedReader, pass on an unterminated last frame
+        String line = end > start ? new String(buffer, start, end - start, UTF_8) : null;
+        release();
+        return line;
+      }
+      end += read;
+    }
+  }
+
+  /** Returns whether a frame can be read without waiting for the network, as far as known. */
+  boolean ready() throws IOException {
+    return buffer != null || in.available() > 0;
+  }
+
+  /** Returns the bytes of the buffer this reader holds. */
+  int getHeldBytes() {
+    return heldBytes;
+  }
+
+  /** Returns the buffer to the pool; further bytes of the stream are lost. */
+  void release() {
+    if (buffer != null && buffer.length == pool.getBufferSize()) {
+      pool.release(buffer);
+    }
+    buffer = null;
+    heldBytes = 0;
+  }
+
+  private void makeRoom() {
+    if (start > 0) {
+      System.arraycopy(buffer, start, buffer, 0, end - start);
+      end -= start;
+      scanned -= start;
+      start = 0;
+    }
+    if (end == buffer.length) {
+      byte[] larger = Arrays.copyOf(buffer, buffer.length * 2);
+      release();
+      buffer = larger;
+      heldBytes = larger.length;
+    }
+  }
+}
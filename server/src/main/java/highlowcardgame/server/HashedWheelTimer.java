@@ -0,0 +1,259 @@
+package highlowcardgame.server;
+
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A timer for very many short, coarse-grained timeouts such as connection deadlines.
+ *
+ * <p>Timeouts are hashed into a fixed number of buckets by their deadline; a single worker thread
+ * advances one bucket per tick and runs the timeouts that are due. Scheduling and cancelling only
+ * add the timeout to a lock-free queue for the worker, so both are O(1), and the cost of a tick
+ * depends on the size of one bucket rather than on all pending timeouts.
+ * Timeouts fire at the earliest at their deadline and at the latest one tick after it.
+ *
+ * <p>Tasks run on the worker thread and must therefore be short and must not block.
+ */
+public final class HashedWheelTimer implements Closeable {
+
+  /** Handle of a scheduled task. */
+  public interface Timeout {
+    /**
+     * Cancels the task if it has not run yet.
+     *
+     * @return {@code true} if the task was cancelled by this call
+     */
+    boolean cancel();
+
+    /** Returns whether the task has run. */
+    boolean isExpired();
+  }
+
+  private static final int INIT = 0;
+  private static final int CANCELLED = 1;
+  private static final int EXPIRED = 2;
+  private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int mask;
+  private final Queue<Entry> scheduled = new ConcurrentLinkedQueue<>();
+  private final Queue<Entry> cancelled = new ConcurrentLinkedQueue<>();
+  private final AtomicLong pending = new AtomicLong();
+  private final AtomicLong expired = new AtomicLong();
+  private final long startNanos = System.nanoTime();
+  private final Thread worker;
+  private volatile boolean running = true;
+  private long tick = 0;
+
+  /**
+   * Creates a timer and starts its worker thread.
+   *
+   * @param tickDuration the duration of a tick, which is the resolution of the timer
+   * @param unit the unit of {@code tickDuration}
+   * @param wheelSize the number of buckets; rounded up to a power of two
+   */
+  public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize) {
+    if (tickDuration <= 0 || wheelSize <= 0) {
+      throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+    }
+    tickNanos = unit.toNanos(tickDuration);
+    int size = Integer.highestOneBit(wheelSize - 1) << 1;
+    wheel = new Bucket[Math.max(1, size)];
+    for (int i = 0; i < wheel.length; i++) {
+      wheel[i] = new Bucket();
+    }
+    mask = wheel.length - 1;
+    worker = new Thread(this::run, "hashed-wheel-timer");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * Schedules a task.
+   *
+   * @param task the task to run once the delay has passed
+   * @param delay the delay
+   * @param unit the unit of {@code delay}
+   * @return a handle to cancel the task
+   */
+  public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+    if (!running) {
+      throw new IllegalStateException("The timer has been stopped");
+    }
+    long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+    Entry entry = new Entry(task, deadline);
+    pending.incrementAndGet();
+    scheduled.add(entry);
+    return entry;
+  }
+
+  /** Returns the number of scheduled tasks that have neither run nor been cancelled. */
+  public long getPendingCount() {
+    return pending.get();
+  }
+
+  /** Returns the number of tasks that have run. */
+  public long getExpiredCount() {
+    return expired.get();
+  }
+
+  long getWorkerThreadId() {
+    return worker.getId();
+  }
+
+  /** Stops the worker thread. Tasks that have not run yet are discarded. */
+  @Override
+  public void close() {
+    running = false;
+    worker.interrupt();
+  }
+
+  private void run() {
+    while (running) {
+      long deadline = tickNanos * (tick + 1);
+      long sleepNanos = deadline - (System.nanoTime() - startNanos);
+      if (sleepNanos > 0) {
+        try {
+          TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+          if (!running) {
+            return;
+          }
+          continue;
+        }
+      }
+      removeCancelled();
+      transferScheduled();
+      wheel[(int) (tick & mask)].expire(deadline);
+      tick++;
+    }
+  }
+
+  private void removeCancelled() {
+    for (Entry entry = cancelled.poll(); entry != null; entry = cancelled.poll()) {
+      if (entry.bucket != null) {
+        entry.bucket.remove(entry);
+      }
+    }
+  }
+
+  private void transferScheduled() {
+    for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+      Entry entry = scheduled.poll();
+      if (entry == null) {
+        return;
+      }
+      if (entry.state.get() == CANCELLED) {
+        continue;
+      }
+      long target = entry.deadline / tickNanos;
+      entry.remainingRounds = (target - tick) / wheel.length;
+      // never hash a timeout into a bucket the wheel has already passed
+      long ticks = Math.max(target, tick);
+      wheel[(int) (ticks & mask)].add(entry);
+    }
+  }
+
+  private final class Entry implements Timeout {
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicInteger state = new AtomicInteger(INIT);
+    private long remainingRounds;
+    private Bucket bucket;
+    private Entry prev;
+    private Entry next;
+
+    Entry(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public boolean cancel() {
+      if (!state.compareAndSet(INIT, CANCELLED)) {
+        return false;
+      }
+      pending.decrementAndGet();
+      cancelled.add(this);
+      return true;
+    }
+
+    @Override
+    public boolean isExpired() {
+      return state.get() == EXPIRED;
+    }
+
+    void expire() {
+      if (!state.compareAndSet(INIT, EXPIRED)) {
+        return;
+      }
+      pending.decrementAndGet();
+      expired.incrementAndGet();
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /** Doubly linked list of timeouts, only accessed by the worker thread. */
+  private static final class Bucket {
+    private Entry head;
+    private Entry tail;
+
+    void add(Entry entry) {
+      entry.bucket = this;
+      if (head == null) {
+        head = entry;
+        tail = entry;
+      } else {
+        tail.next = entry;
+        entry.prev = tail;
+        tail = entry;
+      }
+    }
+
+    void expire(long deadline) {
+      Entry entry = head;
+      while (entry != null) {
+        Entry next = entry.next;
+        if (entry.remainingRounds <= 0) {
+          remove(entry);
+          if (entry.deadline <= deadline) {
+            entry.expire();
+          }
+        } else if (entry.state.get() == CANCELLED) {
+          remove(entry);
+        } else {
+          entry.remainingRounds--;
+        }
+        entry = next;
+      }
+    }
+
+    void remove(Entry entry) {
+      if (entry.bucket != this) {
+        return;
+      }
+      if (entry.prev != null) {
+        entry.prev.next = entry.next;
+      } else {
+        head = entry.next;
+      }
+      if (entry.next != null) {
+        entry.next.prev = entry.prev;
+      } else {
+        tail = entry.prev;
+      }
+      entry.prev = null;
+      entry.next = null;
+      entry.bucket = null;
+    }
+  }
+}
@@ -0,0 +1,270 @@
+package highlowcardgame.server;
+
+import highlowcardgame.communication.messages.LeaderboardNotification;
+import highlowcardgame.game.observable.GameEvent;
+import highlowcardgame.game.observable.GameEventListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Global ranking of all players across the tables it observes.
+ *
+ * <p>Player names are only unique within a room, so every player is ranked as the pair of its room
+ * and its name. Each room feeds the leaderboard through its own {@link #forRoom listener}.
+ *
+ * <p>The leaderboard is maintained incrementally from score-change events instead of scanning
+ * {@link highlowcardgame.game.GameState#getScores()}. Players are kept in a concurrent skip list
+ * ordered by score, so the top K players can be read without locking in O(log N + K). The number
+ * of players per score is kept in a Fenwick tree, which answers the rank of a player in O(log S)
+ * where S is the highest score. Players with the same score share a rank.
+ *
+ * <p>Scores only change at the end of a round, so the serialized top-K frame is cached and reused
+ * until the next change.
+ */
+public final class Leaderboard {
+
+  /** The maximum number of rows a client may request. */
+  static final int MAX_LIMIT = 100;
+
+  private static final Comparator<Ranked> ORDER =
+      Comparator.comparingInt((Ranked r) -> -r.score)
+          .thenComparing(r -> r.key.playerName)
+          .thenComparing(r -> r.key.room);
+
+  /** A player of a room. */
+  private static final class Key {
+    private final String room;
+    private final String playerName;
+
+    Key(String room, String playerName) {
+      this.room = Objects.requireNonNull(room);
+      this.playerName = Objects.requireNonNull(playerName);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key
+          && ((Key) o).room.equals(room)
+          && ((Key) o).playerName.equals(playerName);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * room.hashCode() + playerName.hashCode();
+    }
+  }
+
+  private static final class Ranked {
+    private final Key key;
+    private final int score;
+
+    Ranked(Key key, int score) {
+      this.key = key;
+      this.score = score;
+    }
+  }
+
+  private static final class CachedFrame {
+    private final long version;
+    private final int limit;
+    private final String json;
+
+    CachedFrame(long version, int limit, String json) {
+      this.version = version;
+      this.limit = limit;
+      this.json = json;
+    }
+  }
+
+  private final Map<Key, Ranked> players = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListSet<Ranked> ranking = new ConcurrentSkipListSet<>(ORDER);
+  private final ScoreCounts counts = new ScoreCounts();
+  private volatile long version = 0;
+  private volatile CachedFrame cachedFrame;
+
+  /**
+   * Returns the listener that ranks the players of a room from the events of its game.
+   *
+   * @param room the name of the room
+   */
+  public GameEventListener forRoom(String room) {
+    Objects.requireNonNull(room);
+    return new GameEventListener() {
+      @Override
+      public void onPlayerJoined(GameEvent.PlayerJoined event) {
+        update(room, event.getPlayerName(), 0);
+      }
+
+      @Override
+      public void onPlayerLeft(GameEvent.PlayerLeft event) {
+        remove(room, event.getPlayerName());
+      }
+
+      @Override
+      public void onScoreChanged(GameEvent.ScoreChanged event) {
+        update(room, event.getPlayerName(), event.getNewScore());
+      }
+    };
+  }
+
+  /**
+   * Sets the score of a player, adding the player if it is not ranked yet.
+   *
+   * @param room the name of the room of the player
+   * @param playerName the name of the player
+   * @param score the new score, must not be negative
+   */
+  public synchronized void update(String room, String playerName, int score) {
+    if (score < 0) {
+      throw new IllegalArgumentException("Scores cannot be negative: " + score);
+    }
+    Key key = new Key(room, playerName);
+    Ranked previous = players.get(key);
+    if (previous != null) {
+      if (previous.score == score) {
+        return;
+      }
+      ranking.remove(previous);
+      counts.add(previous.score, -1);
+    }
+    Ranked current = new Ranked(key, score);
+    players.put(key, current);
+    ranking.add(current);
+    counts.add(score, 1);
+    version++;
+  }
+
+  /**
+   * Removes a player from the ranking.
+   *
+   * @param room the name of the room of the player
+   * @param playerName the name of the player
+   */
+  public synchronized void remove(String room, String playerName) {
+    Ranked previous = players.remove(new Key(room, playerName));
+    if (previous != null) {
+      ranking.remove(previous);
+      counts.add(previous.score, -1);
+      version++;
+    }
+  }
+
+  /** Returns the number of ranked players. */
+  public int size() {
+    return players.size();
+  }
+
+  /**
+   * Returns the rank of a player, starting at 1.
+   *
+   * @param room the name of the room of the player
+   * @param playerName the name of the player
+   * @return the rank, or -1 if the player is not ranked
+   */
+  public synchronized int getRank(String room, String playerName) {
+    Ranked ranked = players.get(new Key(room, playerName));
+    if (ranked == null) {
+      return -1;
+    }
+    return counts.countAbove(ranked.score) + 1;
+  }
+
+  /**
+   * Returns the best players in rank order.
+   *
+   * @param limit the maximum number of players to return
+   * @return at most {@code limit} rows, best player first
+   */
+  public List<LeaderboardNotification.Entry> getTop(int limit) {
+    List<LeaderboardNotification.Entry> top = new ArrayList<>(Math.min(limit, MAX_LIMIT));
+    int rank = 0;
+    int previousScore = -1;
+    int position = 0;
+    for (Ranked ranked : ranking) {
+      if (position == limit) {
+        break;
+      }
+      position++;
+      if (ranked.score != previousScore) {
+        rank = position;
+        previousScore = ranked.score;
+      }
+      top.add(new LeaderboardNotification.Entry(ranked.key.playerName, ranked.score, rank));
+    }
+    return top;
+  }
+
+  /**
+   * Returns the serialized leaderboard frame for the given request.
+   *
+   * @param limit the number of top players requested; clamped to 1..{@value #MAX_LIMIT}
+   * @param room the room of the player whose rank is requested
+   * @param playerName the player whose rank is requested, or {@code null}
+   * @return the JSON frame to send to the client
+   */
+  public String getFrame(int limit, String room, String playerName) {
+    int clamped = Math.max(1, Math.min(limit, MAX_LIMIT));
+    if (playerName == null) {
+      CachedFrame cached = cachedFrame;
+      long currentVersion = version;
+      if (cached != null && cached.version == currentVersion && cached.limit == clamped) {
+        return cached.json;
+      }
+      String json =
+          new LeaderboardNotification(getTop(clamped), size(), null).toJSON().toString();
+      cachedFrame = new CachedFrame(currentVersion, clamped, json);
+      return json;
+    }
+    LeaderboardNotification.Entry player = null;
+    Ranked ranked = room == null ? null : players.get(new Key(room, playerName));
+    int rank = ranked == null ? -1 : getRank(room, playerName);
+    if (ranked != null && rank > 0) {
+      player = new LeaderboardNotification.Entry(playerName, ranked.score, rank);
+    }
+    return new LeaderboardNotification(getTop(clamped), size(), player).toJSON().toString();
+  }
+
+  /** Fenwick tree over the number of players per score, growing with the highest score. */
+  private static final class ScoreCounts {
+    private int capacity = 64;
+    private int[] tree = new int[capacity + 1];
+    private int total = 0;
+
+    void add(int score, int delta) {
+      while (score + 1 > capacity) {
+        grow();
+      }
+      total += delta;
+      for (int i = score + 1; i <= capacity; i += i & -i) {
+        tree[i] += delta;
+      }
+    }
+
+    /** Returns the number of players with a score strictly greater than the given one. */
+    int countAbove(int score) {
+      return total - countAtMost(score);
+    }
+
+    private int countAtMost(int score) {
+      int sum = 0;
+      for (int i = Math.min(score + 1, capacity); i > 0; i -= i & -i) {
+        sum += tree[i];
+      }
+      return sum;
+    }
+
+    private void grow() {
+      // Existing nodes keep their ranges when the capacity doubles; the new root covers them all.
+      int[] grown = Arrays.copyOf(tree, 2 * capacity + 1);
+      grown[2 * capacity] = tree[capacity];
+      capacity *= 2;
+      tree = grown;
+    }
+  }
+}
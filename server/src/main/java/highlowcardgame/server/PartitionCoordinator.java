@@ -0,0 +1,203 @@
+package highlowcardgame.server;
+
+import highlowcardgame.game.Card;
+import highlowcardgame.game.Deck;
+import highlowcardgame.game.TablePartition;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Runs the rounds of a table whose players are spread over several {@link PartitionNode}s.
+ *
+ * <p>Every node reports the {@link TablePartition.Counts} of its partition whenever they change.
+ * Once the players of all partitions together have guessed, the coordinator draws the next card
+ * once and announces it to every node, which scores its players and notifies its clients. The
+ * coordinator never sees individual players or guesses, so its work per round depends on the
+ * number of partitions only.
+ *
+ * <p>Announcements are queued for every node and written by a thread of that node, so a slow or
+ * dead node never holds up the rounds of the others.
+ *
+ * <p>The protocol is line-based JSON over one connection per node:
+ *
+ * <pre>
+ * node:        {"round":3,"players":25000,"guessed":24817}
+ * coordinator: {"round":4,"suit":"HEARTS","value":7}
+ * </pre>
+ */
+public final class PartitionCoordinator {
+
+  private final Deck deck;
+  private final Map<NodeWriter, TablePartition.Counts> partitions = new HashMap<>();
+  private int round = 0;
+  private Card currentCard;
+
+  /**
+   * Creates a coordinator for one table.
+   *
+   * @param deck the deck to draw the cards of the table from
+   */
+  public PartitionCoordinator(Deck deck) {
+    this.deck = deck;
+  }
+
+  /** Returns the current round of the table, 0 before the first player joined. */
+  public synchronized int getRound() {
+    return round;
+  }
+
+  /** Returns the number of connected partitions. */
+  public synchronized int getPartitionCount() {
+    return partitions.size();
+  }
+
+  /**
+   * Accepts partition nodes until the socket is closed.
+   *
+   * @param socket the socket partition nodes connect to
+   * @throws IOException if accepting fails
+   */
+  public void start(ServerSocket socket) throws IOException {
+    try {
+      while (true) {
+        Socket node = socket.accept();
+        Thread thread = new Thread(() -> serve(node), "partition-" + node.getPort());
+        thread.setDaemon(true);
+        thread.start();
+      }
+    } finally {
+      socket.close();
+    }
+  }
+
+  private void serve(Socket node) {
+    NodeWriter out = null;
+    try (node) {
+      node.setTcpNoDelay(true);
+      BufferedReader in =
+          new BufferedReader(new InputStreamReader(node.getInputStream(), StandardCharsets.UTF_8));
+      out =
+          new NodeWriter(
+              new OutputStreamWriter(node.getOutputStream(), StandardCharsets.UTF_8),
+              "partition-writer-" + node.getPort());
+      synchronized (this) {
+        partitions.put(out, new TablePartition.Counts(0, 0, 0));
+        if (round > 0) {
+          announce(out);
+        }
+      }
+      for (String line = in.readLine(); line != null; line = in.readLine()) {
+        JSONObject report = new JSONObject(line);
+        update(
+            out,
+            new TablePartition.Counts(
+                report.getInt("round"), report.getInt("players"), report.getInt("guessed")));
+      }
+    } catch (IOException | JSONException e) {
+      System.err.println("Lost partition " + node.getRemoteSocketAddress() + ": " + e.getMessage());
+    } catch (Deck.NoNextCardException e) {
+      System.err.println("The table has no next card: " + e.getMessage());
+    } finally {
+      if (out != null) {
+        out.close();
+        removePartition(out);
+      }
+    }
+  }
+
+  private synchronized void update(NodeWriter partition, TablePartition.Counts counts)
+      throws Deck.NoNextCardException {
+    partitions.put(partition, counts);
+    advanceIfComplete();
+  }
+
+  private synchronized void removePartition(NodeWriter partition) {
+    partitions.remove(partition);
+    try {
+      advanceIfComplete();
+    } catch (Deck.NoNextCardException e) {
+      System.err.println("The table has no next card: " + e.getMessage());
+    }
+  }
+
+  /** Must be called while holding the lock of this object. */
+  private void advanceIfComplete() throws Deck.NoNextCardException {
+    int players = 0;
+    int guessed = 0;
+    for (TablePartition.Counts counts : partitions.values()) {
+      players += counts.getPlayers();
+      // reports about an earlier round are not yet aware of the current card
+      if (counts.getRound() == round) {
+        guessed += counts.getGuessed();
+      }
+    }
+    if (players == 0 || (round > 0 && guessed < players)) {
+      return;
+    }
+    currentCard = deck.getNextCard();
+    round++;
+    for (NodeWriter partition : partitions.keySet()) {
+      announce(partition);
+    }
+  }
+
+  /** Must be called while holding the lock of this object, which orders the announcements. */
+  private void announce(NodeWriter partition) {
+    partition.send(
+        new JSONObject()
+            .put("round", round)
+            .put("suit", currentCard.getSuit().name())
+            .put("value", currentCard.getValue())
+            .toString());
+  }
+
+  /** Writes the messages queued for one node on a thread of its own, in the queued order. */
+  private static final class NodeWriter {
+    private final Writer out;
+    private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+    private final Thread thread;
+
+    NodeWriter(Writer out, String threadName) {
+      this.out = out;
+      this.thread = new Thread(this::run, threadName);
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    /** Queues a message without blocking. */
+    void send(String message) {
+      messages.add(message);
+    }
+
+    void close() {
+      thread.interrupt();
+    }
+
+    private void run() {
+      try {
+        while (true) {
+          out.write(messages.take() + "\n");
+          if (messages.isEmpty()) {
+            out.flush();
+          }
+        }
+      } catch (IOException e) {
+        // the partition's reader notices the broken connection and removes it
+      } catch (InterruptedException e) {
+        // the partition is gone
+      }
+    }
+  }
+}
@@ -0,0 +1,244 @@
+package highlowcardgame.server;
+
+import highlowcardgame.communication.messages.GameStateNotification;
+import highlowcardgame.game.Card;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.game.Score;
+import highlowcardgame.game.TablePartition;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Serves the players of one {@link TablePartition} of a table run by a {@link
+ * PartitionCoordinator}.
+ *
+ * <p>Clients connect to a node with the usual protocol. Guesses only update the partition; a
+ * reporter thread sends the partition's counts to the coordinator whenever they changed, so a burst
+ * of guesses is coalesced into few reports. When the coordinator announces a round, the node scores
+ * its players and sends each client its game state.
+ */
+public final class PartitionNode {
+
+  private final TablePartition partition = new TablePartition();
+  private final ConcurrentHashMap<String, Client> clients = new ConcurrentHashMap<>();
+  private final Object reportLock = new Object();
+  private boolean dirty = true;
+
+  /** Returns the partition this node serves. */
+  public TablePartition getPartition() {
+    return partition;
+  }
+
+  /**
+   * Connects to the coordinator of the table and starts reporting to it.
+   *
+   * @param coordinator the connection to the coordinator
+   * @throws IOException if the connection cannot be used
+   */
+  public void connect(Socket coordinator) throws IOException {
+    coordinator.setTcpNoDelay(true);
+    Writer out = new OutputStreamWriter(coordinator.getOutputStream(), StandardCharsets.UTF_8);
+    BufferedReader in =
+        new BufferedReader(
+            new InputStreamReader(coordinator.getInputStream(), StandardCharsets.UTF_8));
+    Thread reporter = new Thread(() -> report(out), "partition-reporter");
+    reporter.setDaemon(true);
+    Thread listener = new Thread(() -> listen(in), "partition-listener");
+    listener.setDaemon(true);
+    reporter.start();
+    listener.start();
+  }
+
+  /**
+   * Accepts clients until the socket is closed.
+   *
+   * @param socket the socket clients connect to
+   * @throws IOException if accepting fails
+   */
+  public void start(ServerSocket socket) throws IOException {
+    try {
+      while (true) {
+        Client client = new Client(socket.accept());
+        new Thread(client).start();
+      }
+    } finally {
+      socket.close();
+    }
+  }
+
+  /** Adds a player; returns {@code false} if the name is taken in this partition. */
+  public boolean join(String playerName) {
+    boolean joined = partition.addPlayer(playerName);
+    if (joined) {
+      markDirty();
+    }
+    return joined;
+  }
+
+  public void leave(String playerName) {
+    partition.removePlayer(playerName);
+    markDirty();
+  }
+
+  /** Records a guess; returns {@code false} if it does not count, see {@link TablePartition}. */
+  public boolean guess(String playerName, HighLowCardGame.Guess guess) {
+    boolean counted = partition.guess(playerName, guess);
+    if (counted) {
+      markDirty();
+    }
+    return counted;
+  }
+
+  /** Waits until the partition has reached the given round; returns whether it did in time. */
+  boolean awaitRound(int round, long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (partition) {
+      while (partition.getRound() < round) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(partition, remaining);
+      }
+    }
+    return true;
+  }
+
+  private void markDirty() {
+    synchronized (reportLock) {
+      dirty = true;
+      reportLock.notifyAll();
+    }
+  }
+
+  private void report(Writer out) {
+    try {
+      while (true) {
+        synchronized (reportLock) {
+          while (!dirty) {
+            reportLock.wait();
+          }
+          dirty = false;
+        }
+        TablePartition.Counts counts = partition.getCounts();
+        JSONObject message =
+            new JSONObject()
+                .put("round", counts.getRound())
+                .put("players", counts.getPlayers())
+                .put("guessed", counts.getGuessed());
+        out.write(message + "\n");
+        out.flush();
+      }
+    } catch (IOException e) {
+      System.err.println("Lost the coordinator: " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void listen(BufferedReader in) {
+    try {
+      for (String line = in.readLine(); line != null; line = in.readLine()) {
+        JSONObject announcement = new JSONObject(line);
+        int round = announcement.getInt("round");
+        Card card =
+            new Card(
+                Card.Suit.valueOf(announcement.getString("suit")), announcement.getInt("value"));
+        if (!partition.startRound(round, card)) {
+          continue;
+        }
+        markDirty();
+        synchronized (partition) {
+          partition.notifyAll();
+        }
+        for (Client client : clients.values()) {
+          client.sendGameState();
+        }
+      }
+    } catch (IOException | JSONException e) {
+      System.err.println("Lost the coordinator: " + e.getMessage());
+    }
+  }
+
+  private final class Client implements Runnable {
+    private final Socket socket;
+    private final Writer out;
+    private volatile String playerName;
+
+    Client(Socket socket) throws IOException {
+      this.socket = socket;
+      this.out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void run() {
+      try (socket) {
+        BufferedReader in =
+            new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+          JSONObject message = new JSONObject(line);
+          switch (message.getString("messageType")) {
+            case "JoinGameRequest":
+              handleJoin(message.getString("playerName"));
+              break;
+            case "GuessRequest":
+              if (playerName != null) {
+                guess(playerName, HighLowCardGame.Guess.valueOf(message.getString("guess")));
+              }
+              break;
+            case "HeartbeatRequest":
+              break;
+            default:
+              System.err.println("Unsupported message on a partition: " + line);
+          }
+        }
+      } catch (IOException | JSONException | IllegalArgumentException e) {
+        System.err.println("Closing a client of the partition: " + e.getMessage());
+      } finally {
+        if (playerName != null) {
+          clients.remove(playerName, this);
+          leave(playerName);
+        }
+      }
+    }
+
+    private void handleJoin(String name) {
+      if (playerName != null || !join(name)) {
+        System.err.println("Rejecting join of " + name);
+        return;
+      }
+      playerName = name;
+      clients.put(name, this);
+      sendGameState();
+    }
+
+    void sendGameState() {
+      Card card = partition.getCurrentCard();
+      Score score = partition.getScore(playerName);
+      if (card == null || score == null) {
+        return;
+      }
+      GameStateNotification notification =
+          new GameStateNotification(playerName, partition.getRound(), card, score.get());
+      try {
+        synchronized (this) {
+          out.write(notification.toJSON() + System.lineSeparator());
+          out.flush();
+        }
+      } catch (IOException e) {
+        // the connection is being closed; run() cleans up
+      }
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package highlowcardgame.server;
+
+import highlowcardgame.game.Card;
+import highlowcardgame.game.Deck;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * A deck that keeps the games of a primary and a follower server in step.
+ *
+ * <p>On the primary it draws from a real deck and reports every card for replication. On the
+ * follower it hands out the cards the primary reported, in the same order, until the follower
+ * takes over and draws from a deck of its own.
+ */
+final class ReplicatedDeck implements Deck {
+
+  private final Queue<Card> replayed = new ConcurrentLinkedQueue<>();
+  private final Consumer<Card> onDraw;
+  private volatile Deck source;
+
+  /**
+   * Creates a deck drawing from {@code source} and reporting each card to {@code onDraw}.
+   *
+   * @param source the deck to draw from
+   * @param onDraw receives every card drawn from {@code source}
+   */
+  ReplicatedDeck(Deck source, Consumer<Card> onDraw) {
+    this.source = source;
+    this.onDraw = onDraw;
+  }
+
+  /** Stops drawing from the source; from now on only replayed cards are handed out. */
+  void follow() {
+    this.source = null;
+  }
+
+  /** Queues a card drawn by the primary. */
+  void replay(Card card) {
+    replayed.add(card);
+  }
+
+  /** Draws from {@code source} once the replayed cards are used up. */
+  void takeOver(Deck source) {
+    this.source = source;
+  }
+
+  @Override
+  public Card getNextCard() throws NoNextCardException {
+    Card card = replayed.poll();
+    if (card != null) {
+      return card;
+    }
+    Deck deck = source;
+    if (deck == null) {
+      throw new NoNextCardException("The primary has not replicated the next card");
+    }
+    card = deck.getNextCard();
+    onDraw.accept(card);
+    return card;
+  }
+
+  @Override
+  public boolean hasNextCard() {
+    Deck deck = source;
+    return !replayed.isEmpty() || (deck != null && deck.hasNextCard());
+  }
+}
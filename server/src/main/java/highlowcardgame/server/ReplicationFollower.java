@@ -0,0 +1,74 @@
+package highlowcardgame.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.TreeMap;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Receives the event stream of a primary {@link Server}; the counterpart of a replication log.
+ *
+ * <p>Events are applied strictly in the order of their sequence numbers. An event that arrives
+ * ahead of a missing one waits until the gap is filled, and every acknowledgement carries the
+ * highest number up to which all events have been applied, so the primary never takes an event as
+ * replicated before everything it depends on.
+ */
+final class ReplicationFollower {
+
+  /** Applies one replicated event to the follower's rooms. */
+  interface Applier {
+    void apply(JSONObject event) throws Exception;
+  }
+
+  private final Socket primary;
+  private final TreeMap<Long, JSONObject> pending = new TreeMap<>();
+  private long applied = 0;
+
+  ReplicationFollower(Socket primary) {
+    this.primary = primary;
+  }
+
+  /**
+   * Applies batches of events and acknowledges each batch until the primary goes away.
+   *
+   * @param applier applies an event
+   * @return the sequence number of the last applied event
+   */
+  long run(Applier applier) {
+    try {
+      primary.setTcpNoDelay(true);
+      BufferedReader in =
+          new BufferedReader(
+              new InputStreamReader(primary.getInputStream(), StandardCharsets.UTF_8));
+      Writer out = new OutputStreamWriter(primary.getOutputStream(), StandardCharsets.UTF_8);
+      for (String line = in.readLine(); line != null; line = in.readLine()) {
+        JSONArray events = new JSONObject(line).getJSONArray("events");
+        for (int i = 0; i < events.length(); i++) {
+          JSONObject event = events.getJSONObject(i);
+          long seq = event.getLong("seq");
+          if (seq > applied) {
+            pending.put(seq, event);
+          }
+        }
+        while (!pending.isEmpty() && pending.firstKey() == applied + 1) {
+          applier.apply(pending.pollFirstEntry().getValue());
+          applied++;
+        }
+        out.write(new JSONObject().put("ack", applied) + "\n");
+        out.flush();
+      }
+    } catch (IOException | JSONException e) {
+      System.err.println("Lost the primary: " + e.getMessage());
+    } catch (Exception e) {
+      System.err.println("Cannot apply replicated event " + (applied + 1) + ": " + e);
+    }
+    return applied;
+  }
+}
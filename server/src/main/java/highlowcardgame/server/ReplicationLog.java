@@ -0,0 +1,278 @@
+package highlowcardgame.server;
+
+import highlowcardgame.communication.LatencyHistogram;
+import highlowcardgame.game.Card;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Streams the game events of a primary {@link Server} to a follower.
+ *
+ * <p>Events are appended while the game they belong to is locked, which gives every event a
+ * sequence number in the order the primary applied them. Numbering and queueing an event is one
+ * step, so events of different rooms are queued in the order of their numbers. A sender thread
+ * writes all queued events as one batch per line and does not wait for acknowledgements before
+ * sending the next batch, so the stream is pipelined. The follower acknowledges each batch once it
+ * has applied it, with the highest number up to which it has applied every event.
+ *
+ * <p>The queue is bounded. When the follower falls so far behind that it stays full for {@link
+ * #APPEND_TIMEOUT_MILLIS}, appending stalls the game for that long and then gives up on the
+ * follower, like any other failure of the follower.
+ *
+ * <p>In {@link Mode#ASYNC} mode the primary never waits for the follower, so a takeover may lose
+ * the last events. In {@link Mode#SYNC} mode the primary waits for the acknowledgement of an event
+ * before it tells clients about its outcome, so everything a client has seen survives a takeover.
+ * If the follower fails, the primary logs it and continues without replication.
+ *
+ * <p>The stream is line-based JSON like the client protocol:
+ *
+ * <pre>
+ * primary:  {"events":[{"seq":1,"op":"CARD","room":"default","suit":"HEARTS","value":7}, ...]}
+ * follower: {"ack":1}
+ * </pre>
+ */
+public final class ReplicationLog implements Closeable {
+
+  /** When the primary waits for the follower. */
+  public enum Mode {
+    /** Never wait. */
+    ASYNC,
+    /** Wait for the follower before notifying clients about the outcome of an event. */
+    SYNC
+  }
+
+  static final String OP_CARD = "CARD";
+  static final String OP_JOIN = "JOIN";
+  static final String OP_LEAVE = "LEAVE";
+  static final String OP_GUESS = "GUESS";
+  static final String OP_EXPIRE = "EXPIRE";
+  static final String OP_RESOLVE = "RESOLVE";
+  static final String OP_CLOSE = "CLOSE";
+
+  private static final int MAX_BATCH = 512;
+  private static final int MAX_QUEUED = 65_536;
+  private static final long SYNC_TIMEOUT_MILLIS = 1_000;
+  static final long APPEND_TIMEOUT_MILLIS = 1_000;
+
+  private final Mode mode;
+  private final Socket socket;
+  private final BlockingQueue<JSONObject> queue = new LinkedBlockingQueue<>(MAX_QUEUED);
+  private final Thread sender;
+  private final Thread receiver;
+  private final LatencyHistogram syncWaits = new LatencyHistogram();
+  // numbers and queues events in one step; never held while waiting on this log
+  private final Object appendLock = new Object();
+  // guarded by appendLock
+  private long appended = 0;
+  // guarded by this
+  private long acknowledged = 0;
+  private long batches = 0;
+  private volatile boolean failed = false;
+
+  /**
+   * Starts streaming to a follower.
+   *
+   * @param follower the connection to the follower
+   * @param mode when to wait for the follower
+   * @throws IOException if the connection cannot be used
+   */
+  public ReplicationLog(Socket follower, Mode mode) throws IOException {
+    this.socket = follower;
+    this.mode = mode;
+    follower.setTcpNoDelay(true);
+    Writer out = new OutputStreamWriter(follower.getOutputStream(), StandardCharsets.UTF_8);
+    BufferedReader in =
+        new BufferedReader(
+            new InputStreamReader(follower.getInputStream(), StandardCharsets.UTF_8));
+    sender = new Thread(() -> send(out), "replication-sender");
+    sender.setDaemon(true);
+    receiver = new Thread(() -> receive(in), "replication-receiver");
+    receiver.setDaemon(true);
+    sender.start();
+    receiver.start();
+  }
+
+  /** Returns when the primary waits for the follower. */
+  public Mode getMode() {
+    return mode;
+  }
+
+  /** Returns the number of events appended so far. */
+  public long getAppendedCount() {
+    synchronized (appendLock) {
+      return appended;
+    }
+  }
+
+  /** Returns the sequence number of the last event the follower has applied. */
+  public synchronized long getAcknowledged() {
+    return acknowledged;
+  }
+
+  /** Returns the number of batches sent so far. */
+  public synchronized long getBatchCount() {
+    return batches;
+  }
+
+  /** Returns how long the primary waited for acknowledgements in {@link Mode#SYNC} mode. */
+  public LatencyHistogram getSyncWaits() {
+    return syncWaits;
+  }
+
+  /** Returns whether the follower has failed and events are no longer replicated. */
+  public boolean hasFailed() {
+    return failed;
+  }
+
+  /**
+   * Appends an event. Must be called while the game the event belongs to is locked.
+   *
+   * <p>While the queue is full this blocks the game for up to {@link #APPEND_TIMEOUT_MILLIS}, which
+   * bounds the memory used; after that the follower is given up.
+   *
+   * @param event the event, which gets a {@code seq} field
+   * @return the sequence number of the event, or 0 if the follower has failed
+   */
+  long append(JSONObject event) {
+    if (failed) {
+      return 0;
+    }
+    synchronized (appendLock) {
+      long seq = appended + 1;
+      event.put("seq", seq);
+      // a number that is never queued would stall the acknowledgements for good
+      try {
+        if (!queue.offer(event, APPEND_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+          fail("the follower fell behind by " + MAX_QUEUED + " events");
+          return 0;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        fail("interrupted while appending");
+        return 0;
+      }
+      appended = seq;
+      return seq;
+    }
+  }
+
+  /**
+   * In {@link Mode#SYNC} mode waits until the follower has applied the given event. Returns at
+   * once in {@link Mode#ASYNC} mode or when the follower has failed.
+   *
+   * @param seq the sequence number returned by {@link #append}
+   */
+  void awaitReplicated(long seq) {
+    if (mode != Mode.SYNC || seq == 0) {
+      return;
+    }
+    long start = System.nanoTime();
+    long deadline = start + TimeUnit.MILLISECONDS.toNanos(SYNC_TIMEOUT_MILLIS);
+    synchronized (this) {
+      while (acknowledged < seq && !failed) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          fail("no acknowledgement for " + SYNC_TIMEOUT_MILLIS + " ms");
+          break;
+        }
+        try {
+          TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+    syncWaits.record(System.nanoTime() - start);
+  }
+
+  /** Stops replicating and closes the connection to the follower. */
+  @Override
+  public void close() throws IOException {
+    failed = true;
+    sender.interrupt();
+    socket.close();
+  }
+
+  private void send(Writer out) {
+    List<JSONObject> batch = new ArrayList<>(MAX_BATCH);
+    try {
+      while (!failed) {
+        batch.add(queue.take());
+        queue.drainTo(batch, MAX_BATCH - 1);
+        JSONArray events = new JSONArray();
+        for (JSONObject event : batch) {
+          events.put(event);
+        }
+        out.write(new JSONObject().put("events", events) + "\n");
+        out.flush();
+        synchronized (this) {
+          batches++;
+        }
+        batch.clear();
+      }
+    } catch (IOException e) {
+      fail(e.getMessage());
+    } catch (InterruptedException e) {
+      // closed
+    }
+  }
+
+  private void receive(BufferedReader in) {
+    try {
+      for (String line = in.readLine(); line != null; line = in.readLine()) {
+        long ack = new JSONObject(line).getLong("ack");
+        synchronized (this) {
+          acknowledged = Math.max(acknowledged, ack);
+          notifyAll();
+        }
+      }
+      fail("the follower closed the connection");
+    } catch (IOException | JSONException e) {
+      fail(e.getMessage());
+    }
+  }
+
+  private void fail(String reason) {
+    synchronized (this) {
+      if (failed) {
+        return;
+      }
+      failed = true;
+      notifyAll();
+    }
+    System.err.println("Replication stopped, continuing without a follower: " + reason);
+    queue.clear();
+    try {
+      socket.close();
+    } catch (IOException e) {
+      // already closed
+    }
+  }
+
+  static JSONObject event(String op, String room) {
+    return new JSONObject().put("op", op).put("room", room);
+  }
+
+  static JSONObject card(String room, Card card) {
+    return event(OP_CARD, room).put("suit", card.getSuit().name()).put("value", card.getValue());
+  }
+
+  static Card cardOf(JSONObject event) {
+    return new Card(Card.Suit.valueOf(event.getString("suit")), event.getInt("value"));
+  }
+}
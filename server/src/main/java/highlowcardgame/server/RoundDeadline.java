@@ -0,0 +1,150 @@
+package highlowcardgame.server;
+
+import highlowcardgame.game.Deck.NoNextCardException;
+import highlowcardgame.game.GameState;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.game.observable.GameEvent;
+import highlowcardgame.game.observable.GameEventListener;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Ends the rounds of a game that have not been completed within a deadline, so a single absent
+ * player cannot stall a table.
+ *
+ * <p>Each round gets one timeout on a shared {@link HashedWheelTimer}, so any number of games can
+ * have deadlines without a thread each. Ending a round notifies the game's observers and writes to
+ * clients, so the timer only hands the expiry to an executor. The game decides under its own lock
+ * whether the round is still current, so an expiry racing with the last guess is harmless.
+ *
+ * <p>The duration of every round is recorded in the {@link ServerMetrics}, whether it ended because
+ * everyone guessed or because its deadline passed.
+ */
+final class RoundDeadline implements GameEventListener {
+
+  /** Ends a round of the game, like {@link HighLowCardGame#expireRound}. */
+  interface Expirer {
+    boolean expireRound(int round) throws NoNextCardException;
+  }
+
+  private final HighLowCardGame game;
+  private final Expirer expirer;
+  private final HashedWheelTimer timer;
+  private final Executor executor;
+  private final ServerMetrics metrics;
+  private final Consumer<GameState> onExpired;
+  private volatile long timeoutMillis = 0;
+  private int round = 0;
+  private long roundStartNanos;
+  private HashedWheelTimer.Timeout timeout;
+  private boolean cancelled = false;
+
+  /**
+   * Creates deadlines for a game. The deadlines are disabled until a timeout is set.
+   *
+   * @param game the game whose rounds to end
+   * @param expirer ends a round of the game
+   * @param timer the timer to schedule the deadlines on
+   * @param executor the executor ending the rounds
+   * @param metrics the metrics to record round durations in
+   * @param onExpired called with the new state after a round was ended by its deadline
+   */
+  RoundDeadline(
+      HighLowCardGame game,
+      Expirer expirer,
+      HashedWheelTimer timer,
+      Executor executor,
+      ServerMetrics metrics,
+      Consumer<GameState> onExpired) {
+    this.game = game;
+    this.expirer = expirer;
+    this.timer = timer;
+    this.executor = executor;
+    this.metrics = metrics;
+    this.onExpired = onExpired;
+  }
+
+  /**
+   * Sets the time a round may take. Takes effect from the next round on; zero disables deadlines.
+   *
+   * @param timeout the round timeout
+   * @param unit the unit of {@code timeout}
+   */
+  void setTimeout(long timeout, TimeUnit unit) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("The round timeout must not be negative");
+    }
+    timeoutMillis = unit.toMillis(timeout);
+  }
+
+  /** Cancels all further deadlines, for example because the game is discarded. */
+  synchronized void cancel() {
+    cancelled = true;
+    if (timeout != null) {
+      timeout.cancel();
+      timeout = null;
+    }
+  }
+
+  /** Schedules a deadline for the current round if it has none, for example after a takeover. */
+  synchronized void scheduleCurrentRound() {
+    if (timeout == null) {
+      schedule(round);
+    }
+  }
+
+  @Override
+  public synchronized void onRoundAdvanced(GameEvent.RoundAdvanced event) {
+    int newRound = event.getRound();
+    if (newRound == round) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (round > 0) {
+      metrics.roundResolved(now - roundStartNanos);
+    }
+    round = newRound;
+    roundStartNanos = now;
+    if (timeout != null) {
+      timeout.cancel();
+    }
+    schedule(newRound);
+  }
+
+  /** Must be called while holding the lock of this object. */
+  private void schedule(int round) {
+    long millis = timeoutMillis;
+    if (millis <= 0 || round == 0 || cancelled) {
+      timeout = null;
+      return;
+    }
+    long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    timeout =
+        timer.schedule(
+            () -> executor.execute(() -> expire(round, deadlineNanos)),
+            millis,
+            TimeUnit.MILLISECONDS);
+  }
+
+  private void expire(int round, long deadlineNanos) {
+    boolean expired;
+    try {
+      expired = expirer.expireRound(round);
+    } catch (NoNextCardException e) {
+      System.err.println("Cannot end round " + round + ": " + e.getMessage());
+      return;
+    }
+    if (expired) {
+      metrics.roundExpired(System.nanoTime() - deadlineNanos);
+      onExpired.accept(game.getState());
+      return;
+    }
+    synchronized (this) {
+      // the round could not end because the table is empty; check again once someone may be back
+      if (this.round == round) {
+        schedule(round);
+      }
+    }
+  }
+}
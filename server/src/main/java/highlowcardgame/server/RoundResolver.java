@@ -0,0 +1,265 @@
+package highlowcardgame.server;
+
+import highlowcardgame.communication.LatencyHistogram;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Ends the rounds completed by guesses on threads of its own, so the connection whose guess
+ * completes a round gets its answer without drawing the next card and notifying every player.
+ *
+ * <p>Rounds are routed to a partition by the key of their table, so the rounds of a table end in
+ * order. A partition thread takes all rounds that are waiting and resolves them as one batch: it
+ * ends every round first, waits once for the replication of the whole batch, and only then
+ * publishes the new states. The queues are unbounded, but a table has at most one completed round
+ * waiting, so they never hold more rounds than there are tables.
+ *
+ * <p>Closing a resolver never strands a round: the rounds still waiting are resolved before its
+ * threads stop. Rounds submitted afterwards go to its successor, if {@link #close(RoundResolver)}
+ * named one, or are refused so the caller ends them itself. Submitting holds the read lock of the
+ * resolver and closing takes the write lock, so every round is either queued before the threads
+ * are told to stop or handed on.
+ */
+public final class RoundResolver implements Closeable {
+
+  /** A round in which every player has guessed. */
+  interface Round {
+    /**
+     * Ends the round.
+     *
+     * @return the replication sequence number of the end of the round, 0 if it is not replicated,
+     *     or -1 if the round had already ended
+     */
+    long resolve();
+
+    /** Sends the state after the round to the players, once the end of the round is replicated. */
+    void publish();
+  }
+
+  private static final int MAX_BATCH = 256;
+
+  private final BlockingQueue<Pending>[] queues;
+  private final Thread[] threads;
+  private final LongConsumer awaitReplicated;
+  private final LongAdder resolved = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+  private final LatencyHistogram delays = new LatencyHistogram();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // guarded by lock
+  private RoundResolver successor;
+  private boolean closed = false;
+
+  /**
+   * Creates a resolver and starts its threads.
+   *
+   * @param partitions the number of threads
+   * @param awaitReplicated waits until the event with the given sequence number is replicated
+   */
+  @SuppressWarnings("unchecked")
+  RoundResolver(int partitions, LongConsumer awaitReplicated) {
+    if (partitions < 1) {
+      throw new IllegalArgumentException("A resolver needs at least one partition");
+    }
+    this.awaitReplicated = awaitReplicated;
+    queues = new BlockingQueue[partitions];
+    threads = new Thread[partitions];
+    for (int i = 0; i < partitions; i++) {
+      BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+      queues[i] = queue;
+      threads[i] = new Thread(() -> work(queue), "round-resolver-" + i);
+      threads[i].setDaemon(true);
+      threads[i].start();
+    }
+  }
+
+  /**
+   * Hands a completed round to the partition of its table. Returns right away, unless a close is
+   * taking the lock at the same moment, and never throws, as it is called while the game of the
+   * round is locked.
+   *
+   * @param key the key of the table, for example the hash of its name
+   * @param round the completed round
+   * @return {@code false} if the resolver is closed without a successor, in which case the caller
+   *     has to end the round itself
+   */
+  boolean submit(int key, Round round) {
+    RoundResolver next;
+    lock.readLock().lock();
+    try {
+      if (!closed) {
+        queues[Math.floorMod(key, queues.length)].add(new Pending(key, round));
+        return true;
+      }
+      next = successor;
+    } finally {
+      lock.readLock().unlock();
+    }
+    return next != null && next.submit(key, round);
+  }
+
+  private void work(BlockingQueue<Pending> queue) {
+    List<Pending> batch = new ArrayList<>();
+    while (true) {
+      try {
+        batch.add(queue.take());
+      } catch (InterruptedException e) {
+        return;
+      }
+      queue.drainTo(batch, MAX_BATCH - 1);
+      boolean stop = batch.remove(Pending.STOP);
+      if (!batch.isEmpty()) {
+        resolveBatch(batch);
+      }
+      if (stop) {
+        return;
+      }
+    }
+  }
+
+  private void resolveBatch(List<Pending> batch) {
+    long lastSeq = 0;
+    int ended = 0;
+    for (int i = 0; i < batch.size(); i++) {
+      Pending pending = batch.get(i);
+      long seq = resolve(pending.round);
+      if (seq < 0) {
+        continue;
+      }
+      lastSeq = Math.max(lastSeq, seq);
+      delays.record(System.nanoTime() - pending.submittedNanos);
+      batch.set(ended++, pending);
+    }
+    if (lastSeq > 0) {
+      awaitReplicated.accept(lastSeq);
+    }
+    for (int i = 0; i < ended; i++) {
+      try {
+        batch.get(i).round.publish();
+      } catch (RuntimeException e) {
+        e.printStackTrace();
+      }
+    }
+    resolved.add(ended);
+    batches.increment();
+    batch.clear();
+  }
+
+  private static long resolve(Round round) {
+    try {
+      return round.resolve();
+    } catch (RuntimeException e) {
+      e.printStackTrace();
+      return -1;
+    }
+  }
+
+  public int getPartitions() {
+    return threads.length;
+  }
+
+  /** Returns the number of rounds waiting to be resolved. */
+  public int getPending() {
+    int pending = 0;
+    for (BlockingQueue<Pending> queue : queues) {
+      pending += queue.size();
+    }
+    return pending;
+  }
+
+  /** Returns the number of rounds the resolver has ended. */
+  public long getResolvedRounds() {
+    return resolved.sum();
+  }
+
+  /** Returns the number of batches the rounds were resolved in. */
+  public long getBatches() {
+    return batches.sum();
+  }
+
+  /** Returns the time from the last guess of a round until the round ended. */
+  public LatencyHistogram getResolutionDelays() {
+    return delays;
+  }
+
+  /** Resolves the rounds still waiting, then stops the threads of the resolver. */
+  @Override
+  public void close() {
+    close(null);
+  }
+
+  /**
+   * Resolves the rounds still waiting, then stops the threads of the resolver. Rounds submitted
+   * from now on go to the successor.
+   *
+   * @param successor the resolver taking over, or {@code null} to refuse later rounds
+   */
+  void close(RoundResolver successor) {
+    lock.writeLock().lock();
+    try {
+      this.successor = successor;
+      closed = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    // no round can be queued after the stop markers from here on
+    for (BlockingQueue<Pending> queue : queues) {
+      queue.add(Pending.STOP);
+    }
+    try {
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // rounds left behind by an interrupted close
+    List<Pending> left = new ArrayList<>();
+    for (BlockingQueue<Pending> queue : queues) {
+      queue.drainTo(left);
+    }
+    left.remove(Pending.STOP);
+    if (successor != null) {
+      for (Pending pending : left) {
+        successor.submit(pending.key, pending.round);
+      }
+    } else if (!left.isEmpty()) {
+      resolveBatch(left);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "resolver partitions="
+        + threads.length
+        + " pending="
+        + getPending()
+        + " resolved="
+        + getResolvedRounds()
+        + " batches="
+        + getBatches()
+        + " delay=["
+        + delays
+        + "]";
+  }
+
+  private static final class Pending {
+    /** Tells the thread taking it to stop after the rounds before it. */
+    static final Pending STOP = new Pending(0, null);
+
+    final int key;
+    final Round round;
+    final long submittedNanos = System.nanoTime();
+
+    Pending(int key, Round round) {
+      this.key = key;
+      this.round = round;
+    }
+  }
+}
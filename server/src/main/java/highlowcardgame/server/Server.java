@@ -4,17 +4,21 @@ import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.Moshi;
 import com.squareup.moshi.adapters.PolymorphicJsonAdapterFactory;
 import highlowcardgame.Shell;
+import highlowcardgame.communication.ChannelFrames;
+import highlowcardgame.communication.FrameCompressor;
+import highlowcardgame.communication.GameStateDeltaEncoder;
 import highlowcardgame.communication.messages.GameStateNotification;
 import highlowcardgame.communication.messages.JoinGameRequest;
 import highlowcardgame.communication.messages.Message;
 import highlowcardgame.communication.messages.PlayerJoinedNotification;
+import highlowcardgame.communication.messages.SessionNotification;
 import highlowcardgame.game.GameState;
 import highlowcardgame.game.Player;
 import highlowcardgame.game.Deck;
 import highlowcardgame.game.Card;
 import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.game.InfiniteShuffledDeck;
 import highlowcardgame.game.Score;
-import highlowcardgame.game.observable.Observer;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -22,11 +26,21 @@ import java.io.*;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.LongSummaryStatistics;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Main class for the game server. The class starts the server sockets and delegates connection and
@@ -34,10 +48,59 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class Server {
   private static final int DEFAULT_PORT = 4441;
-  private GameState gameState;
-  private final ConcurrentHashMap<String, ClientHandler> clients = new ConcurrentHashMap<>();
-  private final HighLowCardGame game;
-  private Card previousCard;
+  private static final int DEFAULT_LEADERBOARD_LIMIT = 10;
+  private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60_000;
+  private static final long DEFAULT_ADMISSION_WAIT_MILLIS = 1000;
+  private static final long ADMISSION_POLL_MILLIS = 10;
+  private static final long DEFAULT_SESSION_GRACE_MILLIS = 15_000;
+  private static final long DEFAULT_MAX_FLUSH_DELAY_MICROS = 5_000;
+  private static final int FRAME_BUFFER_SIZE = 8192;
+  private static final int MAX_POOLED_FRAME_BUFFERS = 1024;
+  private static final int STAGE_QUEUE_CAPACITY = 1024;
+  private static final int RESUME_TOKEN_BYTES = 16;
+  private static final int MAX_CHANNELS_PER_CONNECTION = 1 << 16;
+  private static final String HEARTBEAT = "{\"messageType\":\"HeartbeatNotification\"}";
+  private final ConcurrentHashMap<Integer, ClientHandler> clients = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Room> rooms = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+  private final SecureRandom tokens = new SecureRandom();
+  private final Leaderboard leaderboard = new Leaderboard();
+  private final FrameCompressor compressor = new FrameCompressor();
+  private final BufferPool buffers = new BufferPool(FRAME_BUFFER_SIZE, MAX_POOLED_FRAME_BUFFERS);
+  private final AtomicInteger nextConnectionId = new AtomicInteger();
+  private volatile TrafficRecorder recorder;
+  private volatile boolean logFrames = false;
+  private final HashedWheelTimer timer = new HashedWheelTimer(100, TimeUnit.MILLISECONDS, 512);
+  // runs work triggered by the timer that may block, such as writes
+  private final ExecutorService timerTasks =
+      Executors.newSingleThreadExecutor(
+          r -> {
+            Thread thread = new Thread(r, "timer-tasks");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final ServerMetrics metrics = new ServerMetrics();
+  private final AdmissionControl admission = new AdmissionControl();
+  private volatile long admissionWaitMillis = DEFAULT_ADMISSION_WAIT_MILLIS;
+  private volatile double connectionRate = 0;
+  private volatile int connectionBurst = 0;
+  private volatile long roundTimeoutMillis = 0;
+  private volatile double tableRate = 0;
+  private volatile int tableBurst = 0;
+  private volatile long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+  private volatile long sessionGraceMillis = DEFAULT_SESSION_GRACE_MILLIS;
+  private volatile long maxFlushDelayNanos =
+      TimeUnit.MICROSECONDS.toNanos(DEFAULT_MAX_FLUSH_DELAY_MICROS);
+  private volatile long handlerStackSize = 0;
+  // the stages of the staged pipeline, all null when connections are served inline
+  private volatile Stage decodeStage;
+  private volatile Stage gameStage;
+  private volatile Stage encodeStage;
+  private volatile Stage writeStage;
+  // ends the rounds completed by guesses; null when the last guesser ends them
+  private volatile RoundResolver resolver;
+  private volatile ReplicationLog replication;
+  private volatile boolean following = false;
 
   /**
    * Main method for the server.
@@ -46,6 +109,25 @@ public class Server {
    */
   public static void main(final String[] args) {
     int port = DEFAULT_PORT;
+    String captureFile = null;
+    boolean logFrames = false;
+    long idleTimeoutSeconds = DEFAULT_IDLE_TIMEOUT_MILLIS / 1000;
+    long roundTimeoutSeconds = 0;
+    long sessionGraceSeconds = DEFAULT_SESSION_GRACE_MILLIS / 1000;
+    long maxFlushDelayMicros = DEFAULT_MAX_FLUSH_DELAY_MICROS;
+    long handlerStackKib = 0;
+    int[] stageThreads = null;
+    int resolverThreads = 0;
+    int backlog = 50;
+    int maxConnections = 0;
+    int maxThreads = 0;
+    double maxHeapUsage = 0;
+    double rateLimit = 0;
+    String replicateTo = null;
+    ReplicationLog.Mode replicationMode = ReplicationLog.Mode.ASYNC;
+    int followPort = 0;
+    boolean coordinate = false;
+    String partitionOf = null;
     for (int i = 0; i < args.length; ++i) {
       switch (args[i]) {
         case "--port":
@@ -67,6 +149,268 @@ public class Server {
             }
             break;
           }
+        case "--record":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the capture file.");
+              return;
+            }
+            i++;
+            captureFile = args[i];
+            break;
+          }
+        case "--log-frames":
+          {
+            logFrames = true;
+            break;
+          }
+        case "--idle-timeout":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the idle timeout in seconds.");
+              return;
+            }
+            try {
+              i++;
+              idleTimeoutSeconds = Long.parseLong(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid idle timeout: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--round-timeout":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the round timeout in seconds.");
+              return;
+            }
+            try {
+              i++;
+              roundTimeoutSeconds = Long.parseLong(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid round timeout: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--session-grace":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the session grace period in seconds.");
+              return;
+            }
+            try {
+              i++;
+              sessionGraceSeconds = Long.parseLong(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid session grace period: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--flush-delay":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the maximum flush delay in microseconds.");
+              return;
+            }
+            try {
+              i++;
+              maxFlushDelayMicros = Long.parseLong(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid flush delay: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--handler-stack":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the stack size of connection threads in KiB.");
+              return;
+            }
+            try {
+              i++;
+              handlerStackKib = Long.parseLong(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid stack size: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--stages":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage(
+                  "Please specify the threads of the stages as <decode>,<game>,<encode>,<write>.");
+              return;
+            }
+            i++;
+            stageThreads = parseStageThreads(args[i]);
+            if (stageThreads == null) {
+              printErrorMessage("Invalid stage threads: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--resolvers":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the number of round resolver threads.");
+              return;
+            }
+            try {
+              i++;
+              resolverThreads = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid number of resolver threads: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--backlog":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the accept backlog.");
+              return;
+            }
+            try {
+              i++;
+              backlog = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid backlog: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--max-connections":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the maximum number of connections.");
+              return;
+            }
+            try {
+              i++;
+              maxConnections = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid maximum number of connections: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--max-threads":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the maximum number of threads.");
+              return;
+            }
+            try {
+              i++;
+              maxThreads = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid maximum number of threads: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--max-heap-usage":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the maximum heap usage between 0 and 1.");
+              return;
+            }
+            try {
+              i++;
+              maxHeapUsage = Double.parseDouble(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid maximum heap usage: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--rate-limit":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the requests per second per connection.");
+              return;
+            }
+            try {
+              i++;
+              rateLimit = Double.parseDouble(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid rate limit: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--replicate-to":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the follower as <host>:<port>.");
+              return;
+            }
+            i++;
+            replicateTo = args[i];
+            if (replicateTo.lastIndexOf(':') <= 0) {
+              printErrorMessage("Invalid follower address: " + replicateTo);
+              return;
+            }
+            break;
+          }
+        case "--replication-ack":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the replication ack mode, async or sync.");
+              return;
+            }
+            try {
+              i++;
+              replicationMode = ReplicationLog.Mode.valueOf(args[i].toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+              printErrorMessage("Invalid replication ack mode: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--follow":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the replication port to follow on.");
+              return;
+            }
+            try {
+              i++;
+              followPort = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid replication port: " + args[i]);
+              return;
+            }
+            if (!isValidPort(followPort)) {
+              printErrorMessage("The port number should be in the range of 1024~65535.");
+              return;
+            }
+            break;
+          }
+        case "--coordinate":
+          {
+            coordinate = true;
+            break;
+          }
+        case "--partition-of":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the coordinator as <host>:<port>.");
+              return;
+            }
+            i++;
+            partitionOf = args[i];
+            if (partitionOf.lastIndexOf(':') <= 0) {
+              printErrorMessage("Invalid coordinator address: " + partitionOf);
+              return;
+            }
+            break;
+          }
         case "--help":
         default:
           {
@@ -76,10 +420,76 @@ public class Server {
       }
     }
 
-    try (ServerSocket socket = new ServerSocket(port)) {
-      Server server = new Server();
-      server.start(socket);
-    } catch (IOException e) {
+    if (coordinate || partitionOf != null) {
+      runPartitioned(port, backlog, partitionOf);
+      return;
+    }
+
+    TrafficRecorder recorder = null;
+    ReplicationLog replication = null;
+    Server server = new Server();
+    try {
+      server.setFrameLogging(logFrames);
+      server.setIdleTimeout(idleTimeoutSeconds, TimeUnit.SECONDS);
+      server.setRoundTimeout(roundTimeoutSeconds, TimeUnit.SECONDS);
+      server.setSessionGrace(sessionGraceSeconds, TimeUnit.SECONDS);
+      server.setMaxFlushDelay(maxFlushDelayMicros, TimeUnit.MICROSECONDS);
+      server.setHandlerStackSize(handlerStackKib * 1024);
+      if (stageThreads != null) {
+        server.setStages(stageThreads[0], stageThreads[1], stageThreads[2], stageThreads[3]);
+      }
+      server.setResolverThreads(resolverThreads);
+      server.setAdmissionLimits(maxConnections, maxThreads, maxHeapUsage);
+      if (rateLimit > 0) {
+        server.setConnectionRateLimit(rateLimit, (int) Math.ceil(2 * rateLimit));
+      }
+      if (followPort > 0) {
+        try (ServerSocket replicationSocket = new ServerSocket(followPort)) {
+          System.out.println("Following a primary on port " + followPort);
+          server.follow(replicationSocket);
+        }
+        System.out.println("Taking over as primary");
+      }
+      if (replicateTo != null) {
+        int colon = replicateTo.lastIndexOf(':');
+        String host = replicateTo.substring(0, colon);
+        Socket follower = new Socket(host, Integer.parseInt(replicateTo.substring(colon + 1)));
+        replication = new ReplicationLog(follower, replicationMode);
+        server.setReplication(replication);
+      }
+      if (captureFile != null) {
+        recorder = new TrafficRecorder(new FileOutputStream(captureFile));
+        server.setTrafficRecorder(recorder);
+      }
+      try (ServerSocket socket = new ServerSocket(port, backlog)) {
+        server.start(socket);
+      }
+    } catch (IOException | NumberFormatException e) {
+      System.out.println("Connection lost. Shutting down: " + e.getMessage());
+    } finally {
+      closeRecorder(recorder);
+      closeReplication(replication);
+    }
+  }
+
+  /**
+   * Runs the coordinator of a partitioned table, or one of its partitions if {@code partitionOf}
+   * names the coordinator.
+   */
+  private static void runPartitioned(int port, int backlog, String partitionOf) {
+    try (ServerSocket socket = new ServerSocket(port, backlog)) {
+      if (partitionOf == null) {
+        System.out.println("Coordinating a partitioned table on port " + port);
+        new PartitionCoordinator(new InfiniteShuffledDeck(Card.getAllValidCards())).start(socket);
+        return;
+      }
+      int colon = partitionOf.lastIndexOf(':');
+      String host = partitionOf.substring(0, colon);
+      PartitionNode node = new PartitionNode();
+      node.connect(new Socket(host, Integer.parseInt(partitionOf.substring(colon + 1))));
+      System.out.println("Serving a partition of the table of " + partitionOf + " on port " + port);
+      node.start(socket);
+    } catch (IOException | NumberFormatException e) {
       System.out.println("Connection lost. Shutting down: " + e.getMessage());
     }
   }
@@ -92,129 +502,1308 @@ public class Server {
     return port >= 1024 && port <= 65535;
   }
 
+  private static void closeRecorder(TrafficRecorder recorder) {
+    if (recorder == null) {
+      return;
+    }
+    try {
+      recorder.close();
+    } catch (IOException e) {
+      printErrorMessage("Could not write the traffic capture: " + e.getMessage());
+    }
+  }
+
+  private static void closeReplication(ReplicationLog replication) {
+    if (replication == null) {
+      return;
+    }
+    try {
+      replication.close();
+    } catch (IOException e) {
+      printErrorMessage("Could not close the replication stream: " + e.getMessage());
+    }
+  }
+
   private static void printHelpMessage() {
-    System.out.println("java Server [--port <int>] [--help]");
+    System.out.println(
+        "java Server [--port <int>] [--record <file>] [--log-frames]"
+            + " [--idle-timeout <seconds>]"
+            + " [--round-timeout <seconds>] [--session-grace <seconds>]"
+            + " [--flush-delay <microseconds>] [--handler-stack <KiB>]"
+            + " [--stages <decode>,<game>,<encode>,<write>] [--resolvers <int>]"
+            + " [--backlog <int>]"
+            + " [--max-connections <int>]"
+            + " [--max-threads <int>] [--max-heap-usage <fraction>]"
+            + " [--rate-limit <requests per second>] [--replicate-to <host>:<port>]"
+            + " [--replication-ack <async|sync>] [--follow <replication port>]"
+            + " [--coordinate | --partition-of <host>:<port>] [--help]");
   }
 
-  private static void printErrorMessage(String str) {
+  private static int[] parseStageThreads(String value) {
+    String[] parts = value.split(",");
+    if (parts.length != 4) {
+      return null;
+    }
+    int[] threads = new int[parts.length];
+    try {
+      for (int i = 0; i < parts.length; i++) {
+        threads[i] = Integer.parseInt(parts[i].trim());
+        if (threads[i] < 1) {
+          return null;
+        }
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    return threads;
+  }
+
+  private static void printErrorMessage(String str) {
+
+    System.out.println("Error! " + str);
+  }
+
+  /**
+   * Default constructor for the Server class.
+   */
+  public Server() {
+    rooms.put(JoinGameRequest.DEFAULT_ROOM, new Room(JoinGameRequest.DEFAULT_ROOM));
+  }
+
+  /** Returns the global leaderboard of this server. */
+  public Leaderboard getLeaderboard() {
+    return leaderboard;
+  }
+
+
+  /**
+   * Records all inbound and outbound frames of this server with the given recorder. Passing {@code
+   * null} disables recording.
+   *
+   * @param recorder the recorder to use, or {@code null}
+   */
+  public void setTrafficRecorder(TrafficRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  /**
+   * Prints every frame the server sends to standard output, for debugging. Off by default, as
+   * printing costs more than encoding and writing a frame.
+   *
+   * @param logFrames whether to print the frames
+   */
+  public void setFrameLogging(boolean logFrames) {
+    this.logFrames = logFrames;
+  }
+
+  /**
+   * Sets after how long without any frame from a client its connection is closed and its player
+   * removed. Clients that have not been written to for a third of this time receive a heartbeat. A
+   * timeout of zero disables idle detection for connections accepted afterwards.
+   *
+   * @param timeout the idle timeout
+   * @param unit the unit of {@code timeout}
+   */
+  public void setIdleTimeout(long timeout, TimeUnit unit) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("The idle timeout must not be negative");
+    }
+    this.idleTimeoutMillis = unit.toMillis(timeout);
+  }
+
+  /**
+   * Sets how long a round may take before it ends without the missing guesses. Players who have
+   * not guessed by then score nothing in that round. Takes effect from the next round on; a timeout
+   * of zero, the default, lets rounds wait for every player.
+   *
+   * @param timeout the round timeout
+   * @param unit the unit of {@code timeout}
+   */
+  public void setRoundTimeout(long timeout, TimeUnit unit) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("The round timeout must not be negative");
+    }
+    roundTimeoutMillis = unit.toMillis(timeout);
+    for (Room room : rooms.values()) {
+      room.deadline.setTimeout(following ? 0 : roundTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Sets how long the seat and score of a player are kept after their connection fails. A client
+   * that reconnects within this time and presents the resume token it received on joining
+   * continues the session without rejoining. A client that closes its connection leaves at once,
+   * and a grace period of zero removes players as soon as their connection ends.
+   *
+   * @param grace the session grace period
+   * @param unit the unit of {@code grace}
+   */
+  public void setSessionGrace(long grace, TimeUnit unit) {
+    if (grace < 0) {
+      throw new IllegalArgumentException("The session grace period must not be negative");
+    }
+    sessionGraceMillis = unit.toMillis(grace);
+  }
+
+  /**
+   * Sets how long a frame may wait to be written together with later ones. The replies to the
+   * frames a client sent at once, and the states of all players sent at the end of a round, are
+   * written to a connection in one flush; the delay bounds how long the first of them waits for the
+   * others. A delay of zero flushes every frame on its own. A flush held back by a stalled thread
+   * is done by the timer, at its resolution of 100 ms.
+   *
+   * @param delay the maximum flush delay
+   * @param unit the unit of {@code delay}
+   */
+  public void setMaxFlushDelay(long delay, TimeUnit unit) {
+    if (delay < 0) {
+      throw new IllegalArgumentException("The flush delay must not be negative");
+    }
+    maxFlushDelayNanos = unit.toNanos(delay);
+  }
+
+  /**
+   * Sets the stack size of the threads serving connections accepted afterwards. The stack is the
+   * largest part of what an idle connection costs; handlers need far less than the default of the
+   * JVM. A size of zero uses the default.
+   *
+   * @param bytes the stack size in bytes, a hint the JVM may round or ignore
+   */
+  public void setHandlerStackSize(long bytes) {
+    if (bytes < 0) {
+      throw new IllegalArgumentException("The stack size must not be negative");
+    }
+    handlerStackSize = bytes;
+  }
+
+  /**
+   * Serves connections through a staged pipeline instead of doing all work of a frame on the thread
+   * reading its connection. The reading thread only reads frames; parsing them, running the game
+   * logic, encoding the states of a round for every recipient and writing to the socket are
+   * separate {@link Stage stages} with bounded queues and threads of their own. The work of a
+   * connection stays in order, as every stage routes it to the same thread. Multiplexed
+   * connections are still served by their reading thread. Must be called before {@link #start}.
+   *
+   * <p>Stages set by an earlier call are shut down once the new ones are in place: they run the
+   * work still queued in them, upstream first, and pass it on to the new stages.
+   *
+   * @param decodeThreads the threads parsing frames
+   * @param gameThreads the threads running the game logic of requests
+   * @param encodeThreads the threads encoding game states
+   * @param writeThreads the threads writing to sockets
+   */
+  public synchronized void setStages(
+      int decodeThreads, int gameThreads, int encodeThreads, int writeThreads) {
+    List<Stage> previous = getStages();
+    writeStage = new Stage("write", writeThreads, STAGE_QUEUE_CAPACITY);
+    encodeStage = new Stage("encode", encodeThreads, STAGE_QUEUE_CAPACITY);
+    gameStage = new Stage("game", gameThreads, STAGE_QUEUE_CAPACITY);
+    // set last, as it switches connections to the staged pipeline
+    decodeStage = new Stage("decode", decodeThreads, STAGE_QUEUE_CAPACITY);
+    for (Stage stage : previous) {
+      stage.shutdown();
+    }
+  }
+
+  /**
+   * Returns the stages of the pipeline, from decoding to writing, with their queue depths and
+   * service times.
+   *
+   * @return the stages, or an empty list if connections are served inline
+   */
+  public List<Stage> getStages() {
+    Stage decode = decodeStage;
+    if (decode == null) {
+      return List.of();
+    }
+    return List.of(decode, gameStage, encodeStage, writeStage);
+  }
+
+  /**
+   * Ends the rounds completed by guesses on resolver threads instead of the thread of the last
+   * guess. The last guesser then gets the state with its guess right away, and every player of the
+   * table gets the state of the next round once a resolver has ended the round. Rounds of tables
+   * that complete at the same time are ended in one batch. Must be called before {@link #start}.
+   *
+   * @param threads the number of resolver threads; zero ends rounds on the thread of the last guess
+   */
+  public void setResolverThreads(int threads) {
+    if (threads < 0) {
+      throw new IllegalArgumentException("The number of resolver threads must not be negative");
+    }
+    RoundResolver previous = resolver;
+    RoundResolver next = threads == 0 ? null : new RoundResolver(threads, this::awaitReplicated);
+    resolver = next;
+    if (previous != null) {
+      // resolves the rounds it holds and passes on those submitted meanwhile
+      previous.close(next);
+    }
+  }
+
+  /**
+   * Returns the resolver ending the rounds completed by guesses, with the number of rounds and
+   * batches it has resolved.
+   *
+   * @return the resolver, or {@code null} if rounds are ended on the thread of the last guess
+   */
+  public RoundResolver getRoundResolver() {
+    return resolver;
+  }
+
+  private void awaitReplicated(long seq) {
+    ReplicationLog log = replication;
+    if (log != null) {
+      log.awaitReplicated(seq);
+    }
+  }
+
+  /**
+   * Sets the load above which new connections are not admitted. A connection accepted while a limit
+   * is exceeded waits up to the admission wait for the load to drop and is closed otherwise; while
+   * it waits, further connections queue in the accept backlog. A limit of zero is not enforced.
+   *
+   * @param maxConnections the maximum number of open connections
+   * @param maxThreads the maximum number of live threads in this JVM
+   * @param maxHeapUsage the maximum fraction of the maximum heap size in use, between 0 and 1
+   */
+  public void setAdmissionLimits(int maxConnections, int maxThreads, double maxHeapUsage) {
+    admission.setLimits(maxConnections, maxThreads, maxHeapUsage);
+  }
+
+  /**
+   * Sets how long a connection waits for admission before it is rejected.
+   *
+   * @param wait the admission wait
+   * @param unit the unit of {@code wait}
+   */
+  public void setAdmissionWait(long wait, TimeUnit unit) {
+    if (wait < 0) {
+      throw new IllegalArgumentException("The admission wait must not be negative");
+    }
+    admissionWaitMillis = unit.toMillis(wait);
+  }
+
+  /**
+   * Limits the requests of each connection accepted afterwards. Requests above the limit are
+   * dropped; heartbeats are never limited. A rate of zero removes the limit.
+   *
+   * @param ratePerSecond the sustained number of requests per second
+   * @param burst the number of requests a connection may send at once
+   */
+  public void setConnectionRateLimit(double ratePerSecond, int burst) {
+    if (ratePerSecond > 0 && burst <= 0) {
+      throw new IllegalArgumentException("The burst must be positive");
+    }
+    connectionBurst = burst;
+    connectionRate = Math.max(0, ratePerSecond);
+  }
+
+  /**
+   * Limits the guesses of all players of each room together. Guesses above the limit are dropped.
+   * A rate of zero removes the limit.
+   *
+   * @param ratePerSecond the sustained number of guesses per second
+   * @param burst the number of guesses a room accepts at once
+   */
+  public void setTableRateLimit(double ratePerSecond, int burst) {
+    if (ratePerSecond > 0 && burst <= 0) {
+      throw new IllegalArgumentException("The burst must be positive");
+    }
+    tableBurst = burst;
+    tableRate = Math.max(0, ratePerSecond);
+    for (Room room : rooms.values()) {
+      room.guessBucket = room.createGuessBucket();
+    }
+  }
+
+  /** Returns the names of the rooms that currently exist on this server. */
+  public Set<String> getRoomNames() {
+    return Collections.unmodifiableSet(rooms.keySet());
+  }
+
+  /**
+   * Streams every game event of this server to a follower. Set before the server starts, while
+   * there are no players yet; the follower does not receive a snapshot of existing games. Passing
+   * {@code null} disables replication.
+   *
+   * @param replication the log streaming to the follower, or {@code null}
+   */
+  public void setReplication(ReplicationLog replication) {
+    this.replication = replication;
+  }
+
+  /**
+   * Runs this server as the hot standby of a primary: accepts the primary's replication stream on
+   * the given socket and applies it to the games of this server until the primary fails. Then this
+   * server takes over and returns, after which it can be started for the clients of the primary.
+   *
+   * <p>The sessions of the primary's players are replicated too. After the takeover they are kept
+   * for the session grace period, so clients resuming with their token continue with their score.
+   *
+   * @param socket the socket the primary connects to
+   * @return the sequence number of the last applied event
+   * @throws IOException if no primary could connect
+   */
+  public long follow(ServerSocket socket) throws IOException {
+    following = true;
+    for (Room room : rooms.values()) {
+      room.follow();
+    }
+    long applied;
+    try (Socket primary = socket.accept()) {
+      applied = new ReplicationFollower(primary).run(this::applyReplicated);
+    } finally {
+      takeOver();
+    }
+    return applied;
+  }
+
+  private void applyReplicated(JSONObject event) throws Deck.NoNextCardException {
+    String roomName = event.getString("room");
+    String op = event.getString("op");
+    if (op.equals(ReplicationLog.OP_CLOSE)) {
+      Room closed = rooms.remove(roomName);
+      if (closed != null) {
+        closed.deadline.cancel();
+      }
+      return;
+    }
+    Room room = rooms.computeIfAbsent(roomName, Room::new);
+    switch (op) {
+      case ReplicationLog.OP_CARD:
+        room.deck.replay(ReplicationLog.cardOf(event));
+        break;
+      case ReplicationLog.OP_JOIN:
+        {
+          Player player = new SimplePlayer(event.getString("player"));
+          String token = event.getString("token");
+          room.join(player, token);
+          openSession(token, room, player, null);
+          break;
+        }
+      case ReplicationLog.OP_LEAVE:
+        {
+          Session session = sessions.get(event.getString("token"));
+          if (session != null) {
+            endSession(session);
+          }
+          break;
+        }
+      case ReplicationLog.OP_GUESS:
+        room.guess(
+            room.findPlayer(event.getString("player")),
+            HighLowCardGame.Guess.valueOf(event.getString("guess")),
+            event.optBoolean("deferred", false));
+        break;
+      case ReplicationLog.OP_RESOLVE:
+        room.resolveRound(event.getInt("round"));
+        break;
+      case ReplicationLog.OP_EXPIRE:
+        room.expireRound(event.getInt("round"));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown replicated event: " + op);
+    }
+  }
+
+  private void takeOver() {
+    following = false;
+    for (Room room : rooms.values()) {
+      room.deck.takeOver(new StandardDeck());
+      room.deadline.setTimeout(roundTimeoutMillis, TimeUnit.MILLISECONDS);
+      room.deadline.scheduleCurrentRound();
+    }
+    // the clients of the primary have to resume their sessions here
+    for (Session session : sessions.values()) {
+      detachSession(session, null, true);
+    }
+  }
+
+  private String newResumeToken() {
+    byte[] token = new byte[RESUME_TOKEN_BYTES];
+    tokens.nextBytes(token);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+  }
+
+  private Session openSession(String token, Room room, Player player, ClientHandler handler) {
+    Session session = new Session(token, room, player, handler);
+    synchronized (room) {
+      room.sessionCount++;
+    }
+    sessions.put(token, session);
+    return session;
+  }
+
+  /**
+   * Attaches a connection to the session with the given token. A connection the session is still
+   * attached to is closed: its client has evidently lost it.
+   *
+   * @return the session, or {@code null} if there is no such session for the player
+   */
+  private Session resumeSession(String token, String playerName, ClientHandler handler) {
+    Session session = token == null ? null : sessions.get(token);
+    if (session == null || !session.player.getName().equals(playerName)) {
+      return null;
+    }
+    ClientHandler previous;
+    synchronized (session) {
+      if (session.ended) {
+        return null;
+      }
+      previous = session.handler;
+      session.handler = handler;
+      if (session.expiry != null) {
+        session.expiry.cancel();
+        session.expiry = null;
+      }
+    }
+    synchronized (session.room) {
+      // the session keeps the room open
+      session.room.members.add(handler);
+    }
+    if (previous != null) {
+      previous.closeConnection();
+    }
+    metrics.sessionResumed();
+    return session;
+  }
+
+  /**
+   * Called when the connection of a session closes. Keeps the session for the grace period if the
+   * client may come back, or ends it at once.
+   *
+   * @param keep whether the connection was lost rather than closed by the client
+   */
+  private void detachSession(Session session, ClientHandler handler, boolean keep) {
+    long grace = sessionGraceMillis;
+    synchronized (session) {
+      if (session.handler != handler || session.ended) {
+        // already resumed on another connection
+        return;
+      }
+      session.handler = null;
+      if (keep && grace > 0) {
+        session.expiry =
+            timer.schedule(
+                () -> timerTasks.execute(() -> expireSession(session)),
+                grace,
+                TimeUnit.MILLISECONDS);
+        return;
+      }
+    }
+    endSession(session);
+  }
+
+  private void expireSession(Session session) {
+    synchronized (session) {
+      if (session.handler != null || session.ended) {
+        return;
+      }
+    }
+    metrics.sessionExpired();
+    endSession(session);
+  }
+
+  /** Removes the player of a session from its game. */
+  private void endSession(Session session) {
+    synchronized (session) {
+      if (session.ended) {
+        return;
+      }
+      session.ended = true;
+    }
+    sessions.remove(session.token, session);
+    Room room = session.room;
+    room.awaitReplicated(room.leave(session.player, session.token));
+    synchronized (room) {
+      room.sessionCount--;
+      closeIfUnused(room);
+    }
+  }
+
+  /** Returns the pool of the buffers connections read their frames with. */
+  public BufferPool getBufferPool() {
+    return buffers;
+  }
+
+  /**
+   * Returns the bytes of buffers held by each open connection, for reading frames and batching
+   * frames to write. Connections without data in flight hold none.
+   */
+  public LongSummaryStatistics getConnectionMemory() {
+    LongSummaryStatistics memory = new LongSummaryStatistics();
+    for (ClientHandler handler : clients.values()) {
+      memory.accept(handler.getHeldBytes());
+    }
+    return memory;
+  }
+
+  /** Returns the connection and round metrics of this server. */
+  public ServerMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Start method for running the server.
+   * @param socket a socket which make the connection possible.
+   * @throws IOException throws an Exception in the case of in or out put failures.
+   */
+  public void start(ServerSocket socket) throws IOException {
+    try {
+      while (true) {
+        Socket s = socket.accept();
+        if (!admit()) {
+          metrics.connectionRejected();
+          s.close();
+          continue;
+        }
+        ClientHandler handler = new ClientHandler(s, this);
+        clients.put(handler.connectionId, handler);
+        metrics.connectionAccepted();
+        new Thread(null, handler, "client-" + handler.connectionId, handlerStackSize).start();
+      }
+    } finally {
+      socket.close();
+    }
+  }
+
+  /**
+   * Waits until a new connection may be admitted. While the accept loop waits here, further
+   * connections queue in the backlog of the server socket.
+   *
+   * @return {@code true} if the connection is admitted
+   */
+  private boolean admit() {
+    String exceeded = admission.check(clients.size());
+    if (exceeded == null) {
+      return true;
+    }
+    metrics.connectionQueued();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(admissionWaitMillis);
+    while (exceeded != null && System.nanoTime() < deadline) {
+      try {
+        Thread.sleep(ADMISSION_POLL_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      exceeded = admission.check(clients.size());
+    }
+    if (exceeded != null) {
+      System.out.println("Rejecting connection, too many " + exceeded);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Adds a connection to the room with the given name, creating the room if necessary.
+   *
+   * @return the room the connection joined
+   */
+  private Room joinRoom(String roomName, ClientHandler handler) {
+    while (true) {
+      Room room = rooms.computeIfAbsent(roomName, Room::new);
+      synchronized (room) {
+        // a room is discarded when its last member leaves; retry with a fresh one
+        if (!room.closed) {
+          room.members.add(handler);
+          return room;
+        }
+      }
+    }
+  }
+
+  private void leaveRoom(Room room, ClientHandler handler) {
+    synchronized (room) {
+      room.members.remove(handler);
+      closeIfUnused(room);
+    }
+  }
+
+  /** Discards a room without connections and sessions. Must hold the lock of the room. */
+  private void closeIfUnused(Room room) {
+    if (room.members.isEmpty()
+        && room.sessionCount == 0
+        && !room.closed
+        && !room.name.equals(JoinGameRequest.DEFAULT_ROOM)) {
+      room.closed = true;
+      rooms.remove(room.name, room);
+      room.deadline.cancel();
+      synchronized (room.game) {
+        room.replicate(ReplicationLog.event(ReplicationLog.OP_CLOSE, room.name));
+      }
+    }
+  }
+
+  /** The seat of a player in a room, which outlives a dropped connection for the grace period. */
+  private final class Session {
+    private final String token;
+    private final Room room;
+    private final Player player;
+    // the connection playing the session; null while the client is away
+    private ClientHandler handler;
+    private HashedWheelTimer.Timeout expiry;
+    private boolean ended = false;
+
+    Session(String token, Room room, Player player, ClientHandler handler) {
+      this.token = token;
+      this.room = room;
+      this.player = player;
+      this.handler = handler;
+    }
+  }
+
+  /**
+   * A table of the server: one game and the connections playing it.
+   *
+   * <p>Everything that changes the game goes through this class, which appends the change to the
+   * replication log while the game is locked, so the follower applies the changes in the same
+   * order.
+   */
+  private final class Room {
+    private final String name;
+    private final ReplicatedDeck deck;
+    private final HighLowCardGame game;
+    private final RoundDeadline deadline;
+    private final Set<ClientHandler> members = ConcurrentHashMap.newKeySet();
+    private volatile Card previousCard;
+    private volatile TokenBucket guessBucket;
+    private volatile long expirySeq = 0;
+    private boolean closed = false;
+    // sessions of this room, including those whose client is away; guarded by the room
+    private int sessionCount = 0;
+
+    Room(String name) {
+      this.name = name;
+      this.deck = new ReplicatedDeck(new StandardDeck(), this::replicateCard);
+      this.game = new HighLowCardGame(deck);
+      this.deadline =
+          new RoundDeadline(game, this::expireRound, timer, timerTasks, metrics, this::onExpired);
+      deadline.setTimeout(roundTimeoutMillis, TimeUnit.MILLISECONDS);
+      this.guessBucket = createGuessBucket();
+      game.addListener(leaderboard.forRoom(name));
+      game.addListener(deadline);
+      if (following) {
+        follow();
+      }
+    }
+
+    /** Takes cards and round ends from the primary only. */
+    void follow() {
+      deck.follow();
+      deadline.setTimeout(0, TimeUnit.MILLISECONDS);
+    }
+
+    /** Must be called while the game is locked. */
+    long replicate(JSONObject event) {
+      ReplicationLog log = replication;
+      return log == null ? 0 : log.append(event);
+    }
+
+    private void replicateCard(Card card) {
+      replicate(ReplicationLog.card(name, card));
+    }
+
+    void awaitReplicated(long seq) {
+      Server.this.awaitReplicated(seq);
+    }
+
+    long join(Player player, String token) throws Deck.NoNextCardException {
+      synchronized (game) {
+        game.addPlayer(player);
+        if (game.getState().getPlayers().size() == 1) {
+          game.start();
+        }
+        return replicate(
+            ReplicationLog.event(ReplicationLog.OP_JOIN, name)
+                .put("player", player.getName())
+                .put("token", token));
+      }
+    }
+
+    long leave(Player player, String token) {
+      synchronized (game) {
+        game.removePlayer(player);
+        return replicate(
+            ReplicationLog.event(ReplicationLog.OP_LEAVE, name)
+                .put("player", player.getName())
+                .put("token", token));
+      }
+    }
+
+    /**
+     * Applies a guess. A deferred guess that completes the round leaves ending it to the round
+     * resolver; on a follower, to the replicated end of the round.
+     */
+    long guess(Player player, HighLowCardGame.Guess guess, boolean deferred)
+        throws Deck.NoNextCardException {
+      synchronized (game) {
+        Card currentCard = game.getState().getCurrentCard();
+        if (previousCard != null && guess == getCorrectGuess(previousCard, currentCard)) {
+          game.awardPoints(player, 1);
+        }
+        previousCard = currentCard;
+        int completed = 0;
+        if (deferred) {
+          completed = game.recordGuess(player, guess);
+        } else {
+          game.guess(player, guess);
+        }
+        JSONObject event =
+            ReplicationLog.event(ReplicationLog.OP_GUESS, name)
+                .put("player", player.getName())
+                .put("guess", guess.name());
+        long seq = replicate(deferred ? event.put("deferred", true) : event);
+        if (completed > 0 && !following) {
+          RoundResolver roundResolver = resolver;
+          if (roundResolver == null
+              || !roundResolver.submit(name.hashCode(), new CompletedRound(completed))) {
+            // the resolver was switched off meanwhile
+            resolveRound(completed);
+          }
+        }
+        return seq;
+      }
+    }
+
+    /** Ends a round completed by deferred guesses. */
+    long resolveRound(int round) throws Deck.NoNextCardException {
+      synchronized (game) {
+        if (!game.resolveRound(round)) {
+          return -1;
+        }
+        return replicate(ReplicationLog.event(ReplicationLog.OP_RESOLVE, name).put("round", round));
+      }
+    }
+
+    boolean expireRound(int round) throws Deck.NoNextCardException {
+      synchronized (game) {
+        boolean expired = game.expireRound(round);
+        if (expired) {
+          expirySeq =
+              replicate(ReplicationLog.event(ReplicationLog.OP_EXPIRE, name).put("round", round));
+        }
+        return expired;
+      }
+    }
+
+    Player findPlayer(String playerName) {
+      for (Player player : game.getState().getPlayers()) {
+        if (player.getName().equals(playerName)) {
+          return player;
+        }
+      }
+      throw new IllegalStateException("No player " + playerName + " in room " + name);
+    }
+
+    private void onExpired(GameState state) {
+      awaitReplicated(expirySeq);
+      broadcastGameState(state);
+    }
+
+    /** A round of this room waiting for the round resolver. */
+    private final class CompletedRound implements RoundResolver.Round {
+      private final int round;
+      private GameState state;
 
-    System.out.println("Error! " + str);
-  }
+      CompletedRound(int round) {
+        this.round = round;
+      }
 
-  /**
-   * Default constructor for the Server class.
-   */
-  public Server() {
-    Deck deck = new StandardDeck();
-    this.game = new HighLowCardGame(deck);
-    game.subscribe(new Observer() {
       @Override
-      public void updateState(GameState state) {
-        // Update logic
+      public long resolve() {
+        synchronized (game) {
+          try {
+            long seq = resolveRound(round);
+            state = game.getState();
+            return seq;
+          } catch (Deck.NoNextCardException e) {
+            System.err.println("Cannot end round " + round + ": " + e.getMessage());
+            return -1;
+          }
+        }
       }
 
       @Override
-      public void updateNewPlayer(String playerName, GameState state) {
-        // Update logic
+      public void publish() {
+        broadcastGameState(state);
       }
+    }
 
-      @Override
-      public void updateRemovedPlayer(String playerName, GameState state) {
-        // Update logic
+    private HighLowCardGame.Guess getCorrectGuess(Card firstCard, Card secondCard) {
+      int comparison = firstCard.compareTo(secondCard);
+      if (comparison == 0) {
+        return HighLowCardGame.Guess.EQUAL;
+      } else if (comparison > 0) {
+        return HighLowCardGame.Guess.LOW;
+      } else {
+        return HighLowCardGame.Guess.HIGH;
       }
-    });
-  }
+    }
 
+    TokenBucket createGuessBucket() {
+      double rate = tableRate;
+      return rate > 0 ? new TokenBucket(rate, tableBurst) : null;
+    }
 
-  /**
-   * Start method for running the server.
-   * @param socket a socket which make the connection possible.
-   * @throws IOException throws an Exception in the case of in or out put failures.
-   */
-  public void start(ServerSocket socket) throws IOException {
-    try {
-      while (true) {
-        Socket s = socket.accept();
-        ClientHandler handler = new ClientHandler(s, this);
-        clients.put(s.getRemoteSocketAddress().toString(), handler);
-        new Thread(handler).start();
+    void broadcastMessage(String message) throws IOException {
+      for (ClientHandler handler : members) {
+        handler.sendMessage(message);
       }
-    } finally {
-      socket.close();
     }
-  }
 
-  private void broadcastMessage(String message) throws IOException {
-    for (ClientHandler handler : clients.values()) {
-      handler.sendMessage(message);
+    void broadcastGameState(GameState state) {
+      StateFrames frames = new StateFrames(state);
+      List<Player> scored = new ArrayList<>();
+      for (ClientHandler handler : members) {
+        Player member = handler.player;
+        if (member != null && handler.roundFrames) {
+          scored.add(member);
+        }
+      }
+      if (!scored.isEmpty()) {
+        frames.encodeScores(scored);
+      }
+      for (ClientHandler handler : members) {
+        if (handler.player == null) {
+          continue;
+        }
+        try {
+          handler.sendGameState(frames);
+        } catch (IOException e) {
+          // the connection is being closed; its reader cleans up
+        }
+      }
     }
   }
 
+  /**
+   * Serves one connection, or one channel of a multiplexed connection.
+   *
+   * <p>A connection whose first frame is a {@link ChannelFrames channel frame} is multiplexed: its
+   * handler only demultiplexes, and every channel gets a handler of its own that shares the socket
+   * and the reading thread of the connection.
+   *
+   * <p>Frames are written through a batch per connection. While a handler processes the frames
+   * that arrived together, or sends the states of a round, the connection is corked: frames only
+   * collect in the batch, and uncorking writes them with a single flush, unless the first of them
+   * has waited for the maximum flush delay. A thread that finds another one writing appends to the
+   * batch, which the writing thread flushes next.
+   */
   private class ClientHandler implements Runnable {
     private final Socket socket;
     private final Server server;
-    private BufferedReader in;
-    private OutputStreamWriter out;
-    private Player player;
-    private GameState currentState;
+    private final int connectionId;
+    // set for the handler of a channel: the handler of its connection and the channel id
+    private final ClientHandler connection;
+    private final int channel;
+    // set for the handler of a multiplexed connection
+    private Map<Integer, ClientHandler> channels;
+    private final Object batchLock = new Object();
+    // created for the frames of one flush, so an idle connection holds no batch
+    private StringBuilder batch;
+    private boolean flushing = false;
+    private int corks = 0;
+    private long batchStartNanos;
+    private HashedWheelTimer.Timeout flushBackstop;
+    private FrameReader in;
+    private OutputStream out;
+    private volatile Player player;
+    private volatile Room room;
+    private volatile Session session;
+    private boolean closedByClient = false;
+    private volatile boolean deltaStates = false;
+    private volatile boolean compressFrames = false;
+    private volatile boolean roundFrames = false;
+    private final Map<String, GameStateDeltaEncoder> deltaEncoders = new ConcurrentHashMap<>();
+    private volatile long lastReadNanos = System.nanoTime();
+    private volatile long lastWriteNanos = System.nanoTime();
+    private volatile HashedWheelTimer.Timeout idleCheck;
+    private final TokenBucket requestBucket;
 
     public ClientHandler(Socket socket, Server server) {
+      this(socket, server, null, -1);
+    }
+
+    private ClientHandler(Socket socket, Server server, ClientHandler connection, int channel) {
       this.socket = socket;
       this.server = server;
-      this.currentState = server.game.getState();
+      this.connection = connection;
+      this.channel = channel;
+      this.connectionId = server.nextConnectionId.incrementAndGet();
+      double rate = server.connectionRate;
+      this.requestBucket = rate > 0 ? new TokenBucket(rate, server.connectionBurst) : null;
     }
 
     @Override
     public void run() {
       try {
-        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
-        out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+        in = new FrameReader(socket.getInputStream(), server.buffers);
+        out = socket.getOutputStream();
+        long idleTimeout = TimeUnit.MILLISECONDS.toNanos(server.idleTimeoutMillis);
+        if (idleTimeout > 0) {
+          scheduleIdleCheck(idleTimeout / 3);
+        }
 
         // Read initial player info
-        String initMessage = in.readLine();
+        String initMessage = readFrame();
         if (initMessage == null) {
           System.err.println("Received null initial message");
           return;
         }
         System.out.println("Received initial message: " + initMessage);
-        processMessage(initMessage);
+        if (ChannelFrames.isChannelFrame(initMessage)) {
+          serveChannels(initMessage);
+          return;
+        }
+        if (server.decodeStage != null) {
+          serveStaged(initMessage);
+          return;
+        }
+        boolean open = processTick(initMessage);
+        while (open) {
+          String message = readFrame();
+          closedByClient = message == null;
+          open = !closedByClient && processTick(message);
+        }
 
       } catch (IOException | JSONException e) {
         e.printStackTrace();
       } catch (Deck.NoNextCardException e) {
           throw new RuntimeException(e);
       } finally {
+        HashedWheelTimer.Timeout check = idleCheck;
+        if (check != null) {
+          check.cancel();
+        }
+        try {
+          socket.close();
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+        if (in != null) {
+          in.release();
+        }
+        // a client that closed the connection has left; anything else may be a network failure
+        if (channels != null) {
+          for (ClientHandler handler : channels.values()) {
+            handler.closeChannel(false, !closedByClient);
+          }
+        }
+        boolean keepSession = !closedByClient;
+        Stage game = server.gameStage;
+        if (game != null && channels == null) {
+          try {
+            // after the requests still queued for the game
+            game.execute(connectionId, () -> leave(keepSession));
+          } catch (RejectedExecutionException e) {
+            // the stage is shutting down; the connection must still leave and be removed
+            leave(keepSession);
+          }
+        } else {
+          leave(keepSession);
+        }
+        server.clients.remove(connectionId);
+      }
+    }
+
+    private void leave(boolean keepSession) {
+      Room joined = room;
+      if (joined != null) {
+        Session own = session;
+        if (own != null) {
+          server.detachSession(own, this, keepSession);
+        }
+        server.leaveRoom(joined, this);
+      }
+    }
+
+    /** Closes the connection, for example because its session was resumed elsewhere. */
+    void closeConnection() {
+      if (connection != null) {
+        closeChannel(true, false);
+        return;
+      }
+      try {
+        // unblocks readLine in run(), which then cleans up
+        socket.close();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+
+    /** Reads frames and passes them to the decode stage, until the connection ends. */
+    private void serveStaged(String firstFrame) throws IOException {
+      String frame = firstFrame;
+      while (frame != null) {
+        String received = frame;
+        server.decodeStage.execute(connectionId, () -> decode(received));
+        frame = readFrame();
+      }
+      closedByClient = true;
+    }
+
+    /** Runs on the decode stage. */
+    private void decode(String frame) {
+      JSONObject json;
+      try {
+        json = new JSONObject(frame);
+      } catch (JSONException e) {
+        System.err.println("Closing a connection after a malformed frame: " + frame);
+        closeConnection();
+        return;
+      }
+      server.gameStage.execute(connectionId, () -> play(frame, json));
+    }
+
+    /** Runs on the game stage. */
+    private void play(String frame, JSONObject json) {
+      try {
+        if (!processMessage(frame, json)) {
+          closeConnection();
+        }
+      } catch (IOException | JSONException | IllegalArgumentException e) {
+        System.err.println("Closing a connection: " + e.getMessage());
+        closeConnection();
+      } catch (Deck.NoNextCardException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    /** Reads the frames of a multiplexed connection and passes them to their channels. */
+    private void serveChannels(String firstFrame)
+        throws IOException, Deck.NoNextCardException {
+      channels = new ConcurrentHashMap<>();
+      String line = firstFrame;
+      while (line != null) {
+        cork();
+        try {
+          // the frames that arrived together are one tick
+          while (line != null) {
+            if (ChannelFrames.isChannelFrame(line)) {
+              dispatchChannelFrame(line);
+            } else if (!"HeartbeatRequest".equals(new JSONObject(line).optString("messageType"))) {
+              // frames without a channel belong to the connection, which cannot play itself
+              System.err.println("Closing a multiplexed connection after a frame without channel");
+              return;
+            }
+            if (!in.ready()) {
+              break;
+            }
+            line = readFrame();
+          }
+        } finally {
+          uncork();
+        }
+        if (line != null) {
+          line = readFrame();
+        }
+      }
+      closedByClient = true;
+    }
+
+    private void dispatchChannelFrame(String line) throws IOException, Deck.NoNextCardException {
+      int id;
+      try {
+        id = ChannelFrames.channelOf(line);
+      } catch (IllegalArgumentException e) {
+        System.err.println("Ignoring a frame with a malformed channel: " + line);
+        return;
+      }
+      String payload = ChannelFrames.payloadOf(line);
+      ClientHandler handler = channels.get(id);
+      if (payload == null) {
+        if (handler != null) {
+          handler.closeChannel(false, false);
+        }
+        return;
+      }
+      if (handler == null) {
+        if (channels.size() >= MAX_CHANNELS_PER_CONNECTION) {
+          System.err.println("Rejecting channel " + id + ", too many channels");
+          writeRecorded(ChannelFrames.close(id));
+          return;
+        }
+        handler = new ClientHandler(null, server, this, id);
+        channels.put(id, handler);
+        server.metrics.channelOpened();
+      }
+      boolean open;
+      try {
+        open = handler.processMessage(handler.decodeFrame(payload));
+      } catch (IOException | JSONException | IllegalArgumentException e) {
+        System.err.println("Closing channel " + id + ": " + e.getMessage());
+        open = false;
+      }
+      if (!open) {
+        handler.closeChannel(true, false);
+      }
+    }
+
+    /**
+     * Closes the channel of this handler and removes its player.
+     *
+     * @param notify whether to tell the client that the channel is closed
+     * @param keepSession whether the session of the player is kept for the grace period
+     */
+    private void closeChannel(boolean notify, boolean keepSession) {
+      if (!connection.channels.remove(channel, this)) {
+        return;
+      }
+      if (notify) {
+        try {
+          connection.writeRecorded(ChannelFrames.close(channel));
+        } catch (IOException e) {
+          // the connection is being closed, which closes all channels
+        }
+      }
+      leave(keepSession);
+    }
+
+    private void scheduleIdleCheck(long delayNanos) {
+      idleCheck = server.timer.schedule(this::checkIdle, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Runs on the timer thread: evicts the connection or schedules a heartbeat if it is idle. */
+    private void checkIdle() {
+      if (socket.isClosed()) {
+        return;
+      }
+      long timeout = TimeUnit.MILLISECONDS.toNanos(server.idleTimeoutMillis);
+      long heartbeatInterval = timeout / 3;
+      long now = System.nanoTime();
+      long readIdle = now - lastReadNanos;
+      if (readIdle >= timeout) {
+        System.out.println("Closing idle connection " + connectionId);
+        server.metrics.connectionEvicted();
         try {
+          // unblocks readLine in run(), which then removes the player
           socket.close();
         } catch (IOException e) {
           e.printStackTrace();
         }
-        server.game.removePlayer(player);
-        server.clients.remove(socket.getRemoteSocketAddress().toString());
+        return;
+      }
+      if (now - lastWriteNanos >= heartbeatInterval) {
+        server.timerTasks.execute(this::sendHeartbeat);
+      }
+      scheduleIdleCheck(Math.min(timeout - readIdle, heartbeatInterval));
+    }
+
+    private void sendHeartbeat() {
+      try {
+        sendMessage(HEARTBEAT);
+        server.metrics.heartbeatSent();
+      } catch (IOException e) {
+        // the connection is being closed; the idle check or the reader cleans up
+      }
+    }
+
+    private String readFrame() throws IOException {
+      String frame = in.readLine();
+      TrafficRecorder recorder = server.recorder;
+      if (frame != null && recorder != null) {
+        recorder.record(connectionId, TrafficRecorder.Direction.INBOUND, frame);
+      }
+      lastReadNanos = System.nanoTime();
+      return decodeFrame(frame);
+    }
+
+    /**
+     * Decompresses a frame on a connection that negotiated compression at join. On any other
+     * connection a compressed frame is malformed.
+     */
+    private String decodeFrame(String frame) throws IOException {
+      if (!FrameCompressor.isCompressed(frame)) {
+        return frame;
+      }
+      if (!compressFrames) {
+        throw new IOException("Compressed frame on a connection without compression");
+      }
+      return server.compressor.decode(frame);
+    }
+
+    /**
+     * Handles a frame and the frames that arrived with it, and flushes the replies to all of them
+     * at once.
+     *
+     * @return {@code false} if the connection should be closed
+     */
+    private boolean processTick(String message)
+        throws JSONException, IOException, Deck.NoNextCardException {
+      cork();
+      try {
+        boolean open = processMessage(message);
+        while (open && in.ready()) {
+          String next = readFrame();
+          closedByClient = next == null;
+          open = !closedByClient && processMessage(next);
+        }
+        return open;
+      } finally {
+        uncork();
       }
     }
 
-    private void processMessage(String message) throws JSONException, IOException, Deck.NoNextCardException {
-      JSONObject jsonObject = new JSONObject(message);
+    /**
+     * Handles one frame from the client.
+     *
+     * @return {@code false} if the connection should be closed
+     */
+    private boolean processMessage(String message)
+        throws JSONException, IOException, Deck.NoNextCardException {
+      return processMessage(message, new JSONObject(message));
+    }
+
+    private boolean processMessage(String message, JSONObject jsonObject)
+        throws JSONException, IOException, Deck.NoNextCardException {
       String messageType = jsonObject.getString("messageType");
+      if (!isAdmitted(messageType)) {
+        server.metrics.requestThrottled();
+        return true;
+      }
 
       switch (messageType) {
         case "GuessRequest":
           handleGuess(jsonObject);
-          String initMessage = in.readLine();
-          processMessage(initMessage);
-          break;
+          return true;
         case "JoinGameRequest":
-          handleJoinGameRequest(message);
-          String initMessage1 = in.readLine();
-          processMessage(initMessage1);
-          break;
+          return handleJoinGameRequest(message);
+        case "HeartbeatRequest":
+          return true;
+        case "StateAckRequest":
+          handleStateAck(jsonObject);
+          return true;
+        case "LeaderboardRequest":
+          handleLeaderboardRequest(jsonObject);
+          return true;
         default:
           System.err.println("Unknown message type: " + messageType);
+          return false;
+      }
+    }
+
+    /** Takes tokens for a request from the connection's bucket and, for guesses, the table's. */
+    private boolean isAdmitted(String messageType) {
+      if ("HeartbeatRequest".equals(messageType)) {
+        return true;
+      }
+      if (requestBucket != null && !requestBucket.tryAcquire()) {
+        return false;
       }
+      Room joined = room;
+      TokenBucket roomBucket = joined == null ? null : joined.guessBucket;
+      return !"GuessRequest".equals(messageType) || roomBucket == null || roomBucket.tryAcquire();
     }
 
-    private void handleJoinGameRequest(String message) throws IOException, Deck.NoNextCardException {
+    /**
+     * Joins the player, or resumes their session if the request carries a valid resume token.
+     *
+     * @return {@code false} if the player name is taken and the connection should be closed
+     */
+    private boolean handleJoinGameRequest(String message)
+        throws IOException, Deck.NoNextCardException {
       Moshi moshi = new Moshi.Builder()
               .add(PolymorphicJsonAdapterFactory.of(Message.class, "messageType")
                       .withSubtype(JoinGameRequest.class, "JoinGameRequest"))
@@ -223,109 +1812,330 @@ public class Server {
       JoinGameRequest joinGameRequest = joinGameRequestJsonAdapter.fromJson(message);
       if (joinGameRequest != null) {
         String playerName = joinGameRequest.getPlayerName();
-        player = new SimplePlayer(playerName);
+        deltaStates = joinGameRequest.isDeltaStates();
+        compressFrames = FrameCompressor.DEFLATE.equals(joinGameRequest.getCompression());
+        roundFrames = joinGameRequest.isRoundFrames();
 
-        server.game.addPlayer(player);
-
-        if (server.game.getState().getPlayers().size() == 1) {
-          server.game.start();
+        if (room == null) {
+          Session resumed =
+              server.resumeSession(joinGameRequest.getResumeToken(), playerName, this);
+          if (resumed != null) {
+            session = resumed;
+            player = resumed.player;
+            room = resumed.room;
+            // the other players never noticed the absence, so only the player is resynced
+            if (roundFrames) {
+              writeGameState(new StateFrames(room.game.getState()));
+            } else {
+              sendPlayerState(room.game.getState(), resumed.player);
+            }
+            return true;
+          }
+          room = server.joinRoom(joinGameRequest.getRoomName(), this);
+        }
+        HighLowCardGame game = room.game;
+        for (Player existing : game.getState().getPlayers()) {
+          if (existing.getName().equals(playerName)) {
+            System.err.println("Rejecting join, the name is taken: " + playerName);
+            return false;
+          }
+        }
+        Player joining = new SimplePlayer(playerName);
+        String token = server.newResumeToken();
+        room.awaitReplicated(room.join(joining, token));
+        player = joining;
+        session = server.openSession(token, room, joining, this);
+        long grace = server.sessionGraceMillis;
+        if (grace > 0) {
+          sendMessage(new SessionNotification(playerName, token, grace).toJSON().toString());
         }
-        broadcastPlayerJoined(playerName, server.game.getState().getPlayers().size());
-        sendGameState(server.game.getState());
+        broadcastPlayerJoined(playerName, game.getState().getPlayers().size());
+        sendGameState(game.getState());
       }
+      return true;
+    }
+
+    private void handleStateAck(JSONObject jsonObject) {
+      GameStateDeltaEncoder encoder = deltaEncoders.get(jsonObject.getString("playerName"));
+      if (encoder != null) {
+        encoder.acknowledge(jsonObject.getLong("version"));
+      }
+    }
+
+    private void handleLeaderboardRequest(JSONObject jsonObject) throws IOException {
+      int limit = jsonObject.optInt("limit", DEFAULT_LEADERBOARD_LIMIT);
+      String playerName = jsonObject.has("playerName") ? jsonObject.getString("playerName") : null;
+      // a name is ranked within the room of the requesting client
+      Room current = room;
+      String roomName = current == null ? null : current.name;
+      sendMessage(server.leaderboard.getFrame(limit, roomName, playerName));
     }
 
     private void handleGuess(JSONObject jsonObject) throws JSONException, IOException, Deck.NoNextCardException {
       String guessStr = jsonObject.getString("guess");
       HighLowCardGame.Guess guess = HighLowCardGame.Guess.valueOf(guessStr);
-      Card previousCard = server.previousCard;
-      Card currentCard = game.getState().getCurrentCard();
-      boolean isCorrectGuess = false;
-
-      if (previousCard != null) {
-        isCorrectGuess = isGuessCorrect(guess, previousCard, currentCard);
+      if (room == null) {
+        System.err.println("Ignoring a guess before joining");
+        return;
       }
+      room.awaitReplicated(room.guess(player, guess, server.resolver != null));
 
-      server.previousCard = currentCard;
-
-      if (isCorrectGuess) {
-        server.game.getState().getScores().get(player).increment(1);
-      }
+      System.out.println("Guess: " + guessStr);
+      sendGameState(room.game.getState());
+    }
 
-      game.guess(player, guess);
+    private void broadcastPlayerJoined(String playerName, int numPlayers) throws IOException {
+      PlayerJoinedNotification notification = new PlayerJoinedNotification(playerName, numPlayers);
+      JSONObject json = notification.toJSON();
+      room.broadcastMessage(json.toString());
+    }
 
+    public void sendGameState(GameState state) throws IOException {
+      sendGameState(new StateFrames(state));
+    }
 
-      System.out.println("Guess: " + guessStr);
-      sendGameState(server.game.getState());
+    void sendGameState(StateFrames frames) throws IOException {
+      Stage encode = server.encodeStage;
+      if (encode == null) {
+        writeGameState(frames);
+        return;
+      }
+      encode.execute(
+          connectionId,
+          () -> {
+            try {
+              writeGameState(frames);
+            } catch (IOException e) {
+              // the connection is being closed; its reader cleans up
+            }
+          });
     }
 
-    private boolean isGuessCorrect(HighLowCardGame.Guess guess, Card firstCard, Card secondCard) {
-      return guess == getCorrectGuess(firstCard, secondCard);
+    /**
+     * Writes a state: with round frames the shared round frame and the player's own score,
+     * otherwise the state of every player of the table.
+     */
+    private void writeGameState(StateFrames frames) throws IOException {
+      GameState state = frames.getState();
+      Player own = player;
+      cork();
+      try {
+        if (roundFrames) {
+          sendMessage(frames.getRoundFrame());
+          if (own != null) {
+            sendMessage(frames.getScoreFrame(own));
+          }
+          return;
+        }
+        for (Player player : state.getPlayers()) {
+          sendPlayerState(state, player);
+        }
+      } finally {
+        uncork();
+      }
     }
 
-    private HighLowCardGame.Guess getCorrectGuess(Card firstCard, Card secondCard) {
-      int comparison = firstCard.compareTo(secondCard);
-      if (comparison == 0) {
-        return HighLowCardGame.Guess.EQUAL;
-      } else if (comparison > 0) {
-        return HighLowCardGame.Guess.LOW;
+    private void sendPlayerState(GameState state, Player player) throws IOException {
+      String playerName = player.getName();
+      int score = state.getScores().get(player).get();
+      Card currentCard = state.getCurrentCard();
+      int numRounds = state.getRound();
+
+      GameStateNotification notification =
+          new GameStateNotification(playerName, numRounds, currentCard, score);
+      JSONObject json;
+      if (deltaStates) {
+        json =
+            deltaEncoders
+                .computeIfAbsent(playerName, name -> new GameStateDeltaEncoder())
+                .encode(notification)
+                .toJSON();
       } else {
-        return HighLowCardGame.Guess.HIGH;
+        json = notification.toJSON();
       }
-    }
 
-    private void broadcastPlayerJoined(String playerName, int numPlayers) throws IOException {
-      PlayerJoinedNotification notification = new PlayerJoinedNotification(playerName, numPlayers);
-      JSONObject json = notification.toJSON();
-      server.broadcastMessage(json.toString());
+      sendMessage(json.toString());
     }
 
-    public void sendGameState(GameState state) throws IOException {
-      for (Player player : state.getPlayers()) {
-        String playerName = player.getName();
-        int score = state.getScores().get(player).get();
-        Card currentCard = state.getCurrentCard();
-        int numRounds = state.getRound();
-
-        GameStateNotification notification = new GameStateNotification(playerName, numRounds, currentCard, score);
-        JSONObject json = notification.toJSON();
+    public synchronized void sendMessage(String message) throws IOException {
+      String frame = compressFrames ? server.compressor.encode(message) : message;
+      if (connection != null) {
+        connection.writeRecorded(ChannelFrames.encode(channel, frame));
+      } else {
+        writeRecorded(frame);
+      }
+      if (server.logFrames) {
+        System.out.println(message);
+      }
+    }
 
-        sendMessage(json.toString());
+    /**
+     * Writes a frame to the connection and records it as sent, under the id of the connection and
+     * as it goes over the wire, like the frames read from the connection.
+     */
+    private void writeRecorded(String frame) throws IOException {
+      writeBatched(frame);
+      TrafficRecorder recorder = server.recorder;
+      if (recorder != null) {
+        recorder.record(connectionId, TrafficRecorder.Direction.OUTBOUND, frame);
       }
     }
 
-    public void sendMessage(String message) throws IOException {
-      out.write(message + System.lineSeparator());
-      out.flush();
-      System.out.println(message);
+    /** Returns the bytes of the buffers this connection holds, as far as visible to the caller. */
+    long getHeldBytes() {
+      FrameReader reader = in;
+      long held = reader == null ? 0 : reader.getHeldBytes();
+      synchronized (batchLock) {
+        // two bytes per char
+        held += batch == null ? 0 : 2L * batch.capacity();
+      }
+      return held;
     }
 
-    private class SimplePlayer implements Player {
-      private final String name;
+    /** Holds back the flushes of the connection until {@link #uncork()}; calls may nest. */
+    private void cork() {
+      ClientHandler writer = connection != null ? connection : this;
+      synchronized (writer.batchLock) {
+        writer.corks++;
+      }
+    }
 
-      public SimplePlayer(String name) {
-        this.name = name;
+    /** Ends a {@link #cork()} and flushes the batch if no other cork is left. */
+    private void uncork() {
+      ClientHandler writer = connection != null ? connection : this;
+      synchronized (writer.batchLock) {
+        writer.corks--;
+        if (writer.corks > 0 || writer.flushing || writer.batch == null) {
+          return;
+        }
+        writer.flushing = true;
+      }
+      try {
+        writer.startDrain();
+      } catch (IOException e) {
+        // the connection is being closed; its reader cleans up
       }
+    }
 
-      @Override
-      public String getName() {
-        return name;
+    /**
+     * Writes a frame to the connection. The frame is appended to the batch, which is flushed at
+     * once unless the connection is corked or another thread is flushing it.
+     */
+    private void writeBatched(String frame) throws IOException {
+      long maxDelay = server.maxFlushDelayNanos;
+      synchronized (batchLock) {
+        long now = System.nanoTime();
+        if (batch == null) {
+          batch = new StringBuilder();
+          batchStartNanos = now;
+        }
+        batch.append(frame).append(System.lineSeparator());
+        server.metrics.frameWritten();
+        if (flushing) {
+          return;
+        }
+        if (corks > 0 && now - batchStartNanos < maxDelay) {
+          if (flushBackstop == null) {
+            flushBackstop =
+                server.timer.schedule(
+                    () -> server.timerTasks.execute(this::flushHeldBack),
+                    maxDelay,
+                    TimeUnit.NANOSECONDS);
+          }
+          return;
+        }
+        flushing = true;
       }
+      startDrain();
+    }
 
-      @Override
-      public void updateState(GameState state) {
+    /** Runs on a timer task: flushes a batch whose cork was not removed in time. */
+    private void flushHeldBack() {
+      synchronized (batchLock) {
+        flushBackstop = null;
+        if (flushing || batch == null) {
+          return;
+        }
+        flushing = true;
       }
+      try {
+        startDrain();
+      } catch (IOException e) {
+        // the connection is being closed; its reader cleans up
+      }
+    }
 
-      @Override
-      public void updateNewPlayer(String playerName, GameState state) {
+    /** Drains the batch on the write stage, or right away without stages. */
+    private void startDrain() throws IOException {
+      Stage write = server.writeStage;
+      if (write == null) {
+        drainBatch();
+        return;
       }
+      write.execute(
+          connectionId,
+          () -> {
+            try {
+              drainBatch();
+            } catch (IOException e) {
+              // the connection is being closed; its reader cleans up
+            }
+          });
+    }
 
-      @Override
-      public void updateRemovedPlayer(String playerName, GameState state) {
+    /** Writes the batch until it stays empty; the caller has set {@code flushing}. */
+    private void drainBatch() throws IOException {
+      while (true) {
+        String frames;
+        synchronized (batchLock) {
+          if (batch == null) {
+            flushing = false;
+            return;
+          }
+          frames = batch.toString();
+          batch = null;
+        }
+        try {
+          out.write(frames.getBytes(StandardCharsets.UTF_8));
+          out.flush();
+        } catch (IOException e) {
+          synchronized (batchLock) {
+            batch = null;
+            flushing = false;
+          }
+          throw e;
+        }
+        server.metrics.flushed();
+        lastWriteNanos = System.nanoTime();
       }
     }
   }
 
+  private static final class SimplePlayer implements Player {
+    private final String name;
+
+    public SimplePlayer(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public void updateState(GameState state) {
+    }
+
+    @Override
+    public void updateNewPlayer(String playerName, GameState state) {
+    }
+
+    @Override
+    public void updateRemovedPlayer(String playerName, GameState state) {
+    }
+  }
+
   private class StandardDeck implements Deck {
     private List<Card> cards;
     private int currentIndex;
@@ -0,0 +1,180 @@
+package highlowcardgame.server;
+
+import highlowcardgame.communication.LatencyHistogram;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counters describing the connections and rounds handled by a {@link Server}. */
+public final class ServerMetrics {
+
+  private final LongAdder acceptedConnections = new LongAdder();
+  private final LongAdder evictedConnections = new LongAdder();
+  private final LongAdder heartbeatsSent = new LongAdder();
+  private final LongAdder queuedConnections = new LongAdder();
+  private final LongAdder rejectedConnections = new LongAdder();
+  private final LongAdder throttledRequests = new LongAdder();
+  private final LongAdder expiredRounds = new LongAdder();
+  private final LongAdder resumedSessions = new LongAdder();
+  private final LongAdder expiredSessions = new LongAdder();
+  private final LongAdder openedChannels = new LongAdder();
+  private final LongAdder framesWritten = new LongAdder();
+  private final LongAdder flushes = new LongAdder();
+  private final LatencyHistogram roundDurations = new LatencyHistogram();
+  private final LatencyHistogram roundExpiryLag = new LatencyHistogram();
+
+  void connectionAccepted() {
+    acceptedConnections.increment();
+  }
+
+  void connectionEvicted() {
+    evictedConnections.increment();
+  }
+
+  void heartbeatSent() {
+    heartbeatsSent.increment();
+  }
+
+  void connectionQueued() {
+    queuedConnections.increment();
+  }
+
+  void connectionRejected() {
+    rejectedConnections.increment();
+  }
+
+  void requestThrottled() {
+    throttledRequests.increment();
+  }
+
+  void roundResolved(long durationNanos) {
+    roundDurations.record(durationNanos);
+  }
+
+  void roundExpired(long lagNanos) {
+    expiredRounds.increment();
+    roundExpiryLag.record(lagNanos);
+  }
+
+  void sessionResumed() {
+    resumedSessions.increment();
+  }
+
+  void sessionExpired() {
+    expiredSessions.increment();
+  }
+
+  void channelOpened() {
+    openedChannels.increment();
+  }
+
+  void frameWritten() {
+    framesWritten.increment();
+  }
+
+  void flushed() {
+    flushes.increment();
+  }
+
+  /** Returns the number of accepted client connections. */
+  public long getAcceptedConnections() {
+    return acceptedConnections.sum();
+  }
+
+  /** Returns the number of connections closed because the client stopped sending. */
+  public long getEvictedConnections() {
+    return evictedConnections.sum();
+  }
+
+  /** Returns the number of heartbeats sent to idle clients. */
+  public long getHeartbeatsSent() {
+    return heartbeatsSent.sum();
+  }
+
+  /** Returns the number of connections that had to wait for admission. */
+  public long getQueuedConnections() {
+    return queuedConnections.sum();
+  }
+
+  /** Returns the number of connections closed because an admission limit stayed exceeded. */
+  public long getRejectedConnections() {
+    return rejectedConnections.sum();
+  }
+
+  /** Returns the number of requests dropped by a rate limit. */
+  public long getThrottledRequests() {
+    return throttledRequests.sum();
+  }
+
+  /** Returns the number of rounds ended by their deadline rather than by the last guess. */
+  public long getExpiredRounds() {
+    return expiredRounds.sum();
+  }
+
+  /** Returns the time from the start of each round until it was resolved. */
+  public LatencyHistogram getRoundDurations() {
+    return roundDurations;
+  }
+
+  /** Returns the time from the deadline of each expired round until it was actually ended. */
+  public LatencyHistogram getRoundExpiryLag() {
+    return roundExpiryLag;
+  }
+
+  /** Returns the number of sessions resumed on a new connection with their token. */
+  public long getResumedSessions() {
+    return resumedSessions.sum();
+  }
+
+  /** Returns the number of sessions ended because their client did not resume them in time. */
+  public long getExpiredSessions() {
+    return expiredSessions.sum();
+  }
+
+  /** Returns the number of channels opened on multiplexed connections. */
+  public long getOpenedChannels() {
+    return openedChannels.sum();
+  }
+
+  /** Returns the number of frames written to clients. */
+  public long getFramesWritten() {
+    return framesWritten.sum();
+  }
+
+  /**
+   * Returns the number of times frames were flushed to a client connection, which is about the
+   * number of write system calls.
+   */
+  public long getFlushes() {
+    return flushes.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "accepted="
+        + getAcceptedConnections()
+        + " evicted="
+        + getEvictedConnections()
+        + " heartbeats="
+        + getHeartbeatsSent()
+        + " queued="
+        + getQueuedConnections()
+        + " rejected="
+        + getRejectedConnections()
+        + " throttled="
+        + getThrottledRequests()
+        + " expiredRounds="
+        + getExpiredRounds()
+        + " resumed="
+        + getResumedSessions()
+        + " expiredSessions="
+        + getExpiredSessions()
+        + " channels="
+        + getOpenedChannels()
+        + " frames="
+        + getFramesWritten()
+        + " flushes="
+        + getFlushes()
+        + " rounds=["
+        + roundDurations
+        + "]";
+  }
+}
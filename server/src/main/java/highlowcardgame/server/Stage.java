@@ -0,0 +1,209 @@
+package highlowcardgame.server;
+
+import highlowcardgame.communication.LatencyHistogram;
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One stage of the staged server pipeline: a fixed number of threads, each with a bounded queue of
+ * its own.
+ *
+ * <p>Tasks are routed to a thread by a key, so tasks with the same key, such as the frames of one
+ * connection, run one after the other in the order they were submitted, while tasks with different
+ * keys spread over the threads. A full queue blocks the submitting thread, so a saturated stage
+ * slows down the stages feeding it instead of buffering without bound. The stage records how long
+ * tasks waited in its queues and how long they ran, which shows where a pipeline saturates.
+ *
+ * <p>{@link #shutdown} stops a stage after running what is queued in it; {@link #close} stops it
+ * right away. Submitting holds the read lock of the stage while it queues a task, and shutting down
+ * takes the write lock to stop accepting tasks, so every task is either queued before the threads
+ * are told to stop, and runs, or rejected.
+ */
+public final class Stage implements Closeable {
+
+  private final String name;
+  private final BlockingQueue<Task>[] queues;
+  private final Thread[] threads;
+  private final LongAdder completed = new LongAdder();
+  private final LatencyHistogram queueTimes = new LatencyHistogram();
+  private final LatencyHistogram serviceTimes = new LatencyHistogram();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // written under the write lock
+  private volatile boolean shuttingDown = false;
+  private volatile boolean closed = false;
+
+  /**
+   * Creates a stage and starts its threads.
+   *
+   * @param name the name of the stage and its threads
+   * @param threadCount the number of threads
+   * @param queueCapacity the capacity of the queue of every thread
+   */
+  @SuppressWarnings("unchecked")
+  public Stage(String name, int threadCount, int queueCapacity) {
+    if (threadCount < 1 || queueCapacity < 1) {
+      throw new IllegalArgumentException("A stage needs threads and queue capacity");
+    }
+    this.name = name;
+    queues = new BlockingQueue[threadCount];
+    threads = new Thread[threadCount];
+    for (int i = 0; i < threadCount; i++) {
+      BlockingQueue<Task> queue = new ArrayBlockingQueue<>(queueCapacity);
+      queues[i] = queue;
+      threads[i] = new Thread(() -> work(queue), name + "-" + i);
+      threads[i].setDaemon(true);
+      threads[i].start();
+    }
+  }
+
+  /**
+   * Runs a task on the thread of its key, after all tasks submitted before with the same key.
+   * Blocks while the queue of that thread is full.
+   *
+   * @param key the key of the task, for example a connection id
+   * @param task the task
+   * @throws RejectedExecutionException if the stage is shut down or closed, or the caller is
+   *     interrupted
+   */
+  public void execute(int key, Runnable task) {
+    lock.readLock().lock();
+    try {
+      if (closed || shuttingDown) {
+        throw new RejectedExecutionException("The " + name + " stage is closed");
+      }
+      queues[Math.floorMod(key, queues.length)].put(new Task(task));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("Interrupted while the " + name + " stage was full", e);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void work(BlockingQueue<Task> queue) {
+    while (!closed) {
+      Task task;
+      try {
+        task = queue.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (task == Task.STOP) {
+        return;
+      }
+      run(task);
+    }
+  }
+
+  private void run(Task task) {
+    long start = System.nanoTime();
+    queueTimes.record(start - task.submittedNanos);
+    try {
+      task.work.run();
+    } catch (RuntimeException e) {
+      e.printStackTrace();
+    }
+    serviceTimes.record(System.nanoTime() - start);
+    completed.increment();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getThreadCount() {
+    return threads.length;
+  }
+
+  /** Returns the number of tasks waiting in the queues of the stage. */
+  public int getQueueDepth() {
+    int depth = 0;
+    for (BlockingQueue<Task> queue : queues) {
+      depth += queue.size();
+    }
+    return depth;
+  }
+
+  /** Returns the number of tasks the stage has run. */
+  public long getCompletedTasks() {
+    return completed.sum();
+  }
+
+  /** Returns how long tasks waited in the queues before they ran. */
+  public LatencyHistogram getQueueTimes() {
+    return queueTimes;
+  }
+
+  /** Returns how long tasks ran. */
+  public LatencyHistogram getServiceTimes() {
+    return serviceTimes;
+  }
+
+  /**
+   * Stops accepting tasks, once the tasks being submitted are queued, runs the tasks already queued
+   * and waits until the threads of the stage have stopped.
+   */
+  public void shutdown() {
+    lock.writeLock().lock();
+    try {
+      shuttingDown = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    try {
+      for (BlockingQueue<Task> queue : queues) {
+        queue.put(Task.STOP);
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      return;
+    }
+    closed = true;
+  }
+
+  /** Stops the threads of the stage; tasks still queued are dropped. */
+  @Override
+  public void close() {
+    closed = true;
+    for (Thread thread : threads) {
+      thread.interrupt();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return name
+        + " threads="
+        + threads.length
+        + " depth="
+        + getQueueDepth()
+        + " completed="
+        + getCompletedTasks()
+        + " queued=["
+        + queueTimes
+        + "] service=["
+        + serviceTimes
+        + "]";
+  }
+
+  private static final class Task {
+    /** Tells the thread taking it to stop. */
+    static final Task STOP = new Task(() -> {});
+
+    final Runnable work;
+    final long submittedNanos = System.nanoTime();
+
+    Task(Runnable work) {
+      this.work = work;
+    }
+  }
+}
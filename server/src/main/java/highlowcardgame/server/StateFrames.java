@@ -0,0 +1,67 @@
+package highlowcardgame.server;
+
+import highlowcardgame.communication.RoundFrames;
+import highlowcardgame.game.GameState;
+import highlowcardgame.game.Player;
+import highlowcardgame.game.Score;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link RoundFrames round frames} of one game state, shared by all connections the state is
+ * sent to.
+ *
+ * <p>The round frame is encoded once, by the first connection that needs it. A broadcast encodes
+ * the score frames of all recipients in one batch up front; a state sent to a single connection
+ * only encodes the score frame of its player.
+ */
+final class StateFrames {
+
+  private final GameState state;
+  private String roundFrame;
+  private final Map<String, String> scoreFrames = new HashMap<>();
+
+  StateFrames(GameState state) {
+    this.state = state;
+  }
+
+  GameState getState() {
+    return state;
+  }
+
+  synchronized String getRoundFrame() {
+    if (roundFrame == null) {
+      roundFrame = RoundFrames.encodeRound(state.getRound(), state.getCurrentCard());
+    }
+    return roundFrame;
+  }
+
+  /** Encodes the score frames of the given players, which must be players of the state. */
+  synchronized void encodeScores(List<Player> players) {
+    String[] names = new String[players.size()];
+    int[] scores = new int[names.length];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = players.get(i).getName();
+      scores[i] = scoreOf(players.get(i));
+    }
+    String[] frames = RoundFrames.encodeScores(names, scores);
+    for (int i = 0; i < names.length; i++) {
+      scoreFrames.put(names[i], frames[i]);
+    }
+  }
+
+  synchronized String getScoreFrame(Player player) {
+    String frame = scoreFrames.get(player.getName());
+    if (frame == null) {
+      frame = RoundFrames.encodeScore(player.getName(), scoreOf(player));
+      scoreFrames.put(player.getName(), frame);
+    }
+    return frame;
+  }
+
+  private int scoreOf(Player player) {
+    Score score = state.getScores().get(player);
+    return score == null ? 0 : score.get();
+  }
+}
@@ -0,0 +1,52 @@
+package highlowcardgame.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket limiting how often an action may happen.
+ *
+ * <p>The bucket is kept as the single time at which it will be full again (the generic cell rate
+ * algorithm), so taking a token is one compare-and-set and the bucket can be shared by any number
+ * of threads without locking.
+ */
+public final class TokenBucket {
+
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final AtomicLong fullAt;
+
+  /**
+   * Creates a full bucket.
+   *
+   * @param ratePerSecond the number of tokens added per second
+   * @param burst the capacity of the bucket, the number of tokens that may be taken at once
+   */
+  public TokenBucket(double ratePerSecond, int burst) {
+    if (ratePerSecond <= 0 || burst <= 0) {
+      throw new IllegalArgumentException("Rate and burst must be positive");
+    }
+    intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+    burstNanos = intervalNanos * burst;
+    fullAt = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * Takes a token if one is available.
+   *
+   * @return {@code true} if a token was taken, {@code false} if the bucket is empty
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      long now = System.nanoTime();
+      long current = fullAt.get();
+      long next = Math.max(current, now) + intervalNanos;
+      if (next - now > burstNanos) {
+        return false;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return true;
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package highlowcardgame.server;
+
+import highlowcardgame.server.TrafficRecorder.Direction;
+import highlowcardgame.server.TrafficRecorder.Frame;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Reads a capture written by {@link TrafficRecorder} frame by frame. */
+public final class TrafficCaptureReader implements Closeable {
+
+  private final DataInputStream in;
+  private final long startMillis;
+
+  /**
+   * Opens a capture and validates its header.
+   *
+   * @param capture the stream to read the capture from; closed by {@link #close()}
+   * @throws IOException if the stream is not a supported capture
+   */
+  public TrafficCaptureReader(InputStream capture) throws IOException {
+    in = new DataInputStream(new BufferedInputStream(capture));
+    if (in.readInt() != TrafficRecorder.MAGIC) {
+      throw new IOException("Not a traffic capture");
+    }
+    int version = in.readUnsignedByte();
+    if (version != TrafficRecorder.VERSION) {
+      throw new IOException("Unsupported capture version: " + version);
+    }
+    startMillis = in.readLong();
+  }
+
+  /** Returns the wall-clock time in milliseconds at which the recording started. */
+  public long getStartMillis() {
+    return startMillis;
+  }
+
+  /**
+   * Reads the next frame.
+   *
+   * @return the next frame, or {@code null} at the end of the capture
+   * @throws IOException if the capture is truncated or cannot be read
+   */
+  public Frame next() throws IOException {
+    int first = in.read();
+    if (first < 0) {
+      return null;
+    }
+    long timestamp = readVarLong(first);
+    int connectionId = (int) readVarLong(in.readUnsignedByte());
+    int directionOrdinal = in.readUnsignedByte();
+    if (directionOrdinal >= Direction.values().length) {
+      throw new IOException("Corrupt capture: unknown direction " + directionOrdinal);
+    }
+    int length = (int) readVarLong(in.readUnsignedByte());
+    byte[] payload = new byte[length];
+    in.readFully(payload);
+    return new Frame(timestamp, connectionId, Direction.values()[directionOrdinal], payload);
+  }
+
+  private long readVarLong(int firstByte) throws IOException {
+    long value = firstByte & 0x7F;
+    int current = firstByte;
+    int shift = 7;
+    while ((current & 0x80) != 0) {
+      if (shift > 63) {
+        throw new IOException("Corrupt capture: varint too long");
+      }
+      current = in.read();
+      if (current < 0) {
+        throw new EOFException("Truncated capture");
+      }
+      value |= (long) (current & 0x7F) << shift;
+      shift += 7;
+    }
+    return value;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
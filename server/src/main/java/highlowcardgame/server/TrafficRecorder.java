@@ -0,0 +1,189 @@
+package highlowcardgame.server;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records every frame exchanged between the server and its clients into a compact binary capture.
+ *
+ * <p>Connection threads only enqueue frames; a background thread encodes them and writes them to
+ * the capture stream. If the writer falls behind and the queue is full, frames are dropped and
+ * counted instead of blocking the game. The capture can be read back with {@link
+ * TrafficCaptureReader} and replayed against a server with {@link TrafficReplayer}.
+ *
+ * <p>Capture layout: a header of {@link #MAGIC}, {@link #VERSION} and the wall-clock start time in
+ * milliseconds, followed by records of {@code (varlong nanosSinceStart, varint connectionId, byte
+ * direction, varint length, bytes)}.
+ */
+public final class TrafficRecorder implements Closeable {
+
+  static final int MAGIC = 0x484c4354; // "HLCT"
+  static final int VERSION = 1;
+
+  private static final int QUEUE_CAPACITY = 1 << 16;
+  private static final Frame POISON = new Frame(0, 0, Direction.INBOUND, new byte[0]);
+
+  /** Direction of a recorded frame, seen from the server. */
+  public enum Direction {
+    INBOUND,
+    OUTBOUND
+  }
+
+  /** A single recorded frame. */
+  public static final class Frame {
+    private final long timestampNanos;
+    private final int connectionId;
+    private final Direction direction;
+    private final byte[] payload;
+
+    Frame(long timestampNanos, int connectionId, Direction direction, byte[] payload) {
+      this.timestampNanos = timestampNanos;
+      this.connectionId = connectionId;
+      this.direction = direction;
+      this.payload = payload;
+    }
+
+    /** Returns the nanoseconds elapsed between the start of the recording and this frame. */
+    public long getTimestampNanos() {
+      return timestampNanos;
+    }
+
+    /** Returns the id of the connection the frame was sent or received on. */
+    public int getConnectionId() {
+      return connectionId;
+    }
+
+    /** Returns whether the frame was received or sent by the server. */
+    public Direction getDirection() {
+      return direction;
+    }
+
+    /** Returns the frame payload as UTF-8 text, without the line separator. */
+    public String getPayload() {
+      return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    byte[] getPayloadBytes() {
+      return payload;
+    }
+  }
+
+  private final BlockingQueue<Frame> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final DataOutputStream out;
+  private final Thread writer;
+  private final long startNanos = System.nanoTime();
+  private final AtomicLong droppedFrames = new AtomicLong();
+  private volatile boolean closed = false;
+  private volatile IOException writeFailure;
+
+  /**
+   * Creates a recorder writing to the given stream and starts its background writer.
+   *
+   * @param capture the stream to write the capture to; closed by {@link #close()}
+   * @throws IOException if the capture header cannot be written
+   */
+  public TrafficRecorder(OutputStream capture) throws IOException {
+    out = new DataOutputStream(new BufferedOutputStream(capture));
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    out.writeLong(System.currentTimeMillis());
+    writer = new Thread(this::writeLoop, "traffic-recorder");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Records a frame. Never blocks; if the writer cannot keep up the frame is dropped.
+   *
+   * @param connectionId the id of the connection the frame belongs to
+   * @param direction whether the frame was received or sent
+   * @param frame the frame text, without the line separator
+   */
+  public void record(int connectionId, Direction direction, String frame) {
+    if (closed) {
+      return;
+    }
+    Frame f =
+        new Frame(
+            System.nanoTime() - startNanos,
+            connectionId,
+            direction,
+            frame.getBytes(StandardCharsets.UTF_8));
+    if (!queue.offer(f)) {
+      droppedFrames.incrementAndGet();
+    }
+  }
+
+  /** Returns the number of frames that were dropped because the writer fell behind. */
+  public long getDroppedFrames() {
+    return droppedFrames.get();
+  }
+
+  private void writeLoop() {
+    try {
+      while (true) {
+        Frame frame = queue.take();
+        if (frame == POISON) {
+          break;
+        }
+        writeFrame(frame);
+        if (queue.isEmpty()) {
+          out.flush();
+        }
+      }
+      out.flush();
+    } catch (IOException e) {
+      writeFailure = e;
+      closed = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void writeFrame(Frame frame) throws IOException {
+    writeVarLong(out, frame.timestampNanos);
+    writeVarLong(out, frame.connectionId);
+    out.writeByte(frame.direction.ordinal());
+    writeVarLong(out, frame.payload.length);
+    out.write(frame.payload);
+  }
+
+  static void writeVarLong(DataOutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  /**
+   * Stops recording, writes all queued frames and closes the capture stream.
+   *
+   * @throws IOException if the capture could not be written completely
+   */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    try {
+      while (writer.isAlive() && !queue.offer(POISON, 10, TimeUnit.MILLISECONDS)) {
+        // the writer is still draining a full queue
+      }
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      out.close();
+    }
+    if (writeFailure != null) {
+      throw writeFailure;
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package highlowcardgame.server;
+
+import highlowcardgame.server.TrafficRecorder.Direction;
+import highlowcardgame.server.TrafficRecorder.Frame;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a server with the inbound traffic of a capture written by {@link TrafficRecorder}.
+ *
+ * <p>Every recorded connection is replayed over its own loopback socket. Frames are sent in capture
+ * order; the gaps between them are divided by the speed factor and optionally capped, so a capture
+ * can be replayed in real time, compressed, or at N times its original speed. Server responses are
+ * read and discarded so that the server never blocks on a full socket buffer.
+ */
+public final class TrafficReplayer {
+  private static final String DEFAULT_HOST = "localhost";
+  private static final int DEFAULT_PORT = 4441;
+  private static final long DRAIN_TIMEOUT_MILLIS = 1000;
+
+  private final InetSocketAddress target;
+  private final double speed;
+  private final long maxGapNanos;
+
+  /**
+   * Creates a replayer.
+   *
+   * @param target the address of the server to replay the capture against
+   * @param speed the speed factor; 1 replays in real time, 0 sends frames without any delay
+   * @param maxGapMillis upper bound for a single pause between frames, or a negative value to keep
+   *     the original gaps
+   */
+  public TrafficReplayer(InetSocketAddress target, double speed, long maxGapMillis) {
+    if (speed < 0) {
+      throw new IllegalArgumentException("The speed factor must not be negative: " + speed);
+    }
+    this.target = target;
+    this.speed = speed;
+    this.maxGapNanos =
+        maxGapMillis < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(maxGapMillis);
+  }
+
+  /**
+   * Main method for the replayer.
+   *
+   * @param args Commandline arguments
+   */
+  public static void main(final String[] args) {
+    String capture = null;
+    String host = DEFAULT_HOST;
+    int port = DEFAULT_PORT;
+    double speed = 1;
+    long maxGap = -1;
+    try {
+      for (int i = 0; i < args.length; ++i) {
+        switch (args[i]) {
+          case "--capture":
+            capture = args[++i];
+            break;
+          case "--address":
+            host = args[++i];
+            break;
+          case "--port":
+            port = Integer.parseInt(args[++i]);
+            break;
+          case "--speed":
+            speed = Double.parseDouble(args[++i]);
+            break;
+          case "--max-gap":
+            maxGap = Long.parseLong(args[++i]);
+            break;
+          case "--help":
+          default:
+            printHelpMessage();
+            return;
+        }
+      }
+    } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+      printHelpMessage();
+      return;
+    }
+    if (capture == null) {
+      printHelpMessage();
+      return;
+    }
+
+    TrafficReplayer replayer =
+        new TrafficReplayer(new InetSocketAddress(host, port), speed, maxGap);
+    try (TrafficCaptureReader reader = new TrafficCaptureReader(new FileInputStream(capture))) {
+      int sent = replayer.replay(reader);
+      System.out.println("Replayed " + sent + " frames.");
+    } catch (IOException e) {
+      System.out.println("Replay failed: " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void printHelpMessage() {
+    System.out.println(
+        "java TrafficReplayer --capture <file> [--address <String>] [--port <int>]"
+            + " [--speed <double>] [--max-gap <ms>] [--help]");
+  }
+
+  /**
+   * Replays all inbound frames of the capture and closes the replayed connections afterwards.
+   *
+   * @param reader the capture to replay
+   * @return the number of frames sent to the server
+   * @throws IOException if the capture cannot be read or a connection fails
+   * @throws InterruptedException if the replay is interrupted while waiting between frames
+   */
+  public int replay(TrafficCaptureReader reader) throws IOException, InterruptedException {
+    Map<Integer, ReplayedConnection> connections = new HashMap<>();
+    int sent = 0;
+    long replayStart = System.nanoTime();
+    long scheduled = 0;
+    long previousTimestamp = -1;
+    try {
+      for (Frame frame = reader.next(); frame != null; frame = reader.next()) {
+        if (frame.getDirection() != Direction.INBOUND) {
+          continue;
+        }
+        if (previousTimestamp >= 0 && speed > 0) {
+          long gap = Math.max(0, frame.getTimestampNanos() - previousTimestamp);
+          scheduled += Math.min(maxGapNanos, (long) (gap / speed));
+          sleepUntil(replayStart + scheduled);
+        }
+        previousTimestamp = frame.getTimestampNanos();
+
+        ReplayedConnection connection = connections.get(frame.getConnectionId());
+        if (connection == null) {
+          connection = new ReplayedConnection(target);
+          connections.put(frame.getConnectionId(), connection);
+        }
+        connection.send(frame.getPayload());
+        sent++;
+      }
+    } finally {
+      List<ReplayedConnection> open = new ArrayList<>(connections.values());
+      for (ReplayedConnection connection : open) {
+        connection.finish();
+      }
+      for (ReplayedConnection connection : open) {
+        connection.close();
+      }
+    }
+    return sent;
+  }
+
+  private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+    long remaining = deadlineNanos - System.nanoTime();
+    if (remaining > 0) {
+      TimeUnit.NANOSECONDS.sleep(remaining);
+    }
+  }
+
+  private static final class ReplayedConnection {
+    private final Socket socket;
+    private final Writer out;
+    private final Thread drain;
+
+    ReplayedConnection(InetSocketAddress target) throws IOException {
+      socket = new Socket(target.getAddress(), target.getPort());
+      out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+      InputStream in = socket.getInputStream();
+      drain = new Thread(() -> discard(in), "replay-drain");
+      drain.setDaemon(true);
+      drain.start();
+    }
+
+    void send(String frame) throws IOException {
+      out.write(frame + System.lineSeparator());
+      out.flush();
+    }
+
+    void finish() throws IOException {
+      socket.shutdownOutput();
+    }
+
+    void close() throws IOException, InterruptedException {
+      drain.join(DRAIN_TIMEOUT_MILLIS);
+      socket.close();
+    }
+
+    private static void discard(InputStream in) {
+      byte[] buffer = new byte[4096];
+      try {
+        while (in.read(buffer) >= 0) {
+          // responses are not part of the replay
+        }
+      } catch (IOException e) {
+        // the connection was closed by the replayer
+      }
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(10)
+public class FlushCoalescingTest {
+
+  @Test
+  public void testJoin_repliesAreFlushedTogether() throws Exception {
+    assertThat(flushesForJoin(1, TimeUnit.SECONDS)).isEqualTo(1);
+  }
+
+  @Test
+  public void testZeroFlushDelay_flushesEveryFrame() throws Exception {
+    assertThat(flushesForJoin(0, TimeUnit.SECONDS)).isGreaterThan(1);
+  }
+
+  /** Joins and returns the flushes of the replies, which end with the state of the player. */
+  private static long flushesForJoin(long flushDelay, TimeUnit unit) throws Exception {
+    try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Socket client = new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort())) {
+      Server server = new Server();
+      server.setMaxFlushDelay(flushDelay, unit);
+      Thread accept =
+          new Thread(
+              () -> {
+                try {
+                  server.start(socket);
+                } catch (IOException e) {
+                  // closed at the end of the test
+                }
+              });
+      accept.setDaemon(true);
+      accept.start();
+      BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), UTF_8));
+      Writer out = new OutputStreamWriter(client.getOutputStream(), UTF_8);
+      out.write("{\"messageType\":\"JoinGameRequest\",\"playerName\":\"alice\"}\n");
+      out.flush();
+
+      long frames = 0;
+      for (String line = in.readLine(); line != null; line = in.readLine()) {
+        frames++;
+        if ("GameStateNotification".equals(new JSONObject(line).getString("messageType"))) {
+          break;
+        }
+      }
+      assertThat(frames).isGreaterThan(1);
+      assertThat(server.getMetrics().getFramesWritten()).isEqualTo(frames);
+      // flushes are counted after they returned
+      Thread.sleep(100);
+      return server.getMetrics().getFlushes();
+    }
+  }
+}
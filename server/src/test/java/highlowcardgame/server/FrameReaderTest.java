@@ -0,0 +1,50 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.jupiter.api.Test;
+
+public class FrameReaderTest {
+
+  @Test
+  public void testReadLine_releasesTheBufferBetweenFrames() throws IOException {
+    BufferPool pool = new BufferPool(16, 4);
+    FrameReader reader = new FrameReader(trickle("first\r\nsecond\nthird"), pool);
+
+    assertThat(reader.readLine()).isEqualTo("first");
+    assertThat(reader.readLine()).isEqualTo("second");
+    // every byte read so far was passed on
+    assertThat(reader.getHeldBytes()).isEqualTo(0);
+    assertThat(pool.getBytesInUse()).isEqualTo(0);
+    assertThat(pool.getBytesPooled()).isEqualTo(16);
+    assertThat(reader.readLine()).isEqualTo("third");
+    assertThat(reader.readLine()).isNull();
+    assertThat(pool.getBytesInUse()).isEqualTo(0);
+  }
+
+  @Test
+  public void testReadLine_framesLongerThanTheBuffer() throws IOException {
+    BufferPool pool = new BufferPool(4, 4);
+    String longFrame = "{\"messageType\":\"\u00dcn\u00efc\u00f6d\u00e9\"}";
+    FrameReader reader = new FrameReader(trickle(longFrame + "\nx\n"), pool);
+
+    assertThat(reader.readLine()).isEqualTo(longFrame);
+    assertThat(reader.readLine()).isEqualTo("x");
+    assertThat(reader.getHeldBytes()).isEqualTo(0);
+    assertThat(pool.getBytesInUse()).isEqualTo(0);
+  }
+
+  /** Returns a stream that hands out at most three bytes per read, like a slow network. */
+  private static InputStream trickle(String content) {
+    return new ByteArrayInputStream(content.getBytes(UTF_8)) {
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+        return super.read(b, off, Math.min(len, 3));
+      }
+    };
+  }
+}
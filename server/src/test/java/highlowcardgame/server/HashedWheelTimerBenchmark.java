@@ -0,0 +1,55 @@
+package highlowcardgame.server;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// per-connection and per-tick overhead of the idle timer; run with `gradle benchmark`
+@Tag("benchmark")
+public class HashedWheelTimerBenchmark {
+
+  private static final int CONNECTIONS = 200_000;
+
+  @Test
+  public void scheduleCancelAndTickCost() throws InterruptedException {
+    HashedWheelTimer timer = new HashedWheelTimer(100, TimeUnit.MILLISECONDS, 512);
+
+    long start = System.nanoTime();
+    List<HashedWheelTimer.Timeout> timeouts = new ArrayList<>(CONNECTIONS);
+    for (int i = 0; i < CONNECTIONS; i++) {
+      timeouts.add(timer.schedule(() -> {}, 60 + i % 60, TimeUnit.SECONDS));
+    }
+    long scheduleNanos = System.nanoTime() - start;
+
+    // let the worker hash all deadlines into the wheel, then measure its CPU time per tick
+    Thread.sleep(1_000);
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    long workerCpuBefore = threads.getThreadCpuTime(timer.getWorkerThreadId());
+    Thread.sleep(1_000);
+    long workerCpu = threads.getThreadCpuTime(timer.getWorkerThreadId()) - workerCpuBefore;
+
+    start = System.nanoTime();
+    for (HashedWheelTimer.Timeout timeout : timeouts) {
+      timeout.cancel();
+    }
+    long cancelNanos = System.nanoTime() - start;
+
+    System.out.printf(
+        "%d connections: schedule %.0f ns, cancel %.0f ns per connection;"
+            + " %.1f us CPU per 100 ms tick with all of them pending%n",
+        CONNECTIONS,
+        (double) scheduleNanos / CONNECTIONS,
+        (double) cancelNanos / CONNECTIONS,
+        workerCpu / 1e3 / 10);
+
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    System.out.printf(
+        "heap after cancelling: %d KB%n", (runtime.totalMemory() - runtime.freeMemory()) / 1024);
+    timer.close();
+  }
+}
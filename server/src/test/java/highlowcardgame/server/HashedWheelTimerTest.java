@@ -0,0 +1,53 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(5)
+public class HashedWheelTimerTest {
+
+  @Test
+  public void testScheduledTask_runsNotBeforeItsDeadline() throws InterruptedException {
+    HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8);
+    CountDownLatch fired = new CountDownLatch(1);
+    long start = System.nanoTime();
+    long[] elapsed = new long[1];
+
+    HashedWheelTimer.Timeout timeout =
+        timer.schedule(
+            () -> {
+              elapsed[0] = System.nanoTime() - start;
+              fired.countDown();
+            },
+            // longer than one revolution of the wheel
+            150,
+            TimeUnit.MILLISECONDS);
+
+    assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+    assertThat(timeout.isExpired()).isTrue();
+    assertThat(elapsed[0]).isAtLeast(TimeUnit.MILLISECONDS.toNanos(150));
+    assertThat(timer.getPendingCount()).isEqualTo(0);
+    timer.close();
+  }
+
+  @Test
+  public void testCancelledTask_doesNotRun() throws InterruptedException {
+    HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8);
+    AtomicBoolean fired = new AtomicBoolean(false);
+
+    HashedWheelTimer.Timeout timeout =
+        timer.schedule(() -> fired.set(true), 50, TimeUnit.MILLISECONDS);
+    assertThat(timeout.cancel()).isTrue();
+    Thread.sleep(200);
+
+    assertThat(fired.get()).isFalse();
+    assertThat(timeout.cancel()).isFalse();
+    assertThat(timer.getPendingCount()).isEqualTo(0);
+    timer.close();
+  }
+}
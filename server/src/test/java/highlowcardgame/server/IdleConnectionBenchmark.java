@@ -0,0 +1,125 @@
+package highlowcardgame.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// memory of 100k idle connections; run with `gradle benchmark`
+@Tag("benchmark")
+public class IdleConnectionBenchmark {
+
+  private static final int CONNECTIONS = 100_000;
+  private static final int PLAYERS_PER_ROOM = 10;
+  // a loopback source address has about 28k ephemeral ports
+  private static final int CONNECTIONS_PER_SOURCE = 20_000;
+  private static final long HANDLER_STACK_BYTES = 128 * 1024;
+
+  /**
+   * Every connection joins a table and then stays silent. The measurement stops early if the
+   * process runs out of file descriptors or threads, and reports how far it got.
+   */
+  @Test
+  public void memoryPerIdleConnection() throws Exception {
+    PrintStream stdout = System.out;
+    List<Socket> clients = new ArrayList<>();
+    long heapBefore = usedHeap();
+    int threadsBefore = Thread.activeCount();
+    String stopped = "";
+    Server server = new Server();
+    server.setHandlerStackSize(HANDLER_STACK_BYTES);
+    // the server logs every connection and guess
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    try (ServerSocket socket = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress())) {
+      startServer(server, socket);
+      try {
+        for (int i = 0; i < CONNECTIONS; i++) {
+          Socket client = new Socket();
+          client.bind(new InetSocketAddress(sourceAddress(i / CONNECTIONS_PER_SOURCE), 0));
+          client.connect(socket.getLocalSocketAddress());
+          clients.add(client);
+          client
+              .getOutputStream()
+              .write(
+                  ("{\"messageType\":\"JoinGameRequest\",\"playerName\":\"p"
+                          + i
+                          + "\",\"roomName\":\"table"
+                          + i / PLAYERS_PER_ROOM
+                          + "\"}\n")
+                      .getBytes(UTF_8));
+        }
+      } catch (IOException | OutOfMemoryError e) {
+        stopped = " (stopped early: " + e + ")";
+      }
+      // every join answers with at least the state of the player
+      ServerMetrics metrics = server.getMetrics();
+      long deadline = System.currentTimeMillis() + 120_000;
+      while (metrics.getFramesWritten() < clients.size()
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(100);
+      }
+      Thread.sleep(1_000);
+
+      long heap = usedHeap() - heapBefore;
+      int threads = Thread.activeCount() - threadsBefore;
+      LongSummaryStatistics buffers = server.getConnectionMemory();
+      BufferPool pool = server.getBufferPool();
+      System.setOut(stdout);
+      int open = clients.size();
+      System.out.printf(
+          "%,d idle connections%s:%n"
+              + "  heap %,d bytes per connection (socket, handler, player and session)%n"
+              + "  buffers held %,.1f bytes per connection, %,d at most;"
+              + " %,d bytes lent out, %,d pooled%n"
+              + "  %,d threads with %,d KiB stacks%n",
+          open,
+          stopped,
+          heap / Math.max(1, open),
+          buffers.getAverage(),
+          buffers.getCount() == 0 ? 0 : buffers.getMax(),
+          pool.getBytesInUse(),
+          pool.getBytesPooled(),
+          threads,
+          HANDLER_STACK_BYTES / 1024);
+    } finally {
+      System.setOut(stdout);
+      for (Socket client : clients) {
+        client.close();
+      }
+    }
+  }
+
+  private static InetAddress sourceAddress(int index) throws IOException {
+    return InetAddress.getByAddress(new byte[] {127, 0, 0, (byte) (1 + index)});
+  }
+
+  private static long usedHeap() {
+    System.gc();
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static void startServer(Server server, ServerSocket socket) {
+    Thread accept =
+        new Thread(
+            () -> {
+              try {
+                server.start(socket);
+              } catch (IOException e) {
+                // closed after the measurement
+              }
+            });
+    accept.setDaemon(true);
+    accept.start();
+  }
+}
@@ -0,0 +1,81 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import highlowcardgame.communication.messages.LeaderboardNotification.Entry;
+import highlowcardgame.game.observable.GameEvent;
+import highlowcardgame.game.observable.GameEventListener;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class LeaderboardTest {
+
+  private static final String ROOM = "room";
+
+  @Test
+  public void testTop_ordersByScoreAndSharesRanksOnTies() {
+    Leaderboard leaderboard = new Leaderboard();
+    leaderboard.update(ROOM, "alice", 3);
+    leaderboard.update(ROOM, "bob", 26);
+    leaderboard.update(ROOM, "carol", 3);
+    leaderboard.update(ROOM, "dave", 0);
+
+    List<Entry> top = leaderboard.getTop(3);
+
+    assertThat(top).hasSize(3);
+    assertThat(top.get(0).getPlayerName()).isEqualTo("bob");
+    assertThat(top.get(0).getRank()).isEqualTo(1);
+    assertThat(top.get(1).getPlayerName()).isEqualTo("alice");
+    assertThat(top.get(1).getRank()).isEqualTo(2);
+    assertThat(top.get(2).getPlayerName()).isEqualTo("carol");
+    assertThat(top.get(2).getRank()).isEqualTo(2);
+  }
+
+  @Test
+  public void testRank_followsIncrementalUpdates() {
+    Leaderboard leaderboard = new Leaderboard();
+    leaderboard.update(ROOM, "alice", 1);
+    leaderboard.update(ROOM, "bob", 2);
+    assertThat(leaderboard.getRank(ROOM, "alice")).isEqualTo(2);
+
+    leaderboard.update(ROOM, "alice", 27);
+    assertThat(leaderboard.getRank(ROOM, "alice")).isEqualTo(1);
+    assertThat(leaderboard.getRank(ROOM, "bob")).isEqualTo(2);
+
+    leaderboard.remove(ROOM, "alice");
+    assertThat(leaderboard.getRank(ROOM, "alice")).isEqualTo(-1);
+    assertThat(leaderboard.getRank(ROOM, "bob")).isEqualTo(1);
+    assertThat(leaderboard.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void testRank_handlesScoresBeyondInitialCapacity() {
+    Leaderboard leaderboard = new Leaderboard();
+    for (int i = 0; i < 1000; i++) {
+      leaderboard.update(ROOM, "player" + i, i * 25);
+    }
+
+    assertThat(leaderboard.getRank(ROOM, "player999")).isEqualTo(1);
+    assertThat(leaderboard.getRank(ROOM, "player0")).isEqualTo(1000);
+    assertThat(leaderboard.getRank(ROOM, "player500")).isEqualTo(500);
+  }
+
+  @Test
+  public void testRooms_rankPlayersWithTheSameNameSeparately() {
+    Leaderboard leaderboard = new Leaderboard();
+    GameEventListener first = leaderboard.forRoom("first");
+    GameEventListener second = leaderboard.forRoom("second");
+    first.onPlayerJoined(new GameEvent.PlayerJoined("alice", null));
+    second.onPlayerJoined(new GameEvent.PlayerJoined("alice", null));
+    first.onScoreChanged(new GameEvent.ScoreChanged("alice", 25, 25, null));
+    second.onScoreChanged(new GameEvent.ScoreChanged("alice", 1, 1, null));
+
+    assertThat(leaderboard.size()).isEqualTo(2);
+    assertThat(leaderboard.getRank("first", "alice")).isEqualTo(1);
+    assertThat(leaderboard.getRank("second", "alice")).isEqualTo(2);
+
+    second.onPlayerLeft(new GameEvent.PlayerLeft("alice", null));
+    assertThat(leaderboard.getRank("first", "alice")).isEqualTo(1);
+    assertThat(leaderboard.getRank("second", "alice")).isEqualTo(-1);
+  }
+}
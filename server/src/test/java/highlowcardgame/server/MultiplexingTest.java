@@ -0,0 +1,147 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import highlowcardgame.communication.ChannelFrames;
+import highlowcardgame.server.TrafficRecorder.Direction;
+import highlowcardgame.server.TrafficRecorder.Frame;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(10)
+public class MultiplexingTest {
+
+  @Test
+  public void testChannels_playAsSeparatePlayersOverOneConnection() throws Exception {
+    try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Socket client = new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort())) {
+      Server server = new Server();
+      Thread accept =
+          new Thread(
+              () -> {
+                try {
+                  server.start(socket);
+                } catch (IOException e) {
+                  // closed at the end of the test
+                }
+              });
+      accept.setDaemon(true);
+      accept.start();
+      BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), UTF_8));
+      Writer out = new OutputStreamWriter(client.getOutputStream(), UTF_8);
+
+      send(out, ChannelFrames.encode(1, join("alice")));
+      assertThat(awaitOwnState(in, 1, "alice").getInt("numRounds")).isEqualTo(1);
+      send(out, ChannelFrames.encode(2, join("bob")));
+      assertThat(awaitOwnState(in, 2, "bob").getInt("numRounds")).isEqualTo(1);
+
+      send(
+          out,
+          ChannelFrames.encode(1, guess("alice"))
+              + System.lineSeparator()
+              + ChannelFrames.encode(2, guess("bob")));
+      assertThat(awaitOwnState(in, 2, "bob").getInt("numRounds")).isEqualTo(2);
+
+      send(out, ChannelFrames.close(2));
+      for (String line = in.readLine(); ; line = in.readLine()) {
+        if (ChannelFrames.channelOf(line) == 1
+            && ChannelFrames.payloadOf(line).contains("PlayerLeftNotification")) {
+          assertThat(new JSONObject(ChannelFrames.payloadOf(line)).getString("playerName"))
+              .isEqualTo("bob");
+          break;
+        }
+      }
+      assertThat(server.getMetrics().getOpenedChannels()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  public void testRecorder_recordsChannelFramesUnderTheConnectionAsSent() throws Exception {
+    ByteArrayOutputStream capture = new ByteArrayOutputStream();
+    TrafficRecorder recorder = new TrafficRecorder(capture);
+    try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Socket client = new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort())) {
+      Server server = new Server();
+      server.setTrafficRecorder(recorder);
+      Thread accept =
+          new Thread(
+              () -> {
+                try {
+                  server.start(socket);
+                } catch (IOException e) {
+                  // closed at the end of the test
+                }
+              });
+      accept.setDaemon(true);
+      accept.start();
+      BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), UTF_8));
+      Writer out = new OutputStreamWriter(client.getOutputStream(), UTF_8);
+
+      send(out, ChannelFrames.encode(1, join("alice")));
+      awaitOwnState(in, 1, "alice");
+    }
+    recorder.close();
+
+    List<Frame> frames = new ArrayList<>();
+    try (TrafficCaptureReader reader =
+        new TrafficCaptureReader(new ByteArrayInputStream(capture.toByteArray()))) {
+      for (Frame frame = reader.next(); frame != null; frame = reader.next()) {
+        frames.add(frame);
+      }
+    }
+    assertThat(frames.get(0).getPayload()).isEqualTo(ChannelFrames.encode(1, join("alice")));
+    boolean stateRecorded = false;
+    for (Frame frame : frames) {
+      assertThat(frame.getConnectionId()).isEqualTo(frames.get(0).getConnectionId());
+      stateRecorded |=
+          frame.getDirection() == Direction.OUTBOUND
+              && ChannelFrames.isChannelFrame(frame.getPayload())
+              && ChannelFrames.channelOf(frame.getPayload()) == 1
+              && frame.getPayload().contains("GameStateNotification");
+    }
+    assertThat(stateRecorded).isTrue();
+  }
+
+  private static String join(String name) {
+    return "{\"messageType\":\"JoinGameRequest\",\"playerName\":\"" + name + "\"}";
+  }
+
+  private static String guess(String name) {
+    return "{\"messageType\":\"GuessRequest\",\"guess\":\"HIGH\",\"playerName\":\"" + name + "\"}";
+  }
+
+  private static void send(Writer out, String frames) throws IOException {
+    out.write(frames + System.lineSeparator());
+    out.flush();
+  }
+
+  /** Reads until the given channel receives the game state of its player. */
+  private static JSONObject awaitOwnState(BufferedReader in, int channel, String name)
+      throws IOException {
+    for (String line = in.readLine(); line != null; line = in.readLine()) {
+      if (!ChannelFrames.isChannelFrame(line) || ChannelFrames.channelOf(line) != channel) {
+        continue;
+      }
+      JSONObject message = new JSONObject(ChannelFrames.payloadOf(line));
+      if ("GameStateNotification".equals(message.getString("messageType"))
+          && name.equals(message.getString("playerName"))) {
+        return message;
+      }
+    }
+    throw new IOException("The server closed the connection");
+  }
+}
@@ -0,0 +1,62 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import highlowcardgame.game.Card;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.game.InfiniteShuffledDeck;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(5)
+public class PartitionCoordinatorTest {
+
+  @Test
+  public void testRoundEndsOnceAllPartitionsHaveGuessed() throws Exception {
+    try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+      PartitionCoordinator coordinator =
+          new PartitionCoordinator(new InfiniteShuffledDeck(Card.getAllValidCards(), 1));
+      Thread accept =
+          new Thread(
+              () -> {
+                try {
+                  coordinator.start(socket);
+                } catch (IOException e) {
+                  // closed at the end of the test
+                }
+              });
+      accept.setDaemon(true);
+      accept.start();
+      PartitionNode first = connectedNode(socket.getLocalPort());
+      PartitionNode second = connectedNode(socket.getLocalPort());
+
+      assertThat(first.join("alice")).isTrue();
+      assertThat(second.join("bob")).isTrue();
+      assertThat(first.awaitRound(1, 2, TimeUnit.SECONDS)).isTrue();
+      assertThat(second.awaitRound(1, 2, TimeUnit.SECONDS)).isTrue();
+      assertThat(second.getPartition().getCurrentCard())
+          .isEqualTo(first.getPartition().getCurrentCard());
+
+      assertThat(first.guess("alice", HighLowCardGame.Guess.HIGH)).isTrue();
+      // bob has not guessed yet, so the round must not end
+      assertThat(first.awaitRound(2, 200, TimeUnit.MILLISECONDS)).isFalse();
+      assertThat(second.guess("bob", HighLowCardGame.Guess.LOW)).isTrue();
+
+      assertThat(first.awaitRound(2, 2, TimeUnit.SECONDS)).isTrue();
+      assertThat(second.awaitRound(2, 2, TimeUnit.SECONDS)).isTrue();
+      assertThat(coordinator.getRound()).isEqualTo(2);
+      assertThat(coordinator.getPartitionCount()).isEqualTo(2);
+    }
+  }
+
+  private static PartitionNode connectedNode(int port) throws IOException {
+    PartitionNode node = new PartitionNode();
+    node.connect(new Socket(InetAddress.getLoopbackAddress(), port));
+    return node;
+  }
+}
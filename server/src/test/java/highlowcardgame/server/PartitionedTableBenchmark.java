@@ -0,0 +1,109 @@
+package highlowcardgame.server;
+
+import highlowcardgame.communication.LatencyHistogram;
+import highlowcardgame.game.Card;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.game.InfiniteShuffledDeck;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// round turnaround of a partitioned table versus player count; run with `gradle benchmark`
+@Tag("benchmark")
+public class PartitionedTableBenchmark {
+
+  private static final int PARTITIONS = 4;
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 30;
+
+  /**
+   * Players are simulated inside the partition nodes, while the nodes and the coordinator talk over
+   * loopback as they would between processes. A round is timed from the announcement of its card
+   * until every partition has received the next one.
+   */
+  @Test
+  public void roundTurnaroundByPlayerCount() throws Exception {
+    for (int players : new int[] {1_000, 10_000, 100_000}) {
+      try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+        Thread accept =
+            new Thread(
+                () -> {
+                  try {
+                    new PartitionCoordinator(new InfiniteShuffledDeck(Card.getAllValidCards()))
+                        .start(socket);
+                  } catch (IOException e) {
+                    // closed after the measurement
+                  }
+                });
+        accept.setDaemon(true);
+        accept.start();
+        List<PartitionNode> nodes = new ArrayList<>();
+        for (int p = 0; p < PARTITIONS; p++) {
+          PartitionNode node = new PartitionNode();
+          node.connect(new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort()));
+          nodes.add(node);
+        }
+        for (int i = 0; i < players; i++) {
+          nodes.get(i % PARTITIONS).join("p" + i);
+        }
+        LatencyHistogram turnaround = measure(nodes, players);
+        System.out.printf(
+            "%,7d players on %d partitions: round turnaround %s%n",
+            players, PARTITIONS, turnaround);
+      }
+    }
+  }
+
+  private static LatencyHistogram measure(List<PartitionNode> nodes, int players)
+      throws Exception {
+    LatencyHistogram turnaround = new LatencyHistogram();
+    ExecutorService guessers = Executors.newFixedThreadPool(nodes.size());
+    try {
+      int round = 1;
+      awaitRound(nodes, round);
+      for (int r = 0; r < WARMUP_ROUNDS + MEASURED_ROUNDS; r++) {
+        long start = System.nanoTime();
+        List<Future<?>> done = new ArrayList<>();
+        for (int p = 0; p < nodes.size(); p++) {
+          PartitionNode node = nodes.get(p);
+          int first = p;
+          done.add(
+              guessers.submit(
+                  () -> {
+                    for (int i = first; i < players; i += nodes.size()) {
+                      node.guess("p" + i, HighLowCardGame.Guess.HIGH);
+                    }
+                  }));
+        }
+        for (Future<?> future : done) {
+          future.get();
+        }
+        round++;
+        awaitRound(nodes, round);
+        if (r >= WARMUP_ROUNDS) {
+          turnaround.record(System.nanoTime() - start);
+        }
+      }
+    } finally {
+      guessers.shutdownNow();
+    }
+    return turnaround;
+  }
+
+  private static void awaitRound(List<PartitionNode> nodes, int round) throws Exception {
+    for (PartitionNode node : nodes) {
+      if (!node.awaitRound(round, 30, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("Round " + round + " did not start");
+      }
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package highlowcardgame.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import highlowcardgame.communication.LatencyHistogram;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Locale;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// guess-to-notification latency without a follower and per ack mode; run with `gradle benchmark`
+@Tag("benchmark")
+public class ReplicationBenchmark {
+
+  private static final int WARMUP_GUESSES = 5_000;
+  private static final int MEASURED_GUESSES = 20_000;
+
+  @Test
+  public void guessLatencyByAckMode() throws Exception {
+    PrintStream stdout = System.out;
+    for (ReplicationLog.Mode mode :
+        new ReplicationLog.Mode[] {null, ReplicationLog.Mode.ASYNC, ReplicationLog.Mode.SYNC}) {
+      LatencyHistogram latency = new LatencyHistogram();
+      ReplicationLog log = null;
+      // the server logs every connection and guess
+      System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+      try (ServerSocket replicationSocket = loopbackSocket();
+          ServerSocket primarySocket = loopbackSocket()) {
+        Server primary = new Server();
+        if (mode != null) {
+          startInBackground(() -> new Server().follow(replicationSocket));
+          log =
+              new ReplicationLog(
+                  new Socket(InetAddress.getLoopbackAddress(), replicationSocket.getLocalPort()),
+                  mode);
+          primary.setReplication(log);
+        }
+        startInBackground(() -> primary.start(primarySocket));
+        measure(primarySocket.getLocalPort(), latency);
+      } finally {
+        System.setOut(stdout);
+        if (log != null) {
+          log.close();
+        }
+      }
+      String batching =
+          log == null
+              ? ""
+              : ", " + log.getAppendedCount() / Math.max(1, log.getBatchCount()) + " events/batch";
+      System.out.printf(
+          "%-13s guess to notification: %s%s%n",
+          mode == null ? "no follower," : mode.name().toLowerCase(Locale.ROOT) + " ack,",
+          latency,
+          batching);
+    }
+  }
+
+  /**
+   * A silent player keeps the round open, so the finite deck never runs out while the other player
+   * guesses and waits for its own game state each time.
+   */
+  private static void measure(int port, LatencyHistogram latency) throws IOException {
+    try (Socket silent = new Socket(InetAddress.getLoopbackAddress(), port);
+        Socket guesser = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      guesser.setTcpNoDelay(true);
+      BufferedReader silentIn =
+          new BufferedReader(new InputStreamReader(silent.getInputStream(), UTF_8));
+      Writer silentOut = new OutputStreamWriter(silent.getOutputStream(), UTF_8);
+      BufferedReader in =
+          new BufferedReader(new InputStreamReader(guesser.getInputStream(), UTF_8));
+      Writer out = new OutputStreamWriter(guesser.getOutputStream(), UTF_8);
+      send(silentOut, "{\"messageType\":\"JoinGameRequest\",\"playerName\":\"silent\"}");
+      awaitOwnState(silentIn, "silent");
+      send(out, "{\"messageType\":\"JoinGameRequest\",\"playerName\":\"guesser\"}");
+      awaitOwnState(in, "guesser");
+      Thread drain =
+          new Thread(
+              () -> {
+                try {
+                  while (silentIn.readLine() != null) {
+                    // discard the broadcasts to the silent player
+                  }
+                } catch (IOException e) {
+                  // closed after the measurement
+                }
+              });
+      drain.setDaemon(true);
+      drain.start();
+
+      String guess =
+          "{\"messageType\":\"GuessRequest\",\"guess\":\"HIGH\",\"playerName\":\"guesser\"}";
+      for (int i = 0; i < WARMUP_GUESSES + MEASURED_GUESSES; i++) {
+        long start = System.nanoTime();
+        send(out, guess);
+        awaitOwnState(in, "guesser");
+        if (i >= WARMUP_GUESSES) {
+          latency.record(System.nanoTime() - start);
+        }
+      }
+    }
+  }
+
+  private static void send(Writer out, String message) throws IOException {
+    out.write(message + "\n");
+    out.flush();
+  }
+
+  private static void awaitOwnState(BufferedReader in, String name) throws IOException {
+    String ownState = "\"playerName\":\"" + name + "\"";
+    for (String line = in.readLine(); line != null; line = in.readLine()) {
+      if (line.contains("GameStateNotification") && line.contains(ownState)) {
+        return;
+      }
+    }
+    throw new IOException("The server closed the connection");
+  }
+
+  private interface Task {
+    void run() throws IOException;
+  }
+
+  private static void startInBackground(Task task) {
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                task.run();
+              } catch (IOException e) {
+                // closed after the measurement
+              }
+            });
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private static ServerSocket loopbackSocket() throws IOException {
+    return new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+  }
+}
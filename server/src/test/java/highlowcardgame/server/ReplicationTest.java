@@ -0,0 +1,212 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(10)
+public class ReplicationTest {
+
+  @Test
+  public void testSyncLog_returnsOnceFollowerApplied() throws Exception {
+    List<String> applied = new CopyOnWriteArrayList<>();
+    try (ServerSocket replicationSocket = loopbackSocket()) {
+      CompletableFuture<Long> follower =
+          CompletableFuture.supplyAsync(
+              () -> {
+                try (Socket primary = replicationSocket.accept()) {
+                  return new ReplicationFollower(primary)
+                      .run(event -> applied.add(event.getString("player")));
+                } catch (IOException e) {
+                  throw new IllegalStateException(e);
+                }
+              });
+      ReplicationLog log =
+          new ReplicationLog(
+              new Socket(InetAddress.getLoopbackAddress(), replicationSocket.getLocalPort()),
+              ReplicationLog.Mode.SYNC);
+
+      long seq = 0;
+      for (int i = 0; i < 100; i++) {
+        seq = log.append(ReplicationLog.event(ReplicationLog.OP_JOIN, "r").put("player", "p" + i));
+      }
+      log.awaitReplicated(seq);
+
+      assertThat(log.hasFailed()).isFalse();
+      assertThat(log.getAcknowledged()).isEqualTo(100);
+      assertThat(applied).hasSize(100);
+      assertThat(applied.get(0)).isEqualTo("p0");
+      assertThat(applied.get(99)).isEqualTo("p99");
+      log.close();
+      assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(100);
+    }
+  }
+
+  @Test
+  public void testFollower_appliesAndAcknowledgesOnlyContiguousEvents() throws Exception {
+    List<String> applied = new CopyOnWriteArrayList<>();
+    try (ServerSocket replicationSocket = loopbackSocket()) {
+      CompletableFuture<Long> follower =
+          CompletableFuture.supplyAsync(
+              () -> {
+                try (Socket primary = replicationSocket.accept()) {
+                  return new ReplicationFollower(primary)
+                      .run(event -> applied.add(event.getString("player")));
+                } catch (IOException e) {
+                  throw new IllegalStateException(e);
+                }
+              });
+      try (Socket primary =
+          new Socket(InetAddress.getLoopbackAddress(), replicationSocket.getLocalPort())) {
+        Writer out = new OutputStreamWriter(primary.getOutputStream(), UTF_8);
+        BufferedReader in =
+            new BufferedReader(new InputStreamReader(primary.getInputStream(), UTF_8));
+
+        out.write("{\"events\":[{\"seq\":2,\"op\":\"JOIN\",\"room\":\"r\",\"player\":\"p2\"}]}\n");
+        out.flush();
+        assertThat(new JSONObject(in.readLine()).getLong("ack")).isEqualTo(0);
+        assertThat(applied).isEmpty();
+
+        out.write("{\"events\":[{\"seq\":1,\"op\":\"JOIN\",\"room\":\"r\",\"player\":\"p1\"}]}\n");
+        out.flush();
+        assertThat(new JSONObject(in.readLine()).getLong("ack")).isEqualTo(2);
+        assertThat(applied).containsExactly("p1", "p2").inOrder();
+      }
+      assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    }
+  }
+
+  @Test
+  public void testFollower_takesOverSessionsOfReconnectingPlayers() throws Exception {
+    try (ServerSocket replicationSocket = loopbackSocket();
+        ServerSocket primarySocket = loopbackSocket();
+        ServerSocket followerSocket = loopbackSocket()) {
+      Server follower = new Server();
+      CompletableFuture<Long> takeover =
+          CompletableFuture.supplyAsync(
+              () -> {
+                try {
+                  long applied = follower.follow(replicationSocket);
+                  startInBackground(follower, followerSocket);
+                  return applied;
+                } catch (IOException e) {
+                  throw new IllegalStateException(e);
+                }
+              });
+      Server primary = new Server();
+      ReplicationLog log =
+          new ReplicationLog(
+              new Socket(InetAddress.getLoopbackAddress(), replicationSocket.getLocalPort()),
+              ReplicationLog.Mode.SYNC);
+      primary.setReplication(log);
+      startInBackground(primary, primarySocket);
+
+      String token;
+      int round;
+      try (Socket client =
+          new Socket(InetAddress.getLoopbackAddress(), primarySocket.getLocalPort())) {
+        Writer out = new OutputStreamWriter(client.getOutputStream(), UTF_8);
+        BufferedReader in =
+            new BufferedReader(new InputStreamReader(client.getInputStream(), UTF_8));
+        token = join(in, out, "alice", null);
+        round = play(in, out, "alice", 3);
+        // the primary dies while alice is connected: the follower sees the stream end
+        log.close();
+      }
+      assertThat(round).isEqualTo(4);
+      assertThat(takeover.get(5, TimeUnit.SECONDS)).isGreaterThan(0L);
+
+      try (Socket client =
+          new Socket(InetAddress.getLoopbackAddress(), followerSocket.getLocalPort())) {
+        BufferedReader in =
+            new BufferedReader(new InputStreamReader(client.getInputStream(), UTF_8));
+        join(in, new OutputStreamWriter(client.getOutputStream(), UTF_8), "alice", token);
+        JSONObject state = readGameState(in);
+        assertThat(state.getInt("numRounds")).isEqualTo(round);
+        assertThat(follower.getRoomNames()).contains("default");
+        assertThat(follower.getMetrics().getResumedSessions()).isEqualTo(1);
+      }
+    }
+  }
+
+  /** Guesses {@code guesses} times; returns the round of the last game state. */
+  private static int play(BufferedReader in, Writer out, String name, int guesses)
+      throws IOException {
+    JSONObject state = readGameState(in);
+    for (int i = 0; i < guesses; i++) {
+      out.write(
+          "{\"messageType\":\"GuessRequest\",\"guess\":\"HIGH\",\"playerName\":\""
+              + name
+              + "\"}\n");
+      out.flush();
+      state = readGameState(in);
+    }
+    return state.getInt("numRounds");
+  }
+
+  /**
+   * Joins, or resumes the session of the given token.
+   *
+   * @return the resume token of a new session, or {@code null} when resuming
+   */
+  private static String join(BufferedReader in, Writer out, String name, String token)
+      throws IOException {
+    JSONObject request =
+        new JSONObject().put("messageType", "JoinGameRequest").put("playerName", name);
+    if (token != null) {
+      request.put("resumeToken", token);
+    }
+    out.write(request + "\n");
+    out.flush();
+    if (token != null) {
+      return null;
+    }
+    // the server hands out the token before anything else
+    JSONObject session = new JSONObject(in.readLine());
+    assertThat(session.getString("messageType")).isEqualTo("SessionNotification");
+    return session.getString("resumeToken");
+  }
+
+  private static JSONObject readGameState(BufferedReader in) throws IOException {
+    for (String line = in.readLine(); line != null; line = in.readLine()) {
+      JSONObject message = new JSONObject(line);
+      if ("GameStateNotification".equals(message.getString("messageType"))) {
+        return message;
+      }
+    }
+    throw new IOException("The server closed the connection");
+  }
+
+  private static void startInBackground(Server server, ServerSocket socket) {
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                server.start(socket);
+              } catch (IOException e) {
+                // closed at the end of the test
+              }
+            });
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private static ServerSocket loopbackSocket() throws IOException {
+    return new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+  }
+}
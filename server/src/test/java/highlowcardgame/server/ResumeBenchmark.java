@@ -0,0 +1,169 @@
+package highlowcardgame.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import highlowcardgame.communication.LatencyHistogram;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// reconnect-to-playing latency of resuming versus rejoining; run with `gradle benchmark`
+@Tag("benchmark")
+public class ResumeBenchmark {
+
+  private static final int WARMUP_RECONNECTS = 200;
+  private static final int MEASURED_RECONNECTS = 1_000;
+
+  /**
+   * A reconnect is timed from opening the new connection until the player's own game state
+   * arrives. A rejoining player is announced to the table and receives the state of every player,
+   * while a resumed session only gets its own.
+   */
+  @Test
+  public void reconnectLatencyByTableSize() throws Exception {
+    PrintStream stdout = System.out;
+    for (int players : new int[] {10, 100, 500}) {
+      LatencyHistogram resume = new LatencyHistogram();
+      LatencyHistogram rejoin = new LatencyHistogram();
+      List<Socket> table = new ArrayList<>();
+      // the server logs every connection and guess
+      System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+      try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+        Server server = new Server();
+        Thread accept =
+            new Thread(
+                () -> {
+                  try {
+                    server.start(socket);
+                  } catch (IOException e) {
+                    // closed after the measurement
+                  }
+                });
+        accept.setDaemon(true);
+        accept.start();
+        for (int i = 0; i < players; i++) {
+          Socket player = connect(socket.getLocalPort());
+          send(new OutputStreamWriter(player.getOutputStream(), UTF_8), join("p" + i, null));
+          drain(player.getInputStream());
+          table.add(player);
+        }
+        measureResume(socket.getLocalPort(), resume);
+        measureRejoin(socket.getLocalPort(), rejoin);
+      } finally {
+        System.setOut(stdout);
+        for (Socket player : table) {
+          player.close();
+        }
+      }
+      System.out.printf("%4d players: resume %s%n", players, resume);
+      System.out.printf("%4d players: rejoin %s%n", players, rejoin);
+    }
+  }
+
+  private static void measureResume(int port, LatencyHistogram latency) throws IOException {
+    Socket connection = connect(port);
+    BufferedReader in = reader(connection);
+    send(writer(connection), join("resumer", null));
+    String token = new JSONObject(in.readLine()).getString("resumeToken");
+    awaitOwnState(in, "resumer");
+    for (int i = 0; i < WARMUP_RECONNECTS + MEASURED_RECONNECTS; i++) {
+      // a reset rather than a close, as if the network had failed
+      connection.setSoLinger(true, 0);
+      connection.close();
+      long start = System.nanoTime();
+      connection = connect(port);
+      in = reader(connection);
+      send(writer(connection), join("resumer", token));
+      awaitOwnState(in, "resumer");
+      if (i >= WARMUP_RECONNECTS) {
+        latency.record(System.nanoTime() - start);
+      }
+    }
+    connection.close();
+  }
+
+  private static void measureRejoin(int port, LatencyHistogram latency) throws IOException {
+    for (int i = 0; i < WARMUP_RECONNECTS + MEASURED_RECONNECTS; i++) {
+      // a fresh name each time, as the previous player may not have left yet
+      String name = "rejoiner" + i;
+      long start = System.nanoTime();
+      try (Socket connection = connect(port)) {
+        BufferedReader in = reader(connection);
+        send(writer(connection), join(name, null));
+        awaitOwnState(in, name);
+        if (i >= WARMUP_RECONNECTS) {
+          latency.record(System.nanoTime() - start);
+        }
+      }
+    }
+  }
+
+  private static String join(String name, String token) {
+    JSONObject request =
+        new JSONObject().put("messageType", "JoinGameRequest").put("playerName", name);
+    if (token != null) {
+      request.put("resumeToken", token);
+    }
+    return request.toString();
+  }
+
+  private static Socket connect(int port) throws IOException {
+    Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+    socket.setTcpNoDelay(true);
+    return socket;
+  }
+
+  private static BufferedReader reader(Socket socket) throws IOException {
+    return new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+  }
+
+  private static Writer writer(Socket socket) throws IOException {
+    return new OutputStreamWriter(socket.getOutputStream(), UTF_8);
+  }
+
+  private static void send(Writer out, String message) throws IOException {
+    out.write(message + "\n");
+    out.flush();
+  }
+
+  private static void awaitOwnState(BufferedReader in, String name) throws IOException {
+    String ownState = "\"playerName\":\"" + name + "\"";
+    for (String line = in.readLine(); line != null; line = in.readLine()) {
+      if (line.contains("GameStateNotification") && line.contains(ownState)) {
+        return;
+      }
+    }
+    throw new IOException("The server closed the connection");
+  }
+
+  /** Discards the broadcasts to a player of the table. */
+  private static void drain(InputStream in) {
+    Thread thread =
+        new Thread(
+            () -> {
+              byte[] buffer = new byte[8192];
+              try {
+                while (in.read(buffer) >= 0) {
+                  // discard
+                }
+              } catch (IOException e) {
+                // closed after the measurement
+              }
+            });
+    thread.setDaemon(true);
+    thread.start();
+  }
+}
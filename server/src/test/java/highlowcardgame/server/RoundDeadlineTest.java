@@ -0,0 +1,88 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import highlowcardgame.game.Card;
+import highlowcardgame.game.GameState;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.game.InfiniteShuffledDeck;
+import highlowcardgame.game.Player;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(5)
+public class RoundDeadlineTest {
+
+  @Test
+  public void testDeadline_endsRoundWithMissingGuesses() throws Exception {
+    HighLowCardGame game = new HighLowCardGame(new InfiniteShuffledDeck(Card.getAllValidCards()));
+    HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8);
+    ServerMetrics metrics = new ServerMetrics();
+    CountDownLatch expired = new CountDownLatch(1);
+    RoundDeadline deadline =
+        new RoundDeadline(
+            game, game::expireRound, timer, Runnable::run, metrics, state -> expired.countDown());
+    deadline.setTimeout(50, TimeUnit.MILLISECONDS);
+    game.addListener(deadline);
+    Player alice = new TestPlayer("alice");
+    game.addPlayer(alice);
+    game.addPlayer(new TestPlayer("bob"));
+    game.start();
+
+    game.guess(alice, HighLowCardGame.Guess.HIGH);
+
+    assertThat(expired.await(2, TimeUnit.SECONDS)).isTrue();
+    assertThat(game.getState().getRound()).isAtLeast(2);
+    assertThat(metrics.getExpiredRounds()).isAtLeast(1);
+    assertThat(metrics.getRoundDurations().getCount()).isAtLeast(1);
+    assertThat(metrics.getRoundDurations().getPercentileNanos(50))
+        .isAtLeast(TimeUnit.MILLISECONDS.toNanos(50));
+    timer.close();
+  }
+
+  @Test
+  public void testDeadline_isCancelledWhenEveryoneGuessed() throws Exception {
+    HighLowCardGame game = new HighLowCardGame(new InfiniteShuffledDeck(Card.getAllValidCards()));
+    HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8);
+    ServerMetrics metrics = new ServerMetrics();
+    RoundDeadline deadline =
+        new RoundDeadline(game, game::expireRound, timer, Runnable::run, metrics, state -> {});
+    deadline.setTimeout(1, TimeUnit.SECONDS);
+    game.addListener(deadline);
+    Player alice = new TestPlayer("alice");
+    game.addPlayer(alice);
+    game.start();
+
+    game.guess(alice, HighLowCardGame.Guess.LOW);
+
+    assertThat(game.getState().getRound()).isEqualTo(2);
+    assertThat(metrics.getRoundDurations().getCount()).isEqualTo(1);
+    assertThat(timer.getPendingCount()).isEqualTo(1);
+    assertThat(metrics.getExpiredRounds()).isEqualTo(0);
+    timer.close();
+  }
+
+  private static final class TestPlayer implements Player {
+    private final String name;
+
+    TestPlayer(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public void updateState(GameState state) {}
+
+    @Override
+    public void updateNewPlayer(String playerName, GameState state) {}
+
+    @Override
+    public void updateRemovedPlayer(String playerName, GameState state) {}
+  }
+}
@@ -0,0 +1,229 @@
+package highlowcardgame.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import highlowcardgame.communication.ChannelFrames;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// bytes and server CPU per round, full states vs. round frames; run with `gradle benchmark`
+@Tag("benchmark")
+public class RoundFramesBenchmark {
+
+  private static final int WARMUP_ROUNDS = 1;
+  private static final int ROUNDS = 3;
+  private static final int CHANNELS_PER_CONNECTION = 1_000;
+
+  /**
+   * Plays rounds on a real server whose players are the channels of a few multiplexed connections,
+   * so every round goes through the guesses, the broadcast of the room and the writes of every
+   * frame to a socket. Bytes are counted as the clients receive them, CPU over the threads of the
+   * server. With full states every player gets the state of every player, on each guess and at the
+   * end of the round, so the full states of 10,000 players take minutes per round.
+   */
+  @Test
+  public void bytesAndCpuPerRound() throws Exception {
+    PrintStream stdout = System.out;
+    // the server logs every guess
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    try {
+      for (int players : new int[] {10, 1_000, 10_000}) {
+        long[] full = measure(players, false);
+        long[] round = measure(players, true);
+        stdout.printf(
+            "%,6d players: full %,15d bytes %,9d us, round frames %,11d bytes %,7d us per round%n",
+            players, full[0], full[1] / 1_000, round[0], round[1] / 1_000);
+      }
+    } finally {
+      System.setOut(stdout);
+    }
+  }
+
+  /** Returns the bytes received and the CPU nanoseconds of the server, per round. */
+  private static long[] measure(int players, boolean roundFrames) throws Exception {
+    try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+      Server server = new Server();
+      // no heartbeats between the rounds
+      server.setIdleTimeout(0, TimeUnit.SECONDS);
+      startInBackground(server, socket);
+      try (Table table = new Table(socket.getLocalPort(), players, roundFrames)) {
+        table.join();
+        long bytes = 0;
+        long cpu = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+          long startBytes = table.received.sum();
+          long startCpu = serverCpuNanos(table.readers);
+          table.playRound();
+          if (round >= WARMUP_ROUNDS) {
+            bytes += table.received.sum() - startBytes;
+            cpu += serverCpuNanos(table.readers) - startCpu;
+          }
+        }
+        return new long[] {bytes / ROUNDS, cpu / ROUNDS};
+      }
+    }
+  }
+
+  /** Returns the CPU time of all threads but the benchmark's own. */
+  private static long serverCpuNanos(Set<Long> clientThreads) {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    long total = 0;
+    for (long id : threads.getAllThreadIds()) {
+      if (id == Thread.currentThread().getId() || clientThreads.contains(id)) {
+        continue;
+      }
+      // -1 for a thread that ended meanwhile
+      total += Math.max(0, threads.getThreadCpuTime(id));
+    }
+    return total;
+  }
+
+  /** The players of one table, as the channels of a few connections; player i is channel i + 1. */
+  private static final class Table implements Closeable {
+    final LongAdder received = new LongAdder();
+    final Set<Long> readers = new HashSet<>();
+    private final List<Socket> connections = new ArrayList<>();
+    private final List<Writer> writers = new ArrayList<>();
+    private final AtomicIntegerArray seenRounds;
+    private final int players;
+    private final boolean roundFrames;
+    private int round = 0;
+
+    Table(int port, int players, boolean roundFrames) throws IOException {
+      this.players = players;
+      this.roundFrames = roundFrames;
+      seenRounds = new AtomicIntegerArray(players);
+      for (int first = 0; first < players; first += CHANNELS_PER_CONNECTION) {
+        Socket connection = new Socket(InetAddress.getLoopbackAddress(), port);
+        connections.add(connection);
+        writers.add(new OutputStreamWriter(connection.getOutputStream(), UTF_8));
+        Thread reader = new Thread(() -> read(connection), "table-reader-" + first);
+        reader.setDaemon(true);
+        readers.add(reader.getId());
+        reader.start();
+      }
+    }
+
+    void join() throws IOException, InterruptedException {
+      sendToAll(
+          player -> {
+            JSONObject join =
+                new JSONObject()
+                    .put("messageType", "JoinGameRequest")
+                    .put("playerName", "p" + player);
+            return roundFrames ? join.put("roundFrames", true).toString() : join.toString();
+          });
+      awaitRound(1);
+      round = 1;
+      for (int player = 0; player < players; player++) {
+        round = Math.max(round, seenRounds.get(player));
+      }
+    }
+
+    /** Lets every player guess and waits until every player has seen the next round. */
+    void playRound() throws IOException, InterruptedException {
+      sendToAll(
+          player ->
+              "{\"messageType\":\"GuessRequest\",\"guess\":\"HIGH\",\"playerName\":\"p"
+                  + player
+                  + "\"}");
+      awaitRound(++round);
+    }
+
+    /** Writes a frame for every player, all frames of a connection at once. */
+    private void sendToAll(IntFunction<String> frameOfPlayer) throws IOException {
+      for (int c = 0; c < writers.size(); c++) {
+        Writer out = writers.get(c);
+        int first = c * CHANNELS_PER_CONNECTION;
+        int end = Math.min(players, first + CHANNELS_PER_CONNECTION);
+        for (int player = first; player < end; player++) {
+          out.write(ChannelFrames.encode(player + 1, frameOfPlayer.apply(player)));
+          out.write(System.lineSeparator());
+        }
+        out.flush();
+      }
+    }
+
+    private void awaitRound(int expected) throws InterruptedException {
+      for (int player = 0; player < players; player++) {
+        while (seenRounds.get(player) < expected) {
+          // sleeps, so the benchmark does not take a core from the server
+          Thread.sleep(1);
+        }
+      }
+    }
+
+    private void read(Socket connection) {
+      try (BufferedReader in =
+          new BufferedReader(new InputStreamReader(connection.getInputStream(), UTF_8))) {
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+          // the frames are ASCII, and end with a line separator
+          received.add(line.length() + 1);
+          if (!ChannelFrames.isChannelFrame(line)) {
+            continue;
+          }
+          String payload = ChannelFrames.payloadOf(line);
+          int player = ChannelFrames.channelOf(line) - 1;
+          int seen = payload == null ? 0 : roundOf(payload, "p" + player);
+          if (seen > 0) {
+            seenRounds.accumulateAndGet(player, seen, Math::max);
+          }
+        }
+      } catch (IOException e) {
+        // closed after the measurement
+      }
+    }
+
+    /** Returns the round of a round frame or of the player's own full state, otherwise 0. */
+    private static int roundOf(String payload, String ownName) {
+      boolean own =
+          payload.contains("RoundNotification")
+              || (payload.contains("GameStateNotification")
+                  && payload.contains(JSONObject.quote(ownName)));
+      return own ? new JSONObject(payload).getInt("numRounds") : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+      for (Socket connection : connections) {
+        connection.close();
+      }
+    }
+  }
+
+  private static void startInBackground(Server server, ServerSocket socket) {
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                server.start(socket);
+              } catch (IOException e) {
+                // closed after the measurement
+              }
+            });
+    thread.setDaemon(true);
+    thread.start();
+  }
+}
@@ -0,0 +1,163 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(5)
+public class RoundResolverTest {
+
+  @Test
+  public void testSubmit_resolvesWaitingRoundsAsOneBatch() throws Exception {
+    List<String> events = new CopyOnWriteArrayList<>();
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch published = new CountDownLatch(3);
+    try (RoundResolver resolver = new RoundResolver(1, seq -> events.add("await " + seq))) {
+      resolver.submit(
+          0,
+          new TestRound("first", 0, events, published) {
+            @Override
+            public long resolve() {
+              blocked.countDown();
+              awaitQuietly(release);
+              return super.resolve();
+            }
+          });
+      blocked.await();
+      resolver.submit(1, new TestRound("second", 7, events, published));
+      resolver.submit(2, new TestRound("over", -1, events, published));
+      resolver.submit(3, new TestRound("third", 9, events, published));
+      assertThat(resolver.getPending()).isEqualTo(3);
+      release.countDown();
+      published.await();
+
+      assertThat(events)
+          .containsExactly(
+              "resolve first",
+              "publish first",
+              "resolve second",
+              "resolve over",
+              "resolve third",
+              "await 9",
+              "publish second",
+              "publish third")
+          .inOrder();
+      while (resolver.getBatches() < 2) {
+        Thread.sleep(1);
+      }
+      assertThat(resolver.getResolvedRounds()).isEqualTo(3);
+      assertThat(resolver.getResolutionDelays().getCount()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  public void testClose_resolvesWaitingRoundsAndHandsOverLaterOnes() throws Exception {
+    List<String> events = new CopyOnWriteArrayList<>();
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch published = new CountDownLatch(3);
+    RoundResolver previous = new RoundResolver(1, seq -> {});
+    previous.submit(
+        0,
+        new TestRound("first", 0, events, published) {
+          @Override
+          public long resolve() {
+            blocked.countDown();
+            awaitQuietly(release);
+            return super.resolve();
+          }
+        });
+    blocked.await();
+    assertThat(previous.submit(1, new TestRound("waiting", 0, events, published))).isTrue();
+
+    try (RoundResolver next = new RoundResolver(1, seq -> {})) {
+      Thread closing = new Thread(() -> previous.close(next));
+      closing.start();
+      release.countDown();
+      closing.join();
+      assertThat(previous.submit(2, new TestRound("later", 0, events, published))).isTrue();
+      published.await();
+
+      assertThat(events).containsAtLeast("publish first", "publish waiting", "publish later");
+      assertThat(previous.getResolvedRounds()).isEqualTo(2);
+    }
+    RoundResolver closed = new RoundResolver(1, seq -> {});
+    closed.close();
+    assertThat(closed.submit(0, new TestRound("refused", 0, events, published))).isFalse();
+  }
+
+  @Test
+  public void testClose_whileSubmitting_everyRoundIsPublishedOnce() throws Exception {
+    int submitters = 4;
+    int rounds = 2_000;
+    List<String> events = new CopyOnWriteArrayList<>();
+    CountDownLatch published = new CountDownLatch(submitters * rounds);
+    RoundResolver previous = new RoundResolver(2, seq -> {});
+    try (RoundResolver next = new RoundResolver(2, seq -> {})) {
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < submitters; t++) {
+        int submitter = t;
+        Thread thread =
+            new Thread(
+                () -> {
+                  for (int i = 0; i < rounds; i++) {
+                    TestRound round = new TestRound(submitter + "-" + i, 0, events, published);
+                    assertThat(previous.submit(i, round)).isTrue();
+                  }
+                });
+        threads.add(thread);
+        thread.start();
+      }
+      previous.close(next);
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      published.await();
+
+      assertThat(events.stream().filter(e -> e.startsWith("publish")).distinct().count())
+          .isEqualTo(submitters * rounds);
+      assertThat(previous.getResolvedRounds() + next.getResolvedRounds())
+          .isEqualTo(submitters * rounds);
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class TestRound implements RoundResolver.Round {
+    private final String name;
+    private final long seq;
+    private final List<String> events;
+    private final CountDownLatch published;
+
+    TestRound(String name, long seq, List<String> events, CountDownLatch published) {
+      this.name = name;
+      this.seq = seq;
+      this.events = events;
+      this.published = published;
+    }
+
+    @Override
+    public long resolve() {
+      events.add("resolve " + name);
+      return seq;
+    }
+
+    @Override
+    public void publish() {
+      events.add("publish " + name);
+      published.countDown();
+    }
+  }
+}
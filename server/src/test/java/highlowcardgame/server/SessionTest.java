@@ -0,0 +1,131 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(10)
+public class SessionTest {
+
+  @Test
+  public void testResume_afterConnectionFailure_keepsScoreAndSeat() throws Exception {
+    try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+      Server server = new Server();
+      startInBackground(server, socket);
+
+      String token;
+      int score;
+      try (Socket client = new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort())) {
+        BufferedReader in = reader(client);
+        Writer out = writer(client);
+        send(out, "{\"messageType\":\"JoinGameRequest\",\"playerName\":\"alice\"}");
+        JSONObject session = new JSONObject(in.readLine());
+        assertThat(session.getString("messageType")).isEqualTo("SessionNotification");
+        token = session.getString("resumeToken");
+        readGameState(in);
+        send(out, "{\"messageType\":\"GuessRequest\",\"guess\":\"HIGH\",\"playerName\":\"alice\"}");
+        score = readGameState(in).getInt("score");
+        // a reset instead of a close, as if the network had failed
+        client.setSoLinger(true, 0);
+      }
+
+      try (Socket client = new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort())) {
+        BufferedReader in = reader(client);
+        send(
+            writer(client),
+            "{\"messageType\":\"JoinGameRequest\",\"playerName\":\"alice\",\"resumeToken\":\""
+                + token
+                + "\"}");
+        // the resynced state is the first and only frame after resuming
+        JSONObject state = new JSONObject(in.readLine());
+        assertThat(state.getString("messageType")).isEqualTo("GameStateNotification");
+        assertThat(state.getInt("numRounds")).isEqualTo(2);
+        assertThat(state.getInt("score")).isEqualTo(score);
+        assertThat(server.getMetrics().getResumedSessions()).isEqualTo(1);
+      }
+    }
+  }
+
+  @Test
+  public void testResume_afterGracePeriod_joinsAsNewPlayer() throws Exception {
+    try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+      Server server = new Server();
+      server.setSessionGrace(200, TimeUnit.MILLISECONDS);
+      startInBackground(server, socket);
+
+      String token;
+      try (Socket client = new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort())) {
+        BufferedReader in = reader(client);
+        send(writer(client), "{\"messageType\":\"JoinGameRequest\",\"playerName\":\"bob\"}");
+        token = new JSONObject(in.readLine()).getString("resumeToken");
+        readGameState(in);
+        client.setSoLinger(true, 0);
+      }
+      while (server.getMetrics().getExpiredSessions() == 0) {
+        Thread.sleep(50);
+      }
+
+      try (Socket client = new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort())) {
+        BufferedReader in = reader(client);
+        send(
+            writer(client),
+            "{\"messageType\":\"JoinGameRequest\",\"playerName\":\"bob\",\"resumeToken\":\""
+                + token
+                + "\"}");
+        JSONObject session = new JSONObject(in.readLine());
+        assertThat(session.getString("messageType")).isEqualTo("SessionNotification");
+        assertThat(session.getString("resumeToken")).isNotEqualTo(token);
+        assertThat(server.getMetrics().getResumedSessions()).isEqualTo(0);
+      }
+    }
+  }
+
+  private static JSONObject readGameState(BufferedReader in) throws IOException {
+    for (String line = in.readLine(); line != null; line = in.readLine()) {
+      JSONObject message = new JSONObject(line);
+      if ("GameStateNotification".equals(message.getString("messageType"))) {
+        return message;
+      }
+    }
+    throw new IOException("The server closed the connection");
+  }
+
+  private static BufferedReader reader(Socket socket) throws IOException {
+    return new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+  }
+
+  private static Writer writer(Socket socket) throws IOException {
+    return new OutputStreamWriter(socket.getOutputStream(), UTF_8);
+  }
+
+  private static void send(Writer out, String message) throws IOException {
+    out.write(message + "\n");
+    out.flush();
+  }
+
+  private static void startInBackground(Server server, ServerSocket socket) {
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                server.start(socket);
+              } catch (IOException e) {
+                // closed at the end of the test
+              }
+            });
+    thread.setDaemon(true);
+    thread.start();
+  }
+}
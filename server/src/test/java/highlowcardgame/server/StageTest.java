@@ -0,0 +1,135 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(5)
+public class StageTest {
+
+  @Test
+  public void testExecute_keepsTheOrderOfAKey() throws Exception {
+    List<Integer> even = new CopyOnWriteArrayList<>();
+    List<Integer> odd = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(2000);
+    try (Stage stage = new Stage("test", 4, 16)) {
+      for (int i = 0; i < 2000; i++) {
+        int task = i;
+        stage.execute(
+            i % 2,
+            () -> {
+              (task % 2 == 0 ? even : odd).add(task);
+              done.countDown();
+            });
+      }
+      done.await();
+      assertThat(even).isInOrder();
+      assertThat(odd).isInOrder();
+      assertThat(even).hasSize(1000);
+      // counted after the task returned
+      while (stage.getCompletedTasks() < 2000) {
+        Thread.sleep(1);
+      }
+      assertThat(stage.getServiceTimes().getCount()).isEqualTo(2000);
+    }
+  }
+
+  @Test
+  public void testExecute_blocksWhileTheQueueIsFull() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    try (Stage stage = new Stage("test", 1, 1)) {
+      CountDownLatch running = new CountDownLatch(1);
+      stage.execute(
+          0,
+          () -> {
+            running.countDown();
+            awaitQuietly(release);
+          });
+      running.await();
+      // fills the queue
+      stage.execute(0, () -> {});
+      assertThat(stage.getQueueDepth()).isEqualTo(1);
+
+      Thread producer = new Thread(() -> stage.execute(0, () -> {}));
+      producer.start();
+      producer.join(200);
+      assertThat(producer.isAlive()).isTrue();
+      release.countDown();
+      producer.join(TimeUnit.SECONDS.toMillis(2));
+      assertThat(producer.isAlive()).isFalse();
+    }
+  }
+
+  @Test
+  public void testShutdown_runsQueuedTasksThenStops() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> ran = new CopyOnWriteArrayList<>();
+    Stage stage = new Stage("test", 2, 16);
+    stage.execute(0, () -> awaitQuietly(release));
+    for (int i = 0; i < 10; i++) {
+      int task = i;
+      stage.execute(i, () -> ran.add(task));
+    }
+
+    Thread shutdown = new Thread(stage::shutdown);
+    shutdown.start();
+    release.countDown();
+    shutdown.join(TimeUnit.SECONDS.toMillis(2));
+
+    assertThat(shutdown.isAlive()).isFalse();
+    assertThat(ran).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    assertThat(stage.getQueueDepth()).isEqualTo(0);
+    Assertions.assertThrows(RejectedExecutionException.class, () -> stage.execute(0, () -> {}));
+  }
+
+  @Test
+  public void testShutdown_whileSubmitting_runsEveryAcceptedTask() throws Exception {
+    Stage stage = new Stage("test", 2, 4);
+    AtomicInteger accepted = new AtomicInteger();
+    AtomicInteger ran = new AtomicInteger();
+    List<Thread> submitters = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      Thread submitter =
+          new Thread(
+              () -> {
+                for (int i = 0; ; i++) {
+                  try {
+                    stage.execute(i, ran::incrementAndGet);
+                  } catch (RejectedExecutionException e) {
+                    return;
+                  }
+                  accepted.incrementAndGet();
+                }
+              });
+      submitters.add(submitter);
+      submitter.start();
+    }
+    while (accepted.get() < 1000) {
+      Thread.sleep(1);
+    }
+
+    stage.shutdown();
+    for (Thread submitter : submitters) {
+      submitter.join();
+    }
+
+    assertThat(ran.get()).isEqualTo(accepted.get());
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(5)
+public class TokenBucketTest {
+
+  @Test
+  public void testBucket_allowsBurstThenRefills() throws InterruptedException {
+    TokenBucket bucket = new TokenBucket(20, 5);
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(bucket.tryAcquire()).isTrue();
+    }
+    assertThat(bucket.tryAcquire()).isFalse();
+
+    Thread.sleep(120);
+    assertThat(bucket.tryAcquire()).isTrue();
+  }
+
+  @Test
+  public void testBucket_neverHandsOutMoreThanItsBurstConcurrently() throws InterruptedException {
+    // one token per hour, so no token is added while the threads run
+    TokenBucket bucket = new TokenBucket(1.0 / 3600, 100);
+    AtomicInteger acquired = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                for (int i = 0; i < 1000; i++) {
+                  if (bucket.tryAcquire()) {
+                    acquired.incrementAndGet();
+                  }
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(acquired.get()).isEqualTo(100);
+  }
+}
@@ -0,0 +1,101 @@
+package highlowcardgame.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import highlowcardgame.server.TrafficRecorder.Direction;
+import highlowcardgame.server.TrafficRecorder.Frame;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(7)
+public class TrafficRecorderTest {
+
+  private static final String JOIN =
+      "{\"messageType\":\"JoinGameRequest\",\"playerName\":\"User_1\"}";
+  private static final String GUESS =
+      "{\"messageType\":\"GuessRequest\",\"guess\":\"HIGH\",\"playerName\":\"User_1\"}";
+
+  private static byte[] record(String... inbound) throws IOException {
+    ByteArrayOutputStream capture = new ByteArrayOutputStream();
+    try (TrafficRecorder recorder = new TrafficRecorder(capture)) {
+      for (String frame : inbound) {
+        recorder.record(1, Direction.INBOUND, frame);
+        recorder.record(1, Direction.OUTBOUND, "ack " + frame.length());
+      }
+    }
+    return capture.toByteArray();
+  }
+
+  @Test
+  public void testRecordedFrames_areReadBackInOrder() throws IOException {
+    byte[] capture = record(JOIN, GUESS);
+
+    List<Frame> frames = new ArrayList<>();
+    try (TrafficCaptureReader reader =
+        new TrafficCaptureReader(new ByteArrayInputStream(capture))) {
+      for (Frame frame = reader.next(); frame != null; frame = reader.next()) {
+        frames.add(frame);
+      }
+    }
+
+    assertThat(frames).hasSize(4);
+    assertThat(frames.get(0).getPayload()).isEqualTo(JOIN);
+    assertThat(frames.get(0).getDirection()).isEqualTo(Direction.INBOUND);
+    assertThat(frames.get(1).getDirection()).isEqualTo(Direction.OUTBOUND);
+    assertThat(frames.get(2).getPayload()).isEqualTo(GUESS);
+    assertThat(frames.get(3).getConnectionId()).isEqualTo(1);
+    assertThat(frames.get(3).getTimestampNanos()).isAtLeast(frames.get(0).getTimestampNanos());
+  }
+
+  @Test
+  public void testReplay_sendsInboundFramesOverLoopback()
+      throws IOException, InterruptedException {
+    byte[] capture = record(JOIN, GUESS);
+    List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+    try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+      Thread acceptor =
+          new Thread(
+              () -> {
+                try (Socket socket = serverSocket.accept();
+                    BufferedReader in =
+                        new BufferedReader(
+                            new InputStreamReader(
+                                socket.getInputStream(), StandardCharsets.UTF_8))) {
+                  for (String line = in.readLine(); line != null; line = in.readLine()) {
+                    received.add(line);
+                  }
+                } catch (IOException e) {
+                  e.printStackTrace();
+                }
+              });
+      acceptor.start();
+
+      TrafficReplayer replayer =
+          new TrafficReplayer(
+              new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()),
+              10,
+              100);
+      try (TrafficCaptureReader reader =
+          new TrafficCaptureReader(new ByteArrayInputStream(capture))) {
+        assertThat(replayer.replay(reader)).isEqualTo(2);
+      }
+      acceptor.join();
+    }
+
+    assertThat(received).containsExactly(JOIN, GUESS).inOrder();
+  }
+}
@@ -0,0 +1,78 @@
+package highlowcardgame.simulation;
+
+import highlowcardgame.game.Card;
+import highlowcardgame.game.Deck;
+import java.util.Collection;
+import java.util.SplittableRandom;
+
+/** Creates the decks the {@link Simulator} plays with, one per task. */
+@FunctionalInterface
+public interface DeckFactory {
+
+  /**
+   * Creates a deck.
+   *
+   * @param random the random numbers of the simulating task, not shared with other threads; a deck
+   *     should draw from them only, so that a simulation is reproducible from its seed
+   * @return the deck
+   */
+  Deck create(SplittableRandom random);
+
+  /** Returns decks that draw every card uniformly from the given cards, without end. */
+  static DeckFactory infinite(Collection<Card> possibleCards) {
+    Card[] cards = possibleCards.toArray(new Card[0]);
+    return random ->
+        new Deck() {
+          @Override
+          public Card getNextCard() {
+            return cards[random.nextInt(cards.length)];
+          }
+
+          @Override
+          public boolean hasNextCard() {
+            return true;
+          }
+        };
+  }
+
+  /**
+   * Returns decks that deal a shuffled shoe of standard decks and reshuffle it when it is empty.
+   *
+   * @param decks the number of standard decks in the shoe
+   */
+  static DeckFactory shoe(int decks) {
+    if (decks < 1) {
+      throw new IllegalArgumentException("A shoe needs at least one deck, not " + decks);
+    }
+    Card[] deck = Card.getAllValidCards().toArray(new Card[0]);
+    Card[] shoe = new Card[deck.length * decks];
+    for (int i = 0; i < decks; i++) {
+      System.arraycopy(deck, 0, shoe, i * deck.length, deck.length);
+    }
+    return random ->
+        new Deck() {
+          private final Card[] cards = shoe.clone();
+          private int dealt = cards.length;
+
+          @Override
+          public Card getNextCard() {
+            if (dealt == cards.length) {
+              // Fisher-Yates
+              for (int i = cards.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Card card = cards[i];
+                cards[i] = cards[j];
+                cards[j] = card;
+              }
+              dealt = 0;
+            }
+            return cards[dealt++];
+          }
+
+          @Override
+          public boolean hasNextCard() {
+            return true;
+          }
+        };
+  }
+}
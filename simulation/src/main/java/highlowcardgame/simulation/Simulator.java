@@ -0,0 +1,252 @@
+package highlowcardgame.simulation;
+
+import highlowcardgame.game.Card;
+import highlowcardgame.game.Deck;
+import highlowcardgame.game.Deck.NoNextCardException;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.game.HighLowCardGame.Guess;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo simulation of the expected score of a guessing strategy.
+ *
+ * <p>A single player plays rounds by the rules and scores of {@link HighLowCardGame}; other players
+ * do not change the cards or the score of a guess, so one is enough. The rounds are split into
+ * fork/join tasks, each with its own deck and a {@link SplittableRandom} split off its parent's, so
+ * the tasks share nothing but their results and a simulation gives the same result for the same
+ * seed on any number of threads. Rounds are played on cards and guesses only, without the game
+ * states of the server, so the simulation does not allocate per round.
+ */
+public final class Simulator {
+
+  // large enough to amortize forking, small enough to balance many cores
+  private static final long ROUNDS_PER_TASK = 1 << 20;
+
+  private final DeckFactory decks;
+  private final Strategy strategy;
+
+  /**
+   * Creates a simulator.
+   *
+   * @param decks creates the deck of every task
+   * @param strategy the strategy to evaluate
+   */
+  public Simulator(DeckFactory decks, Strategy strategy) {
+    this.decks = decks;
+    this.strategy = strategy;
+  }
+
+  /**
+   * Main method for the simulator.
+   *
+   * @param args Commandline arguments
+   */
+  public static void main(final String[] args) {
+    long rounds = 100_000_000L;
+    long seed = System.nanoTime();
+    int threads = Runtime.getRuntime().availableProcessors();
+    String strategyName = "expected";
+    int shoeDecks = 0;
+    for (int i = 0; i < args.length; ++i) {
+      switch (args[i]) {
+        case "--rounds":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the number of rounds.");
+              return;
+            }
+            try {
+              i++;
+              rounds = Long.parseLong(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid number of rounds: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--strategy":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the strategy.");
+              return;
+            }
+            i++;
+            strategyName = args[i];
+            break;
+          }
+        case "--shoe":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the number of decks in the shoe.");
+              return;
+            }
+            try {
+              i++;
+              shoeDecks = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid number of decks: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--threads":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the number of threads.");
+              return;
+            }
+            try {
+              i++;
+              threads = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid number of threads: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--seed":
+          {
+            if (isLastArgument(i, args)) {
+              printErrorMessage("Please specify the seed.");
+              return;
+            }
+            try {
+              i++;
+              seed = Long.parseLong(args[i]);
+            } catch (NumberFormatException e) {
+              printErrorMessage("Invalid seed: " + args[i]);
+              return;
+            }
+            break;
+          }
+        case "--help":
+        default:
+          {
+            printHelpMessage();
+            return;
+          }
+      }
+    }
+    if (rounds < 1 || threads < 1) {
+      printErrorMessage("The number of rounds and threads must be positive.");
+      return;
+    }
+    Strategy strategy = parseStrategy(strategyName);
+    if (strategy == null) {
+      printErrorMessage("Unknown strategy: " + strategyName);
+      return;
+    }
+    DeckFactory decks;
+    try {
+      decks =
+          shoeDecks == 0
+              ? DeckFactory.infinite(Card.getAllValidCards())
+              : DeckFactory.shoe(shoeDecks);
+    } catch (IllegalArgumentException e) {
+      printErrorMessage(e.getMessage());
+      return;
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    long start = System.nanoTime();
+    Tally tally = new Simulator(decks, strategy).run(rounds, seed, pool);
+    double seconds = (System.nanoTime() - start) / 1e9;
+    pool.shutdown();
+    System.out.println("Strategy " + strategyName + ", seed " + seed);
+    System.out.println("Score per round: " + tally);
+    System.out.printf(
+        "Throughput: %,.0f rounds/s, %,.0f rounds/s per core on %d threads%n",
+        tally.getRounds() / seconds, tally.getRounds() / seconds / threads, threads);
+  }
+
+  private static Strategy parseStrategy(String name) {
+    switch (name) {
+      case "high":
+        return Strategy.always(Guess.HIGH);
+      case "low":
+        return Strategy.always(Guess.LOW);
+      case "equal":
+        return Strategy.always(Guess.EQUAL);
+      case "random":
+        return Strategy.random();
+      case "expected":
+        return Strategy.expected(Card.getAllValidCards());
+      default:
+        return null;
+    }
+  }
+
+  private static boolean isLastArgument(int i, final String[] args) {
+    return i == args.length - 1;
+  }
+
+  private static void printHelpMessage() {
+    System.out.println(
+        "java Simulator [--rounds <long>] [--strategy high|low|equal|random|expected]"
+            + " [--shoe <decks>] [--threads <int>] [--seed <long>] [--help]");
+  }
+
+  private static void printErrorMessage(String str) {
+    System.out.println("Error! " + str);
+  }
+
+  /**
+   * Simulates rounds on a pool.
+   *
+   * @param rounds the number of rounds to play
+   * @param seed the seed of the random numbers
+   * @param pool the pool to run on
+   * @return the scores of the rounds; fewer rounds if a deck ran out of cards
+   */
+  public Tally run(long rounds, long seed, ForkJoinPool pool) {
+    return pool.invoke(new SimulationTask(rounds, new SplittableRandom(seed)));
+  }
+
+  private final class SimulationTask extends RecursiveTask<Tally> {
+    private static final long serialVersionUID = 1L;
+
+    private final long rounds;
+    private final SplittableRandom random;
+
+    SimulationTask(long rounds, SplittableRandom random) {
+      this.rounds = rounds;
+      this.random = random;
+    }
+
+    @Override
+    protected Tally compute() {
+      if (rounds <= ROUNDS_PER_TASK) {
+        return play();
+      }
+      // split before forking, so the random numbers do not depend on the scheduling
+      SimulationTask first = new SimulationTask(rounds / 2, random.split());
+      SimulationTask second = new SimulationTask(rounds - rounds / 2, random);
+      first.fork();
+      Tally tally = second.compute();
+      return first.join().merge(tally);
+    }
+
+    private Tally play() {
+      Deck deck = decks.create(random);
+      long played = 0;
+      long sum = 0;
+      long sumOfSquares = 0;
+      try {
+        Card current = deck.getNextCard();
+        for (; played < rounds; played++) {
+          Guess guess = strategy.guess(current, random);
+          Card next = deck.getNextCard();
+          long points = HighLowCardGame.getScore(guess, current, next);
+          sum += points;
+          sumOfSquares += points * points;
+          current = next;
+        }
+      } catch (NoNextCardException e) {
+        // a finite deck ends the task early
+      }
+      return new Tally(played, sum, sumOfSquares);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package highlowcardgame.simulation;
+
+import highlowcardgame.game.Card;
+import highlowcardgame.game.HighLowCardGame;
+import highlowcardgame.game.HighLowCardGame.Guess;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/** A way of guessing the next card, played by the {@link Simulator}. */
+@FunctionalInterface
+public interface Strategy {
+
+  /**
+   * Returns the guess for the card drawn after the given one. Called once per simulated round, so
+   * implementations should not allocate.
+   *
+   * @param currentCard the current card
+   * @param random the random numbers of the simulating task, not shared with other threads
+   * @return the guess
+   */
+  Guess guess(Card currentCard, SplittableRandom random);
+
+  /** Returns a strategy that always makes the same guess. */
+  static Strategy always(Guess guess) {
+    return (currentCard, random) -> guess;
+  }
+
+  /** Returns a strategy that picks one of the guesses uniformly at random. */
+  static Strategy random() {
+    Guess[] guesses = Guess.values();
+    return (currentCard, random) -> guesses[random.nextInt(guesses.length)];
+  }
+
+  /**
+   * Returns the strategy with the highest expected score if the next card is drawn uniformly from
+   * the given cards, as by an infinite shuffled deck.
+   *
+   * @param possibleCards the cards the next card is drawn from
+   */
+  static Strategy expected(Collection<Card> possibleCards) {
+    List<Card> cards = new ArrayList<>(possibleCards);
+    // looked up by index, as hashing a card allocates
+    Guess[] best = new Guess[Card.NUMBER_OF_CARDS];
+    Arrays.fill(best, Guess.HIGH);
+    for (Card current : cards) {
+      int bestPoints = -1;
+      for (Guess guess : Guess.values()) {
+        int points = 0;
+        for (Card next : cards) {
+          points += HighLowCardGame.getScore(guess, current, next);
+        }
+        if (points > bestPoints) {
+          bestPoints = points;
+          best[current.getIndex()] = guess;
+        }
+      }
+    }
+    return (currentCard, random) -> best[currentCard.getIndex()];
+  }
+}
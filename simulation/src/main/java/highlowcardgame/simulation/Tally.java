@@ -0,0 +1,54 @@
+package highlowcardgame.simulation;
+
+/** The scores of simulated rounds, summarized by their moments. */
+public final class Tally {
+
+  // two-sided 95% quantile of the standard normal distribution
+  private static final double Z_95 = 1.959964;
+
+  private final long rounds;
+  private final long sum;
+  private final long sumOfSquares;
+
+  Tally(long rounds, long sum, long sumOfSquares) {
+    this.rounds = rounds;
+    this.sum = sum;
+    this.sumOfSquares = sumOfSquares;
+  }
+
+  Tally merge(Tally other) {
+    return new Tally(rounds + other.rounds, sum + other.sum, sumOfSquares + other.sumOfSquares);
+  }
+
+  public long getRounds() {
+    return rounds;
+  }
+
+  /** Returns the mean score per round. */
+  public double getMean() {
+    return rounds == 0 ? 0 : (double) sum / rounds;
+  }
+
+  /** Returns the sample variance of the score per round. */
+  public double getVariance() {
+    if (rounds < 2) {
+      return 0;
+    }
+    double mean = getMean();
+    return (sumOfSquares - mean * sum) / (rounds - 1);
+  }
+
+  /**
+   * Returns the half-width of the 95% confidence interval of the mean, by the normal approximation,
+   * which holds well for the millions of rounds of a simulation.
+   */
+  public double getConfidence95() {
+    return rounds == 0 ? Double.POSITIVE_INFINITY : Z_95 * Math.sqrt(getVariance() / rounds);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%.6f +/- %.6f (95%%) over %,d rounds", getMean(), getConfidence95(), rounds);
+  }
+}
@@ -0,0 +1,35 @@
+package highlowcardgame.simulation;
+
+import highlowcardgame.game.Card;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// simulated rounds per second and core by number of threads; run with `gradle benchmark`
+@Tag("benchmark")
+public class SimulatorBenchmark {
+
+  private static final long ROUNDS_PER_THREAD = 200_000_000L;
+
+  /** Per-core throughput should stay flat as threads are added, up to the number of cores. */
+  @Test
+  public void throughputByThreads() {
+    Simulator simulator =
+        new Simulator(
+            DeckFactory.infinite(Card.getAllValidCards()),
+            Strategy.expected(Card.getAllValidCards()));
+    // warm up
+    simulator.run(ROUNDS_PER_THREAD / 4, 1, ForkJoinPool.commonPool());
+    int cores = Runtime.getRuntime().availableProcessors();
+    for (int threads = 1; threads <= cores; threads *= 2) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      long start = System.nanoTime();
+      Tally tally = simulator.run(ROUNDS_PER_THREAD * threads, threads, pool);
+      double seconds = (System.nanoTime() - start) / 1e9;
+      pool.shutdown();
+      System.out.printf(
+          "%3d threads: %,13.0f rounds/s, %,12.0f rounds/s per core, score %s%n",
+          threads, tally.getRounds() / seconds, tally.getRounds() / seconds / threads, tally);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package highlowcardgame.simulation;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import highlowcardgame.game.Card;
+import highlowcardgame.game.Deck;
+import highlowcardgame.game.HighLowCardGame.Guess;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+public class SimulatorTest {
+
+  private static final long ROUNDS = 4_000_000;
+
+  @Test
+  public void testRun_givesTheSameResultOnAnyNumberOfThreads() {
+    Simulator simulator =
+        new Simulator(DeckFactory.infinite(Card.getAllValidCards()), Strategy.random());
+    ForkJoinPool single = new ForkJoinPool(1);
+    ForkJoinPool many = new ForkJoinPool(4);
+    try {
+      Tally first = simulator.run(ROUNDS, 42, single);
+      Tally second = simulator.run(ROUNDS, 42, many);
+      assertThat(second.getRounds()).isEqualTo(ROUNDS);
+      assertThat(second.getMean()).isEqualTo(first.getMean());
+      assertThat(second.getVariance()).isEqualTo(first.getVariance());
+    } finally {
+      single.shutdown();
+      many.shutdown();
+    }
+  }
+
+  @Test
+  public void testRun_alwaysHigh_estimatesTheExpectedScore() {
+    Tally tally =
+        new Simulator(DeckFactory.infinite(Card.getAllValidCards()), Strategy.always(Guess.HIGH))
+            .run(ROUNDS, 7, ForkJoinPool.commonPool());
+    // the next card is higher than the current one in 51 of 104 cases
+    assertThat(tally.getMean()).isWithin(tally.getConfidence95() * 2).of(51.0 / 104);
+    assertThat(tally.getConfidence95()).isLessThan(0.001);
+  }
+
+  @Test
+  public void testExpected_guessesTheLargerShareOfTheDeck() {
+    Strategy strategy = Strategy.expected(Card.getAllValidCards());
+    assertThat(strategy.guess(new Card(Card.Suit.CLUBS, 2), null)).isEqualTo(Guess.HIGH);
+    // 27 higher cards beat the 25 points of the equal card
+    assertThat(strategy.guess(new Card(Card.Suit.CLUBS, 7), null)).isEqualTo(Guess.HIGH);
+    assertThat(strategy.guess(new Card(Card.Suit.HEARTS, 8), null)).isEqualTo(Guess.LOW);
+    assertThat(strategy.guess(new Card(Card.Suit.SPADES, 13), null)).isEqualTo(Guess.LOW);
+  }
+
+  @Test
+  public void testShoe_dealsEveryCardOncePerShoe() throws Exception {
+    Deck deck = DeckFactory.shoe(2).create(new SplittableRandom(1));
+    int[] dealt = new int[Card.NUMBER_OF_CARDS];
+    for (int i = 0; i < 2 * Card.NUMBER_OF_CARDS; i++) {
+      dealt[deck.getNextCard().getIndex()]++;
+    }
+    for (int count : dealt) {
+      assertThat(count).isEqualTo(2);
+    }
+    assertThat(deck.hasNextCard()).isTrue();
+  }
+}